@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.xsd.regex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of string pattern validation on patterns from ietf-inet-types and ietf-yang-types. Each pattern is
+ * matched against a mix of valid and invalid values using java.util.regex, the Xerces backtracking matcher and
+ * {@link DeterministicMatcher}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class PatternMatchingBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    private static final String DECIMAL_OCTET = "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])";
+
+    @Param({ "ipv4-address", "ipv4-prefix", "ipv6-address", "domain-name", "mac-address" })
+    public String type;
+
+    private String[] inputs;
+    private Pattern pattern;
+    private RegularExpression xerces;
+    private DeterministicMatcher matcher;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + PatternMatchingBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final String regex;
+        switch (type) {
+            case "ipv4-address":
+                regex = "(" + DECIMAL_OCTET + "\\.){3}" + DECIMAL_OCTET + "(%[\\p{N}\\p{L}]+)?";
+                inputs = new String[] { "127.0.0.1", "192.168.100.254", "10.0.0.1%eth0", "256.1.1.1", "1.2.3" };
+                break;
+            case "ipv4-prefix":
+                regex = "(" + DECIMAL_OCTET + "\\.){3}" + DECIMAL_OCTET + "/(([0-9])|([1-2][0-9])|(3[0-2]))";
+                inputs = new String[] { "10.0.0.0/8", "192.168.1.0/24", "0.0.0.0/0", "10.0.0.0/33", "10.0.0.0" };
+                break;
+            case "ipv6-address":
+                regex = "((:|[0-9a-fA-F]{0,4}):)([0-9a-fA-F]{0,4}:){0,5}((([0-9a-fA-F]{0,4}:)?(:|[0-9a-fA-F]{0,4}))|"
+                    + "(((25[0-5]|2[0-4][0-9]|[01]?[0-9]?[0-9])\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9]?[0-9])))"
+                    + "(%[\\p{N}\\p{L}]+)?";
+                inputs = new String[] { "::1", "fe80::1%eth0", "2001:db8:85a3::8a2e:370:7334", "::ffff:192.0.2.128",
+                    "2001:db8::g" };
+                break;
+            case "domain-name":
+                regex = "((([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.)*"
+                    + "([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.?)|\\.";
+                inputs = new String[] { "example.com", "www.opendaylight.org.", "a-b_c.example.net", "bad..name",
+                    "-bad.example" };
+                break;
+            case "mac-address":
+                regex = "[0-9a-fA-F]{2}(:[0-9a-fA-F]{2}){5}";
+                inputs = new String[] { "00:11:22:33:44:55", "aa:BB:cc:DD:ee:FF", "00:11:22:33:44", "00-11-22-33-44-55",
+                    "00:11:22:33:44:5g" };
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+
+        xerces = new RegularExpression(regex, "X");
+        pattern = Pattern.compile(xerces.toPatternString());
+        matcher = DeterministicMatcher.compile(regex);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void javaPatternBenchmark(final Blackhole bh) {
+        for (String input : inputs) {
+            bh.consume(pattern.matcher(input).matches());
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void xercesBenchmark(final Blackhole bh) {
+        for (String input : inputs) {
+            bh.consume(xerces.matches(input));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void deterministicBenchmark(final Blackhole bh) {
+        for (String input : inputs) {
+            bh.consume(matcher.matches(input));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public DeterministicMatcher compileBenchmark() {
+        return DeterministicMatcher.compile(xerces.getPattern());
+    }
+}
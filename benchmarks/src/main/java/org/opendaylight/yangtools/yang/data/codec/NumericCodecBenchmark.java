@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.util.type.BaseTypes;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of numeric leaf codecs. The data consists of 1000 outer-list entries, each sharing the same 1000
+ * inner-list entries, for a total of 1M int32 leaves, which are serialized to JSON and XML. Parsing is measured
+ * by deserializing 1M strings through the int32 and decimal64 codecs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class NumericCodecBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int OUTER_LIST_ITEMS = 1000;
+    private static final int INNER_LIST_ITEMS = 1000;
+
+    private static final XMLOutputFactory XML_FACTORY = XMLOutputFactory.newFactory();
+
+    private SchemaContext schemaContext;
+    private ContainerNode data;
+    private String[] integers;
+    private String[] decimals;
+    private TypeDefinitionAwareCodec<Object, ?> int32Codec;
+    private TypeDefinitionAwareCodec<Object, ?> decimalCodec;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + NumericCodecBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws ReactorException {
+        schemaContext = BenchmarkModel.createTestContext();
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> innerList =
+                ImmutableNodes.mapNodeBuilder(BenchmarkModel.INNER_LIST_QNAME);
+        for (int i = 0; i < INNER_LIST_ITEMS; ++i) {
+            innerList.withChild(ImmutableNodes.mapEntry(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME,
+                i * 7919 - 3000000));
+        }
+        final MapNode inner = innerList.build();
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList =
+                ImmutableNodes.mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < OUTER_LIST_ITEMS; ++i) {
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i).withChild(inner).build());
+        }
+
+        data = ImmutableContainerNodeBuilder.create().withNodeIdentifier(
+            new NodeIdentifier(BenchmarkModel.TEST_QNAME)).withChild(outerList.build()).build();
+
+        integers = new String[INNER_LIST_ITEMS];
+        decimals = new String[INNER_LIST_ITEMS];
+        for (int i = 0; i < INNER_LIST_ITEMS; ++i) {
+            integers[i] = Integer.toString(i * 7919 - 3000000);
+            decimals[i] = (i * 7919 - 3000000) + "." + (i % 100);
+        }
+        int32Codec = TypeDefinitionAwareCodec.from(BaseTypes.int32Type());
+        decimalCodec = TypeDefinitionAwareCodec.from(BaseTypes.decimalTypeBuilder(SchemaPath.ROOT)
+            .setFractionDigits(2).build());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void jsonSerializationBenchmark() throws IOException {
+        final NormalizedNodeStreamWriter streamWriter = JSONNormalizedNodeStreamWriter.createExclusiveWriter(
+            JSONCodecFactory.getShared(schemaContext), SchemaPath.ROOT, null,
+            JsonWriterFactory.createJsonWriter(new NullWriter()));
+        try (final NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(streamWriter)) {
+            writer.write(data);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void xmlSerializationBenchmark() throws IOException, XMLStreamException {
+        final XMLStreamWriter xmlWriter = XML_FACTORY.createXMLStreamWriter(new NullWriter());
+        final NormalizedNodeStreamWriter streamWriter = XMLStreamNormalizedNodeStreamWriter.create(xmlWriter,
+            schemaContext);
+        try (final NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(streamWriter)) {
+            writer.write(data);
+        }
+        xmlWriter.close();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void int32ParseBenchmark(final Blackhole bh) {
+        parse(int32Codec, integers, bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void decimalParseBenchmark(final Blackhole bh) {
+        parse(decimalCodec, decimals, bh);
+    }
+
+    private static void parse(final TypeDefinitionAwareCodec<Object, ?> codec, final String[] values,
+            final Blackhole bh) {
+        for (int i = 0; i < OUTER_LIST_ITEMS; ++i) {
+            for (String value : values) {
+                bh.consume(codec.deserialize(value));
+            }
+        }
+    }
+
+    private static final class NullWriter extends Writer {
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) {
+            // Discard output
+        }
+
+        @Override
+        public void flush() {
+            // No-op
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.BaseConstraints;
+import org.opendaylight.yangtools.yang.model.util.type.BaseTypes;
+import org.opendaylight.yangtools.yang.model.util.type.EnumPairBuilder;
+import org.opendaylight.yangtools.yang.model.util.type.RestrictedTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of union value deserialization on unions from ietf-inet-types and ietf-yang-types. The union codec,
+ * which skips members that cannot match a value, is compared to trying each member codec in turn and catching the
+ * exceptions thrown by members which do not match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class UnionCodecBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    private static final SchemaPath PATH = SchemaPath.create(true,
+        QName.create("urn:ietf:params:xml:ns:yang:ietf-inet-types", "2013-07-15", "benchmark"));
+    private static final String DECIMAL_OCTET = "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])";
+    private static final String IPV4_ADDRESS = "^(" + DECIMAL_OCTET + "\\.){3}" + DECIMAL_OCTET
+            + "(%[\\p{N}\\p{L}]+)?$";
+    private static final String IPV6_ADDRESS = "^((:|[0-9a-fA-F]{0,4}):)([0-9a-fA-F]{0,4}:){0,5}"
+            + "((([0-9a-fA-F]{0,4}:)?(:|[0-9a-fA-F]{0,4}))|(((25[0-5]|2[0-4][0-9]|[01]?[0-9]?[0-9])\\.){3}"
+            + "(25[0-5]|2[0-4][0-9]|[01]?[0-9]?[0-9])))(%[\\p{N}\\p{L}]+)?$";
+    private static final String DOMAIN_NAME = "^((([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.)*"
+            + "([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.?)|\\.$";
+
+    @Param({ "ip-address", "host", "port-or-keyword" })
+    public String type;
+
+    private String[] inputs;
+    private TypeDefinitionAwareCodec<Object, ?> unionCodec;
+    private List<TypeDefinitionAwareCodec<Object, ?>> memberCodecs;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + UnionCodecBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final UnionTypeDefinition ipAddress = BaseTypes.unionTypeBuilder(PATH)
+                .addType(patternString(IPV4_ADDRESS))
+                .addType(patternString(IPV6_ADDRESS))
+                .build();
+
+        final UnionTypeDefinition union;
+        switch (type) {
+            case "ip-address":
+                union = ipAddress;
+                inputs = new String[] { "192.168.1.1", "10.0.0.1%eth0", "::1", "fe80::1%eth0",
+                    "2001:db8:85a3::8a2e:370:7334" };
+                break;
+            case "host":
+                union = BaseTypes.unionTypeBuilder(PATH)
+                        .addType(ipAddress)
+                        .addType(patternString(DOMAIN_NAME))
+                        .build();
+                inputs = new String[] { "192.168.1.1", "::1", "example.com", "www.opendaylight.org.", "localhost" };
+                break;
+            case "port-or-keyword":
+                union = BaseTypes.unionTypeBuilder(PATH)
+                        .addType(BaseTypes.uint16Type())
+                        .addType(BaseTypes.enumerationTypeBuilder(PATH)
+                            .addEnum(EnumPairBuilder.create("any", 0).build())
+                            .addEnum(EnumPairBuilder.create("none", 1).build())
+                            .build())
+                        .addType(BaseTypes.stringType())
+                        .build();
+                inputs = new String[] { "80", "8080", "any", "none", "http" };
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+
+        unionCodec = TypeDefinitionAwareCodec.from(union);
+        memberCodecs = new ArrayList<>();
+        for (TypeDefinition<?> member : union.getTypes()) {
+            memberCodecs.add(TypeDefinitionAwareCodec.from(member));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void unionCodecBenchmark(final Blackhole bh) {
+        for (String input : inputs) {
+            bh.consume(unionCodec.deserialize(input));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void exceptionDispatchBenchmark(final Blackhole bh) {
+        for (String input : inputs) {
+            bh.consume(tryEachMember(input));
+        }
+    }
+
+    private Object tryEachMember(final String input) {
+        for (TypeDefinitionAwareCodec<Object, ?> codec : memberCodecs) {
+            try {
+                codec.deserialize(input);
+                return input;
+            } catch (IllegalArgumentException e) {
+                // Try the next member
+            }
+        }
+        throw new IllegalArgumentException("Invalid value " + input);
+    }
+
+    private static TypeDefinition<?> patternString(final String regex) {
+        return RestrictedTypes.newStringBuilder(BaseTypes.stringType(), PATH).addPatternConstraint(
+            BaseConstraints.newPatternConstraint(regex, Optional.absent(), Optional.absent())).build();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of a list of {@value #ENTRIES} homogeneous entries with {@value #COUNTERS_PER_ENTRY} counter leaves
+ * each, comparing the regular map node with the columnar one. Retained heap of both nodes is printed before running
+ * the benchmarks, which measure looking up random entries and iterating over all entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class ColumnarMapNodeBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int ENTRIES = 1000000;
+    private static final int COUNTERS_PER_ENTRY = 4;
+    private static final int LOOKUPS = 1000;
+
+    private static final QName LIST_QNAME = QName.create("urn:opendaylight:benchmark", "2016-01-01", "statistics");
+    private static final QName KEY_QNAME = QName.create(LIST_QNAME, "port");
+    private static final QName NAME_QNAME = QName.create(LIST_QNAME, "name");
+    private static final NodeIdentifier[] COUNTER_IDS = new NodeIdentifier[COUNTERS_PER_ENTRY];
+
+    static {
+        for (int i = 0; i < COUNTERS_PER_ENTRY; ++i) {
+            COUNTER_IDS[i] = new NodeIdentifier(QName.create(LIST_QNAME, "counter-" + i));
+        }
+    }
+
+    private final NodeIdentifierWithPredicates[] lookups = new NodeIdentifierWithPredicates[LOOKUPS];
+    private MapNode regular;
+    private MapNode columnar;
+
+    public static void main(final String... args) throws RunnerException {
+        System.out.printf("Regular list of %s entries retains %s bytes%n", ENTRIES, retainedHeap(false));
+        System.out.printf("Columnar list of %s entries retains %s bytes%n", ENTRIES, retainedHeap(true));
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + ColumnarMapNodeBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        regular = createList(false);
+        columnar = createList(true);
+
+        final Random random = new Random(0);
+        for (int i = 0; i < LOOKUPS; ++i) {
+            lookups[i] = new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, random.nextInt(ENTRIES));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(LOOKUPS)
+    public void regularLookup(final Blackhole bh) {
+        lookup(regular, bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(LOOKUPS)
+    public void columnarLookup(final Blackhole bh) {
+        lookup(columnar, bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(ENTRIES)
+    public void regularIterate(final Blackhole bh) {
+        iterate(regular, bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(ENTRIES)
+    public void columnarIterate(final Blackhole bh) {
+        iterate(columnar, bh);
+    }
+
+    private void lookup(final MapNode list, final Blackhole bh) {
+        for (final NodeIdentifierWithPredicates key : lookups) {
+            for (final DataContainerChild<?, ?> leaf : list.getChild(key).get().getValue()) {
+                bh.consume(leaf.getValue());
+            }
+        }
+    }
+
+    private static void iterate(final MapNode list, final Blackhole bh) {
+        for (final MapEntryNode entry : list.getValue()) {
+            for (final DataContainerChild<?, ?> leaf : entry.getValue()) {
+                bh.consume(leaf.getValue());
+            }
+        }
+    }
+
+    private static long retainedHeap(final boolean columnar) {
+        final long baseline = usedHeap();
+        final MapNode retained = createList(columnar);
+        final long ret = usedHeap() - baseline;
+        return retained.getValue().isEmpty() ? 0 : ret;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static MapNode createList(final boolean columnar) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = columnar
+                ? Builders.columnarMapBuilder().withNodeIdentifier(new NodeIdentifier(LIST_QNAME))
+                : ImmutableNodes.mapNodeBuilder(LIST_QNAME);
+        for (int i = 0; i < ENTRIES; ++i) {
+            final DataContainerNodeBuilder<?, MapEntryNode> entry = ImmutableNodes.mapEntryBuilder(LIST_QNAME,
+                KEY_QNAME, i);
+            entry.withChild(ImmutableNodes.leafNode(NAME_QNAME, "port-" + i));
+            for (int j = 0; j < COUNTERS_PER_ENTRY; ++j) {
+                entry.withChild(ImmutableNodes.leafNode(COUNTER_IDS[j], (long) i * COUNTERS_PER_ENTRY + j));
+            }
+            builder.withChild(entry.build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of a tree of {@value #ENTRIES} list entries with {@value #COUNTERS_PER_ENTRY} counter leaves each,
+ * holding uint32, uint64, int32, uint16 and boolean values, as found in operational statistics. Retained heap of the
+ * tree is printed before running the benchmarks, which measure building the tree and reading all counter values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class LeafNodeHeapBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int ENTRIES = 1000000;
+    private static final int COUNTERS_PER_ENTRY = 10;
+
+    private static final QName LIST_QNAME = QName.create("urn:opendaylight:benchmark", "2016-01-01", "statistics");
+    private static final QName KEY_QNAME = QName.create(LIST_QNAME, "port");
+    private static final NodeIdentifier[] COUNTER_IDS = new NodeIdentifier[COUNTERS_PER_ENTRY];
+
+    static {
+        for (int i = 0; i < COUNTERS_PER_ENTRY; ++i) {
+            COUNTER_IDS[i] = new NodeIdentifier(QName.create(LIST_QNAME, "counter-" + i));
+        }
+    }
+
+    private MapNode counters;
+
+    public static void main(final String... args) throws RunnerException {
+        System.out.printf("%s counters retain %s bytes%n", ENTRIES * COUNTERS_PER_ENTRY, retainedHeap());
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + LeafNodeHeapBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        counters = createCounters();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void buildBenchmark(final Blackhole bh) {
+        bh.consume(createCounters());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void readBenchmark(final Blackhole bh) {
+        for (final MapEntryNode entry : counters.getValue()) {
+            for (final DataContainerChild<?, ?> counter : entry.getValue()) {
+                bh.consume(counter.getValue());
+            }
+        }
+    }
+
+    private static long retainedHeap() {
+        final long baseline = usedHeap();
+        final MapNode retained = createCounters();
+        final long ret = usedHeap() - baseline;
+        return retained.getValue().isEmpty() ? 0 : ret;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static MapNode createCounters() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = ImmutableNodes.mapNodeBuilder(LIST_QNAME);
+        for (int i = 0; i < ENTRIES; ++i) {
+            final DataContainerNodeBuilder<?, MapEntryNode> entry = ImmutableNodes.mapEntryBuilder(LIST_QNAME,
+                KEY_QNAME, i);
+            for (int j = 0; j < COUNTERS_PER_ENTRY; ++j) {
+                entry.withChild(ImmutableNodes.leafNode(COUNTER_IDS[j], counterValue(i, j)));
+            }
+            builder.withChild(entry.build());
+        }
+        return builder.build();
+    }
+
+    private static Object counterValue(final int entry, final int counter) {
+        final long value = (long) entry * COUNTERS_PER_ENTRY + counter;
+        switch (counter % 5) {
+            case 0:
+                // uint32
+                return value;
+            case 1:
+                // uint64
+                return BigInteger.valueOf(value).shiftLeft(Integer.SIZE);
+            case 2:
+                // int32
+                return (int) value;
+            case 3:
+                // uint16
+                return (int) (value & 0xFFFF);
+            default:
+                // boolean
+                return value % 2 == 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of repeated {@link Object#hashCode()} and {@link Object#equals(Object)} invocations on a
+ * {@link MapNode} with {@value #MAP_SIZE} entries, as happens when such nodes are used as keys or compared, and of
+ * hashing a node derived from it by replacing a single entry.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class NormalizedNodeHashCodeBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int MAP_SIZE = 100000;
+
+    private static final QName LIST_QNAME = QName.create("urn:opendaylight:benchmark", "2016-01-01", "list");
+    private static final QName KEY_QNAME = QName.create(LIST_QNAME, "key");
+    private static final QName VALUE_QNAME = QName.create(LIST_QNAME, "value");
+
+    private MapNode map;
+    private MapNode equalMap;
+    private MapNode differentMap;
+    private int counter;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + NormalizedNodeHashCodeBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        map = buildMap().build();
+        // Built from distinct entry instances, so that comparing it cannot take identity shortcuts
+        equalMap = buildMap().build();
+        differentMap = buildMap().withChild(entry(MAP_SIZE / 2, "different")).build();
+
+        map.hashCode();
+        equalMap.hashCode();
+        differentMap.hashCode();
+    }
+
+    private static CollectionNodeBuilder<MapEntryNode, MapNode> buildMap() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = ImmutableNodes.mapNodeBuilder(LIST_QNAME);
+        for (int i = 0; i < MAP_SIZE; ++i) {
+            builder.withChild(entry(i, "value"));
+        }
+        return builder;
+    }
+
+    private static MapEntryNode entry(final int key, final String value) {
+        return ImmutableNodes.mapEntryBuilder(LIST_QNAME, KEY_QNAME, key)
+            .withChild(ImmutableNodes.leafNode(VALUE_QNAME, value)).build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public int hashCodeBenchmark() {
+        return map.hashCode();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean equalBenchmark() {
+        return map.equals(equalMap);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean notEqualBenchmark() {
+        return map.equals(differentMap);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public int derivedHashCodeBenchmark() {
+        return Builders.mapBuilder(map).withChild(entry(counter++ % MAP_SIZE, "changed")).build().hashCode();
+    }
+}
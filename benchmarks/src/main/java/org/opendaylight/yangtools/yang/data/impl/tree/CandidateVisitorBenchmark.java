@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateVisitor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of reading changes from a {@link DataTreeCandidate} via {@link DataTreeCandidateNode#getChildNodes()}
+ * and via {@link DataTreeCandidate#accept(DataTreeCandidateVisitor)}. The data tree holds roughly one million nodes,
+ * {@value #OUTER_LIST_SIZE} outer list entries with {@value #INNER_LIST_SIZE} inner list entries each, of which
+ * {@value #CHANGES} leaves are changed either by individual writes, or by replacing the entire outer list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class CandidateVisitorBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int OUTER_LIST_SIZE = 20000;
+    private static final int INNER_LIST_SIZE = 15;
+    private static final int CHANGES = 1000;
+
+    private DataTreeCandidate modifiedCandidate;
+    private DataTreeCandidate replacedCandidate;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + CandidateVisitorBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static final class ConsumingVisitor implements DataTreeCandidateVisitor {
+        private final Blackhole bh;
+
+        ConsumingVisitor(final Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public boolean enter(final PathArgument child) {
+            bh.consume(child);
+            return true;
+        }
+
+        @Override
+        public void exit() {
+            // No-op
+        }
+
+        @Override
+        public void written(final PathArgument child, final NormalizedNode<?, ?> before,
+                final NormalizedNode<?, ?> after) {
+            bh.consume(after);
+        }
+
+        @Override
+        public void deleted(final PathArgument child, final NormalizedNode<?, ?> before) {
+            bh.consume(before);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        final DataTree datastore = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < OUTER_LIST_SIZE; ++i) {
+            outerList.withChild(outerEntry(i, ""));
+        }
+        final MapNode list = outerList.build();
+
+        final DataTreeModification initial = datastore.takeSnapshot().newModification();
+        initial.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        initial.write(BenchmarkModel.OUTER_LIST_PATH, list);
+        initial.ready();
+        datastore.validate(initial);
+        datastore.commit(datastore.prepare(initial));
+
+        // Both candidates are prepared on top of the same tree, neither of them is committed
+        final int stride = OUTER_LIST_SIZE / CHANGES;
+        final DataTreeModification modified = datastore.takeSnapshot().newModification();
+        for (int i = 0; i < CHANGES; ++i) {
+            modified.write(innerValuePath(i * stride), ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "changed"));
+        }
+        modified.ready();
+        datastore.validate(modified);
+        modifiedCandidate = datastore.prepare(modified);
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> replacedList = ImmutableMapNodeBuilder.create(list);
+        for (int i = 0; i < CHANGES; ++i) {
+            replacedList.withChild(outerEntry(i * stride, "changed"));
+        }
+        final DataTreeModification replaced = datastore.takeSnapshot().newModification();
+        replaced.write(BenchmarkModel.OUTER_LIST_PATH, replacedList.build());
+        replaced.ready();
+        datastore.validate(replaced);
+        replacedCandidate = datastore.prepare(replaced);
+    }
+
+    private static MapEntryNode outerEntry(final int id, final String value) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.INNER_LIST_QNAME);
+        for (int i = 0; i < INNER_LIST_SIZE; ++i) {
+            // Only the first inner entry carries the value, so that a replaced outer entry changes a single leaf
+            innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                BenchmarkModel.NAME_QNAME, i).withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME,
+                    i == 0 ? value : "")).build());
+        }
+        return ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, id)
+            .withChild(innerList.build()).build();
+    }
+
+    private static YangInstanceIdentifier innerValuePath(final int outer) {
+        return BenchmarkModel.OUTER_LIST_PATH
+            .node(new NodeIdentifierWithPredicates(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, outer))
+            .node(BenchmarkModel.INNER_LIST_QNAME)
+            .node(new NodeIdentifierWithPredicates(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME, 0))
+            .node(BenchmarkModel.VALUE_QNAME);
+    }
+
+    private static void walkChildNodes(final DataTreeCandidateNode node, final Blackhole bh) {
+        for (final DataTreeCandidateNode child : node.getChildNodes()) {
+            if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                bh.consume(child.getDataAfter());
+                walkChildNodes(child, bh);
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void modifiedChildNodesBenchmark(final Blackhole bh) {
+        walkChildNodes(modifiedCandidate.getRootNode(), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void modifiedVisitorBenchmark(final Blackhole bh) {
+        modifiedCandidate.accept(new ConsumingVisitor(bh));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void replacedChildNodesBenchmark(final Blackhole bh) {
+        walkChildNodes(replacedCandidate.getRootNode(), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void replacedVisitorBenchmark(final Blackhole bh) {
+        replacedCandidate.accept(new ConsumingVisitor(bh));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of chains of {@value #CHAIN_LENGTH} modifications, each of which writes a distinct outer list entry
+ * and is created from the previous, sealed modification. Committing each link before creating the next one serves
+ * as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ChainedModificationBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int CHAIN_LENGTH = 10000;
+
+    private static final YangInstanceIdentifier[] PATHS = new YangInstanceIdentifier[CHAIN_LENGTH];
+    private static final MapEntryNode[] ENTRIES = new MapEntryNode[CHAIN_LENGTH];
+
+    static {
+        for (int i = 0; i < CHAIN_LENGTH; ++i) {
+            PATHS[i] = YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i).build();
+            ENTRIES[i] = ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i);
+        }
+    }
+
+    private DataTree datastore;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + ChainedModificationBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        datastore = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        modification.write(BenchmarkModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME).build());
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void chainedModificationsBenchmark(final Blackhole bh) throws DataValidationFailedException {
+        final List<DataTreeModification> chain = new ArrayList<>(CHAIN_LENGTH);
+        DataTreeModification modification = datastore.takeSnapshot().newModification();
+        for (int i = 0; i < CHAIN_LENGTH; ++i) {
+            modification.write(PATHS[i], ENTRIES[i]);
+            modification.ready();
+            chain.add(modification);
+            modification = modification.newModification();
+        }
+
+        for (DataTreeModification link : chain) {
+            datastore.validate(link);
+            datastore.commit(datastore.prepare(link));
+        }
+        bh.consume(datastore.takeSnapshot());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void commitPerModificationBenchmark(final Blackhole bh) throws DataValidationFailedException {
+        for (int i = 0; i < CHAIN_LENGTH; ++i) {
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            modification.write(PATHS[i], ENTRIES[i]);
+            modification.ready();
+            datastore.validate(modification);
+            datastore.commit(datastore.prepare(modification));
+        }
+        bh.consume(datastore.takeSnapshot());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of mandatory leaf and min/max elements enforcement. The data tree holds a {@value #LIST_SIZE}-entry
+ * list with min/max elements constraints, each entry of which has mandatory leaves nested in several levels of
+ * containers. Each of {@value #COMMITS} commits then makes a small change to a single entry.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ConstraintsValidationBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int LIST_SIZE = 100000;
+    private static final int COMMITS = 1000;
+
+    private static final QName ROOT_QNAME = QName.create("urn:opendaylight:params:xml:ns:yang:benchmark:constraints",
+        "2016-01-01", "root");
+    private static final QName LIST_QNAME = QName.create(ROOT_QNAME, "bounded-list");
+    private static final QName ID_QNAME = QName.create(ROOT_QNAME, "id");
+    private static final QName VALUE_QNAME = QName.create(ROOT_QNAME, "value");
+    private static final QName MANDATORY_QNAME = QName.create(ROOT_QNAME, "mandatory-leaf");
+    private static final int LEVELS = 4;
+
+    private static final YangInstanceIdentifier ROOT_PATH = YangInstanceIdentifier.of(ROOT_QNAME);
+    private static final YangInstanceIdentifier LIST_PATH = ROOT_PATH.node(LIST_QNAME);
+
+    private DataTree datastore;
+    private int counter;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + ConstraintsValidationBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        final SchemaContext schemaContext = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(
+            Collections.singletonList(ConstraintsValidationBenchmark.class.getResourceAsStream(
+                "/constraints-benchmark.yang")));
+
+        datastore = InMemoryDataTreeFactory.getInstance().create(new DataTreeConfiguration.Builder(
+            TreeType.CONFIGURATION).setMandatoryNodesValidation(true).build());
+        datastore.setSchemaContext(schemaContext);
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = ImmutableNodes.mapNodeBuilder(LIST_QNAME);
+        for (int i = 0; i < LIST_SIZE; ++i) {
+            list.withChild(entry(i, i));
+        }
+
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(ROOT_PATH, ImmutableNodes.containerNode(ROOT_QNAME));
+        modification.write(LIST_PATH, list.build());
+        commit(modification);
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return LIST_PATH.node(new YangInstanceIdentifier.NodeIdentifierWithPredicates(LIST_QNAME, ID_QNAME, id));
+    }
+
+    private static MapEntryNode entry(final int id, final int value) {
+        ContainerNode level = null;
+        for (int i = LEVELS; i > 0; --i) {
+            final QName levelQName = QName.create(ROOT_QNAME, "level-" + i);
+            final QName mandatoryQName = QName.create(ROOT_QNAME, "mandatory-" + i);
+            level = level == null
+                    ? Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(levelQName))
+                        .withChild(ImmutableNodes.leafNode(mandatoryQName, value)).build()
+                    : Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(levelQName))
+                        .withChild(ImmutableNodes.leafNode(mandatoryQName, value)).withChild(level).build();
+        }
+
+        return ImmutableNodes.mapEntryBuilder(LIST_QNAME, ID_QNAME, id)
+            .withChild(ImmutableNodes.leafNode(MANDATORY_QNAME, value))
+            .withChild(level)
+            .build();
+    }
+
+    private void commit(final DataTreeModification modification) throws DataValidationFailedException {
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void modifyLeafBenchmark() throws DataValidationFailedException {
+        for (int i = 0; i < COMMITS; ++i) {
+            final int id = counter++ % LIST_SIZE;
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            modification.write(entryPath(id).node(VALUE_QNAME), ImmutableNodes.leafNode(VALUE_QNAME, counter));
+            commit(modification);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void modifyMandatoryLeafBenchmark() throws DataValidationFailedException {
+        for (int i = 0; i < COMMITS; ++i) {
+            final int id = counter++ % LIST_SIZE;
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            modification.write(entryPath(id).node(MANDATORY_QNAME), ImmutableNodes.leafNode(MANDATORY_QNAME,
+                counter));
+            commit(modification);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void replaceEntryBenchmark() throws DataValidationFailedException {
+        for (int i = 0; i < COMMITS; ++i) {
+            final int id = counter++ % LIST_SIZE;
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            modification.write(entryPath(id), entry(id, counter));
+            commit(modification);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of user-ordered lists with {@value #LIST_SIZE} entries: reading entries by position, inserting entries
+ * at scattered positions, inserting entries repeatedly at a single position and committing modifications of a single
+ * entry, each repeated {@value #OPERATIONS} times.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class OrderedListBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int LIST_SIZE = 50000;
+    private static final int OPERATIONS = 1000;
+
+    private static final QName ROOT_QNAME = QName.create("urn:opendaylight:params:xml:ns:yang:benchmark:ordered-list",
+        "2016-01-01", "root");
+    private static final QName LIST_QNAME = QName.create(ROOT_QNAME, "ordered-list");
+    private static final QName ID_QNAME = QName.create(ROOT_QNAME, "id");
+    private static final QName VALUE_QNAME = QName.create(ROOT_QNAME, "value");
+
+    private static final YangInstanceIdentifier ROOT_PATH = YangInstanceIdentifier.of(ROOT_QNAME);
+    private static final YangInstanceIdentifier LIST_PATH = ROOT_PATH.node(LIST_QNAME);
+
+    private OrderedMapNode list;
+    private DataTree datastore;
+    private int counter;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + OrderedListBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        final SchemaContext schemaContext = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(
+            Collections.singletonList(OrderedListBenchmark.class.getResourceAsStream("/ordered-list-benchmark.yang")));
+
+        final CollectionNodeBuilder<MapEntryNode, OrderedMapNode> builder = ImmutableOrderedMapNodeBuilder.create()
+                .withNodeIdentifier(new NodeIdentifier(LIST_QNAME));
+        for (int i = 0; i < LIST_SIZE; ++i) {
+            builder.withChild(entry(i, i));
+        }
+        list = builder.build();
+
+        datastore = InMemoryDataTreeFactory.getInstance().create(TreeType.CONFIGURATION);
+        datastore.setSchemaContext(schemaContext);
+
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(ROOT_PATH, ImmutableNodes.containerNode(ROOT_QNAME));
+        modification.write(LIST_PATH, list);
+        commit(modification);
+    }
+
+    private static MapEntryNode entry(final int id, final int value) {
+        return ImmutableNodes.mapEntryBuilder(LIST_QNAME, ID_QNAME, id)
+            .withChild(ImmutableNodes.leafNode(VALUE_QNAME, value))
+            .build();
+    }
+
+    private void commit(final DataTreeModification modification) throws DataValidationFailedException {
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void readByPositionBenchmark(final Blackhole bh) {
+        for (int i = 0; i < OPERATIONS; ++i) {
+            bh.consume(list.getChild(counter++ % LIST_SIZE * 7919 % LIST_SIZE));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void insertAtPositionBenchmark(final Blackhole bh) {
+        final ImmutableOrderedMapNodeBuilder builder = (ImmutableOrderedMapNodeBuilder) ImmutableOrderedMapNodeBuilder
+                .create(list);
+        for (int i = 0; i < OPERATIONS; ++i) {
+            builder.withChild(i * 7919 % LIST_SIZE, entry(LIST_SIZE + i, i));
+        }
+        bh.consume(builder.build());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void insertAtFixedPositionBenchmark(final Blackhole bh) {
+        final ImmutableOrderedMapNodeBuilder builder = (ImmutableOrderedMapNodeBuilder) ImmutableOrderedMapNodeBuilder
+                .create(list);
+        for (int i = 0; i < OPERATIONS; ++i) {
+            builder.withChild(LIST_SIZE / 2, entry(LIST_SIZE + i, i));
+        }
+        bh.consume(builder.build());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void modifyEntryBenchmark() throws DataValidationFailedException {
+        for (int i = 0; i < OPERATIONS; ++i) {
+            final int id = counter++ % LIST_SIZE;
+            final DataTreeModification modification = datastore.takeSnapshot().newModification();
+            modification.write(LIST_PATH.node(new NodeIdentifierWithPredicates(LIST_QNAME, ID_QNAME, id))
+                .node(VALUE_QNAME), ImmutableNodes.leafNode(VALUE_QNAME, counter));
+            commit(modification);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import com.google.common.base.Optional;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateVisitor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DiffableDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of computing differences between two {@link DataTreeSnapshot}s via
+ * {@link DiffableDataTreeSnapshot#diffFrom(DataTreeSnapshot)}, compared to descending into {@link NormalizedNode}s
+ * which are not {@link Object#equals(Object)}. The data tree holds roughly one million nodes,
+ * {@value #OUTER_LIST_SIZE} outer list entries with {@value #INNER_LIST_SIZE} inner list entries each, of which
+ * {@value #CHANGES} leaves are changed by individual commits between the two snapshots.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SnapshotDiffBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int OUTER_LIST_SIZE = 20000;
+    private static final int INNER_LIST_SIZE = 15;
+    private static final int CHANGES = 1000;
+
+    private DataTreeSnapshot before;
+    private DiffableDataTreeSnapshot after;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + SnapshotDiffBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static final class ConsumingVisitor implements DataTreeCandidateVisitor {
+        private final Blackhole bh;
+
+        ConsumingVisitor(final Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public boolean enter(final PathArgument child) {
+            bh.consume(child);
+            return true;
+        }
+
+        @Override
+        public void exit() {
+            // No-op
+        }
+
+        @Override
+        public void written(final PathArgument child, final NormalizedNode<?, ?> before,
+                final NormalizedNode<?, ?> after) {
+            bh.consume(after);
+        }
+
+        @Override
+        public void deleted(final PathArgument child, final NormalizedNode<?, ?> before) {
+            bh.consume(before);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        final DataTree datastore = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < OUTER_LIST_SIZE; ++i) {
+            outerList.withChild(outerEntry(i));
+        }
+
+        final DataTreeModification initial = datastore.takeSnapshot().newModification();
+        initial.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        initial.write(BenchmarkModel.OUTER_LIST_PATH, outerList.build());
+        commit(datastore, initial);
+        before = datastore.takeSnapshot();
+
+        final int stride = OUTER_LIST_SIZE / CHANGES;
+        for (int i = 0; i < CHANGES; ++i) {
+            final DataTreeModification mod = datastore.takeSnapshot().newModification();
+            mod.write(innerValuePath(i * stride), ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "changed"));
+            commit(datastore, mod);
+        }
+        after = (DiffableDataTreeSnapshot) datastore.takeSnapshot();
+    }
+
+    private static void commit(final DataTree datastore, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        mod.ready();
+        datastore.validate(mod);
+        datastore.commit(datastore.prepare(mod));
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.INNER_LIST_QNAME);
+        for (int i = 0; i < INNER_LIST_SIZE; ++i) {
+            innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                BenchmarkModel.NAME_QNAME, i).withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, ""))
+                .build());
+        }
+        return ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, id)
+            .withChild(innerList.build()).build();
+    }
+
+    private static YangInstanceIdentifier innerValuePath(final int outer) {
+        return BenchmarkModel.OUTER_LIST_PATH
+            .node(new NodeIdentifierWithPredicates(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, outer))
+            .node(BenchmarkModel.INNER_LIST_QNAME)
+            .node(new NodeIdentifierWithPredicates(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME, 0))
+            .node(BenchmarkModel.VALUE_QNAME);
+    }
+
+    private static void walkChildNodes(final DataTreeCandidateNode node, final Blackhole bh) {
+        for (final DataTreeCandidateNode child : node.getChildNodes()) {
+            if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                bh.consume(child.getDataAfter());
+                walkChildNodes(child, bh);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void equalsDiff(final NormalizedNode<?, ?> before, final NormalizedNode<?, ?> after,
+            final Blackhole bh) {
+        if (before.equals(after)) {
+            return;
+        }
+        if (!(before instanceof NormalizedNodeContainer) || !(after instanceof NormalizedNodeContainer)) {
+            bh.consume(after);
+            return;
+        }
+
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> beforeContainer =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) before;
+        for (final NormalizedNode<?, ?> child : ((NormalizedNodeContainer<?, ?, NormalizedNode<?, ?>>) after)
+                .getValue()) {
+            final Optional<NormalizedNode<?, ?>> beforeChild = beforeContainer.getChild(child.getIdentifier());
+            if (beforeChild.isPresent()) {
+                equalsDiff(beforeChild.get(), child, bh);
+            } else {
+                bh.consume(child);
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void equalsDiffBenchmark(final Blackhole bh) {
+        equalsDiff(before.readNode(YangInstanceIdentifier.EMPTY).get(),
+            after.readNode(YangInstanceIdentifier.EMPTY).get(), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void diffChildNodesBenchmark(final Blackhole bh) {
+        walkChildNodes(after.diffFrom(before).getRootNode(), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void diffVisitorBenchmark(final Blackhole bh) {
+        after.diffFrom(before).accept(new ConsumingVisitor(bh));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SpillableDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SubtreeSpillPolicy;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of a data tree of roughly five million nodes, {@value #OUTER_LIST_SIZE} outer list entries with
+ * {@value #INNER_LIST_SIZE} inner list entries each, with and without its cold outer list entries spilled out of the
+ * heap via {@link SpillableDataTree#spillColdSubtrees(SubtreeSpillPolicy)}. Retained heap of both trees is printed
+ * before running the benchmarks, which measure the duration of a full garbage collection and reading leaves of random
+ * outer list entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SpilledDataTreeBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int OUTER_LIST_SIZE = 16500;
+    private static final int INNER_LIST_SIZE = 100;
+    private static final int READS = 1000;
+
+    private static final SubtreeSpillPolicy SPILL_OUTER_ENTRIES = (path, data) ->
+            data.getIdentifier() instanceof NodeIdentifierWithPredicates
+            && BenchmarkModel.OUTER_LIST_QNAME.equals(data.getNodeType());
+
+    @Param({ "false", "true" })
+    public boolean spill;
+
+    private final YangInstanceIdentifier[] reads = new YangInstanceIdentifier[READS];
+    private DataTree datastore;
+
+    public static void main(final String... args) throws RunnerException, DataValidationFailedException,
+            ReactorException {
+        System.out.printf("Data tree of %s outer list entries retains %s bytes%n", OUTER_LIST_SIZE,
+            retainedHeap(false));
+        System.out.printf("Spilled data tree of %s outer list entries retains %s bytes%n", OUTER_LIST_SIZE,
+            retainedHeap(true));
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + SpilledDataTreeBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException, ReactorException {
+        datastore = createTree(spill);
+
+        final Random random = new Random(0);
+        for (int i = 0; i < READS; ++i) {
+            reads[i] = innerValuePath(random.nextInt(OUTER_LIST_SIZE), random.nextInt(INNER_LIST_SIZE));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void fullGc() {
+        System.gc();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(READS)
+    public void randomRead(final Blackhole bh) {
+        final DataTreeSnapshot snapshot = datastore.takeSnapshot();
+        for (final YangInstanceIdentifier path : reads) {
+            bh.consume(snapshot.readNode(path).get().getValue());
+        }
+    }
+
+    private static long retainedHeap(final boolean spill) throws DataValidationFailedException, ReactorException {
+        final long baseline = usedHeap();
+        final DataTree retained = createTree(spill);
+        final long ret = usedHeap() - baseline;
+        return retained.takeSnapshot().readNode(BenchmarkModel.OUTER_LIST_PATH).isPresent() ? ret : 0;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static DataTree createTree(final boolean spill) throws DataValidationFailedException,
+            ReactorException {
+        final DataTree datastore = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        datastore.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < OUTER_LIST_SIZE; ++i) {
+            outerList.withChild(outerEntry(i));
+        }
+
+        final DataTreeModification mod = datastore.takeSnapshot().newModification();
+        mod.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        mod.write(BenchmarkModel.OUTER_LIST_PATH, outerList.build());
+        mod.ready();
+        datastore.validate(mod);
+        datastore.commit(datastore.prepare(mod));
+
+        if (spill) {
+            // The first pass records the state of the tree, the second one spills everything which has not changed
+            ((SpillableDataTree) datastore).spillColdSubtrees(SPILL_OUTER_ENTRIES);
+            ((SpillableDataTree) datastore).spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        }
+        return datastore;
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.INNER_LIST_QNAME);
+        for (int i = 0; i < INNER_LIST_SIZE; ++i) {
+            innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                BenchmarkModel.NAME_QNAME, i).withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME,
+                    "value-" + id + "-" + i)).build());
+        }
+        return ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, id)
+            .withChild(innerList.build()).build();
+    }
+
+    private static YangInstanceIdentifier innerValuePath(final int outer, final int inner) {
+        return BenchmarkModel.OUTER_LIST_PATH
+            .node(new NodeIdentifierWithPredicates(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, outer))
+            .node(BenchmarkModel.INNER_LIST_QNAME)
+            .node(new NodeIdentifierWithPredicates(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME, inner))
+            .node(BenchmarkModel.VALUE_QNAME);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.repo.SharedSchemaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link FilesystemSchemaSourceCache} holding {@value #MODULES} modules with {@value #REVISIONS}
+ * revisions each. Restoring the cache from its directory is compared to lookups of specific and latest revisions,
+ * which are also performed from multiple threads concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class FilesystemSchemaSourceCacheBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int MODULES = 10000;
+    private static final int REVISIONS = 5;
+
+    private File storageDirectory;
+    private FilesystemSchemaSourceCache<YangTextSchemaSource> cache;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + FilesystemSchemaSourceCacheBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        storageDirectory = Files.createTempDir();
+        cache = new FilesystemSchemaSourceCache<>(new SharedSchemaRepository("benchmark"), YangTextSchemaSource.class,
+            storageDirectory);
+
+        for (int i = 0; i < MODULES; ++i) {
+            for (int rev = 0; rev < REVISIONS; ++rev) {
+                // Pairs of revisions share content, as is usual with devices reporting the same models
+                final String text = "module module-" + i + " { revision 201" + rev / 2 + "-01-01; }\n";
+                cache.schemaSourceEncountered(YangTextSchemaSource.delegateForByteSource(
+                    RevisionSourceIdentifier.create("module-" + i, revision(rev)),
+                    ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8))));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        final File[] files = storageDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        storageDirectory.delete();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void restoreBenchmark(final Blackhole bh) {
+        bh.consume(new FilesystemSchemaSourceCache<>(new SharedSchemaRepository("restore"),
+            YangTextSchemaSource.class, storageDirectory));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void revisionLookupBenchmark(final Blackhole bh) throws SchemaSourceException {
+        bh.consume(cache.getSource(randomIdentifier(true)).checkedGet());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void latestRevisionLookupBenchmark(final Blackhole bh) throws SchemaSourceException {
+        bh.consume(cache.getSource(randomIdentifier(false)).checkedGet());
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void concurrentLookupBenchmark(final Blackhole bh) throws SchemaSourceException {
+        bh.consume(cache.getSource(randomIdentifier(false)).checkedGet());
+    }
+
+    private static SourceIdentifier randomIdentifier(final boolean withRevision) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final String name = "module-" + random.nextInt(MODULES);
+        return withRevision ? RevisionSourceIdentifier.create(name, revision(random.nextInt(REVISIONS)))
+                : RevisionSourceIdentifier.create(name);
+    }
+
+    private static String revision(final int index) {
+        return "2016-01-" + (10 + index);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Costs;
+import org.opendaylight.yangtools.yang.parser.repo.SharedSchemaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link InMemorySchemaSourceCache} bounds during a device mount storm. Each of {@value #DEVICES}
+ * devices mounts one of {@value #MODEL_SETS} model sets, which share most of their small models and each contain a few
+ * huge ones. Sources which are not cached are produced by a provider, which has to generate their text. A cache
+ * bounded by the number of sources is compared to a cache bounded by source text size, both of which are given the same
+ * memory budget.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SchemaSourceCacheBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int DEVICES = 100;
+    private static final int MODEL_SETS = 10;
+    private static final int SHARED_MODELS = 200;
+    private static final int UNIQUE_MODELS = 20;
+    private static final int HUGE_MODELS = 2;
+    private static final int SMALL_MODEL_SIZE = 4 * 1024;
+    private static final int HUGE_MODEL_SIZE = 1024 * 1024;
+    private static final long MEMORY_BUDGET = 8 * 1024 * 1024;
+
+    private final List<List<SourceIdentifier>> modelSets = new ArrayList<>(MODEL_SETS);
+    private SharedSchemaRepository sizeBoundedRepository;
+    private SharedSchemaRepository weightBoundedRepository;
+    private InMemorySchemaSourceCache<YangTextSchemaSource> sizeBoundedCache;
+    private InMemorySchemaSourceCache<YangTextSchemaSource> weightBoundedCache;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + SchemaSourceCacheBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int set = 0; set < MODEL_SETS; ++set) {
+            final List<SourceIdentifier> ids = new ArrayList<>();
+            for (int i = 0; i < SHARED_MODELS; ++i) {
+                ids.add(RevisionSourceIdentifier.create("shared-" + i, "2016-01-01"));
+            }
+            for (int i = 0; i < UNIQUE_MODELS; ++i) {
+                ids.add(RevisionSourceIdentifier.create("unique-" + set + "-" + i, "2016-01-01"));
+            }
+            for (int i = 0; i < HUGE_MODELS; ++i) {
+                ids.add(RevisionSourceIdentifier.create("huge-" + set + "-" + i, "2016-01-01"));
+            }
+            modelSets.add(ids);
+        }
+
+        // Average source size is dominated by huge models, hence this is what a size bound has to assume
+        final long smallModels = SHARED_MODELS + MODEL_SETS * UNIQUE_MODELS;
+        final long hugeModels = MODEL_SETS * HUGE_MODELS;
+        final long averageSize = (smallModels * SMALL_MODEL_SIZE + hugeModels * HUGE_MODEL_SIZE)
+                / (smallModels + hugeModels);
+
+        sizeBoundedRepository = createRepository();
+        sizeBoundedCache = new InMemorySchemaSourceCache<>(sizeBoundedRepository, YangTextSchemaSource.class,
+                CacheBuilder.newBuilder().maximumSize(MEMORY_BUDGET / averageSize));
+        sizeBoundedRepository.registerSchemaSourceListener(sizeBoundedCache);
+
+        weightBoundedRepository = createRepository();
+        weightBoundedCache = InMemorySchemaSourceCache.createWeightedCache(weightBoundedRepository,
+            YangTextSchemaSource.class, MEMORY_BUDGET, InMemorySchemaSourceCache.textSizeWeigher());
+        weightBoundedRepository.registerSchemaSourceListener(weightBoundedCache);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Size-bounded cache: " + sizeBoundedCache.getStats());
+        System.out.println("Weight-bounded cache: " + weightBoundedCache.getStats());
+        sizeBoundedCache.close();
+        weightBoundedCache.close();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void sizeBoundedBenchmark(final Blackhole bh) throws SchemaSourceException {
+        mountStorm(sizeBoundedRepository, bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void weightBoundedBenchmark(final Blackhole bh) throws SchemaSourceException {
+        mountStorm(weightBoundedRepository, bh);
+    }
+
+    private void mountStorm(final SharedSchemaRepository repository, final Blackhole bh)
+            throws SchemaSourceException {
+        for (int device = 0; device < DEVICES; ++device) {
+            for (SourceIdentifier id : modelSets.get(device % MODEL_SETS)) {
+                bh.consume(repository.getSchemaSource(id, YangTextSchemaSource.class).checkedGet());
+            }
+        }
+    }
+
+    private SharedSchemaRepository createRepository() {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("benchmark");
+        for (List<SourceIdentifier> ids : modelSets) {
+            for (SourceIdentifier id : ids) {
+                final int size = id.getName().startsWith("huge-") ? HUGE_MODEL_SIZE : SMALL_MODEL_SIZE;
+                repository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(
+                    generateSource(sourceIdentifier, size)), PotentialSchemaSource.create(id,
+                        YangTextSchemaSource.class, Costs.REMOTE_IO.getValue()));
+            }
+        }
+        return repository;
+    }
+
+    private static YangTextSchemaSource generateSource(final SourceIdentifier id, final int size) {
+        final StringBuilder sb = new StringBuilder(size)
+            .append("module ").append(id.getName()).append(" {\n");
+        while (sb.length() < size - 2) {
+            sb.append("    // padding\n");
+        }
+        sb.append("}\n");
+        return YangTextSchemaSource.delegateForByteSource(id,
+            ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
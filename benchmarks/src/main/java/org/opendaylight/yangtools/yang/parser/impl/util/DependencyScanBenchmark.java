@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.impl.util;
+
+import com.google.common.io.ByteSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of dependency information extraction, as performed by resolvers before anything is built. Sources are
+ * read from the directory specified by the {@value #MODELS_PROPERTY} system property, which should point to a large
+ * set of modules, and default to {@value #SYNTHETIC_MODULES} synthetic modules. Extracting dependencies from an
+ * ANTLR parse tree is compared to scanning source headers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class DependencyScanBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int SYNTHETIC_MODULES = 2000;
+    private static final String MODELS_PROPERTY = "reactor.benchmark.models";
+
+    private List<YangTextSchemaSource> sources;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + DependencyScanBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = loadSources();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parseTreeBenchmark(final Blackhole bh) throws IOException, YangSyntaxErrorException {
+        for (YangTextSchemaSource source : sources) {
+            try (InputStream stream = source.openStream()) {
+                bh.consume(YangModelDependencyInfo.fromAST(source.getIdentifier().getName(),
+                    YangStatementStreamSource.parseYangSource(stream)));
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void headerScanBenchmark(final Blackhole bh) throws IOException, YangSyntaxErrorException {
+        for (YangTextSchemaSource source : sources) {
+            bh.consume(YangModelDependencyInfo.forYangText(source));
+        }
+    }
+
+    private static List<YangTextSchemaSource> loadSources() {
+        final List<YangTextSchemaSource> ret = new ArrayList<>();
+        final String models = System.getProperty(MODELS_PROPERTY);
+        if (models != null) {
+            final File[] files = new File(models).listFiles((dir, name) -> name.endsWith(".yang"));
+            if (files != null) {
+                for (File file : files) {
+                    ret.add(YangTextSchemaSource.forFile(file));
+                }
+            }
+        } else {
+            for (int i = 0; i < SYNTHETIC_MODULES; ++i) {
+                ret.add(syntheticSource(i));
+            }
+        }
+        return ret;
+    }
+
+    private static YangTextSchemaSource syntheticSource(final int index) {
+        final String name = "scan-" + index;
+        final StringBuilder sb = new StringBuilder()
+            .append("module ").append(name).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:").append(name).append("\";\n")
+            .append("    prefix s").append(index).append(";\n");
+        for (int i = Math.max(0, index - 3); i < index; ++i) {
+            sb.append("    import scan-").append(i).append(" { prefix s").append(i).append("; }\n");
+        }
+        sb.append("    description \"Synthetic module number ").append(index).append("\";\n")
+            .append("    revision 2016-01-01;\n");
+        for (int i = 0; i < 20; ++i) {
+            sb.append("    container cont-").append(i).append(" {\n")
+                .append("        description \"Container number ").append(i).append("\";\n")
+                .append("        list entry {\n")
+                .append("            key id;\n")
+                .append("            leaf id { type uint32 { range \"1..max\"; } }\n")
+                .append("            leaf name { type string { pattern \"[a-z][a-z0-9-]*\"; } mandatory true; }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+
+        return YangTextSchemaSource.delegateForByteSource(name + "@2016-01-01.yang",
+            ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of SchemaContexts created for {@value #MODULE_SETS} devices, each of which advertises the same
+ * {@value #BASE_MODULES} base modules and one device-specific module. When contexts are created by a single
+ * repository, they share the base modules. Creating each context in a separate repository, which does not share any
+ * modules, serves as a baseline. Retained heap of both variants is printed before running the benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ModuleSharingBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int MODULE_SETS = 1000;
+    private static final int BASE_MODULES = 20;
+
+    private List<YangTextSchemaSource> baseSources;
+    private List<YangTextSchemaSource> deviceSources;
+
+    public static void main(final String... args) throws RunnerException, SchemaResolutionException {
+        final ModuleSharingBenchmark benchmark = new ModuleSharingBenchmark();
+        benchmark.setup();
+        System.out.printf("%s contexts retain %s bytes without sharing%n", MODULE_SETS,
+            benchmark.retainedHeap(false));
+        System.out.printf("%s contexts retain %s bytes with sharing%n", MODULE_SETS, benchmark.retainedHeap(true));
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + ModuleSharingBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        baseSources = new ArrayList<>(BASE_MODULES);
+        for (int i = 0; i < BASE_MODULES; ++i) {
+            baseSources.add(baseSource(i));
+        }
+        deviceSources = new ArrayList<>(MODULE_SETS);
+        for (int i = 0; i < MODULE_SETS; ++i) {
+            deviceSources.add(deviceSource(i));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void separateRepositoriesBenchmark(final Blackhole bh) throws SchemaResolutionException {
+        bh.consume(createSchemaContexts(false));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void sharedRepositoryBenchmark(final Blackhole bh) throws SchemaResolutionException {
+        bh.consume(createSchemaContexts(true));
+    }
+
+    private long retainedHeap(final boolean shared) throws SchemaResolutionException {
+        final long baseline = usedHeap();
+        final List<SchemaContext> retained = createSchemaContexts(shared);
+        final long ret = usedHeap() - baseline;
+        retained.clear();
+        return ret;
+    }
+
+    private List<SchemaContext> createSchemaContexts(final boolean shared) throws SchemaResolutionException {
+        final List<SchemaContext> ret = new ArrayList<>(MODULE_SETS);
+        SharedSchemaRepository repository = null;
+        for (YangTextSchemaSource device : deviceSources) {
+            if (repository == null || !shared) {
+                repository = createRepository();
+            }
+
+            final List<SourceIdentifier> ids = new ArrayList<>(BASE_MODULES + 1);
+            for (YangTextSchemaSource source : baseSources) {
+                ids.add(source.getIdentifier());
+            }
+            ids.add(registerSource(repository, device));
+
+            ret.add(repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT).createSchemaContext(ids)
+                .checkedGet());
+        }
+        return ret;
+    }
+
+    private SharedSchemaRepository createRepository() {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("benchmark");
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+        for (YangTextSchemaSource source : baseSources) {
+            registerSource(repository, source);
+        }
+        return repository;
+    }
+
+    private static SourceIdentifier registerSource(final SharedSchemaRepository repository,
+            final YangTextSchemaSource source) {
+        final SourceIdentifier id = source.getIdentifier();
+        repository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(source),
+            PotentialSchemaSource.create(id, YangTextSchemaSource.class,
+                PotentialSchemaSource.Costs.IMMEDIATE.getValue()));
+        return id;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static YangTextSchemaSource baseSource(final int index) {
+        final String name = "base-" + index;
+        final StringBuilder sb = new StringBuilder()
+            .append("module ").append(name).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:").append(name).append("\";\n")
+            .append("    prefix b").append(index).append(";\n");
+        if (index != 0) {
+            sb.append("    import base-").append(index - 1).append(" { prefix b").append(index - 1).append("; }\n");
+        }
+        sb.append("    revision 2016-01-01;\n");
+        for (int i = 0; i < 20; ++i) {
+            sb.append("    container cont-").append(i).append(" {\n")
+                .append("        list entry {\n")
+                .append("            key id;\n")
+                .append("            leaf id { type uint32; }\n")
+                .append("            leaf name { type string { pattern \"[a-z][a-z0-9-]*\"; } }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+
+        return YangTextSchemaSource.delegateForByteSource(name + "@2016-01-01.yang",
+            ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static YangTextSchemaSource deviceSource(final int index) {
+        final String name = "device-" + index;
+        final StringBuilder sb = new StringBuilder()
+            .append("module ").append(name).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:").append(name).append("\";\n")
+            .append("    prefix d;\n")
+            .append("    import base-").append(BASE_MODULES - 1).append(" { prefix b; }\n")
+            .append("    revision 2016-01-01;\n")
+            .append("    container device {\n")
+            .append("        leaf serial { type string; }\n")
+            .append("    }\n")
+            .append("}\n");
+
+        return YangTextSchemaSource.delegateForByteSource(name + "@2016-01-01.yang",
+            ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of wall-clock time needed to create a SchemaContext from YANG text sources with varying source request
+ * parallelism. Sources are read from the directory specified by the {@value #MODELS_PROPERTY} system property, which
+ * should point to a large set of modules, and default to {@value #SYNTHETIC_MODULES} synthetic modules. A fresh
+ * repository is used for each context, so that neither contexts nor sources are cached across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SchemaContextFactoryBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int SYNTHETIC_MODULES = 500;
+    private static final int MAX_PARALLELISM = 8;
+    private static final String MODELS_PROPERTY = "reactor.benchmark.models";
+
+    private List<YangTextSchemaSource> sources;
+    private ExecutorService executor;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + SchemaContextFactoryBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = loadSources();
+        executor = Executors.newFixedThreadPool(MAX_PARALLELISM);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void callerThreadBenchmark(final Blackhole bh) throws SchemaResolutionException {
+        createSchemaContext(new SharedSchemaRepository("benchmark"), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parallelism1Benchmark(final Blackhole bh) throws SchemaResolutionException {
+        createSchemaContext(new SharedSchemaRepository("benchmark", executor, 1), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parallelism2Benchmark(final Blackhole bh) throws SchemaResolutionException {
+        createSchemaContext(new SharedSchemaRepository("benchmark", executor, 2), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parallelism4Benchmark(final Blackhole bh) throws SchemaResolutionException {
+        createSchemaContext(new SharedSchemaRepository("benchmark", executor, 4), bh);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parallelism8Benchmark(final Blackhole bh) throws SchemaResolutionException {
+        createSchemaContext(new SharedSchemaRepository("benchmark", executor, MAX_PARALLELISM), bh);
+    }
+
+    private void createSchemaContext(final SharedSchemaRepository repository, final Blackhole bh)
+            throws SchemaResolutionException {
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+
+        final List<SourceIdentifier> ids = new ArrayList<>(sources.size());
+        for (YangTextSchemaSource source : sources) {
+            final SourceIdentifier id = source.getIdentifier();
+            repository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(source),
+                PotentialSchemaSource.create(id, YangTextSchemaSource.class,
+                    PotentialSchemaSource.Costs.IMMEDIATE.getValue()));
+            ids.add(id);
+        }
+
+        bh.consume(repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT).createSchemaContext(ids)
+            .checkedGet());
+    }
+
+    private static List<YangTextSchemaSource> loadSources() {
+        final List<YangTextSchemaSource> ret = new ArrayList<>();
+        final String models = System.getProperty(MODELS_PROPERTY);
+        if (models != null) {
+            final File[] files = new File(models).listFiles((dir, name) -> name.endsWith(".yang"));
+            if (files != null) {
+                for (File file : files) {
+                    ret.add(YangTextSchemaSource.forFile(file));
+                }
+            }
+        } else {
+            for (int i = 0; i < SYNTHETIC_MODULES; ++i) {
+                ret.add(syntheticSource(i));
+            }
+        }
+        return ret;
+    }
+
+    private static YangTextSchemaSource syntheticSource(final int index) {
+        final String name = "factory-" + index;
+        final StringBuilder sb = new StringBuilder()
+            .append("module ").append(name).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:").append(name).append("\";\n")
+            .append("    prefix f").append(index).append(";\n");
+        for (int i = Math.max(0, index - 3); i < index; ++i) {
+            sb.append("    import factory-").append(i).append(" { prefix f").append(i).append("; }\n");
+        }
+        sb.append("    revision 2016-01-01;\n");
+        for (int i = 0; i < 20; ++i) {
+            sb.append("    container cont-").append(i).append(" {\n")
+                .append("        list entry {\n")
+                .append("            key id;\n")
+                .append("            leaf id { type uint32; }\n")
+                .append("            leaf name { type string { pattern \"[a-z][a-z0-9-]*\"; } }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+        sb.append("}\n");
+
+        return YangTextSchemaSource.delegateForByteSource(name + "@2016-01-01.yang",
+            ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
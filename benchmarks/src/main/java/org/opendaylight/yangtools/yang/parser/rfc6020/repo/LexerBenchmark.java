@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
+
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource.Engine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of YANG text lexing and parsing into the statement IR, comparing the ANTLR and the native engines.
+ * The source is a synthetic module of 1MiB, so that the reported throughput corresponds to MiB/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class LexerBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int SOURCE_SIZE = 1024 * 1024;
+
+    private YangTextSchemaSource source;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + LexerBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = YangTextSchemaSource.delegateForByteSource("lexer-benchmark.yang",
+            ByteSource.wrap(syntheticModule().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public YangStatementStreamSource antlrBenchmark() throws IOException, YangSyntaxErrorException {
+        return YangStatementStreamSource.create(source, Engine.ANTLR);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public YangStatementStreamSource nativeBenchmark() throws IOException, YangSyntaxErrorException {
+        return YangStatementStreamSource.create(source, Engine.NATIVE);
+    }
+
+    private static String syntheticModule() {
+        final StringBuilder sb = new StringBuilder(SOURCE_SIZE + 1024)
+            .append("module lexer-benchmark {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:lexer\";\n")
+            .append("    prefix lb;\n\n");
+
+        for (int i = 0; sb.length() < SOURCE_SIZE; ++i) {
+            sb.append("    // Container number ").append(i).append('\n')
+                .append("    container cont-").append(i).append(" {\n")
+                .append("        description \"Container with a \\\"quoted\\\" description, which \"\n")
+                .append("            + 'is concatenated from several strings';\n")
+                .append("        /* A list of entries */\n")
+                .append("        list entry { key id;\n")
+                .append("            leaf id { type uint32 { range \"1..max\"; } }\n")
+                .append("            leaf name { type string { pattern '[a-z][a-z0-9-]*'; } mandatory true; }\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+
+        return sb.append("}\n").toString();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor.BuildAction;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of YANG source parsing. Sources are read from the directory specified by the
+ * {@value #MODELS_PROPERTY} system property, which should point to a set of modules, such as the IETF and OpenConfig
+ * models, and default to the datastore benchmark model. Parsing into the ANTLR parse tree is compared to parsing into
+ * the statement IR retained by {@link YangStatementStreamSource}, and a full reactor build replaying the IR is
+ * measured. When run through {@link #main(String...)}, the heap retained by parse trees and by stream sources is
+ * reported, too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class StatementSourceBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final String MODELS_PROPERTY = "reactor.benchmark.models";
+    private static final String DATASTORE_TEST_YANG = "/odl-datastore-test.yang";
+
+    private List<YangTextSchemaSource> sources;
+
+    public static void main(final String... args) throws RunnerException, IOException, YangSyntaxErrorException {
+        final List<YangTextSchemaSource> sources = loadSources();
+        final List<Object> retained = new ArrayList<>(sources.size());
+
+        final long baseline = usedHeap();
+        for (YangTextSchemaSource source : sources) {
+            try (InputStream stream = source.openStream()) {
+                retained.add(YangStatementStreamSource.parseYangSource(stream));
+            }
+        }
+        final long trees = usedHeap() - baseline;
+        retained.clear();
+
+        final long irBaseline = usedHeap();
+        for (YangTextSchemaSource source : sources) {
+            retained.add(YangStatementStreamSource.create(source));
+        }
+        final long irs = usedHeap() - irBaseline;
+
+        System.out.printf("%s sources retain %s bytes as parse trees and %s bytes as stream sources%n",
+            retained.size(), trees, irs);
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + StatementSourceBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = loadSources();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void parseTreeBenchmark(final Blackhole bh) throws IOException, YangSyntaxErrorException {
+        for (YangTextSchemaSource source : sources) {
+            try (InputStream stream = source.openStream()) {
+                bh.consume(YangStatementStreamSource.parseYangSource(stream));
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void streamSourceBenchmark(final Blackhole bh) throws IOException, YangSyntaxErrorException {
+        for (YangTextSchemaSource source : sources) {
+            bh.consume(YangStatementStreamSource.create(source));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void buildBenchmark(final Blackhole bh) throws IOException, YangSyntaxErrorException,
+            ReactorException {
+        final BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        for (YangTextSchemaSource source : sources) {
+            reactor.addSource(YangStatementStreamSource.create(source));
+        }
+        bh.consume(reactor.buildEffective());
+    }
+
+    private static List<YangTextSchemaSource> loadSources() {
+        final List<YangTextSchemaSource> ret = new ArrayList<>();
+        final String models = System.getProperty(MODELS_PROPERTY);
+        if (models != null) {
+            final File[] files = new File(models).listFiles((dir, name) -> name.endsWith(".yang"));
+            if (files != null) {
+                for (File file : files) {
+                    ret.add(YangTextSchemaSource.forFile(file));
+                }
+            }
+        } else {
+            ret.add(YangTextSchemaSource.forResource(StatementSourceBenchmark.class, DATASTORE_TEST_YANG));
+        }
+        return ret;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
+
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+import org.opendaylight.yangtools.yang.model.repo.api.YinDomSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.api.YinTextSchemaSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of YIN source parsing, comparing a source built on top of a DOM document produced by
+ * {@link YinTextToDomTransformer} to a source streamed directly from YIN text. The source is a synthetic module
+ * of 4MiB. When run through {@link #main(String...)}, the heap retained by DOM documents and by streamed sources is
+ * reported, too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class YinSourceBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int SOURCE_SIZE = 4 * 1024 * 1024;
+    private static final int RETAINED_SOURCES = 10;
+
+    private YinTextSchemaSource source;
+
+    public static void main(final String... args) throws Exception {
+        final YinTextSchemaSource source = syntheticSource();
+        final List<Object> retained = new ArrayList<>(RETAINED_SOURCES);
+
+        final long baseline = usedHeap();
+        for (int i = 0; i < RETAINED_SOURCES; ++i) {
+            retained.add(YinTextToDomTransformer.TRANSFORMATION.apply(source).get());
+        }
+        final long documents = usedHeap() - baseline;
+        retained.clear();
+
+        final long streamBaseline = usedHeap();
+        for (int i = 0; i < RETAINED_SOURCES; ++i) {
+            retained.add(YinStatementStreamSource.create(source));
+        }
+        final long streamed = usedHeap() - streamBaseline;
+
+        System.out.printf("%s sources retain %s bytes as DOM documents and %s bytes as streamed sources%n",
+            retained.size(), documents, streamed);
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + YinSourceBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = syntheticSource();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Object domBenchmark() throws Exception {
+        final YinDomSchemaSource dom = YinTextToDomTransformer.TRANSFORMATION.apply(source).get();
+        return YinStatementStreamSource.create(dom);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public Object streamBenchmark() throws IOException, XMLStreamException {
+        return YinStatementStreamSource.create(source);
+    }
+
+    private static YinTextSchemaSource syntheticSource() {
+        final StringBuilder sb = new StringBuilder(SOURCE_SIZE + 1024)
+            .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<module name=\"yin-benchmark\" xmlns=\"urn:ietf:params:xml:ns:yang:yin:1\"")
+            .append(" xmlns:yb=\"urn:opendaylight:benchmark:yin\">\n")
+            .append("  <namespace uri=\"urn:opendaylight:benchmark:yin\"/>\n")
+            .append("  <prefix value=\"yb\"/>\n");
+
+        for (int i = 0; sb.length() < SOURCE_SIZE; ++i) {
+            sb.append("  <container name=\"cont-").append(i).append("\">\n")
+                .append("    <description>\n")
+                .append("      <text>Container number ").append(i).append(", which holds a list of entries</text>\n")
+                .append("    </description>\n")
+                .append("    <list name=\"entry\">\n")
+                .append("      <key value=\"id\"/>\n")
+                .append("      <leaf name=\"id\">\n")
+                .append("        <type name=\"uint32\"><range value=\"1..max\"/></type>\n")
+                .append("      </leaf>\n")
+                .append("      <leaf name=\"name\">\n")
+                .append("        <type name=\"string\"><pattern value=\"[a-z][a-z0-9-]*\"/></type>\n")
+                .append("        <mandatory value=\"true\"/>\n")
+                .append("      </leaf>\n")
+                .append("    </list>\n")
+                .append("  </container>\n");
+        }
+
+        final String text = sb.append("</module>\n").toString();
+        return YinTextSchemaSource.delegateForByteSource(
+            YinTextSchemaSource.identifierFromFilename("yin-benchmark.yin"),
+            ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
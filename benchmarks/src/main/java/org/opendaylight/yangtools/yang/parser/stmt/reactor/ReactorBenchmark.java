@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.reactor;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor.BuildAction;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of reactor phase completion. The synthetic model is a chain of 1000 modules, where each module imports
+ * its predecessor, uses its grouping, derives from its typedef and augments its container, so that inference actions
+ * in every source depend on the previous source. The real-world model set is read from the directory specified by the
+ * {@value #MODELS_PROPERTY} system property and that benchmark is skipped when the property is not set. When run
+ * through {@link #main(String...)}, the heap retained by statement contexts once all reactor phases have completed,
+ * which is the reactor's peak, is reported, too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ReactorBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int CHAIN_LENGTH = 1000;
+    private static final String MODELS_PROPERTY = "reactor.benchmark.models";
+
+    private List<ByteSource> chainSources;
+    private List<ByteSource> modelSources;
+
+    public static void main(final String... args) throws RunnerException, ReactorException, IOException,
+            YangSyntaxErrorException {
+        final ReactorBenchmark benchmark = new ReactorBenchmark();
+        benchmark.setup();
+        System.out.printf("%s chain modules retain %s bytes in the reactor%n", benchmark.chainSources.size(),
+            retainedReactorHeap(benchmark.chainSources));
+        if (!benchmark.modelSources.isEmpty()) {
+            System.out.printf("%s model set modules retain %s bytes in the reactor%n", benchmark.modelSources.size(),
+                retainedReactorHeap(benchmark.modelSources));
+        }
+
+        final Options opt = new OptionsBuilder()
+            .include(".*" + ReactorBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        chainSources = new ArrayList<>(CHAIN_LENGTH);
+        // Add the modules in reverse order, so sources are encountered before their dependencies
+        for (int i = CHAIN_LENGTH - 1; i >= 0; --i) {
+            chainSources.add(ByteSource.wrap(chainModule(i).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        modelSources = new ArrayList<>();
+        final String models = System.getProperty(MODELS_PROPERTY);
+        if (models != null) {
+            final File[] files = new File(models).listFiles((dir, name) -> name.endsWith(".yang"));
+            if (files != null) {
+                for (File file : files) {
+                    modelSources.add(Files.asByteSource(file));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void chainBenchmark(final Blackhole bh) throws ReactorException, IOException {
+        bh.consume(YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(chainSources));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, timeUnit = TimeUnit.MILLISECONDS)
+    public void modelSetBenchmark(final Blackhole bh) throws ReactorException, IOException {
+        if (!modelSources.isEmpty()) {
+            bh.consume(YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(modelSources));
+        }
+    }
+
+    private static long retainedReactorHeap(final List<ByteSource> sources) throws ReactorException, IOException,
+            YangSyntaxErrorException {
+        final BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        int index = 0;
+        for (ByteSource source : sources) {
+            reactor.addSource(YangStatementStreamSource.create(YangTextSchemaSource.delegateForByteSource(
+                "source-" + index++ + ".yang", source)));
+        }
+
+        final List<Object> retained = new ArrayList<>(1);
+        final long baseline = usedHeap();
+        reactor.build();
+        // The reactor retains all statement contexts until it becomes unreachable
+        retained.add(reactor);
+        final long ret = usedHeap() - baseline;
+        retained.clear();
+        return ret;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String chainModule(final int index) {
+        final StringBuilder sb = new StringBuilder()
+            .append("module chain-").append(index).append(" {\n")
+            .append("    namespace \"urn:opendaylight:benchmark:chain-").append(index).append("\";\n")
+            .append("    prefix c;\n");
+
+        if (index != 0) {
+            sb.append("    import chain-").append(index - 1).append(" { prefix p; }\n")
+                .append("    typedef value-type { type p:value-type; }\n")
+                .append("    container imported { uses p:g; }\n")
+                .append("    augment \"/p:top\" { leaf augmented-").append(index).append(" { type value-type; } }\n");
+        } else {
+            sb.append("    typedef value-type { type string; }\n");
+        }
+
+        return sb.append("    grouping g { leaf leaf-").append(index).append(" { type value-type; } }\n")
+            .append("    container top { uses g; }\n")
+            .append("}\n")
+            .toString();
+    }
+}
@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.util.xml;
 
 import com.google.common.annotations.Beta;
+import java.io.InputStream;
 import javax.annotation.Nonnull;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
@@ -15,6 +16,9 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.xml.sax.SAXException;
 
 /**
@@ -61,6 +65,17 @@ public final class UntrustedXML {
         SPF = f;
     }
 
+    private static final XMLInputFactory XIF;
+    static {
+        final XMLInputFactory f = XMLInputFactory.newInstance();
+        f.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        f.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+        XIF = f;
+    }
+
     /**
      * Create a new {@link DocumentBuilder} for dealing with untrusted XML data. This method is equivalent to
      * {@link DocumentBuilderFactory#newDocumentBuilder()}, except it does not throw a checked exception.
@@ -90,4 +105,17 @@ public final class UntrustedXML {
             throw new UnsupportedOperationException("Failed to instantiate a SAXParser", e);
         }
     }
+
+    /**
+     * Create a new {@link XMLStreamReader} for dealing with untrusted XML data. This method is equivalent to
+     * {@link XMLInputFactory#createXMLStreamReader(InputStream)}, except the reader does not support DTDs nor
+     * external entities.
+     *
+     * @param stream Input stream
+     * @return A new XMLStreamReader
+     * @throws XMLStreamException if the reader cannot be created
+     */
+    public static @Nonnull XMLStreamReader createXMLStreamReader(final InputStream stream) throws XMLStreamException {
+        return XIF.createXMLStreamReader(stream);
+    }
 }
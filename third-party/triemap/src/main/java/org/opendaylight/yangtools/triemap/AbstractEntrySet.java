@@ -19,6 +19,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.AbstractSet;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.Function;
 
 /**
  * Abstract base class for implementing {@link TrieMap} entry sets.
@@ -59,4 +61,16 @@ abstract class AbstractEntrySet<K, V> extends AbstractSet<Entry<K, V>> {
     public final int size() {
         return map.size();
     }
+
+    @Override
+    public final Spliterator<Entry<K, V>> spliterator() {
+        return TrieSpliterator.create(map.immutableSnapshot(), Function.identity(), spliteratorCharacteristics());
+    }
+
+    /**
+     * Return the characteristics reported by {@link #spliterator()}.
+     *
+     * @return Spliterator characteristics
+     */
+    abstract int spliteratorCharacteristics();
 }
@@ -39,8 +39,12 @@ abstract class AbstractIterator<K, V> implements Iterator<Entry<K, V>> {
     private int depth = -1;
 
     AbstractIterator(final ImmutableTrieMap<K, V> map) {
+        this(map, map.RDCSS_READ_ROOT());
+    }
+
+    AbstractIterator(final ImmutableTrieMap<K, V> map, final INode<K, V> subtree) {
         this.map = map;
-        readin(map.RDCSS_READ_ROOT());
+        readin(subtree);
     }
 
     @Override
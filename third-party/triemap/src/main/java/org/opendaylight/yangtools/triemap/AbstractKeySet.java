@@ -19,6 +19,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.Spliterator;
 
 /**
  * Abstract base class for key set views of a TrieMap.
@@ -62,4 +64,20 @@ abstract class AbstractKeySet<K> extends AbstractSet<K> {
     public final int size() {
         return map.size();
     }
+
+    @Override
+    public final Spliterator<K> spliterator() {
+        return keySpliterator(map, spliteratorCharacteristics());
+    }
+
+    /**
+     * Return the characteristics reported by {@link #spliterator()}.
+     *
+     * @return Spliterator characteristics
+     */
+    abstract int spliteratorCharacteristics();
+
+    private static <K, V> Spliterator<K> keySpliterator(final TrieMap<K, V> map, final int characteristics) {
+        return TrieSpliterator.create(map.immutableSnapshot(), Entry::getKey, characteristics);
+    }
 }
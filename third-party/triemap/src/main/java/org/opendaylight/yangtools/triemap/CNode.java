@@ -32,7 +32,7 @@ final class CNode<K, V> extends MainNode<K, V> {
     // Since concurrent computation should lead to same results we can update this field without any synchronization.
     private volatile int csize = NO_SIZE;
 
-    private CNode(final Gen gen, final int bitmap, final BasicNode... array) {
+    CNode(final Gen gen, final int bitmap, final BasicNode... array) {
         this.bitmap = bitmap;
         this.array = array;
         this.gen = gen;
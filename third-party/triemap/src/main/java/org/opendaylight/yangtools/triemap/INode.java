@@ -22,8 +22,10 @@ import static org.opendaylight.yangtools.triemap.PresencePredicate.PRESENT;
 
 import com.google.common.base.VerifyException;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
 
 final class INode<K, V> extends BasicNode {
     @SuppressWarnings("rawtypes")
@@ -573,6 +575,39 @@ final class INode<K, V> extends BasicNode {
         return GCAS_READ(ct).size(ct);
     }
 
+    /**
+     * Feed all entries reachable from this node to specified action. This method should be invoked only on immutable
+     * snapshots. It performs a depth-first walk, which is bounded by {@link Constants#MAX_DEPTH}, without allocating
+     * any intermediate objects.
+     *
+     * @param ct TrieMap reference
+     * @param action Action to be invoked for each entry
+     */
+    void forEachEntry(final ImmutableTrieMap<K, V> ct, final Consumer<? super Entry<K, V>> action) {
+        final MainNode<K, V> m = GCAS_READ(ct);
+        if (m instanceof CNode) {
+            for (BasicNode elem : ((CNode<K, V>) m).array) {
+                if (elem instanceof SNode) {
+                    action.accept((SNode<K, V>) elem);
+                } else if (elem instanceof INode) {
+                    ((INode<K, V>) elem).forEachEntry(ct, action);
+                } else {
+                    throw CNode.invalidElement(elem);
+                }
+            }
+        } else if (m instanceof TNode) {
+            action.accept((TNode<K, V>) m);
+        } else if (m instanceof LNode) {
+            LNodeEntries<K, V> entry = ((LNode<K, V>) m).entries();
+            do {
+                action.accept(entry);
+                entry = entry.next();
+            } while (entry != null);
+        } else {
+            throw invalidElement(m);
+        }
+    }
+
     // /* this is a quiescent method! */
     // def string(lev: Int) = "%sINode -> %s".format("  " * lev, mainnode
     // match {
@@ -20,6 +20,7 @@ import static org.opendaylight.yangtools.triemap.ImmutableTrieMap.unsupported;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map.Entry;
+import java.util.Spliterator;
 
 /**
  * {@link AbstractEntrySet} implementation guarding against attempts to mutate the underlying map.
@@ -58,4 +59,9 @@ final class ImmutableEntrySet<K, V> extends AbstractEntrySet<K, V> {
     public boolean retainAll(final Collection<?> c) {
         throw unsupported();
     }
+
+    @Override
+    int spliteratorCharacteristics() {
+        return Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+    }
 }
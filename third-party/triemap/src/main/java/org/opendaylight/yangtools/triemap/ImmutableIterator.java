@@ -30,6 +30,10 @@ final class ImmutableIterator<K, V> extends AbstractIterator<K, V> {
         super(map);
     }
 
+    ImmutableIterator(final ImmutableTrieMap<K, V> map, final INode<K, V> subtree) {
+        super(map, subtree);
+    }
+
     @Override
     Entry<K, V> wrapEntry(final Entry<K, V> entry) {
         return entry;
@@ -16,6 +16,7 @@
 package org.opendaylight.yangtools.triemap;
 
 import java.util.Iterator;
+import java.util.Spliterator;
 
 /**
  * A mutable view of a TrieMap's key set.
@@ -59,4 +60,9 @@ final class MutableKeySet<K> extends AbstractKeySet<K> {
     public boolean remove(final Object o) {
         return map().remove(o) != null;
     }
+
+    @Override
+    int spliteratorCharacteristics() {
+        return Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
 }
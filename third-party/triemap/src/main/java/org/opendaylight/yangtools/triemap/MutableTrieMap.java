@@ -23,8 +23,11 @@ import static org.opendaylight.yangtools.triemap.PresencePredicate.PRESENT;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Verify;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * A mutable TrieMap.
@@ -42,6 +45,11 @@ final class MutableTrieMap<K, V> extends TrieMap<K, V> {
     private static final AtomicReferenceFieldUpdater<MutableTrieMap, Object> ROOT_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(MutableTrieMap.class, Object.class, "root");
 
+    /**
+     * Minimum number of entries for {@link #putAll(Map)} to consider building a new trie.
+     */
+    private static final int BULK_PUT_THRESHOLD = 64;
+
     private volatile Object root;
 
     MutableTrieMap(final Equivalence<? super K> equiv) {
@@ -68,6 +76,27 @@ final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         return toNullable(insertifhc(k, computeHash(k), checkNotNull(value), null));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * Large maps are inserted in bulk: current contents are frozen in a snapshot and merged with the specified map into
+     * a completely new trie, which is then installed as the new root. This avoids performing a CAS operation for each
+     * key. If a concurrent modification is detected while doing so, or the specified map is small compared to this
+     * map, this method falls back to inserting each entry individually.
+     */
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> m) {
+        final int size = m.size();
+        if (size >= BULK_PUT_THRESHOLD && tryPutAll(m, size)) {
+            return;
+        }
+
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
     @Override
     public V putIfAbsent(final K key, final V value) {
         final K k = checkNotNull(key);
@@ -102,6 +131,78 @@ final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         return toNullable(insertifhc(k, computeHash(k), checkNotNull(value), PRESENT));
     }
 
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        final K k = checkNotNull(key);
+        checkNotNull(mappingFunction);
+        final int hc = computeHash(k);
+
+        final V oldValue = lookuphc(k, hc);
+        if (oldValue != null) {
+            return oldValue;
+        }
+
+        final V newValue = mappingFunction.apply(k);
+        if (newValue == null) {
+            return null;
+        }
+
+        final V prev = toNullable(insertifhc(k, hc, newValue, ABSENT));
+        return prev != null ? prev : newValue;
+    }
+
+    @Override
+    public V computeIfPresent(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final K k = checkNotNull(key);
+        checkNotNull(remappingFunction);
+        final int hc = computeHash(k);
+
+        V oldValue;
+        while ((oldValue = lookuphc(k, hc)) != null) {
+            final V newValue = remappingFunction.apply(k, oldValue);
+            if (newValue != null) {
+                if (insertifhc(k, hc, newValue, oldValue).isPresent()) {
+                    return newValue;
+                }
+            } else if (removehc(k, oldValue, hc).isPresent()) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final K k = checkNotNull(key);
+        checkNotNull(remappingFunction);
+        final int hc = computeHash(k);
+
+        while (true) {
+            final V oldValue = lookuphc(k, hc);
+            final V newValue = remappingFunction.apply(k, oldValue);
+            if (update(k, hc, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    @Override
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        final K k = checkNotNull(key);
+        final V v = checkNotNull(value);
+        checkNotNull(remappingFunction);
+        final int hc = computeHash(k);
+
+        while (true) {
+            final V oldValue = lookuphc(k, hc);
+            final V newValue = oldValue == null ? v : remappingFunction.apply(oldValue, v);
+            if (update(k, hc, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
     @Override
     public int size() {
         return immutableSnapshot().size();
@@ -183,6 +284,56 @@ final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         Verify.verify(success, "Concurrent modification during serialization of map %s", this);
     }
 
+    /**
+     * Attempt to install a new trie containing both current entries and entries from specified map.
+     *
+     * @return True if the entries were inserted, false if the caller should fall back to inserting them one-by-one
+     */
+    private boolean tryPutAll(final Map<? extends K, ? extends V> m, final int size) {
+        final INode<K, V> r = RDCSS_READ_ROOT();
+        final MainNode<K, V> expmain = r.gcasRead(this);
+        final INode<K, V> nr = r.copyToGen(new Gen(), this);
+        final MainNode<K, V> nrmain = nr.gcasRead(this);
+        if (!RDCSS_ROOT(r, expmain, nr)) {
+            return false;
+        }
+
+        // The old root is now frozen, as every modification has to go through the new root's generation. We can
+        // therefore read it without worrying about concurrent updates.
+        final ImmutableTrieMap<K, V> snapshot = new ImmutableTrieMap<>(r, equiv());
+        final int existing = expmain instanceof CNode && ((CNode<K, V>) expmain).array.length == 0 ? 0
+                : snapshot.size();
+        if (size < existing / 2) {
+            return false;
+        }
+
+        final TrieBuilder<K, V> builder = new TrieBuilder<>(equiv(), existing + size);
+        r.forEachEntry(snapshot, entry -> builder.add(entry.getKey(), entry.getValue()));
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            builder.add(checkNotNull(e.getKey()), checkNotNull(e.getValue()));
+        }
+
+        // Any modification performed since we have taken the snapshot has replaced nr's main node, hence this
+        // operation will fail if we would lose any updates.
+        return RDCSS_ROOT(nr, nrmain, builder.build());
+    }
+
+    /**
+     * Conditionally update the mapping of a key from an observed value to a new value, either of which may be null
+     * to indicate absence of a mapping.
+     *
+     * @return True if the update was successful, false if the caller should restart
+     */
+    private boolean update(final K key, final int hc, final V oldValue, final V newValue) {
+        if (oldValue == null) {
+            return newValue == null || !insertifhc(key, hc, newValue, ABSENT).isPresent();
+        }
+        if (newValue == null) {
+            return removehc(key, oldValue, hc).isPresent();
+        }
+        return insertifhc(key, hc, newValue, oldValue).isPresent();
+    }
+
     private Optional<V> insertifhc(final K key, final int hc, final V value, final Object cond) {
         Optional<V> res;
         do {
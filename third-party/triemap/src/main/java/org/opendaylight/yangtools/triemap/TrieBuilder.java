@@ -0,0 +1,195 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static org.opendaylight.yangtools.triemap.Constants.BITMAP_BITS;
+import static org.opendaylight.yangtools.triemap.Constants.HASH_BITS;
+import static org.opendaylight.yangtools.triemap.Constants.LEVEL_BITS;
+
+import java.util.Arrays;
+
+/**
+ * Utility class for constructing a complete trie in one go. Entries are accumulated into flat arrays and the trie is
+ * then built bottom-up by partitioning them on hash bits at each level. Since the resulting nodes are not visible to
+ * anyone until the root is published, there is no need to perform any CAS operations while building.
+ *
+ * <p>
+ * If a key is added multiple times, the last value wins.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class TrieBuilder<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Equivalence<? super K> equiv;
+    private final Gen gen = new Gen();
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int size;
+
+    TrieBuilder(final Equivalence<? super K> equiv, final int expectedSize) {
+        this.equiv = equiv;
+        final int capacity = Math.max(DEFAULT_CAPACITY, expectedSize);
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+    }
+
+    void add(final K key, final V value) {
+        if (size == keys.length) {
+            final int capacity = size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = equiv.hash(key);
+        size++;
+    }
+
+    /**
+     * Build the root INode of a trie containing all entries added to this builder.
+     *
+     * @return A new root INode
+     */
+    INode<K, V> build() {
+        final int[] order = new int[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+
+        return new INode<>(gen, buildCNode(order, new int[size], 0, size, 0));
+    }
+
+    private BasicNode buildNode(final int[] order, final int[] scratch, final int from, final int to, final int lev) {
+        if (to - from == 1) {
+            return snode(order[from]);
+        }
+
+        final int hc = hashes[order[from]];
+        boolean collision = true;
+        for (int i = from + 1; i < to; ++i) {
+            if (hashes[order[i]] != hc) {
+                collision = false;
+                break;
+            }
+        }
+
+        int last = to;
+        if (collision) {
+            // All entries share the same hash: eliminate duplicate keys, which may be all we need to do
+            last = deduplicate(order, from, to);
+            if (last - from == 1) {
+                return snode(order[from]);
+            }
+
+            if (lev >= HASH_BITS) {
+                return new INode<>(gen, lnode(order, from, last));
+            }
+        }
+
+        final CNode<K, V> cn = buildCNode(order, scratch, from, last, lev);
+        if (cn.array.length == 1 && cn.array[0] instanceof SNode) {
+            // Contract single-entry CNodes, as the concurrent operations would
+            return cn.array[0];
+        }
+
+        return new INode<>(gen, cn);
+    }
+
+    private CNode<K, V> buildCNode(final int[] order, final int[] scratch, final int from, final int to,
+            final int lev) {
+        if (from == to) {
+            return new CNode<>(gen);
+        }
+
+        // Stable counting sort of the range on hash bits at this level
+        final int[] offsets = new int[BITMAP_BITS + 1];
+        for (int i = from; i < to; ++i) {
+            offsets[index(order[i], lev) + 1]++;
+        }
+        for (int i = 0; i < BITMAP_BITS; ++i) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        final int[] fill = Arrays.copyOf(offsets, BITMAP_BITS);
+        for (int i = from; i < to; ++i) {
+            final int entry = order[i];
+            scratch[from + fill[index(entry, lev)]++] = entry;
+        }
+        System.arraycopy(scratch, from, order, from, to - from);
+
+        int bitmap = 0;
+        int count = 0;
+        final BasicNode[] tmp = new BasicNode[BITMAP_BITS];
+        for (int i = 0; i < BITMAP_BITS; ++i) {
+            final int start = offsets[i];
+            final int end = offsets[i + 1];
+            if (start != end) {
+                bitmap |= 1 << i;
+                tmp[count++] = buildNode(order, scratch, from + start, from + end, lev + LEVEL_BITS);
+            }
+        }
+
+        return new CNode<>(gen, bitmap, Arrays.copyOf(tmp, count));
+    }
+
+    /**
+     * Remove duplicate keys from a range of entries sharing the same hash. The surviving entry retains the position of
+     * the first occurrence and the value of the last one.
+     *
+     * @return End of the resulting range
+     */
+    @SuppressWarnings("unchecked")
+    private int deduplicate(final int[] order, final int from, final int to) {
+        int last = from + 1;
+        outer: for (int i = from + 1; i < to; ++i) {
+            final int entry = order[i];
+            for (int j = from; j < last; ++j) {
+                if (equiv.equivalent((K) keys[order[j]], (K) keys[entry])) {
+                    values[order[j]] = values[entry];
+                    continue outer;
+                }
+            }
+            order[last++] = entry;
+        }
+        return last;
+    }
+
+    private int index(final int entry, final int lev) {
+        return (hashes[entry] >>> lev) & 0x1f;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SNode<K, V> snode(final int entry) {
+        return new SNode<>((K) keys[entry], (V) values[entry], hashes[entry]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private LNode<K, V> lnode(final int[] order, final int from, final int to) {
+        LNode<K, V> ret = new LNode<>((K) keys[order[from]], (V) values[order[from]], (K) keys[order[from + 1]],
+            (V) values[order[from + 1]]);
+        for (int i = from + 2; i < to; ++i) {
+            ret = ret.insertChild((K) keys[order[i]], (V) values[order[i]]);
+        }
+        return ret;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.AbstractMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 
 /**
  * This is a port of Scala's TrieMap class from the Scala Collections library. This implementation does not support
@@ -113,6 +114,20 @@ public abstract class TrieMap<K, V> extends AbstractMap<K, V> implements Concurr
         return lookuphc(k, computeHash(k));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec
+     * This implementation traverses an immutable snapshot of this map directly, without creating an iterator or
+     * entry objects. Concurrent modifications are not reflected.
+     */
+    @Override
+    public final void forEach(final BiConsumer<? super K, ? super V> action) {
+        checkNotNull(action);
+        final ImmutableTrieMap<K, V> snapshot = immutableSnapshot();
+        snapshot.RDCSS_READ_ROOT().forEachEntry(snapshot, entry -> action.accept(entry.getKey(), entry.getValue()));
+    }
+
     @Override
     public abstract void clear();
 
@@ -208,10 +223,8 @@ public abstract class TrieMap<K, V> extends AbstractMap<K, V> implements Concurr
         return equiv.equivalent(k1, k2);
     }
 
-    /* private implementation methods */
-
     @SuppressWarnings("unchecked")
-    private V lookuphc(final K key, final int hc) {
+    final V lookuphc(final K key, final int hc) {
         Object res;
         do {
             // Keep looping as long as RESTART is being indicated
@@ -0,0 +1,160 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Spliterator} over an {@link ImmutableTrieMap}. It operates on a range of a {@link CNode}'s array and splits
+ * at CNode boundaries: a range is cut in half if it spans multiple elements, otherwise we descend into the single
+ * subtree and split its CNode. This makes it suitable for parallel streams, as the trie is naturally balanced by the
+ * distribution of key hashes.
+ *
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * @param <T> the type of elements returned by this spliterator
+ */
+final class TrieSpliterator<K, V, T> implements Spliterator<T> {
+    private final ImmutableTrieMap<K, V> map;
+    private final Function<? super Entry<K, V>, ? extends T> function;
+    private final int characteristics;
+
+    private BasicNode[] array;
+    private int pos;
+    private int end;
+    private long est;
+
+    // Iterator over the subtree at pos - 1, which has not been completely traversed
+    private ImmutableIterator<K, V> current;
+
+    private TrieSpliterator(final ImmutableTrieMap<K, V> map, final Function<? super Entry<K, V>, ? extends T> function,
+            final int characteristics, final BasicNode[] array, final int pos, final int end, final long est) {
+        this.map = map;
+        this.function = function;
+        this.characteristics = characteristics;
+        this.array = array;
+        this.pos = pos;
+        this.end = end;
+        this.est = est;
+    }
+
+    static <K, V, T> TrieSpliterator<K, V, T> create(final ImmutableTrieMap<K, V> map,
+            final Function<? super Entry<K, V>, ? extends T> function, final int characteristics) {
+        final INode<K, V> root = map.RDCSS_READ_ROOT();
+        final MainNode<K, V> main = root.gcasRead(map);
+        final BasicNode[] array = main instanceof CNode ? ((CNode<K, V>) main).array : new BasicNode[] { root };
+        return new TrieSpliterator<>(map, checkNotNull(function), characteristics, array, 0, array.length,
+            map.size());
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        checkNotNull(action);
+
+        while (true) {
+            if (current != null) {
+                if (current.hasNext()) {
+                    action.accept(function.apply(current.next()));
+                    return true;
+                }
+                current = null;
+            }
+
+            if (pos >= end) {
+                return false;
+            }
+
+            final BasicNode elem = array[pos++];
+            if (elem instanceof SNode) {
+                action.accept(function.apply((SNode<K, V>) elem));
+                return true;
+            } else if (elem instanceof INode) {
+                current = new ImmutableIterator<>(map, (INode<K, V>) elem);
+            } else {
+                throw CNode.invalidElement(elem);
+            }
+        }
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        checkNotNull(action);
+
+        if (current != null) {
+            current.forEachRemaining(entry -> action.accept(function.apply(entry)));
+            current = null;
+        }
+
+        final Consumer<Entry<K, V>> entryAction = entry -> action.accept(function.apply(entry));
+        while (pos < end) {
+            final BasicNode elem = array[pos++];
+            if (elem instanceof SNode) {
+                entryAction.accept((SNode<K, V>) elem);
+            } else if (elem instanceof INode) {
+                ((INode<K, V>) elem).forEachEntry(map, entryAction);
+            } else {
+                throw CNode.invalidElement(elem);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (current == null) {
+            // Descend into a lone subtree, so we can split its CNode
+            while (end - pos == 1 && array[pos] instanceof INode) {
+                final MainNode<K, V> main = ((INode<K, V>) array[pos]).gcasRead(map);
+                if (!(main instanceof CNode)) {
+                    break;
+                }
+
+                array = ((CNode<K, V>) main).array;
+                pos = 0;
+                end = array.length;
+            }
+
+            if (end - pos < 2) {
+                return null;
+            }
+        } else if (pos >= end) {
+            // We are in the middle of a subtree with nothing else left
+            return null;
+        }
+
+        // If we are in the middle of a subtree, hand off everything after it, otherwise split the range in half
+        final int mid = current != null ? pos : (pos + end) >>> 1;
+        est >>>= 1;
+        final TrieSpliterator<K, V, T> ret = new TrieSpliterator<>(map, function, characteristics, array, mid, end,
+            est);
+        end = mid;
+        return ret;
+    }
+
+    @Override
+    public long estimateSize() {
+        return est;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.Test;
+
+public class TestBulkOperations {
+    private static final int COUNT = 50000;
+
+    private static Map<Integer, Integer> createSource(final int from, final int to) {
+        final Map<Integer, Integer> ret = new HashMap<>();
+        for (int i = from; i < to; ++i) {
+            ret.put(i, i);
+        }
+        return ret;
+    }
+
+    @Test
+    public void testPutAllEmpty() {
+        final Map<Integer, Integer> source = createSource(0, COUNT);
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.putAll(source);
+
+        assertEquals(source, map);
+        assertEquals(COUNT, map.size());
+        for (int i = 0; i < COUNT; ++i) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+
+        // The map has to remain updatable
+        assertEquals(Integer.valueOf(5), map.put(5, 6));
+        assertEquals(Integer.valueOf(6), map.remove(5));
+        assertNull(map.get(5));
+        assertEquals(COUNT - 1, map.size());
+    }
+
+    @Test
+    public void testPutAllMerge() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.putAll(createSource(0, COUNT));
+
+        final Map<Integer, Integer> other = new HashMap<>();
+        for (int i = COUNT / 2; i < COUNT + COUNT / 2; ++i) {
+            other.put(i, -i);
+        }
+        map.putAll(other);
+
+        assertEquals(COUNT + COUNT / 2, map.size());
+        for (int i = 0; i < COUNT / 2; ++i) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+        for (int i = COUNT / 2; i < COUNT + COUNT / 2; ++i) {
+            assertEquals(Integer.valueOf(-i), map.get(i));
+        }
+    }
+
+    @Test
+    public void testPutAllSnapshotIsolation() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.putAll(createSource(0, 1000));
+        final ImmutableTrieMap<Integer, Integer> snapshot = map.immutableSnapshot();
+
+        map.putAll(createSource(1000, 3000));
+        assertEquals(1000, snapshot.size());
+        assertEquals(3000, map.size());
+    }
+
+    @Test
+    public void testPutAllCollisions() {
+        final Map<ZeroHashInt, Integer> source = new HashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            source.put(new ZeroHashInt(i), i);
+        }
+
+        final TrieMap<ZeroHashInt, Integer> map = TrieMap.create();
+        map.putAll(source);
+        assertEquals(source, map);
+
+        final Map<ZeroHashInt, Integer> other = new HashMap<>();
+        for (int i = 50; i < 150; ++i) {
+            other.put(new ZeroHashInt(i), -i);
+        }
+        map.putAll(other);
+
+        assertEquals(150, map.size());
+        assertEquals(Integer.valueOf(1), map.get(new ZeroHashInt(1)));
+        assertEquals(Integer.valueOf(-75), map.get(new ZeroHashInt(75)));
+        assertEquals(Integer.valueOf(-140), map.remove(new ZeroHashInt(140)));
+        assertEquals(149, map.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testPutAllNullValue() {
+        final Map<Integer, Integer> source = createSource(0, 100);
+        source.put(100, null);
+        TrieMap.create().putAll(source);
+    }
+
+    @Test
+    public void testParallelStream() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.putAll(createSource(0, COUNT));
+
+        final ImmutableTrieMap<Integer, Integer> snapshot = map.immutableSnapshot();
+        assertEquals(snapshot.keySet(), snapshot.keySet().parallelStream().collect(Collectors.toSet()));
+        assertEquals(snapshot, snapshot.entrySet().parallelStream()
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        assertEquals(snapshot.keySet(), map.keySet().parallelStream().collect(Collectors.toSet()));
+
+        final long sum = StreamSupport.stream(snapshot.entrySet().spliterator(), true)
+                .mapToLong(Map.Entry::getValue).sum();
+        assertEquals((long) COUNT * (COUNT - 1) / 2, sum);
+    }
+
+    @Test
+    public void testSpliteratorSplit() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.putAll(createSource(0, 1000));
+
+        final Spliterator<Integer> first = map.immutableSnapshot().keySet().spliterator();
+        assertTrue(first.hasCharacteristics(Spliterator.IMMUTABLE));
+        assertEquals(1000, first.estimateSize());
+
+        // Consume a single element, split and make sure we observe each key exactly once
+        final AtomicInteger count = new AtomicInteger();
+        assertTrue(first.tryAdvance(key -> count.incrementAndGet()));
+        final Spliterator<Integer> second = first.trySplit();
+        first.forEachRemaining(key -> count.incrementAndGet());
+        if (second != null) {
+            second.forEachRemaining(key -> count.incrementAndGet());
+        }
+        assertEquals(1000, count.get());
+    }
+
+    @Test
+    public void testForEach() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.putAll(createSource(0, 1000));
+
+        final Map<Integer, Integer> copy = new HashMap<>();
+        map.forEach(copy::put);
+        assertEquals(map, copy);
+    }
+
+    @Test
+    public void testComputeAndMerge() {
+        final TrieMap<String, Integer> map = TrieMap.create();
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent("a", k -> 1));
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent("a", k -> 2));
+        assertNull(map.computeIfAbsent("b", k -> null));
+        assertNull(map.computeIfPresent("b", (k, v) -> v + 1));
+        assertEquals(Integer.valueOf(2), map.computeIfPresent("a", (k, v) -> v + 1));
+        assertEquals(Integer.valueOf(3), map.compute("a", (k, v) -> v + 1));
+        assertEquals(Integer.valueOf(0), map.compute("c", (k, v) -> v == null ? 0 : v + 1));
+        assertNull(map.compute("c", (k, v) -> null));
+        assertEquals(Integer.valueOf(5), map.merge("d", 5, Integer::sum));
+        assertEquals(Integer.valueOf(10), map.merge("d", 5, Integer::sum));
+        assertNull(map.merge("d", 5, (a, b) -> null));
+        assertNull(map.computeIfPresent("a", (k, v) -> null));
+        assertTrue(map.isEmpty());
+    }
+}
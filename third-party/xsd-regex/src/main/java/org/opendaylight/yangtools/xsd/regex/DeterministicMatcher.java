@@ -0,0 +1,543 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.xsd.regex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A matcher for XML Schema regular expressions backed by a deterministic finite automaton. XML Schema regular
+ * expressions are implicitly anchored and have no back references or look-around constructs, hence they always
+ * describe a regular language. This allows us to compile them into a DFA, which matches input in a single pass,
+ * without backtracking and without allocating any objects.
+ *
+ * <p>
+ * The automaton is built from the parse tree produced by {@link RegularExpression} in XML Schema mode, via Thompson's
+ * construction followed by subset construction. Since the subset construction may explode for some expressions, the
+ * number of states is capped and {@link #compile(String)} fails with an {@link UnsupportedOperationException} if the
+ * cap is exceeded. Users are expected to fall back to a backtracking engine in that case.
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class DeterministicMatcher {
+    private static final int DEFAULT_MAX_STATES = 1024;
+    private static final int MAX_NFA_STATES = 16384;
+    private static final int ASCII_LIMIT = 128;
+    private static final int CODEPOINT_LIMIT = Token.UTF16_MAX + 1;
+    private static final int DEAD = -1;
+
+    // Characters matched by '.': everything except the line terminators defined by RegularExpression.isEOLChar()
+    private static final int[] EOL_RANGES = { 0, '\n' - 1, '\n' + 1, '\r' - 1, '\r' + 1, 0x2027, 0x202A,
+        Token.UTF16_MAX };
+
+    private final String regex;
+
+    // ASCII fast path: character class of each ASCII character and a (state x class) transition table
+    private final byte[] asciiClasses;
+    private final int[] asciiTransitions;
+    private final int asciiClassCount;
+
+    // Everything else: sorted starts of code point intervals and their target states, for each state
+    private final int[][] intervalStarts;
+    private final int[][] intervalTargets;
+    private final boolean[] accepting;
+
+    private DeterministicMatcher(final String regex, final byte[] asciiClasses, final int[] asciiTransitions,
+            final int asciiClassCount, final int[][] intervalStarts, final int[][] intervalTargets,
+            final boolean[] accepting) {
+        this.regex = regex;
+        this.asciiClasses = asciiClasses;
+        this.asciiTransitions = asciiTransitions;
+        this.asciiClassCount = asciiClassCount;
+        this.intervalStarts = intervalStarts;
+        this.intervalTargets = intervalTargets;
+        this.accepting = accepting;
+    }
+
+    /**
+     * Compile an XML Schema regular expression into a deterministic matcher.
+     *
+     * @param regex XML Schema regular expression
+     * @return A new matcher
+     * @throws ParseException if the expression is not a valid XML Schema regular expression
+     * @throws UnsupportedOperationException if the expression cannot be compiled into a reasonably-sized automaton
+     */
+    public static DeterministicMatcher compile(final String regex) {
+        return compile(regex, DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Compile an XML Schema regular expression into a deterministic matcher, limiting the size of the resulting
+     * automaton.
+     *
+     * @param regex XML Schema regular expression
+     * @param maxStates maximum number of automaton states
+     * @return A new matcher
+     * @throws ParseException if the expression is not a valid XML Schema regular expression
+     * @throws UnsupportedOperationException if the expression cannot be compiled into an automaton with at most
+     *         maxStates states
+     */
+    public static DeterministicMatcher compile(final String regex, final int maxStates) {
+        if (maxStates < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of states " + maxStates);
+        }
+
+        final RegularExpression parsed = new RegularExpression(regex, "X");
+        final NFA nfa = new NFA();
+        final int end = nfa.build(parsed.tokentree, 0);
+        return new SubsetConstruction(nfa, end, maxStates).build(regex);
+    }
+
+    /**
+     * Check whether the entire input matches this expression.
+     *
+     * @param input Input sequence
+     * @return True if the input matches, false otherwise
+     */
+    public boolean matches(final CharSequence input) {
+        final int length = input.length();
+        int state = 0;
+        int offset = 0;
+        while (offset < length) {
+            final char ch = input.charAt(offset++);
+            if (ch < ASCII_LIMIT) {
+                state = asciiTransitions[state * asciiClassCount + asciiClasses[ch]];
+            } else {
+                int cp = ch;
+                if (Character.isHighSurrogate(ch) && offset < length) {
+                    final char low = input.charAt(offset);
+                    if (Character.isLowSurrogate(low)) {
+                        cp = Character.toCodePoint(ch, low);
+                        offset++;
+                    }
+                }
+
+                final int[] starts = intervalStarts[state];
+                int idx = Arrays.binarySearch(starts, cp);
+                if (idx < 0) {
+                    idx = -idx - 2;
+                }
+                state = intervalTargets[state][idx];
+            }
+
+            if (state == DEAD) {
+                return false;
+            }
+        }
+
+        return accepting[state];
+    }
+
+    /**
+     * Return the expression this matcher was compiled from.
+     *
+     * @return XML Schema regular expression
+     */
+    public String getPattern() {
+        return regex;
+    }
+
+    /**
+     * Return the number of states of the underlying automaton.
+     *
+     * @return Number of states
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    @Override
+    public String toString() {
+        return DeterministicMatcher.class.getSimpleName() + "{regex=" + regex + ", states=" + accepting.length + "}";
+    }
+
+    /**
+     * Normalize a set of code point ranges, making sure they are sorted and do not overlap or touch.
+     */
+    static int[] normalizeRanges(final int[] ranges) {
+        if (ranges == null || ranges.length == 0) {
+            return new int[0];
+        }
+
+        final int count = ranges.length / 2;
+        final long[] pairs = new long[count];
+        for (int i = 0; i < count; ++i) {
+            pairs[i] = (long) ranges[2 * i] << 32 | ranges[2 * i + 1];
+        }
+        Arrays.sort(pairs);
+
+        final int[] ret = new int[ranges.length];
+        int wp = 0;
+        for (long pair : pairs) {
+            final int start = (int) (pair >>> 32);
+            final int end = (int) pair;
+            if (wp != 0 && start <= ret[wp - 1] + 1) {
+                ret[wp - 1] = Math.max(ret[wp - 1], end);
+            } else {
+                ret[wp++] = start;
+                ret[wp++] = end;
+            }
+        }
+        return Arrays.copyOf(ret, wp);
+    }
+
+    static int[] complementRanges(final int[] normalized) {
+        final int[] ret = new int[normalized.length + 2];
+        int wp = 0;
+        int next = 0;
+        for (int i = 0; i < normalized.length; i += 2) {
+            if (normalized[i] > next) {
+                ret[wp++] = next;
+                ret[wp++] = normalized[i] - 1;
+            }
+            next = normalized[i + 1] + 1;
+        }
+        if (next <= Token.UTF16_MAX) {
+            ret[wp++] = next;
+            ret[wp++] = Token.UTF16_MAX;
+        }
+        return Arrays.copyOf(ret, wp);
+    }
+
+    /**
+     * A non-deterministic finite automaton, built via Thompson's construction. Each state has a list of epsilon
+     * transitions and a list of transitions on a set of code points.
+     */
+    private static final class NFA {
+        final List<int[]> sets = new ArrayList<>();
+        final Map<List<Integer>, Integer> setIndex = new HashMap<>();
+
+        int[][] epsilon = new int[64][];
+        int[] epsilonCount = new int[64];
+        // Pairs of set index and target state
+        int[][] edges = new int[64][];
+        int[] edgeCount = new int[64];
+        int count = 1;
+
+        int newState() {
+            if (count == MAX_NFA_STATES) {
+                throw new UnsupportedOperationException("Expression requires more than " + MAX_NFA_STATES
+                    + " NFA states");
+            }
+            if (count == epsilonCount.length) {
+                final int capacity = count * 2;
+                epsilon = Arrays.copyOf(epsilon, capacity);
+                epsilonCount = Arrays.copyOf(epsilonCount, capacity);
+                edges = Arrays.copyOf(edges, capacity);
+                edgeCount = Arrays.copyOf(edgeCount, capacity);
+            }
+            return count++;
+        }
+
+        void addEpsilon(final int from, final int to) {
+            epsilon[from] = append(epsilon[from], epsilonCount[from]++, to);
+        }
+
+        void addEdge(final int from, final int[] ranges, final int to) {
+            if (ranges.length == 0) {
+                // Empty set: there is no way to make progress
+                return;
+            }
+
+            final int pos = edgeCount[from];
+            edges[from] = append(edges[from], pos, setIndex(ranges));
+            edges[from] = append(edges[from], pos + 1, to);
+            edgeCount[from] += 2;
+        }
+
+        private int setIndex(final int[] ranges) {
+            final List<Integer> key = new ArrayList<>(ranges.length);
+            for (int r : ranges) {
+                key.add(r);
+            }
+
+            Integer ret = setIndex.get(key);
+            if (ret == null) {
+                ret = sets.size();
+                sets.add(ranges);
+                setIndex.put(key, ret);
+            }
+            return ret;
+        }
+
+        private static int[] append(final int[] array, final int pos, final int value) {
+            final int[] ret;
+            if (array == null) {
+                ret = new int[2];
+            } else if (pos == array.length) {
+                ret = Arrays.copyOf(array, pos * 2);
+            } else {
+                ret = array;
+            }
+            ret[pos] = value;
+            return ret;
+        }
+
+        /**
+         * Append the automaton for a token to a state.
+         *
+         * @param tok Token to translate
+         * @param start State from which the token's automaton starts
+         * @return State in which the token's automaton ends
+         */
+        int build(final Token tok, final int start) {
+            switch (tok.type) {
+                case Token.CHAR:
+                    return buildChar(tok.getChar(), start);
+                case Token.STRING:
+                    final String str = tok.getString();
+                    int cur = start;
+                    for (int i = 0; i < str.length(); ) {
+                        final int cp = str.codePointAt(i);
+                        cur = buildChar(cp, cur);
+                        i += Character.charCount(cp);
+                    }
+                    return cur;
+                case Token.DOT:
+                    return buildSet(EOL_RANGES, start);
+                case Token.RANGE:
+                    return buildSet(normalizeRanges(((RangeToken) tok).ranges), start);
+                case Token.NRANGE:
+                    return buildSet(complementRanges(normalizeRanges(((RangeToken) tok).ranges)), start);
+                case Token.EMPTY:
+                    return start;
+                case Token.PAREN:
+                    return build(tok.getChild(0), start);
+                case Token.CONCAT:
+                    int last = start;
+                    for (int i = 0; i < tok.size(); ++i) {
+                        last = build(tok.getChild(i), last);
+                    }
+                    return last;
+                case Token.UNION:
+                    final int end = newState();
+                    for (int i = 0; i < tok.size(); ++i) {
+                        final int branch = newState();
+                        addEpsilon(start, branch);
+                        addEpsilon(build(tok.getChild(i), branch), end);
+                    }
+                    return end;
+                case Token.CLOSURE:
+                case Token.NONGREEDYCLOSURE:
+                    // Greediness does not affect whether the entire input matches
+                    return buildClosure(tok.getChild(0), Math.max(tok.getMin(), 0), tok.getMax(), start);
+                default:
+                    throw new UnsupportedOperationException("Unsupported token type " + tok.type);
+            }
+        }
+
+        private int buildChar(final int ch, final int start) {
+            return buildSet(new int[] { ch, ch }, start);
+        }
+
+        private int buildSet(final int[] ranges, final int start) {
+            final int end = newState();
+            addEdge(start, ranges, end);
+            return end;
+        }
+
+        private int buildClosure(final Token child, final int min, final int max, final int start) {
+            int cur = start;
+            for (int i = 0; i < min; ++i) {
+                cur = build(child, cur);
+            }
+
+            final int end = newState();
+            if (max < 0) {
+                final int loop = newState();
+                addEpsilon(cur, loop);
+                addEpsilon(build(child, loop), loop);
+                addEpsilon(loop, end);
+            } else {
+                for (int i = min; i < max; ++i) {
+                    addEpsilon(cur, end);
+                    cur = build(child, cur);
+                }
+                addEpsilon(cur, end);
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Subset construction of a DFA from an NFA. The code point space is partitioned into elementary intervals, such
+     * that each NFA transition set is a union of some of them, and these intervals form the input alphabet.
+     */
+    private static final class SubsetConstruction {
+        private final NFA nfa;
+        private final int acceptState;
+        private final int maxStates;
+
+        // Elementary interval boundaries: interval i is [boundaries[i], boundaries[i + 1])
+        private final int[] boundaries;
+        private final int classCount;
+
+        private final Map<BitSet, Integer> stateIndex = new HashMap<>();
+        private final List<BitSet> states = new ArrayList<>();
+        private final List<int[]> transitions = new ArrayList<>();
+
+        SubsetConstruction(final NFA nfa, final int acceptState, final int maxStates) {
+            this.nfa = nfa;
+            this.acceptState = acceptState;
+            this.maxStates = maxStates;
+
+            final BitSet points = new BitSet();
+            points.set(0);
+            points.set(ASCII_LIMIT);
+            points.set(CODEPOINT_LIMIT);
+            for (int[] set : nfa.sets) {
+                for (int i = 0; i < set.length; i += 2) {
+                    points.set(set[i]);
+                    points.set(set[i + 1] + 1);
+                }
+            }
+
+            boundaries = points.stream().toArray();
+            classCount = boundaries.length - 1;
+        }
+
+        DeterministicMatcher build(final String regex) {
+            final BitSet initial = new BitSet();
+            initial.set(0);
+            lookupState(closure(initial));
+
+            // States are appended as they are discovered, hence this processes the work list in order
+            for (int i = 0; i < states.size(); ++i) {
+                transitions.add(computeTransitions(states.get(i)));
+            }
+
+            final int stateCount = states.size();
+            final boolean[] accepting = new boolean[stateCount];
+            for (int i = 0; i < stateCount; ++i) {
+                accepting[i] = states.get(i).get(acceptState);
+            }
+
+            // Elementary intervals below ASCII_LIMIT map directly to ASCII classes
+            final int asciiClassCount = Arrays.binarySearch(boundaries, ASCII_LIMIT);
+            final byte[] asciiClasses = new byte[ASCII_LIMIT];
+            for (int i = 0; i < asciiClassCount; ++i) {
+                Arrays.fill(asciiClasses, boundaries[i], boundaries[i + 1], (byte) i);
+            }
+
+            final int[] asciiTransitions = new int[stateCount * asciiClassCount];
+            final int[][] intervalStarts = new int[stateCount][];
+            final int[][] intervalTargets = new int[stateCount][];
+            for (int i = 0; i < stateCount; ++i) {
+                final int[] targets = transitions.get(i);
+                System.arraycopy(targets, 0, asciiTransitions, i * asciiClassCount, asciiClassCount);
+
+                // Coalesce adjacent intervals with the same target
+                final int[] starts = new int[classCount - asciiClassCount];
+                final int[] runTargets = new int[starts.length];
+                int runs = 0;
+                for (int c = asciiClassCount; c < classCount; ++c) {
+                    if (runs == 0 || runTargets[runs - 1] != targets[c]) {
+                        starts[runs] = boundaries[c];
+                        runTargets[runs] = targets[c];
+                        runs++;
+                    }
+                }
+                intervalStarts[i] = Arrays.copyOf(starts, runs);
+                intervalTargets[i] = Arrays.copyOf(runTargets, runs);
+            }
+
+            return new DeterministicMatcher(regex, asciiClasses, asciiTransitions, asciiClassCount, intervalStarts,
+                intervalTargets, accepting);
+        }
+
+        private int[] computeTransitions(final BitSet state) {
+            final BitSet[] moves = new BitSet[classCount];
+            for (int s = state.nextSetBit(0); s >= 0; s = state.nextSetBit(s + 1)) {
+                final int[] edges = nfa.edges[s];
+                for (int e = 0; e < nfa.edgeCount[s]; e += 2) {
+                    final int[] set = nfa.sets.get(edges[e]);
+                    final int target = edges[e + 1];
+                    for (int r = 0; r < set.length; r += 2) {
+                        final int from = Arrays.binarySearch(boundaries, set[r]);
+                        final int to = Arrays.binarySearch(boundaries, set[r + 1] + 1);
+                        for (int c = from; c < to; ++c) {
+                            if (moves[c] == null) {
+                                moves[c] = new BitSet();
+                            }
+                            moves[c].set(target);
+                        }
+                    }
+                }
+            }
+
+            final int[] ret = new int[classCount];
+            final Map<BitSet, Integer> cache = new HashMap<>();
+            for (int c = 0; c < classCount; ++c) {
+                final BitSet move = moves[c];
+                if (move == null) {
+                    ret[c] = DEAD;
+                } else {
+                    Integer target = cache.get(move);
+                    if (target == null) {
+                        target = lookupState(closure(move));
+                        cache.put(move, target);
+                    }
+                    ret[c] = target;
+                }
+            }
+            return ret;
+        }
+
+        private int lookupState(final BitSet set) {
+            final Integer existing = stateIndex.get(set);
+            if (existing != null) {
+                return existing;
+            }
+
+            final int ret = states.size();
+            if (ret == maxStates) {
+                throw new UnsupportedOperationException("Expression requires more than " + maxStates
+                    + " DFA states");
+            }
+            states.add(set);
+            stateIndex.put(set, ret);
+            return ret;
+        }
+
+        private BitSet closure(final BitSet set) {
+            final BitSet ret = (BitSet) set.clone();
+            final Deque<Integer> work = new ArrayDeque<>();
+            for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+                work.push(s);
+            }
+
+            while (!work.isEmpty()) {
+                final int s = work.pop();
+                final int[] eps = nfa.epsilon[s];
+                for (int i = 0; i < nfa.epsilonCount[s]; ++i) {
+                    final int target = eps[i];
+                    if (!ret.get(target)) {
+                        ret.set(target);
+                        work.push(target);
+                    }
+                }
+            }
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.xsd.regex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DeterministicMatcherTest {
+    private static final String IPV4_ADDRESS = "(([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])\\.){3}"
+            + "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])(%[\\p{N}\\p{L}]+)?";
+    private static final String IPV6_ADDRESS = "((:|[0-9a-fA-F]{0,4}):)([0-9a-fA-F]{0,4}:){0,5}"
+            + "((([0-9a-fA-F]{0,4}:)?(:|[0-9a-fA-F]{0,4}))|"
+            + "(((25[0-5]|2[0-4][0-9]|[01]?[0-9]?[0-9])\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9]?[0-9])))"
+            + "(%[\\p{N}\\p{L}]+)?";
+    private static final String IPV6_ADDRESS_2 = "(([^:]+:){6}(([^:]+:[^:]+)|(.*\\..*)))|"
+            + "((([^:]+:)*[^:]+)?::(([^:]+:)*[^:]+)?)(%.+)?";
+    private static final String DOMAIN_NAME = "((([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.)*"
+            + "([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.?)|\\.";
+
+    private static void assertConsistent(final String regex, final String... inputs) {
+        final DeterministicMatcher matcher = DeterministicMatcher.compile(regex);
+        final RegularExpression reference = new RegularExpression(regex, "X");
+        for (String input : inputs) {
+            assertEquals("Mismatch on '" + input + "' against " + regex, reference.matches(input),
+                matcher.matches(input));
+        }
+    }
+
+    @Test
+    public void testLiterals() {
+        final DeterministicMatcher matcher = DeterministicMatcher.compile("abc");
+        assertTrue(matcher.matches("abc"));
+        assertFalse(matcher.matches("ab"));
+        assertFalse(matcher.matches("abcd"));
+        assertFalse(matcher.matches(""));
+        assertEquals("abc", matcher.getPattern());
+    }
+
+    @Test
+    public void testAnchorsAreLiterals() {
+        assertConsistent("^a$", "^a$", "a", "");
+    }
+
+    @Test
+    public void testQuantifiers() {
+        assertConsistent("a{2,4}b*c+d?", "aab", "aac", "aacd", "aaaabbbccd", "aaaaac", "ac", "aacdd");
+        assertConsistent("(ab){3,}", "", "abab", "ababab", "abababababab", "abababa");
+        assertConsistent("x{0}", "", "x");
+    }
+
+    @Test
+    public void testCharacterClasses() {
+        assertConsistent("[a-z-[aeiou]]+", "bcd", "bad", "");
+        assertConsistent("[^a-z]*", "ABC", "AbC", "", "é");
+        assertConsistent("\\d+\\s\\w*", "12 ab", "12ab", "١ x");
+        assertConsistent("\\p{IsBasicLatin}+", "abc", "abé");
+        assertConsistent("[\\p{L}\\p{N}]+", "a1é١", "a-b");
+    }
+
+    @Test
+    public void testDot() {
+        assertConsistent(".*", "", "abc", "a\nb", "a\rb", "a b", "😀");
+        assertConsistent(".", "😀", "\ud83d", "ab");
+    }
+
+    @Test
+    public void testSupplementaryCharacters() {
+        assertConsistent("[\uD83D\uDE00-\uD83D\uDE4F]+", "😀😁", "🙐", "a");
+        assertConsistent("\\P{L}", "😀", "a", "\ud83d");
+    }
+
+    @Test
+    public void testInetTypes() {
+        assertConsistent(IPV4_ADDRESS, "127.0.0.1", "255.255.255.255", "256.0.0.1", "1.2.3", "01.2.3.4",
+            "10.0.0.1%eth0", "10.0.0.1%", "");
+        assertConsistent(IPV6_ADDRESS, "::", "::1", "fe80::1%eth0", "2001:db8::ff00:42:8329", "::ffff:192.0.2.128",
+            "12345::", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:7:8:9", "g::");
+        assertConsistent(IPV6_ADDRESS_2, "::", "a::b", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:1.2.3.4", "1:2", "::%x");
+        assertConsistent(DOMAIN_NAME, "example.com", "example.com.", ".", "-bad.com", "a_b.example",
+            "a..b", "");
+    }
+
+    @Test
+    public void testStateCount() {
+        final DeterministicMatcher matcher = DeterministicMatcher.compile(IPV4_ADDRESS);
+        assertTrue(matcher.getStateCount() > 1);
+        assertTrue(matcher.toString().contains(IPV4_ADDRESS));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStateExplosion() {
+        // The classic exponential blowup: the DFA needs to remember the last 16 characters
+        DeterministicMatcher.compile("(a|b)*a(a|b){15}");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStateLimit() {
+        DeterministicMatcher.compile("abcdef", 3);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testInvalidExpression() {
+        DeterministicMatcher.compile("(abc");
+    }
+}
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 
 /**
@@ -33,6 +35,22 @@ public interface DataTreeCandidate {
      */
     YangInstanceIdentifier getRootPath();
 
+    /**
+     * Report changes of the children of the candidate root node to a visitor. Unlike traversing
+     * {@link DataTreeCandidateNode#getChildNodes()}, implementations are not required to instantiate
+     * {@link DataTreeCandidateNode}s, nor to visit unmodified nodes. The default implementation walks the candidate
+     * nodes, reporting nodes which have been written as a whole.
+     *
+     * @param visitor Visitor to report changes to
+     */
+    @Beta
+    default void accept(@Nonnull final DataTreeCandidateVisitor visitor) {
+        final DataTreeCandidateNode root = getRootNode();
+        if (root.getModificationType() != ModificationType.UNMODIFIED) {
+            DataTreeCandidateNodes.acceptChildren(visitor, root);
+        }
+    }
+
     /**
      * {@inheritDoc}
      *
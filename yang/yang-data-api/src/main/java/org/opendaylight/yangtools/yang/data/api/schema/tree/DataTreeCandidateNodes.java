@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.Collection;
 import java.util.Iterator;
@@ -105,6 +106,42 @@ public final class DataTreeCandidateNodes {
         }
     }
 
+    /**
+     * Reports changes of the children of {@code node} to the {@code visitor}. Nodes which have been written,
+     * have appeared or have disappeared are reported as a whole, without walking their children.
+     *
+     * @param visitor visitor to report changes to
+     * @param node candidate node whose children should be reported
+     */
+    public static void acceptChildren(final DataTreeCandidateVisitor visitor, final DataTreeCandidateNode node) {
+        for (final DataTreeCandidateNode child : node.getChildNodes()) {
+            switch (child.getModificationType()) {
+                case DELETE:
+                case DISAPPEARED:
+                    final Optional<NormalizedNode<?, ?>> before = child.getDataBefore();
+                    if (before.isPresent()) {
+                        visitor.deleted(child.getIdentifier(), before.get());
+                    }
+                    break;
+                case APPEARED:
+                case WRITE:
+                    visitor.written(child.getIdentifier(), child.getDataBefore().orNull(), child.getDataAfter().get());
+                    break;
+                case SUBTREE_MODIFIED:
+                    if (visitor.enter(child.getIdentifier())) {
+                        acceptChildren(visitor, child);
+                        visitor.exit();
+                    }
+                    break;
+                case UNMODIFIED:
+                    // No-op
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported modification " + child.getModificationType());
+            }
+        }
+    }
+
     private abstract static class AbstractNodeIterator {
         private final Iterator<DataTreeCandidateNode> iterator;
 
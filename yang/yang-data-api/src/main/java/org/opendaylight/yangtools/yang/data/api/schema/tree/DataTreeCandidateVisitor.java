@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * Visitor of changes captured by a {@link DataTreeCandidate}, see
+ * {@link DataTreeCandidate#accept(DataTreeCandidateVisitor)}. Changes are reported relative to the candidate root,
+ * with the visitor tracking its position via {@link #enter(PathArgument)} and {@link #exit()}, similar to
+ * a {@link DataTreeModificationCursor}. Unmodified nodes are not reported.
+ *
+ * <p>
+ * A container which has been replaced may be reported either as {@link #written(PathArgument, NormalizedNode,
+ * NormalizedNode)}, or by entering it and reporting the differences between its before- and after-children. In the
+ * latter case a container may be entered even if none of its children turns out to have changed.
+ */
+@Beta
+public interface DataTreeCandidateVisitor {
+    /**
+     * Invoked when a child which is present both before and after the modification has modified children.
+     *
+     * @param child Child identifier
+     * @return True if changes of the child's children should be reported, followed by {@link #exit()}, false if they
+     *         should be skipped.
+     */
+    boolean enter(@Nonnull PathArgument child);
+
+    /**
+     * Invoked when all changes of the children of the most recently entered node have been reported.
+     */
+    void exit();
+
+    /**
+     * Invoked when a child has appeared or has been replaced.
+     *
+     * @param child Child identifier
+     * @param before Data before the modification, null if the child has appeared
+     * @param after Data after the modification
+     */
+    void written(@Nonnull PathArgument child, @Nullable NormalizedNode<?, ?> before,
+            @Nonnull NormalizedNode<?, ?> after);
+
+    /**
+     * Invoked when a child has disappeared.
+     *
+     * @param child Child identifier
+     * @param before Data before the modification
+     */
+    void deleted(@Nonnull PathArgument child, @Nonnull NormalizedNode<?, ?> before);
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link DataTreeSnapshot} which can compute the differences between itself and another snapshot of the same
+ * {@link DataTree}.
+ */
+@Beta
+public interface DiffableDataTreeSnapshot extends DataTreeSnapshot {
+    /**
+     * Compute the changes which lead from another snapshot to this snapshot. Subtrees which both snapshots share are
+     * not compared. Snapshots of a different data tree do not share any subtrees, hence they are compared in full.
+     *
+     * @param before Snapshot to compare against
+     * @return A candidate rooted at the root of the data tree, whose before-state is {@code before} and whose
+     *         after-state is this snapshot. The candidate cannot be committed.
+     * @throws IllegalArgumentException if {@code before} has not been created by the same implementation
+     */
+    @Nonnull DataTreeCandidate diffFrom(@Nonnull DataTreeSnapshot before);
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link DataTree} which can move rarely-accessed subtrees out of the Java heap, reducing the amount of live data
+ * the garbage collector needs to trace. Spilled subtrees are loaded back on access and are kept on heap once they are
+ * modified.
+ */
+@Beta
+public interface SpillableDataTree extends DataTree {
+    /**
+     * Spill cold subtrees of the current state. A subtree is cold if it has not been modified since the previous
+     * invocation of this method, hence the first invocation only records the state of the tree. Applications are
+     * expected to invoke this method periodically.
+     *
+     * <p>
+     * Candidates prepared before this method is invoked can still be committed, but their resulting state is not
+     * spilled until the next invocation.
+     *
+     * @param policy Policy selecting which cold subtrees to spill
+     */
+    void spillColdSubtrees(@Nonnull SubtreeSpillPolicy policy);
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * Policy selecting which cold subtrees of a {@link SpillableDataTree} are moved out of the Java heap.
+ */
+@Beta
+@FunctionalInterface
+public interface SubtreeSpillPolicy {
+    /**
+     * Decide whether a cold subtree should be spilled. This method is invoked for the topmost cold node of each cold
+     * subtree, if that node is a container, a list entry or an unordered list. If it returns false, it is invoked for
+     * the node's children, which are cold as well. Spilling fewer, larger subtrees saves more heap, but each access to
+     * such a subtree needs to load more data.
+     *
+     * @param path Path to the subtree
+     * @param data Subtree data
+     * @return True if the subtree should be spilled.
+     */
+    boolean shouldSpill(@Nonnull YangInstanceIdentifier path, @Nonnull NormalizedNode<?, ?> data);
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * A {@link NormalizedNode} whose subtree is stored outside of the Java heap. Implementations keep only the node
+ * identifier on heap and load the subtree each time it is accessed, unless a previously-loaded copy is still
+ * reachable. {@link TreeNodeFactory} represents such nodes with tree nodes which hand out the loaded copy, so that
+ * modifications operate on a regular node.
+ */
+@Beta
+public interface SpilledNode {
+    /**
+     * Load the subtree into the heap.
+     *
+     * @return Loaded subtree, equal to the node which has been spilled.
+     */
+    @Nonnull NormalizedNode<?, ?> load();
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+
+/**
+ * A container node whose data has been spilled out of the heap. It does not hold on to the data, but faults it in
+ * whenever it is accessed. Like {@link SimpleContainerNode}, all nodes underneath it share the same version, hence
+ * only subtrees whose nodes all share the same version may be spilled.
+ */
+final class SpilledTreeNode implements TreeNode {
+    private final SpilledNode spilled;
+    private final PathArgument identifier;
+    private final Version version;
+
+    SpilledTreeNode(final SpilledNode spilled, final PathArgument identifier, final Version version) {
+        this.spilled = Preconditions.checkNotNull(spilled);
+        this.identifier = Preconditions.checkNotNull(identifier);
+        this.version = Preconditions.checkNotNull(version);
+    }
+
+    @Override
+    public PathArgument getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public Version getVersion() {
+        return version;
+    }
+
+    @Override
+    public Version getSubtreeVersion() {
+        return version;
+    }
+
+    @Override
+    public NormalizedNode<?, ?> getData() {
+        return spilled.load();
+    }
+
+    @Override
+    public Optional<TreeNode> getChild(final PathArgument childId) {
+        @SuppressWarnings("unchecked")
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> data =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) spilled.load();
+        return Optional.fromNullable(AbstractContainerNode.getChildFromData(data, childId, version));
+    }
+
+    @Override
+    public MutableTreeNode mutable() {
+        // Modifications operate on the loaded data, which then stays on heap
+        return new LazyMutableContainerNode(new SimpleContainerNode(spilled.load(), version));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("version", version).add("identifier", identifier).toString();
+    }
+}
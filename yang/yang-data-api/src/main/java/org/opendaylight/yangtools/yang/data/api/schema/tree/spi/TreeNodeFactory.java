@@ -99,6 +99,9 @@ public final class TreeNodeFactory {
      */
     @Deprecated
     public static TreeNode createTreeNodeRecursively(final NormalizedNode<?, ?> data, final Version version) {
+        if (data instanceof SpilledNode) {
+            return new SpilledTreeNode((SpilledNode) data, data.getIdentifier(), version);
+        }
         if (data instanceof NormalizedNodeContainer<?, ?, ?>) {
             @SuppressWarnings("unchecked")
             NormalizedNodeContainer<?, ?, NormalizedNode<?, ?>> container = (NormalizedNodeContainer<?, ?, NormalizedNode<?, ?>>) data;
@@ -115,13 +118,17 @@ public final class TreeNodeFactory {
     }
 
     /**
-     * Create a new AbstractTreeNode from a data node.
+     * Create a new AbstractTreeNode from a data node. Data nodes which have been spilled out of the heap, as indicated
+     * by {@link SpilledNode}, are loaded on access.
      *
      * @param data data node
      * @param version data node version
      * @return new AbstractTreeNode instance, covering the data tree provided
      */
     public static TreeNode createTreeNode(final NormalizedNode<?, ?> data, final Version version) {
+        if (data instanceof SpilledNode) {
+            return new SpilledTreeNode((SpilledNode) data, data.getIdentifier(), version);
+        }
         if (data instanceof NormalizedNodeContainer<?, ?, ?>) {
             @SuppressWarnings("unchecked")
             final NormalizedNodeContainer<?, ?, NormalizedNode<?, ?>> container =
@@ -9,18 +9,19 @@ package org.opendaylight.yangtools.yang.data.codec.gson;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaCodecTree;
 import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.EmptyTypeDefinition;
@@ -28,7 +29,6 @@ import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,28 +57,28 @@ public final class JSONCodecFactory {
         }
     };
 
-    private final LoadingCache<DataSchemaNode, JSONCodec<?>> codecs =
-            CacheBuilder.newBuilder().softValues().build(new CacheLoader<DataSchemaNode, JSONCodec<?>>() {
-        @Override
-        public JSONCodec<?> load(@Nonnull final DataSchemaNode key) throws Exception {
-            final TypeDefinition<?> type;
-            if (key instanceof LeafSchemaNode) {
-                type = ((LeafSchemaNode) key).getType();
-            } else if (key instanceof LeafListSchemaNode) {
-                type = ((LeafListSchemaNode) key).getType();
-            } else {
-                throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
-            }
-            return createCodec(key,type);
-        }
-    });
-
-    private final SchemaContext schemaContext;
+    private static final LoadingCache<SchemaContext, JSONCodecFactory> SHARED = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, JSONCodecFactory>() {
+                @Override
+                public JSONCodecFactory load(@Nonnull final SchemaContext key) {
+                    return new JSONCodecFactory(key, null);
+                }
+            });
+
+    // Bounded by the number of leaves and leaf-lists in the schema, so we do not need to evict anything
+    private final ConcurrentMap<DataSchemaNode, JSONCodec<?>> codecs = new ConcurrentHashMap<>();
+    // Shared factories are strongly-held values in SHARED, hence neither they nor their codecs may hold the context
+    // strongly. Factories from create() pin it, so it stays reachable for as long as they are.
+    private final WeakReference<SchemaContext> schemaContext;
+    private final SchemaContext pinnedContext;
+    private final SchemaCodecTree codecTree;
     private final JSONCodec<?> iidCodec;
 
-    private JSONCodecFactory(final SchemaContext context) {
-        this.schemaContext = Preconditions.checkNotNull(context);
-        iidCodec = new JSONStringInstanceIdentifierCodec(context, this);
+    private JSONCodecFactory(final SchemaContext context, final SchemaContext pinnedContext) {
+        this.schemaContext = new WeakReference<>(Preconditions.checkNotNull(context));
+        this.pinnedContext = pinnedContext;
+        codecTree = SchemaCodecTree.from(context);
+        iidCodec = new JSONStringInstanceIdentifierCodec(this);
     }
 
     /**
@@ -88,7 +88,19 @@ public final class JSONCodecFactory {
      * @return A codec factory instance.
      */
     public static JSONCodecFactory create(final SchemaContext context) {
-        return new JSONCodecFactory(context);
+        return new JSONCodecFactory(context, context);
+    }
+
+    /**
+     * Get a codec factory attached to a particular context, shared with other users of the same context. The factory
+     * and the codecs it creates are retained for as long as the context is reachable. The factory does not keep the
+     * context alive, hence callers need to keep a reference to it while they use the factory.
+     *
+     * @param context SchemaContext to which the factory should be bound
+     * @return A shared codec factory instance.
+     */
+    public static JSONCodecFactory getShared(final SchemaContext context) {
+        return SHARED.getUnchecked(context);
     }
 
     private JSONCodec<?> createCodec(final DataSchemaNode key, final TypeDefinition<?> type) {
@@ -104,16 +116,12 @@ public final class JSONCodecFactory {
 
     private JSONCodec<?> createReferencedTypeCodec(final DataSchemaNode schema,
             final LeafrefTypeDefinition type) {
-        // FIXME: Verify if this does indeed support leafref of leafref
-        final TypeDefinition<?> referencedType =
-                SchemaContextUtil.getBaseTypeForLeafRef(type, getSchemaContext(), schema);
-        Verify.verifyNotNull(referencedType, "Unable to find base type for leafref node '%s'.", schema.getPath());
-        return createCodec(schema, referencedType);
+        return createCodec(schema, codecTree.resolveType(schema, type));
     }
 
     private JSONCodec<QName> createIdentityrefTypeCodec(final DataSchemaNode schema) {
         final JSONCodec<QName> jsonStringIdentityrefCodec =
-                new JSONStringIdentityrefCodec(schemaContext, schema.getQName().getModule());
+                new JSONStringIdentityrefCodec(this, schema.getQName().getModule());
         return jsonStringIdentityrefCodec;
     }
 
@@ -130,7 +138,7 @@ public final class JSONCodecFactory {
             return JSONEmptyCodec.INSTANCE;
         }
 
-        final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(type);
+        final TypeDefinitionAwareCodec<Object, ?> codec = codecTree.getCodec(type);
         if (codec == null) {
             LOG.debug("Codec for type \"{}\" is not implemented yet.", type.getQName()
                     .getLocalName());
@@ -140,11 +148,21 @@ public final class JSONCodecFactory {
     }
 
     SchemaContext getSchemaContext() {
-        return schemaContext;
+        final SchemaContext ret = schemaContext.get();
+        Preconditions.checkState(ret != null, "SchemaContext of %s is no longer reachable", this);
+        return ret;
     }
 
     JSONCodec<?> codecFor(final DataSchemaNode schema) {
-        return codecs.getUnchecked(schema);
+        final JSONCodec<?> existing = codecs.get(schema);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Do not use computeIfAbsent(), as codec creation may end up looking up other codecs
+        final JSONCodec<?> created = createCodec(schema, codecTree.getType(schema));
+        final JSONCodec<?> raced = codecs.putIfAbsent(schema, created);
+        return raced != null ? raced : created;
     }
 
     JSONCodec<?> codecFor(final DataSchemaNode schema, final TypeDefinition<?> unionSubType) {
@@ -15,9 +15,6 @@ import com.google.common.base.Preconditions;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.net.URI;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import javax.annotation.RegEx;
 import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
@@ -46,14 +43,6 @@ public final class JSONNormalizedNodeStreamWriter implements NormalizedNodeStrea
      */
     private static final boolean DEFAULT_EMIT_EMPTY_CONTAINERS = true;
 
-    @RegEx
-    private static final String NUMBER_STRING = "-?\\d+(\\.\\d+)?";
-    private static final Pattern NUMBER_PATTERN = Pattern.compile(NUMBER_STRING);
-
-    @RegEx
-    private static final String NOT_DECIMAL_NUMBER_STRING = "-?\\d+";
-    private static final Pattern NOT_DECIMAL_NUMBER_PATTERN = Pattern.compile(NOT_DECIMAL_NUMBER_STRING);
-
     private final SchemaTracker tracker;
     private final JSONCodecFactory codecs;
     private final JsonWriter writer;
@@ -275,9 +264,9 @@ public final class JSONNormalizedNodeStreamWriter implements NormalizedNodeStrea
             // text value, i.e. a number, string, boolean or null
             if (TEXT_NODE == childNode.getNodeType()) {
                 final String childNodeText = childNode.getNodeValue();
-                final Matcher matcher = NUMBER_PATTERN.matcher(childNodeText);
-                if (matcher.matches()) {
-                    writer.value(parseNumber(childNodeText));
+                final Number number = parseNumber(childNodeText);
+                if (number != null) {
+                    writer.value(number);
                 } else if ("true".equals(childNodeText) || "false".equals(childNodeText)) {
                     writer.value(Boolean.parseBoolean(childNodeText));
                 } else if ("null".equals(childNodeText)) {
@@ -302,13 +291,32 @@ public final class JSONNormalizedNodeStreamWriter implements NormalizedNodeStrea
     }
 
     // json numbers are 64 bit wide floating point numbers - in java terms it is either long or double
+    // Text is considered a number if it is an optional minus sign, digits and an optional dot followed by digits.
     private static Number parseNumber(final String numberText) {
-        Matcher matcher = NOT_DECIMAL_NUMBER_PATTERN.matcher(numberText);
-        if (matcher.matches()) {
+        final int length = numberText.length();
+        int offset = length != 0 && numberText.charAt(0) == '-' ? 1 : 0;
+        final int integerEnd = skipDigits(numberText, offset);
+        if (integerEnd == offset) {
+            return null;
+        }
+        if (integerEnd == length) {
             return Long.parseLong(numberText);
-        } else {
-            return Double.parseDouble(numberText);
         }
+        if (numberText.charAt(integerEnd) != '.') {
+            return null;
+        }
+
+        offset = integerEnd + 1;
+        final int fractionEnd = skipDigits(numberText, offset);
+        return fractionEnd != offset && fractionEnd == length ? Double.parseDouble(numberText) : null;
+    }
+
+    private static int skipDigits(final String str, final int offset) {
+        int i = offset;
+        while (i < str.length() && str.charAt(i) >= '0' && str.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
     }
 
     private static boolean isJsonObject(final Node firstChild) {
@@ -7,22 +7,30 @@
  */
 package org.opendaylight.yangtools.yang.data.codec.gson;
 
+import com.google.common.base.Preconditions;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.net.URI;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.QNameModule;
-import org.opendaylight.yangtools.yang.data.util.ModuleStringIdentityrefCodec;
+import org.opendaylight.yangtools.yang.data.util.AbstractModuleStringIdentityrefCodec;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
-final class JSONStringIdentityrefCodec extends ModuleStringIdentityrefCodec implements JSONCodec<QName> {
-    JSONStringIdentityrefCodec(final SchemaContext context, final QNameModule parentModule) {
-        super(context, parentModule);
+final class JSONStringIdentityrefCodec extends AbstractModuleStringIdentityrefCodec implements JSONCodec<QName> {
+    // The context is looked up through the factory, which may hold it only weakly
+    private final JSONCodecFactory codecFactory;
+    private final QNameModule parentModuleQname;
+
+    JSONStringIdentityrefCodec(final JSONCodecFactory codecFactory, final QNameModule parentModule) {
+        this.codecFactory = Preconditions.checkNotNull(codecFactory);
+        this.parentModuleQname = Preconditions.checkNotNull(parentModule);
     }
 
     @Override
     protected Module moduleForPrefix(@Nonnull final String prefix) {
+        final SchemaContext context = codecFactory.getSchemaContext();
         if (prefix.isEmpty()) {
             return context.findModuleByNamespaceAndRevision(parentModuleQname.getNamespace(),
                     parentModuleQname.getRevision());
@@ -31,6 +39,12 @@ final class JSONStringIdentityrefCodec extends ModuleStringIdentityrefCodec impl
         }
     }
 
+    @Override
+    protected String prefixForNamespace(@Nonnull final URI namespace) {
+        final Module module = codecFactory.getSchemaContext().findModuleByNamespaceAndRevision(namespace, null);
+        return module == null ? null : module.getName();
+    }
+
     /**
      * Serialize QName with specified JsonWriter.
      *
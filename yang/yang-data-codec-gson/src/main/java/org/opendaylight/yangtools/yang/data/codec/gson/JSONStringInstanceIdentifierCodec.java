@@ -18,35 +18,31 @@ import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
-import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 final class JSONStringInstanceIdentifierCodec extends AbstractModuleStringInstanceIdentifierCodec
         implements JSONCodec<YangInstanceIdentifier> {
-    private final DataSchemaContextTree dataContextTree;
+    // The context is looked up through the factory, which may hold it only weakly
     private final JSONCodecFactory codecFactory;
-    private final SchemaContext context;
 
-    JSONStringInstanceIdentifierCodec(final SchemaContext context, final JSONCodecFactory jsonCodecFactory) {
-        this.context = Preconditions.checkNotNull(context);
-        this.dataContextTree = DataSchemaContextTree.from(context);
+    JSONStringInstanceIdentifierCodec(final JSONCodecFactory jsonCodecFactory) {
         this.codecFactory = Preconditions.checkNotNull(jsonCodecFactory);
     }
 
     @Override
     protected Module moduleForPrefix(@Nonnull final String prefix) {
-        return context.findModuleByName(prefix, null);
+        return codecFactory.getSchemaContext().findModuleByName(prefix, null);
     }
 
     @Override
     protected String prefixForNamespace(@Nonnull final URI namespace) {
-        final Module module = context.findModuleByNamespaceAndRevision(namespace, null);
+        final Module module = codecFactory.getSchemaContext().findModuleByNamespaceAndRevision(namespace, null);
         return module == null ? null : module.getName();
     }
 
     @Nonnull
     @Override
     protected DataSchemaContextTree getDataContextTree() {
-        return dataContextTree;
+        return DataSchemaContextTree.from(codecFactory.getSchemaContext());
     }
 
     @Override
@@ -69,7 +69,7 @@ public final class JsonParserStream implements Closeable, Flushable {
             final DataSchemaNode parentNode) {
         this.schema = Preconditions.checkNotNull(schemaContext);
         this.writer = Preconditions.checkNotNull(writer);
-        this.codecs = JSONCodecFactory.create(schemaContext);
+        this.codecs = JSONCodecFactory.getShared(schemaContext);
         this.parentNode = parentNode;
     }
 
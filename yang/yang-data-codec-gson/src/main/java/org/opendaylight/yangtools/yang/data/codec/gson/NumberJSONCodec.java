@@ -29,6 +29,11 @@ final class NumberJSONCodec<T extends Number> extends AbstractJSONCodec<T > {
      */
     @Override
     public void serializeToWriter(JsonWriter writer, T value) throws IOException {
-        writer.value(value);
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            // The primitive variant skips the checks JsonWriter performs on the string form of arbitrary Numbers
+            writer.value(value.longValue());
+        } else {
+            writer.value(value);
+        }
     }
 }
\ No newline at end of file
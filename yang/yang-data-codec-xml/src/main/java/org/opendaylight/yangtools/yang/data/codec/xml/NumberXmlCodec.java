@@ -13,6 +13,13 @@ import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.yangtools.concepts.Codec;
 
 final class NumberXmlCodec<T extends Number> extends AbstractXmlCodec<T>{
+    // Long.MIN_VALUE needs 20 characters. Codecs are shared between threads, hence the buffer is per-thread.
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[20];
+        }
+    };
 
     NumberXmlCodec(final Codec<String, T> codec) {
         super(codec);
@@ -26,6 +33,34 @@ final class NumberXmlCodec<T extends Number> extends AbstractXmlCodec<T>{
      */
     @Override
     public void serializeToWriter(XMLStreamWriter writer, T value) throws XMLStreamException {
-        writer.writeCharacters(String.valueOf(value));
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            final char[] buffer = BUFFER.get();
+            final int offset = format(value.longValue(), buffer);
+            writer.writeCharacters(buffer, offset, buffer.length - offset);
+        } else {
+            writer.writeCharacters(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Format a long into the tail of a buffer, without creating an intermediate String. Digits are produced from a
+     * negative value, so that Long.MIN_VALUE does not need special handling.
+     *
+     * @param value Value to format
+     * @param buffer Buffer of at least 20 characters
+     * @return Offset of the first character
+     */
+    static int format(final long value, final char[] buffer) {
+        int offset = buffer.length;
+        long remaining = value < 0 ? value : -value;
+        do {
+            final long next = remaining / 10;
+            buffer[--offset] = (char) ('0' + (next * 10 - remaining));
+            remaining = next;
+        } while (remaining != 0);
+        if (value < 0) {
+            buffer[--offset] = '-';
+        }
+        return offset;
     }
 }
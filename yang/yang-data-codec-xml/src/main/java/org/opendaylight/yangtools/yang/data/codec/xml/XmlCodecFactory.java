@@ -10,12 +10,14 @@ package org.opendaylight.yangtools.yang.data.codec.xml;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import java.lang.ref.WeakReference;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.xml.namespace.NamespaceContext;
@@ -23,10 +25,9 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaCodecTree;
 import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.EmptyTypeDefinition;
@@ -34,7 +35,6 @@ import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,29 +62,41 @@ public final class XmlCodecFactory {
         }
     };
 
-    private final LoadingCache<Entry<DataSchemaNode, NamespaceContext>, XmlCodec<?>> codecs =
+    private static final LoadingCache<SchemaContext, XmlCodecFactory> SHARED = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, XmlCodecFactory>() {
+                @Override
+                public XmlCodecFactory load(@Nonnull final SchemaContext key) {
+                    return new XmlCodecFactory(key, null);
+                }
+            });
+
+    // Codecs which do not depend on NamespaceContext. These are bounded by the number of leaves and leaf-lists in the
+    // schema, so we do not need to evict anything.
+    private final ConcurrentMap<DataSchemaNode, XmlCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    // Codecs which depend on NamespaceContext, hence we need to evict them
+    private final LoadingCache<Entry<DataSchemaNode, NamespaceContext>, XmlCodec<?>> namespaceCodecs =
             CacheBuilder.newBuilder().softValues().build(
                     new CacheLoader<Entry<DataSchemaNode, NamespaceContext>, XmlCodec<?>>() {
                 @Override
                 public XmlCodec<?> load(@Nonnull final Entry<DataSchemaNode, NamespaceContext> schemaNodeAndNamespaceCtxPair)
                         throws Exception {
                     final DataSchemaNode schemaNode = schemaNodeAndNamespaceCtxPair.getKey();
-                    final TypeDefinition<?> type;
-                    if (schemaNode instanceof LeafSchemaNode) {
-                        type = ((LeafSchemaNode) schemaNode).getType();
-                    } else if (schemaNode instanceof LeafListSchemaNode) {
-                        type = ((LeafListSchemaNode) schemaNode).getType();
-                    } else {
-                        throw new IllegalArgumentException("Not supported node type " + schemaNode.getClass().getName());
-                    }
-                    return createCodec(schemaNode,type, schemaNodeAndNamespaceCtxPair.getValue());
+                    return createCodec(schemaNode, codecTree.getType(schemaNode),
+                        schemaNodeAndNamespaceCtxPair.getValue());
                 }
             });
 
-    private final SchemaContext schemaContext;
+    // Shared factories are strongly-held values in SHARED, hence neither they nor their codecs may hold the context
+    // strongly. Factories from create() pin it, so it stays reachable for as long as they are.
+    private final WeakReference<SchemaContext> schemaContext;
+    private final SchemaContext pinnedContext;
+    private final SchemaCodecTree codecTree;
 
-    private XmlCodecFactory(final SchemaContext context) {
-        this.schemaContext = Preconditions.checkNotNull(context);
+    private XmlCodecFactory(final SchemaContext context, final SchemaContext pinnedContext) {
+        this.schemaContext = new WeakReference<>(Preconditions.checkNotNull(context));
+        this.pinnedContext = pinnedContext;
+        codecTree = SchemaCodecTree.from(context);
     }
 
     /**
@@ -94,7 +106,19 @@ public final class XmlCodecFactory {
      * @return A codec factory instance.
      */
     public static XmlCodecFactory create(final SchemaContext context) {
-        return new XmlCodecFactory(context);
+        return new XmlCodecFactory(context, context);
+    }
+
+    /**
+     * Get a codec factory attached to a particular context, shared with other users of the same context. The factory
+     * and the codecs it creates are retained for as long as the context is reachable. The factory does not keep the
+     * context alive, hence callers need to keep a reference to it while they use the factory.
+     *
+     * @param context SchemaContext to which the factory should be bound
+     * @return A shared codec factory instance.
+     */
+    public static XmlCodecFactory getShared(final SchemaContext context) {
+        return SHARED.getUnchecked(context);
     }
 
     private XmlCodec<?> createCodec(final DataSchemaNode key, final TypeDefinition<?> type,
@@ -111,17 +135,13 @@ public final class XmlCodecFactory {
 
     private XmlCodec<?> createReferencedTypeCodec(final DataSchemaNode schema, final LeafrefTypeDefinition type,
                                                   final NamespaceContext namespaceContext) {
-        // FIXME: Verify if this does indeed support leafref of leafref
-        final TypeDefinition<?> referencedType =
-                SchemaContextUtil.getBaseTypeForLeafRef(type, getSchemaContext(), schema);
-        Verify.verifyNotNull(referencedType, "Unable to find base type for leafref node '%s'.", schema.getPath());
-        return createCodec(schema, referencedType, namespaceContext);
+        return createCodec(schema, codecTree.resolveType(schema, type), namespaceContext);
     }
 
     public XmlCodec<QName> createIdentityrefTypeCodec(final DataSchemaNode schema,
                                                       final NamespaceContext namespaceContext) {
         final XmlCodec<QName> xmlStringIdentityrefCodec =
-                new XmlStringIdentityrefCodec(getSchemaContext(), schema.getQName().getModule(), namespaceContext);
+                new XmlStringIdentityrefCodec(this, schema.getQName().getModule(), namespaceContext);
         return xmlStringIdentityrefCodec;
     }
 
@@ -135,15 +155,14 @@ public final class XmlCodecFactory {
         final DataSchemaNode schema, final TypeDefinition<?> type,
         final NamespaceContext namespaceContext) {
         if (type instanceof InstanceIdentifierTypeDefinition) {
-            final XmlCodec<YangInstanceIdentifier> iidCodec = new XmlStringInstanceIdentifierCodec(schemaContext, this,
-                    namespaceContext);
+            final XmlCodec<YangInstanceIdentifier> iidCodec = new XmlStringInstanceIdentifierCodec(this, namespaceContext);
             return iidCodec;
         }
         if (type instanceof EmptyTypeDefinition) {
             return XmlEmptyCodec.INSTANCE;
         }
 
-        final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(type);
+        final TypeDefinitionAwareCodec<Object, ?> codec = codecTree.getCodec(type);
         if (codec == null) {
             LOG.debug("Codec for type \"{}\" is not implemented yet.", type.getQName().getLocalName());
             return NULL_CODEC;
@@ -152,11 +171,31 @@ public final class XmlCodecFactory {
     }
 
     SchemaContext getSchemaContext() {
-        return schemaContext;
+        final SchemaContext ret = schemaContext.get();
+        Preconditions.checkState(ret != null, "SchemaContext of %s is no longer reachable", this);
+        return ret;
     }
 
     XmlCodec<?> codecFor(final DataSchemaNode schema, final NamespaceContext namespaceContext) {
-        return codecs.getUnchecked(new SimpleImmutableEntry<>(schema, namespaceContext));
+        final XmlCodec<?> existing = codecs.get(schema);
+        if (existing != null) {
+            return existing;
+        }
+
+        final TypeDefinition<?> type = codecTree.getType(schema);
+        if (isNamespaceDependent(type)) {
+            return namespaceCodecs.getUnchecked(new SimpleImmutableEntry<>(schema, namespaceContext));
+        }
+
+        // Do not use computeIfAbsent(), as codec creation may end up looking up other codecs
+        final XmlCodec<?> created = createCodec(schema, type, namespaceContext);
+        final XmlCodec<?> raced = codecs.putIfAbsent(schema, created);
+        return raced != null ? raced : created;
+    }
+
+    private static boolean isNamespaceDependent(final TypeDefinition<?> type) {
+        return type instanceof IdentityrefTypeDefinition || type instanceof InstanceIdentifierTypeDefinition
+                || type instanceof UnionTypeDefinition;
     }
 
     XmlCodec<?> codecFor(final DataSchemaNode schema, final TypeDefinition<?> unionSubType,
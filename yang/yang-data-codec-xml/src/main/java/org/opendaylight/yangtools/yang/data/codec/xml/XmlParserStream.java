@@ -68,13 +68,16 @@ public final class XmlParserStream implements Closeable, Flushable {
     }
 
     private final NormalizedNodeStreamWriter writer;
+    // Keeps the context reachable for the shared codec factory, which holds it only weakly
+    private final SchemaContext schemaContext;
     private final XmlCodecFactory codecs;
     private final DataSchemaNode parentNode;
 
     private XmlParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
                              final DataSchemaNode parentNode) {
         this.writer = Preconditions.checkNotNull(writer);
-        this.codecs = XmlCodecFactory.create(schemaContext);
+        this.schemaContext = Preconditions.checkNotNull(schemaContext);
+        this.codecs = XmlCodecFactory.getShared(schemaContext);
         this.parentNode = parentNode;
     }
 
@@ -11,7 +11,6 @@ package org.opendaylight.yangtools.yang.data.codec.xml;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Verify;
 import java.net.URI;
 import java.util.Map.Entry;
 import javax.annotation.Nonnull;
@@ -20,6 +19,7 @@ import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.QNameModule;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaCodecTree;
 import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
@@ -28,8 +28,6 @@ import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
-import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,9 +38,11 @@ import org.slf4j.LoggerFactory;
 class XmlStreamUtils {
     private static final Logger LOG = LoggerFactory.getLogger(XmlStreamUtils.class);
     private final Optional<SchemaContext> schemaContext;
+    private final SchemaCodecTree codecTree;
 
     private XmlStreamUtils(final SchemaContext schemaContext) {
         this.schemaContext = Optional.fromNullable(schemaContext);
+        this.codecTree = schemaContext == null ? null : SchemaCodecTree.from(schemaContext);
     }
 
     static XmlStreamUtils create(final SchemaContext schemaContext) {
@@ -80,14 +80,12 @@ class XmlStreamUtils {
                 "Unable to write value for node %s, only nodes of type: leaf and leaf-list can be written at this point",
                 schemaNode.getQName());
 
-        TypeDefinition<?> type = schemaNode instanceof LeafSchemaNode ?
-                ((LeafSchemaNode) schemaNode).getType():
-                ((LeafListSchemaNode) schemaNode).getType();
-
-        if (schemaContext.isPresent() && type instanceof LeafrefTypeDefinition) {
-            LeafrefTypeDefinition leafrefTypeDefinition = (LeafrefTypeDefinition) type;
-            type = SchemaContextUtil.getBaseTypeForLeafRef(leafrefTypeDefinition, schemaContext.get(), schemaNode);
-            Verify.verifyNotNull(type, "Unable to find base type for leafref node '%s'.", schemaNode.getPath());
+        final TypeDefinition<?> type;
+        if (codecTree != null) {
+            type = codecTree.getType(schemaNode);
+        } else {
+            type = schemaNode instanceof LeafSchemaNode ? ((LeafSchemaNode) schemaNode).getType()
+                    : ((LeafListSchemaNode) schemaNode).getType();
         }
 
         writeValue(writer, type, value, parent);
@@ -130,7 +128,8 @@ class XmlStreamUtils {
         } else if (type instanceof InstanceIdentifierTypeDefinition) {
             write(writer, (InstanceIdentifierTypeDefinition) type, value);
         } else {
-            final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(type);
+            final TypeDefinitionAwareCodec<Object, ?> codec = codecTree != null ? codecTree.getCodec(type)
+                    : TypeDefinitionAwareCodec.from(type);
             String text;
             if (codec != null) {
                 try {
@@ -16,22 +16,27 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.QNameModule;
-import org.opendaylight.yangtools.yang.data.util.ModuleStringIdentityrefCodec;
+import org.opendaylight.yangtools.yang.data.util.AbstractModuleStringIdentityrefCodec;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
-final class XmlStringIdentityrefCodec extends ModuleStringIdentityrefCodec implements XmlCodec<QName> {
+final class XmlStringIdentityrefCodec extends AbstractModuleStringIdentityrefCodec implements XmlCodec<QName> {
 
+    // The context is looked up through the factory, which may hold it only weakly
+    private final XmlCodecFactory codecFactory;
+    private final QNameModule parentModuleQname;
     private final NamespaceContext namespaceContext;
 
-    XmlStringIdentityrefCodec(final SchemaContext context, final QNameModule parentModule,
+    XmlStringIdentityrefCodec(final XmlCodecFactory codecFactory, final QNameModule parentModule,
                               final NamespaceContext namespaceContext) {
-        super(context, parentModule);
+        this.codecFactory = Preconditions.checkNotNull(codecFactory);
+        this.parentModuleQname = Preconditions.checkNotNull(parentModule);
         this.namespaceContext = Preconditions.checkNotNull(namespaceContext);
     }
 
     @Override
     protected Module moduleForPrefix(@Nonnull final String prefix) {
+        final SchemaContext context = codecFactory.getSchemaContext();
         if (prefix.isEmpty()) {
             return context.findModuleByNamespaceAndRevision(parentModuleQname.getNamespace(),
                     parentModuleQname.getRevision());
@@ -41,6 +46,12 @@ final class XmlStringIdentityrefCodec extends ModuleStringIdentityrefCodec imple
         }
     }
 
+    @Override
+    protected String prefixForNamespace(@Nonnull final URI namespace) {
+        final Module module = codecFactory.getSchemaContext().findModuleByNamespaceAndRevision(namespace, null);
+        return module == null ? null : module.getName();
+    }
+
     /**
      * Serialize QName with specified XMLStreamWriter.
      *
@@ -20,20 +20,15 @@ import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
-import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 final class XmlStringInstanceIdentifierCodec  extends AbstractModuleStringInstanceIdentifierCodec
         implements XmlCodec<YangInstanceIdentifier> {
 
-    private final DataSchemaContextTree dataContextTree;
+    // The context is looked up through the factory, which may hold it only weakly
     private final XmlCodecFactory codecFactory;
-    private final SchemaContext context;
     private final NamespaceContext namespaceContext;
 
-    XmlStringInstanceIdentifierCodec(final SchemaContext context, final XmlCodecFactory xmlCodecFactory,
-                                     final NamespaceContext namespaceContext) {
-        this.context = Preconditions.checkNotNull(context);
-        this.dataContextTree = DataSchemaContextTree.from(context);
+    XmlStringInstanceIdentifierCodec(final XmlCodecFactory xmlCodecFactory, final NamespaceContext namespaceContext) {
         this.codecFactory = Preconditions.checkNotNull(xmlCodecFactory);
         this.namespaceContext = Preconditions.checkNotNull(namespaceContext);
     }
@@ -41,19 +36,19 @@ final class XmlStringInstanceIdentifierCodec  extends AbstractModuleStringInstan
     @Override
     protected Module moduleForPrefix(@Nonnull final String prefix) {
         final String prefixedNS = namespaceContext.getNamespaceURI(prefix);
-        return context.findModuleByNamespaceAndRevision(URI.create(prefixedNS), null);
+        return codecFactory.getSchemaContext().findModuleByNamespaceAndRevision(URI.create(prefixedNS), null);
     }
 
     @Override
     protected String prefixForNamespace(@Nonnull final URI namespace) {
-        final Module module = context.findModuleByNamespaceAndRevision(namespace, null);
+        final Module module = codecFactory.getSchemaContext().findModuleByNamespaceAndRevision(namespace, null);
         return module == null ? null : module.getName();
     }
 
     @Nonnull
     @Override
     protected DataSchemaContextTree getDataContextTree() {
-        return dataContextTree;
+        return DataSchemaContextTree.from(codecFactory.getSchemaContext());
     }
 
     @Override
@@ -15,14 +15,12 @@ import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT16_QNAME;
 import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT32_QNAME;
 import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT64_QNAME;
 import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT8_QNAME;
-import com.google.common.base.CharMatcher;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Range;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.RangeConstraint;
@@ -30,13 +28,6 @@ import org.opendaylight.yangtools.yang.model.api.type.UnsignedIntegerTypeDefinit
 
 abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T extends TypeDefinition<T>> extends TypeDefinitionAwareCodec<N, T>{
 
-    private static final Pattern INT_PATTERN = Pattern.compile("[+-]?[1-9][0-9]*$");
-    private static final Pattern HEX_PATTERN = Pattern.compile("[+-]?0[xX][0-9a-fA-F]+");
-    private static final Pattern OCT_PATTERN = Pattern.compile("[+-]?0[1-7][0-7]*$");
-
-    // For up to two characters, this is very fast
-    private static final CharMatcher X_MATCHER = CharMatcher.anyOf("xX");
-
     private static final String INCORRECT_LEXICAL_REPRESENTATION = "Incorrect lexical representation of integer value: %s."
             + "\nAn integer value can be defined as: "
             + "\n  - a decimal number,"
@@ -113,17 +104,114 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
 
     @Override
     public final N deserialize(final String stringRepresentation) {
-        final int base = provideBase(stringRepresentation);
-        final N deserialized;
-        if (base == 16) {
-            deserialized = deserialize(normalizeHexadecimal(stringRepresentation),base);
-        } else {
-            deserialized = deserialize(stringRepresentation,base);
-        }
+        Preconditions.checkArgument(stringRepresentation != null, "String representing integer number cannot be NULL");
+        final N deserialized = parse(stringRepresentation);
         validate(deserialized);
         return deserialized;
     }
 
+    /**
+     * Parse a string representation without going through regular expressions or intermediate strings. Accepted
+     * forms are "0", a decimal number without leading zeroes, a hexadecimal number prefixed with "0x" and an octal
+     * number prefixed with "0", all of them optionally signed. Values are accumulated as negative longs, like
+     * {@link Long#parseLong(String)} does, so that the full range of long is covered. Only values which do not fit
+     * into a long are handed over to {@link #deserialize(String, int)}.
+     */
+    private N parse(final String str) {
+        final int length = str.length();
+        if (length == 1 && str.charAt(0) == '0') {
+            return valueOf(0);
+        }
+
+        final boolean negative;
+        int offset = 0;
+        if (length > 1 && (str.charAt(0) == '+' || str.charAt(0) == '-')) {
+            negative = str.charAt(0) == '-';
+            offset = 1;
+        } else {
+            negative = false;
+        }
+        if (offset == length) {
+            throw incorrectLexicalRepresentation(str);
+        }
+
+        final int radix;
+        final int start;
+        final char first = str.charAt(offset);
+        if (first >= '1' && first <= '9') {
+            radix = 10;
+            start = offset;
+        } else if (first == '0' && offset + 1 < length) {
+            final char second = str.charAt(offset + 1);
+            if (second == 'x' || second == 'X') {
+                radix = 16;
+                start = offset + 2;
+            } else if (second >= '1' && second <= '7') {
+                radix = 8;
+                start = offset + 1;
+            } else {
+                throw incorrectLexicalRepresentation(str);
+            }
+        } else {
+            throw incorrectLexicalRepresentation(str);
+        }
+        if (start == length) {
+            throw incorrectLexicalRepresentation(str);
+        }
+
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multmin = limit / radix;
+        boolean overflow = false;
+        long result = 0;
+        for (int i = start; i < length; ++i) {
+            final int digit = digit(str.charAt(i), radix);
+            if (digit < 0) {
+                throw incorrectLexicalRepresentation(str);
+            }
+            if (!overflow) {
+                if (result < multmin || result * radix < limit + digit) {
+                    overflow = true;
+                } else {
+                    result = result * radix - digit;
+                }
+            }
+        }
+
+        if (overflow) {
+            return deserialize(negative ? "-" + str.substring(start) : str.substring(start), radix);
+        }
+        return valueOf(negative ? result : -result);
+    }
+
+    private static int digit(final char ch, final int radix) {
+        final int digit;
+        if (ch >= '0' && ch <= '9') {
+            digit = ch - '0';
+        } else if (ch >= 'a' && ch <= 'f') {
+            digit = ch - 'a' + 10;
+        } else if (ch >= 'A' && ch <= 'F') {
+            digit = ch - 'A' + 10;
+        } else {
+            return -1;
+        }
+        return digit < radix ? digit : -1;
+    }
+
+    private static NumberFormatException incorrectLexicalRepresentation(final String str) {
+        return new NumberFormatException(String.format(INCORRECT_LEXICAL_REPRESENTATION, str));
+    }
+
+    /**
+     * Report that a parsed value does not fit into the output type. The message follows the format used by
+     * {@link Byte#valueOf(String, int)} and friends, but it reports the parsed value in decimal, without the input text
+     * and its radix.
+     *
+     * @param value Parsed value
+     * @return A NumberFormatException to be thrown
+     */
+    protected static NumberFormatException outOfRange(final long value) {
+        return new NumberFormatException("Value out of range. Value:\"" + value + "\"");
+    }
 
     private void validate(final N value) {
         if (rangeConstraints.isEmpty()) {
@@ -150,6 +238,15 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
      */
     protected abstract N deserialize(String stringRepresentation, int radix);
 
+    /**
+     * Converts a parsed value to the output type.
+     *
+     * @param value Parsed value
+     * @return Deserialized value.
+     * @throws NumberFormatException if the value does not fit into the output type
+     */
+    protected abstract N valueOf(long value);
+
     protected abstract N convertValue(Number value);
 
 
@@ -166,27 +263,4 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
         }
         return type.getRangeConstraints();
     }
-
-    private static int provideBase(final String integer) {
-        Preconditions.checkArgument(integer != null, "String representing integer number cannot be NULL");
-
-        if (integer.length() == 1 && integer.charAt(0) == '0') {
-            return 10;
-        } else if (INT_PATTERN.matcher(integer).matches()) {
-            return 10;
-        } else if (HEX_PATTERN.matcher(integer).matches()) {
-            return 16;
-        } else if (OCT_PATTERN.matcher(integer).matches()) {
-            return 8;
-        } else {
-            throw new NumberFormatException(String.format(INCORRECT_LEXICAL_REPRESENTATION, integer));
-        }
-    }
-
-    private static String normalizeHexadecimal(final String hexInt) {
-        Preconditions.checkArgument(hexInt != null,
-                "String representing integer number in Hexadecimal format cannot be NULL!");
-
-        return X_MATCHER.removeFrom(hexInt);
-    }
 }
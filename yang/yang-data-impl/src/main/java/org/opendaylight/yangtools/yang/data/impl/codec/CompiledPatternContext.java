@@ -7,18 +7,18 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.codec;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import java.util.regex.Pattern;
+import org.opendaylight.yangtools.yang.data.util.CompiledPattern;
 import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
 
 class CompiledPatternContext {
-
-    private final Pattern pattern;
+    private final CompiledPattern pattern;
     private final String errorMessage;
 
     CompiledPatternContext(final PatternConstraint yangConstraint) {
-        pattern = Pattern.compile("^" + yangConstraint.getRegularExpression() + "$");
+        pattern = CompiledPattern.of(yangConstraint);
         final String yangMessage = yangConstraint.getErrorMessage();
         if (Strings.isNullOrEmpty(yangMessage)) {
             errorMessage = "Value %s does not match regular expression <" + pattern.pattern() + ">";
@@ -28,7 +28,11 @@ class CompiledPatternContext {
     }
 
     public void validate(final String s) {
-        Preconditions.checkArgument(pattern.matcher(s).matches(), errorMessage, s);
+        Preconditions.checkArgument(pattern.matches(s), errorMessage, s);
     }
 
-}
\ No newline at end of file
+    @VisibleForTesting
+    boolean isDeterministic() {
+        return pattern.isDeterministic();
+    }
+}
@@ -33,6 +33,50 @@ final class DecimalStringCodec extends TypeDefinitionAwareCodec<BigDecimal, Deci
     @Override
     public BigDecimal deserialize(final String stringRepresentation) {
         Preconditions.checkArgument( stringRepresentation != null , "Input cannot be null" );
-        return new BigDecimal(stringRepresentation);
+        final BigDecimal plain = parsePlain(stringRepresentation);
+        return plain != null ? plain : new BigDecimal(stringRepresentation);
+    }
+
+    /**
+     * Parse an optionally-signed sequence of digits with an optional fraction, which is the lexical form of decimal64,
+     * without going through the string parser of {@link BigDecimal}. Values with more than 18 digits, which may not
+     * fit into a long, and any other forms, like exponents, are left to {@link BigDecimal#BigDecimal(String)}.
+     *
+     * @param str String representation
+     * @return Parsed value, or null if the string needs to be parsed by BigDecimal
+     */
+    private static BigDecimal parsePlain(final String str) {
+        final int length = str.length();
+        int offset = 0;
+        boolean negative = false;
+        if (length != 0 && (str.charAt(0) == '-' || str.charAt(0) == '+')) {
+            negative = str.charAt(0) == '-';
+            offset = 1;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = offset; i < length; ++i) {
+            final char ch = str.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (++digits > 18) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (ch - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (ch == '.' && scale < 0 && digits != 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+
+        if (digits == 0 || scale == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale < 0 ? 0 : scale);
     }
 }
@@ -23,6 +23,14 @@ final class Int16StringCodec extends AbstractIntegerStringCodec<Short, IntegerTy
         return Short.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Short valueOf(final long value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw outOfRange(value);
+        }
+        return Short.valueOf((short) value);
+    }
+
     @Override
     public String serialize(final Short data) {
         return Objects.toString(data, "");
@@ -23,6 +23,14 @@ final class Int32StringCodec extends AbstractIntegerStringCodec<Integer, Integer
         return Integer.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Integer valueOf(final long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw outOfRange(value);
+        }
+        return Integer.valueOf((int) value);
+    }
+
     @Override
     public String serialize(final Integer data) {
         return Objects.toString(data, "");
@@ -24,6 +24,11 @@ final class Int64StringCodec extends AbstractIntegerStringCodec<Long, IntegerTyp
         return Long.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Long valueOf(final long value) {
+        return Long.valueOf(value);
+    }
+
     @Override
     public String serialize(final Long data) {
         return Objects.toString(data, "");
@@ -24,6 +24,14 @@ final class Int8StringCodec extends AbstractIntegerStringCodec<Byte, IntegerType
         return Byte.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Byte valueOf(final long value) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw outOfRange(value);
+        }
+        return Byte.valueOf((byte) value);
+    }
+
     @Override
     public String serialize(final Byte data) {
         return Objects.toString(data, "");
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.base.Verify;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.lang.ref.WeakReference;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+
+/**
+ * Format-independent codec information bound to a {@link SchemaContext}. It caches the effective type of each leaf
+ * and leaf-list, with leafrefs resolved to the type of their target, and the {@link TypeDefinitionAwareCodec} for
+ * each type. Instances are shared via {@link #from(SchemaContext)}, so that format-specific codec factories do not
+ * need to derive this information on their own.
+ *
+ * <p>
+ * Cached information is strongly reachable from the tree and keyed by schema node and type identity, hence it is
+ * bounded by the size of the schema. The tree itself is retained for as long as its SchemaContext is reachable and
+ * refers to the context only weakly, so it does not keep it alive. Users of a tree are expected to hold on to the
+ * SchemaContext while they use it.
+ */
+@Beta
+public final class SchemaCodecTree {
+    private static final LoadingCache<SchemaContext, SchemaCodecTree> TREES = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, SchemaCodecTree>() {
+                @Override
+                public SchemaCodecTree load(@Nonnull final SchemaContext key) {
+                    return new SchemaCodecTree(key);
+                }
+            });
+
+    private final LoadingCache<SchemaNode, TypeDefinition<?>> types = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<SchemaNode, TypeDefinition<?>>() {
+                @Override
+                public TypeDefinition<?> load(@Nonnull final SchemaNode key) {
+                    final TypeDefinition<?> type = key instanceof LeafSchemaNode ? ((LeafSchemaNode) key).getType()
+                            : ((LeafListSchemaNode) key).getType();
+                    return resolveType(key, type);
+                }
+            });
+
+    private final LoadingCache<TypeDefinition<?>, Optional<TypeDefinitionAwareCodec<Object, ?>>> codecs =
+            CacheBuilder.newBuilder().weakKeys().build(
+                new CacheLoader<TypeDefinition<?>, Optional<TypeDefinitionAwareCodec<Object, ?>>>() {
+                    @Override
+                    public Optional<TypeDefinitionAwareCodec<Object, ?>> load(
+                            @Nonnull final TypeDefinition<?> key) {
+                        return Optional.<TypeDefinitionAwareCodec<Object, ?>>fromNullable(
+                            TypeDefinitionAwareCodec.from(key));
+                    }
+                });
+
+    // Weak, as this object is a strongly-held value in TREES
+    private final WeakReference<SchemaContext> schemaContext;
+
+    private SchemaCodecTree(final SchemaContext schemaContext) {
+        this.schemaContext = new WeakReference<>(Preconditions.checkNotNull(schemaContext));
+    }
+
+    /**
+     * Return the codec tree attached to a particular SchemaContext.
+     *
+     * @param ctx SchemaContext to which the tree should be bound
+     * @return A shared codec tree instance
+     */
+    @Nonnull public static SchemaCodecTree from(@Nonnull final SchemaContext ctx) {
+        return TREES.getUnchecked(ctx);
+    }
+
+    /**
+     * Return the SchemaContext to which this tree is bound.
+     *
+     * @return Bound SchemaContext
+     * @throws IllegalStateException if the SchemaContext is no longer reachable
+     */
+    @Nonnull public SchemaContext getSchemaContext() {
+        final SchemaContext ret = schemaContext.get();
+        Preconditions.checkState(ret != null, "SchemaContext of %s is no longer reachable", this);
+        return ret;
+    }
+
+    /**
+     * Return the effective type of a leaf or a leaf-list. If the node is a leafref, the type of the referenced node
+     * is returned.
+     *
+     * @param schema Leaf or leaf-list schema node
+     * @return Effective type of the node
+     * @throws IllegalArgumentException if the node is neither a leaf nor a leaf-list
+     */
+    @Nonnull public TypeDefinition<?> getType(@Nonnull final SchemaNode schema) {
+        Preconditions.checkArgument(schema instanceof LeafSchemaNode || schema instanceof LeafListSchemaNode,
+            "Not supported node type %s", schema.getClass().getName());
+        try {
+            return types.getUnchecked(schema);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Resolve the effective type of a type used by a node, following leafrefs to the type of the referenced node.
+     * The result is not cached, as this method is intended for types which are not directly attached to a node,
+     * like union members.
+     *
+     * @param schema Schema node using the type
+     * @param type Type to resolve
+     * @return Effective type
+     */
+    @Nonnull public TypeDefinition<?> resolveType(@Nonnull final SchemaNode schema,
+            @Nonnull final TypeDefinition<?> type) {
+        TypeDefinition<?> ret = type;
+        while (ret instanceof LeafrefTypeDefinition) {
+            ret = SchemaContextUtil.getBaseTypeForLeafRef((LeafrefTypeDefinition) ret, getSchemaContext(), schema);
+            Verify.verifyNotNull(ret, "Unable to find base type for leafref node '%s'.", schema.getPath());
+        }
+        return ret;
+    }
+
+    /**
+     * Return the {@link TypeDefinitionAwareCodec} for a type.
+     *
+     * @param type Type definition
+     * @return Codec instance, or null if the type is not supported
+     */
+    @Nullable public TypeDefinitionAwareCodec<Object, ?> getCodec(@Nonnull final TypeDefinition<?> type) {
+        return codecs.getUnchecked(type).orNull();
+    }
+}
@@ -24,6 +24,14 @@ final class Uint16StringCodec extends AbstractIntegerStringCodec<Integer, Unsign
         return Integer.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Integer valueOf(final long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw outOfRange(value);
+        }
+        return Integer.valueOf((int) value);
+    }
+
     @Override
     public String serialize(final Integer data) {
         return Objects.toString(data, "");
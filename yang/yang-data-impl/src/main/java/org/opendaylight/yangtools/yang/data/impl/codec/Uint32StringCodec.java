@@ -25,6 +25,11 @@ final class Uint32StringCodec extends AbstractIntegerStringCodec<Long, UnsignedI
         return Long.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Long valueOf(final long value) {
+        return Long.valueOf(value);
+    }
+
     @Override
     public String serialize(final Long data) {
         return Objects.toString(data, "");
@@ -30,6 +30,14 @@ final class Uint8StringCodec extends AbstractIntegerStringCodec<Short, UnsignedI
         return Short.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    protected Short valueOf(final long value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw outOfRange(value);
+        }
+        return Short.valueOf((short) value);
+    }
+
     @Override
     protected Short convertValue(final Number value) {
         return value.shortValue();
@@ -10,8 +10,11 @@ package org.opendaylight.yangtools.yang.data.impl.codec;
 
 import com.google.common.base.Optional;
 import com.google.common.io.BaseEncoding;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.opendaylight.yangtools.yang.data.api.codec.UnionCodec;
+import org.opendaylight.yangtools.yang.data.util.UnionMemberClassifier;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
 import org.slf4j.Logger;
@@ -21,8 +24,25 @@ final class UnionStringCodec extends TypeDefinitionAwareCodec<Object, UnionTypeD
 
     private final static Logger LOG = LoggerFactory.getLogger(UnionStringCodec.class);
 
+    private final List<TypeDefinition<?>> types;
+    private final List<TypeDefinitionAwareCodec<Object, ?>> codecs;
+    private final List<UnionMemberClassifier> classifiers;
+
     private UnionStringCodec(final Optional<UnionTypeDefinition> typeDef) {
         super(typeDef, Object.class);
+        if (typeDef.isPresent()) {
+            types = typeDef.get().getTypes();
+            codecs = new ArrayList<>(types.size());
+            classifiers = new ArrayList<>(types.size());
+            for (final TypeDefinition<?> type : types) {
+                codecs.add(from(type));
+                classifiers.add(UnionMemberClassifier.forType(type));
+            }
+        } else {
+            types = null;
+            codecs = null;
+            classifiers = null;
+        }
     }
 
     static TypeDefinitionAwareCodec<?, UnionTypeDefinition> from(final UnionTypeDefinition normalizedType) {
@@ -40,12 +60,12 @@ final class UnionStringCodec extends TypeDefinitionAwareCodec<Object, UnionTypeD
     @Override
     public Object deserialize(final String stringRepresentation) {
 
-        if (!getTypeDefinition().isPresent()) {
+        if (types == null) {
             return stringRepresentation;
         }
 
-        for (final TypeDefinition<?> type : getTypeDefinition().get().getTypes()) {
-            final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> typeAwareCodec = from(type);
+        for (int i = 0; i < types.size(); ++i) {
+            final TypeDefinitionAwareCodec<Object, ?> typeAwareCodec = codecs.get(i);
             if (typeAwareCodec == null) {
                 /*
                  * This is a type for which we have no codec (eg identity ref) so we'll say it's
@@ -53,12 +73,15 @@ final class UnionStringCodec extends TypeDefinitionAwareCodec<Object, UnionTypeD
                  */
                 return stringRepresentation;
             }
+            if (stringRepresentation != null && !classifiers.get(i).mayDeserialize(stringRepresentation)) {
+                continue;
+            }
 
             try {
                 typeAwareCodec.deserialize(stringRepresentation);
                 return stringRepresentation;
             } catch (final Exception e) {
-                LOG.debug("Value {} did not matched representation for {}",stringRepresentation,type,e);
+                LOG.debug("Value {} did not matched representation for {}", stringRepresentation, types.get(i), e);
                 // invalid - try the next union type.
             }
         }
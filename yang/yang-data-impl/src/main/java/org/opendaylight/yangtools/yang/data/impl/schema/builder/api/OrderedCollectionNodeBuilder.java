@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.api;
+
+import com.google.common.annotations.Beta;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * A {@link CollectionNodeBuilder} of a user-ordered collection, which allows children to be placed at a specific
+ * position.
+ */
+@Beta
+public interface OrderedCollectionNodeBuilder<V extends NormalizedNode<?, ?>,
+        R extends NormalizedNode<NodeIdentifier, ?>> extends CollectionNodeBuilder<V, R> {
+    /**
+     * Insert a child at specified position, shifting the child currently at that position and any subsequent children
+     * towards the end. If a child with the same identifier is already present, it is removed first, hence the position
+     * is interpreted as if it were not present.
+     *
+     * @param position Position, between zero and the current number of children
+     * @param child Child to insert
+     * @return this builder
+     * @throws IndexOutOfBoundsException if the position is out of bounds
+     */
+    OrderedCollectionNodeBuilder<V, R> withChild(int position, V child);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps track of the hash code of a builder's children, as defined by {@link Map#hashCode()}, while the builder is
+ * being modified. This allows a node derived from an existing node with a known hash code to be hashed without
+ * looking at its unmodified children. If the initial hash code is not known, this class does nothing, so that
+ * children are not hashed unless someone asks for it.
+ */
+final class ChildrenHashTracker {
+    private boolean known;
+    private int hashCode;
+
+    ChildrenHashTracker() {
+        // Hash code not known
+    }
+
+    ChildrenHashTracker(@Nullable final Integer hashCode) {
+        if (hashCode != null) {
+            this.known = true;
+            this.hashCode = hashCode;
+        }
+    }
+
+    /**
+     * Account for a child being replaced.
+     *
+     * @param key Child key
+     * @param oldValue Previous child, null if it was not present
+     * @param newValue New child, null if it has been removed
+     */
+    void update(final Object key, @Nullable final Object oldValue, @Nullable final Object newValue) {
+        if (known && oldValue != newValue) {
+            if (oldValue != null) {
+                hashCode -= key.hashCode() ^ oldValue.hashCode();
+            }
+            if (newValue != null) {
+                hashCode += key.hashCode() ^ newValue.hashCode();
+            }
+        }
+    }
+
+    /**
+     * Return the hash code of the children.
+     *
+     * @return Hash code of the children, or null if it is not known
+     */
+    @Nullable
+    Integer hashCodeIfKnown() {
+        return known ? hashCode : null;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.util.MapAdaptor;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
+
+/**
+ * Builder of {@link MapNode}s which store their entries column-wise, trading entry access speed for a much smaller
+ * memory footprint. It is suitable for large lists whose entries consist of the same set of leaves, such as lists
+ * of counters. Entries are re-created each time they are accessed, hence callers should not rely on their identity.
+ *
+ * <p>
+ * Entries which do not fit the column layout are kept as they are. If most of the entries do not fit, this builder
+ * produces a regular {@link MapNode}.
+ *
+ * <p>
+ * Modifications of a node built by this class are kept in an overlay on top of its columns. The columns are
+ * re-packed once the overlay grows too large. Both {@link #create(MapNode)} and
+ * {@link ImmutableMapNodeBuilder#create(MapNode)} retain the columnar representation, hence modifications made
+ * through a data tree do not expand the node.
+ *
+ * <p>
+ * Like other nodes, columnar nodes compare equal only to other columnar nodes.
+ */
+@Beta
+public class ImmutableColumnarMapNodeBuilder implements CollectionNodeBuilder<MapEntryNode, MapNode> {
+    private static final int MIN_REPACK_SIZE = 64;
+    private static final int REPACK_RATIO = 8;
+
+    private final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> overlay;
+    private final MapEntryColumns columns;
+    private NodeIdentifier nodeIdentifier;
+    private int size;
+
+    protected ImmutableColumnarMapNodeBuilder() {
+        this.overlay = new HashMap<>();
+        this.columns = null;
+    }
+
+    protected ImmutableColumnarMapNodeBuilder(final ColumnarMapNode node) {
+        this.nodeIdentifier = node.getIdentifier();
+        this.overlay = MapAdaptor.getDefaultInstance().takeSnapshot(node.overlay);
+        this.columns = node.columns;
+        this.size = node.size;
+    }
+
+    public static CollectionNodeBuilder<MapEntryNode, MapNode> create() {
+        return new ImmutableColumnarMapNodeBuilder();
+    }
+
+    /**
+     * Create a builder initialized from an existing node. If the node is not a columnar node, its entries are
+     * copied and will be packed when the builder is built.
+     *
+     * @param node Node to initialize from
+     * @return A new builder
+     */
+    public static CollectionNodeBuilder<MapEntryNode, MapNode> create(final MapNode node) {
+        if (node instanceof ColumnarMapNode) {
+            return new ImmutableColumnarMapNodeBuilder((ColumnarMapNode) node);
+        }
+
+        return new ImmutableColumnarMapNodeBuilder().withNodeIdentifier(node.getIdentifier())
+                .withValue(node.getValue());
+    }
+
+    /**
+     * Check whether a node stores its entries column-wise, i.e. whether it has been built by this class.
+     *
+     * @param node Node to check
+     * @return True if the node is a columnar node
+     */
+    public static boolean isColumnar(final NormalizedNode<?, ?> node) {
+        return node instanceof ColumnarMapNode;
+    }
+
+    private boolean inColumns(final NodeIdentifierWithPredicates key) {
+        return columns != null && columns.rowOf(key) >= 0;
+    }
+
+    @Override
+    public CollectionNodeBuilder<MapEntryNode, MapNode> withChild(final MapEntryNode child) {
+        final Optional<MapEntryNode> previous = overlay.put(child.getIdentifier(), Optional.of(child));
+        if (previous == null ? !inColumns(child.getIdentifier()) : !previous.isPresent()) {
+            size++;
+        }
+        return this;
+    }
+
+    @Override
+    public CollectionNodeBuilder<MapEntryNode, MapNode> withoutChild(final PathArgument key) {
+        if (key instanceof NodeIdentifierWithPredicates) {
+            final NodeIdentifierWithPredicates id = (NodeIdentifierWithPredicates) key;
+            if (inColumns(id)) {
+                // Entries stored in columns are masked
+                final Optional<MapEntryNode> previous = overlay.put(id, Optional.<MapEntryNode>absent());
+                if (previous == null || previous.isPresent()) {
+                    size--;
+                }
+            } else if (overlay.remove(id) != null) {
+                size--;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public CollectionNodeBuilder<MapEntryNode, MapNode> withValue(final Collection<MapEntryNode> value) {
+        for (final MapEntryNode mapEntryNode : value) {
+            withChild(mapEntryNode);
+        }
+
+        return this;
+    }
+
+    @Override
+    public CollectionNodeBuilder<MapEntryNode, MapNode> withNodeIdentifier(final NodeIdentifier nodeIdentifier) {
+        this.nodeIdentifier = nodeIdentifier;
+        return this;
+    }
+
+    @Override
+    public MapNode build() {
+        if (columns != null && overlay.size() <= Math.max(MIN_REPACK_SIZE, columns.size() / REPACK_RATIO)) {
+            return new ColumnarMapNode(nodeIdentifier, columns, MapAdaptor.getDefaultInstance().optimize(overlay),
+                size);
+        }
+
+        final Collection<MapEntryNode> entries = columns == null ? new OverlayEntries(overlay, size)
+                : new ColumnarMapNode(nodeIdentifier, columns, overlay, size).getValue();
+        final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> misfits = new HashMap<>();
+        final MapEntryColumns packed = MapEntryColumns.pack(entries, misfits);
+        if (packed == null || misfits.size() > packed.size()) {
+            return ImmutableMapNodeBuilder.create(size).withNodeIdentifier(nodeIdentifier).withValue(entries).build();
+        }
+
+        return new ColumnarMapNode(nodeIdentifier, packed, MapAdaptor.getDefaultInstance().optimize(misfits), size);
+    }
+
+    @Override
+    public CollectionNodeBuilder<MapEntryNode, MapNode> addChild(final MapEntryNode child) {
+        return withChild(child);
+    }
+
+    @Override
+    public NormalizedNodeContainerBuilder<NodeIdentifier, PathArgument, MapEntryNode, MapNode> removeChild(
+            final PathArgument key) {
+        return withoutChild(key);
+    }
+
+    /**
+     * Entries of an overlay which does not mask any columns.
+     */
+    private static final class OverlayEntries extends AbstractCollection<MapEntryNode> {
+        private final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> overlay;
+        private final int size;
+
+        OverlayEntries(final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> overlay, final int size) {
+            this.overlay = overlay;
+            this.size = size;
+        }
+
+        @Override
+        public Iterator<MapEntryNode> iterator() {
+            return Optional.presentInstances(overlay.values()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    protected static final class ColumnarMapNode
+            extends AbstractImmutableNormalizedNode<NodeIdentifier, Collection<MapEntryNode>>
+            implements Immutable, MapNode {
+        // Entries which replace, mask or are in addition to those stored in columns
+        private final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> overlay;
+        private final MapEntryColumns columns;
+        private final int size;
+
+        ColumnarMapNode(final NodeIdentifier nodeIdentifier, final MapEntryColumns columns,
+                final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> overlay, final int size) {
+            super(nodeIdentifier);
+            this.columns = Preconditions.checkNotNull(columns);
+            this.overlay = Preconditions.checkNotNull(overlay);
+            this.size = size;
+        }
+
+        @Override
+        public Optional<MapEntryNode> getChild(final NodeIdentifierWithPredicates child) {
+            final Optional<MapEntryNode> overlaid = overlay.get(child);
+            if (overlaid != null) {
+                return overlaid;
+            }
+
+            final int row = columns.rowOf(child);
+            return row < 0 ? Optional.<MapEntryNode>absent() : Optional.of(columns.entryAt(row, child));
+        }
+
+        @Override
+        public Collection<MapEntryNode> getValue() {
+            return new AbstractCollection<MapEntryNode>() {
+                @Override
+                public Iterator<MapEntryNode> iterator() {
+                    return Iterators.concat(new ColumnIterator(), Optional.presentInstances(overlay.values())
+                        .iterator());
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        protected int valueHashCode() {
+            // Same as Map.hashCode() of a map holding the entries
+            int result = 0;
+            for (final MapEntryNode entry : getValue()) {
+                result += entry.getIdentifier().hashCode() ^ entry.hashCode();
+            }
+            return result;
+        }
+
+        @Override
+        protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
+            final ColumnarMapNode otherNode = (ColumnarMapNode) other;
+            if (size != otherNode.size) {
+                return false;
+            }
+            for (final MapEntryNode entry : getValue()) {
+                final Optional<MapEntryNode> otherEntry = otherNode.getChild(entry.getIdentifier());
+                if (!otherEntry.isPresent() || !entry.equals(otherEntry.get())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Iterates over entries stored in columns, skipping those which are overlaid.
+         */
+        private final class ColumnIterator extends AbstractIterator<MapEntryNode> {
+            private int row;
+
+            @Override
+            protected MapEntryNode computeNext() {
+                while (row < columns.size()) {
+                    final int current = row++;
+                    if (overlay.isEmpty()) {
+                        return columns.entryAt(current);
+                    }
+
+                    final NodeIdentifierWithPredicates id = columns.identifierAt(current);
+                    if (!overlay.containsKey(id)) {
+                        return columns.entryAt(current, id);
+                    }
+                }
+                return endOfData();
+            }
+        }
+    }
+}
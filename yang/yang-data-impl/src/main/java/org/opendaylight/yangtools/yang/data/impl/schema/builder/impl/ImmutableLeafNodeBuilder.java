@@ -7,11 +7,15 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
 
+import com.google.common.primitives.UnsignedLong;
+import java.math.BigInteger;
 import java.util.Map;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeAttrBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedAttrNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedValueAttrNode;
 
 public class ImmutableLeafNodeBuilder<T> extends AbstractImmutableNormalizedNodeBuilder<NodeIdentifier, T, LeafNode<T>> {
@@ -20,9 +24,35 @@ public class ImmutableLeafNodeBuilder<T> extends AbstractImmutableNormalizedNode
         return new ImmutableLeafNodeBuilder<>();
     }
 
+    /**
+     * Build the leaf node. Values of integer types, including uint64 values represented as {@link BigInteger}s, are
+     * stored as unboxed primitives, which are boxed again on each {@link LeafNode#getValue()} invocation. The node
+     * class depends only on the value, hence equal leaves are always instances of the same class.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public LeafNode<T> build() {
-        return new ImmutableLeafNode<>(getNodeIdentifier(), getValue(), getAttributes());
+        final NodeIdentifier nodeIdentifier = getNodeIdentifier();
+        final T value = getValue();
+        final Map<QName, String> attributes = getAttributes();
+
+        final LeafNode<?> ret;
+        if (value instanceof Integer) {
+            ret = new ImmutableIntLeafNode(nodeIdentifier, (Integer) value, attributes);
+        } else if (value instanceof Long) {
+            ret = new ImmutableLongLeafNode(nodeIdentifier, (Long) value, attributes);
+        } else if (value instanceof Short) {
+            ret = new ImmutableShortLeafNode(nodeIdentifier, (Short) value, attributes);
+        } else if (value instanceof BigInteger && isUint64((BigInteger) value)) {
+            ret = new ImmutableUint64LeafNode(nodeIdentifier, ((BigInteger) value).longValue(), attributes);
+        } else {
+            ret = new ImmutableLeafNode<>(nodeIdentifier, value, attributes);
+        }
+        return (LeafNode<T>) ret;
+    }
+
+    private static boolean isUint64(final BigInteger value) {
+        return value.signum() >= 0 && value.bitLength() <= Long.SIZE;
     }
 
     private static final class ImmutableLeafNode<T> extends AbstractImmutableNormalizedValueAttrNode<NodeIdentifier, T> implements LeafNode<T> {
@@ -31,4 +61,112 @@ public class ImmutableLeafNodeBuilder<T> extends AbstractImmutableNormalizedNode
             super(nodeIdentifier, value, attributes);
         }
     }
+
+    private static final class ImmutableIntLeafNode extends AbstractImmutableNormalizedAttrNode<NodeIdentifier, Integer>
+            implements LeafNode<Integer> {
+        private final int value;
+
+        ImmutableIntLeafNode(final NodeIdentifier nodeIdentifier, final int value,
+                final Map<QName, String> attributes) {
+            super(nodeIdentifier, attributes);
+            this.value = value;
+        }
+
+        @Override
+        public Integer getValue() {
+            return value;
+        }
+
+        @Override
+        protected int valueHashCode() {
+            return Integer.hashCode(value);
+        }
+
+        @Override
+        protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
+            return value == ((ImmutableIntLeafNode) other).value;
+        }
+    }
+
+    private static final class ImmutableLongLeafNode extends AbstractImmutableNormalizedAttrNode<NodeIdentifier, Long>
+            implements LeafNode<Long> {
+        private final long value;
+
+        ImmutableLongLeafNode(final NodeIdentifier nodeIdentifier, final long value,
+                final Map<QName, String> attributes) {
+            super(nodeIdentifier, attributes);
+            this.value = value;
+        }
+
+        @Override
+        public Long getValue() {
+            return value;
+        }
+
+        @Override
+        protected int valueHashCode() {
+            return Long.hashCode(value);
+        }
+
+        @Override
+        protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
+            return value == ((ImmutableLongLeafNode) other).value;
+        }
+    }
+
+    private static final class ImmutableShortLeafNode extends AbstractImmutableNormalizedAttrNode<NodeIdentifier, Short>
+            implements LeafNode<Short> {
+        private final short value;
+
+        ImmutableShortLeafNode(final NodeIdentifier nodeIdentifier, final short value,
+                final Map<QName, String> attributes) {
+            super(nodeIdentifier, attributes);
+            this.value = value;
+        }
+
+        @Override
+        public Short getValue() {
+            return value;
+        }
+
+        @Override
+        protected int valueHashCode() {
+            return Short.hashCode(value);
+        }
+
+        @Override
+        protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
+            return value == ((ImmutableShortLeafNode) other).value;
+        }
+    }
+
+    /**
+     * A leaf holding a non-negative {@link BigInteger} which fits into 64 bits, as used by the uint64 type. The value
+     * is stored as the bits of an unsigned long.
+     */
+    private static final class ImmutableUint64LeafNode
+            extends AbstractImmutableNormalizedAttrNode<NodeIdentifier, BigInteger> implements LeafNode<BigInteger> {
+        private final long bits;
+
+        ImmutableUint64LeafNode(final NodeIdentifier nodeIdentifier, final long bits,
+                final Map<QName, String> attributes) {
+            super(nodeIdentifier, attributes);
+            this.bits = bits;
+        }
+
+        @Override
+        public BigInteger getValue() {
+            return UnsignedLong.fromLongBits(bits).bigIntegerValue();
+        }
+
+        @Override
+        protected int valueHashCode() {
+            return getValue().hashCode();
+        }
+
+        @Override
+        protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
+            return bits == ((ImmutableUint64LeafNode) other).bits;
+        }
+    }
 }
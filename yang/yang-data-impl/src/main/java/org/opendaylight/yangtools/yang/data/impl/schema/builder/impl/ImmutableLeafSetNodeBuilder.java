@@ -13,6 +13,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.util.UnmodifiableCollection;
@@ -30,10 +31,12 @@ import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableN
 public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSetEntryNode<T>> {
     private static final int DEFAULT_CAPACITY = 4;
     private final Map<NodeWithValue, LeafSetEntryNode<T>> value;
+    private final ChildrenHashTracker childrenHash;
     private NodeIdentifier nodeIdentifier;
 
     protected ImmutableLeafSetNodeBuilder() {
         value = new HashMap<>(DEFAULT_CAPACITY);
+        childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableLeafSetNodeBuilder(final int sizeHint) {
@@ -42,11 +45,13 @@ public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSe
         } else {
             value = new HashMap<>(DEFAULT_CAPACITY);
         }
+        childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableLeafSetNodeBuilder(final ImmutableLeafSetNode<T> node) {
         nodeIdentifier = node.getIdentifier();
         value = MapAdaptor.getDefaultInstance().takeSnapshot(node.children);
+        childrenHash = new ChildrenHashTracker(node.knownChildrenHashCode());
     }
 
     public static <T> ListNodeBuilder<T, LeafSetEntryNode<T>> create() {
@@ -67,19 +72,22 @@ public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSe
 
     @Override
     public ListNodeBuilder<T, LeafSetEntryNode<T>> withChild(final LeafSetEntryNode<T> child) {
-        this.value.put(child.getIdentifier(), child);
+        final LeafSetEntryNode<T> previous = this.value.put(child.getIdentifier(), child);
+        childrenHash.update(child.getIdentifier(), previous, child);
         return this;
     }
 
     @Override
     public ListNodeBuilder<T, LeafSetEntryNode<T>> withoutChild(final PathArgument key) {
-        this.value.remove(key);
+        final LeafSetEntryNode<T> previous = this.value.remove(key);
+        childrenHash.update(key, previous, null);
         return this;
     }
 
     @Override
     public LeafSetNode<T> build() {
-        return new ImmutableLeafSetNode<>(nodeIdentifier, MapAdaptor.getDefaultInstance().optimize(value));
+        return new ImmutableLeafSetNode<>(nodeIdentifier, MapAdaptor.getDefaultInstance().optimize(value),
+            childrenHash.hashCodeIfKnown());
     }
 
     @Override
@@ -117,11 +125,17 @@ public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSe
 
         private final Map<NodeWithValue, LeafSetEntryNode<T>> children;
 
-        ImmutableLeafSetNode(final NodeIdentifier nodeIdentifier, final Map<NodeWithValue, LeafSetEntryNode<T>> children) {
-            super(nodeIdentifier, UnmodifiableCollection.create(children.values()));
+        ImmutableLeafSetNode(final NodeIdentifier nodeIdentifier,
+                final Map<NodeWithValue, LeafSetEntryNode<T>> children, @Nullable final Integer childrenHashCode) {
+            super(nodeIdentifier, UnmodifiableCollection.create(children.values()), childrenHashCode);
             this.children = children;
         }
 
+        @Nullable
+        Integer knownChildrenHashCode() {
+            return knownValueHashCode();
+        }
+
         @Override
         public Optional<LeafSetEntryNode<T>> getChild(final NodeWithValue child) {
             return Optional.fromNullable(children.get(child));
@@ -12,6 +12,7 @@ import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.util.UnmodifiableCollection;
@@ -21,6 +22,7 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdent
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SpilledNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
@@ -28,10 +30,12 @@ import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableN
 public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNode, MapNode> {
     private static final int DEFAULT_CAPACITY = 4;
     private final Map<NodeIdentifierWithPredicates, MapEntryNode> value;
+    private final ChildrenHashTracker childrenHash;
     private NodeIdentifier nodeIdentifier;
 
     protected ImmutableMapNodeBuilder() {
         this.value = new HashMap<>(DEFAULT_CAPACITY);
+        this.childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableMapNodeBuilder(final int sizeHint) {
@@ -40,11 +44,13 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
         } else {
             this.value = new HashMap<>(DEFAULT_CAPACITY);
         }
+        this.childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableMapNodeBuilder(final ImmutableMapNode node) {
         this.nodeIdentifier = node.getIdentifier();
         this.value = MapAdaptor.getDefaultInstance().takeSnapshot(node.children);
+        this.childrenHash = new ChildrenHashTracker(node.knownChildrenHashCode());
     }
 
     public static CollectionNodeBuilder<MapEntryNode, MapNode> create() {
@@ -56,6 +62,13 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
     }
 
     public static CollectionNodeBuilder<MapEntryNode, MapNode> create(final MapNode node) {
+        if (node instanceof SpilledNode) {
+            // Subtrees spilled out of the heap are copied from their loaded form
+            return create((MapNode) ((SpilledNode) node).load());
+        }
+        if (node instanceof ImmutableColumnarMapNodeBuilder.ColumnarMapNode) {
+            return ImmutableColumnarMapNodeBuilder.create(node);
+        }
         if (!(node instanceof ImmutableMapNode)) {
             throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
         }
@@ -65,13 +78,15 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
 
     @Override
     public CollectionNodeBuilder<MapEntryNode, MapNode> withChild(final MapEntryNode child) {
-        this.value.put(child.getIdentifier(), child);
+        final MapEntryNode previous = this.value.put(child.getIdentifier(), child);
+        childrenHash.update(child.getIdentifier(), previous, child);
         return this;
     }
 
     @Override
     public CollectionNodeBuilder<MapEntryNode, MapNode> withoutChild(final PathArgument key) {
-        this.value.remove(key);
+        final MapEntryNode previous = this.value.remove(key);
+        childrenHash.update(key, previous, null);
         return this;
     }
 
@@ -93,7 +108,8 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
 
     @Override
     public MapNode build() {
-        return new ImmutableMapNode(nodeIdentifier, MapAdaptor.getDefaultInstance().optimize(value));
+        return new ImmutableMapNode(nodeIdentifier, MapAdaptor.getDefaultInstance().optimize(value),
+            childrenHash.hashCodeIfKnown());
     }
 
     @Override
@@ -114,11 +130,17 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
         private final Map<YangInstanceIdentifier.NodeIdentifierWithPredicates, MapEntryNode> children;
 
         ImmutableMapNode(final YangInstanceIdentifier.NodeIdentifier nodeIdentifier,
-                         final Map<YangInstanceIdentifier.NodeIdentifierWithPredicates, MapEntryNode> children) {
-            super(nodeIdentifier);
+                         final Map<YangInstanceIdentifier.NodeIdentifierWithPredicates, MapEntryNode> children,
+                         @Nullable final Integer childrenHashCode) {
+            super(nodeIdentifier, childrenHashCode);
             this.children = children;
         }
 
+        @Nullable
+        Integer knownChildrenHashCode() {
+            return knownValueHashCode();
+        }
+
         @Override
         public Optional<MapEntryNode> getChild(final YangInstanceIdentifier.NodeIdentifierWithPredicates child) {
             return Optional.fromNullable(children.get(child));
@@ -12,6 +12,7 @@ import com.google.common.collect.Sets;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SpilledNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.valid.DataValidationException;
 import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
@@ -36,6 +37,13 @@ public class ImmutableMapNodeSchemaAwareBuilder extends ImmutableMapNodeBuilder
     }
 
     public static CollectionNodeBuilder<MapEntryNode, MapNode> create(final ListSchemaNode schema, final MapNode node) {
+        if (node instanceof SpilledNode) {
+            // Subtrees spilled out of the heap are copied from their loaded form
+            return create(schema, (MapNode) ((SpilledNode) node).load());
+        }
+        if (node instanceof ImmutableColumnarMapNodeBuilder.ColumnarMapNode) {
+            return new Columnar(schema, (ImmutableColumnarMapNodeBuilder.ColumnarMapNode) node);
+        }
         if (!(node instanceof ImmutableMapNode)) {
             throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
         }
@@ -45,7 +53,7 @@ public class ImmutableMapNodeSchemaAwareBuilder extends ImmutableMapNodeBuilder
 
     @Override
     public CollectionNodeBuilder<MapEntryNode, MapNode> withChild(final MapEntryNode child) {
-        DataValidationException.checkLegalChild(schema.getQName().equals(child.getNodeType()), child.getIdentifier(), schema, Sets.newHashSet(schema.getQName()));
+        checkChild(schema, child);
         return super.withChild(child);
     }
 
@@ -53,4 +61,32 @@ public class ImmutableMapNodeSchemaAwareBuilder extends ImmutableMapNodeBuilder
     public CollectionNodeBuilder<MapEntryNode, MapNode> withNodeIdentifier(final NodeIdentifier nodeIdentifier) {
         throw new UnsupportedOperationException("Node identifier created from schema");
     }
+
+    private static void checkChild(final ListSchemaNode schema, final MapEntryNode child) {
+        DataValidationException.checkLegalChild(schema.getQName().equals(child.getNodeType()), child.getIdentifier(), schema, Sets.newHashSet(schema.getQName()));
+    }
+
+    /**
+     * Schema-aware builder initialized from a columnar node, which retains the columnar representation.
+     */
+    private static final class Columnar extends ImmutableColumnarMapNodeBuilder {
+        private final ListSchemaNode schema;
+
+        Columnar(final ListSchemaNode schema, final ColumnarMapNode node) {
+            super(node);
+            this.schema = Preconditions.checkNotNull(schema);
+            super.withNodeIdentifier(NodeIdentifier.create(schema.getQName()));
+        }
+
+        @Override
+        public CollectionNodeBuilder<MapEntryNode, MapNode> withChild(final MapEntryNode child) {
+            checkChild(schema, child);
+            return super.withChild(child);
+        }
+
+        @Override
+        public CollectionNodeBuilder<MapEntryNode, MapNode> withNodeIdentifier(final NodeIdentifier nodeIdentifier) {
+            throw new UnsupportedOperationException("Node identifier created from schema");
+        }
+    }
 }
@@ -8,13 +8,11 @@
 package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.Iterables;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Immutable;
-import org.opendaylight.yangtools.util.UnmodifiableCollection;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
@@ -24,23 +22,25 @@ import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
 import org.opendaylight.yangtools.yang.data.api.schema.OrderedLeafSetNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.ListNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.OrderedCollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
 
-public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSetEntryNode<T>> {
+public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSetEntryNode<T>>,
+        OrderedCollectionNodeBuilder<LeafSetEntryNode<T>, LeafSetNode<T>> {
 
-    private Map<NodeWithValue, LeafSetEntryNode<T>> value;
+    private final PersistentOrderedMap.Builder<NodeWithValue, LeafSetEntryNode<T>> value;
+    private final ChildrenHashTracker childrenHash;
     private NodeIdentifier nodeIdentifier;
-    private boolean dirty;
 
     protected ImmutableOrderedLeafSetNodeBuilder() {
-        value = new LinkedHashMap<>();
-        dirty = false;
+        value = PersistentOrderedMap.builder(0);
+        childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableOrderedLeafSetNodeBuilder(final ImmutableOrderedLeafSetNode<T> node) {
         nodeIdentifier = node.getIdentifier();
-        value = node.getChildren();
-        dirty = true;
+        value = node.children.toBuilder();
+        childrenHash = new ChildrenHashTracker(node.knownChildrenHashCode());
     }
 
     public static <T> ListNodeBuilder<T, LeafSetEntryNode<T>> create() {
@@ -55,31 +55,32 @@ public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T,
         return new ImmutableOrderedLeafSetNodeBuilder<>((ImmutableOrderedLeafSetNode<T>) node);
     }
 
-    private void checkDirty() {
-        if (dirty) {
-            value = new LinkedHashMap<>(value);
-            dirty = false;
-        }
-    }
-
     @Override
     public ListNodeBuilder<T, LeafSetEntryNode<T>> withChild(final LeafSetEntryNode<T> child) {
-        checkDirty();
+        childrenHash.update(child.getIdentifier(), value.get(child.getIdentifier()), child);
         this.value.put(child.getIdentifier(), child);
         return this;
     }
 
+    @Override
+    public ImmutableOrderedLeafSetNodeBuilder<T> withChild(final int position, final LeafSetEntryNode<T> child) {
+        childrenHash.update(child.getIdentifier(), value.get(child.getIdentifier()), child);
+        this.value.insert(position, child.getIdentifier(), child);
+        return this;
+    }
+
     @Override
     public ListNodeBuilder<T, LeafSetEntryNode<T>> withoutChild(final PathArgument key) {
-        checkDirty();
-        this.value.remove(key);
+        if (key instanceof NodeWithValue) {
+            childrenHash.update(key, value.get((NodeWithValue) key), null);
+            this.value.remove((NodeWithValue) key);
+        }
         return this;
     }
 
     @Override
     public OrderedLeafSetNode<T> build() {
-        dirty = true;
-        return new ImmutableOrderedLeafSetNode<>(nodeIdentifier, value);
+        return new ImmutableOrderedLeafSetNode<>(nodeIdentifier, value.build(), childrenHash.hashCodeIfKnown());
     }
 
     @Override
@@ -90,7 +91,6 @@ public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T,
 
     @Override
     public ListNodeBuilder<T, LeafSetEntryNode<T>> withValue(final Collection<LeafSetEntryNode<T>> value) {
-        checkDirty();
         for (final LeafSetEntryNode<T> leafSetEntry : value) {
             withChild(leafSetEntry);
         }
@@ -115,14 +115,20 @@ public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T,
             AbstractImmutableNormalizedNode<NodeIdentifier, Collection<LeafSetEntryNode<T>>> implements
             Immutable, OrderedLeafSetNode<T> {
 
-        private final Map<NodeWithValue, LeafSetEntryNode<T>> children;
+        private final PersistentOrderedMap<NodeWithValue, LeafSetEntryNode<T>> children;
 
         ImmutableOrderedLeafSetNode(final NodeIdentifier nodeIdentifier,
-                final Map<NodeWithValue, LeafSetEntryNode<T>> children) {
-            super(nodeIdentifier);
+                final PersistentOrderedMap<NodeWithValue, LeafSetEntryNode<T>> children,
+                @Nullable final Integer childrenHashCode) {
+            super(nodeIdentifier, childrenHashCode);
             this.children = children;
         }
 
+        @Nullable
+        Integer knownChildrenHashCode() {
+            return knownValueHashCode();
+        }
+
         @Override
         public Optional<LeafSetEntryNode<T>> getChild(final NodeWithValue child) {
             return Optional.fromNullable(children.get(child));
@@ -133,10 +139,6 @@ public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T,
             return children.hashCode();
         }
 
-        private Map<NodeWithValue, LeafSetEntryNode<T>> getChildren() {
-            return Collections.unmodifiableMap(children);
-        }
-
         @Override
         protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
             return children.equals(((ImmutableOrderedLeafSetNode<?>) other).children);
@@ -144,7 +146,7 @@ public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T,
 
         @Override
         public LeafSetEntryNode<T> getChild(final int position) {
-            return Iterables.get(children.values(), position);
+            return children.valueAt(position);
         }
 
         @Override
@@ -154,7 +156,7 @@ public class ImmutableOrderedLeafSetNodeBuilder<T> implements ListNodeBuilder<T,
 
         @Override
         public Collection<LeafSetEntryNode<T>> getValue() {
-            return UnmodifiableCollection.create(children.values());
+            return children.values();
         }
     }
 
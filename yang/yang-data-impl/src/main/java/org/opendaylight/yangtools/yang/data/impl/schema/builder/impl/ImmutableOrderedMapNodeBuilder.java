@@ -8,12 +8,9 @@
 package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.Iterables;
 import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Immutable;
-import org.opendaylight.yangtools.util.UnmodifiableCollection;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -22,32 +19,28 @@ import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.OrderedCollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
 
-public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<MapEntryNode, OrderedMapNode> {
-    private static final int DEFAULT_CAPACITY = 4;
-    private Map<NodeIdentifierWithPredicates, MapEntryNode> value;
+public class ImmutableOrderedMapNodeBuilder implements OrderedCollectionNodeBuilder<MapEntryNode, OrderedMapNode> {
+    private final PersistentOrderedMap.Builder<NodeIdentifierWithPredicates, MapEntryNode> value;
+    private final ChildrenHashTracker childrenHash;
     private NodeIdentifier nodeIdentifier;
-    private boolean dirty;
 
     protected ImmutableOrderedMapNodeBuilder() {
-        this.value = new LinkedHashMap<>(DEFAULT_CAPACITY);
-        this.dirty = false;
+        this.value = PersistentOrderedMap.builder(0);
+        this.childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableOrderedMapNodeBuilder(final int sizeHint) {
-        if (sizeHint >= 0) {
-            this.value = new LinkedHashMap<>(sizeHint + sizeHint / 3);
-        } else {
-            this.value = new LinkedHashMap<>(DEFAULT_CAPACITY);
-        }
-        this.dirty = false;
+        this.value = PersistentOrderedMap.builder(sizeHint);
+        this.childrenHash = new ChildrenHashTracker();
     }
 
     protected ImmutableOrderedMapNodeBuilder(final ImmutableOrderedMapNode node) {
         this.nodeIdentifier = node.getIdentifier();
-        this.value = node.children;
-        this.dirty = true;
+        this.value = node.children.toBuilder();
+        this.childrenHash = new ChildrenHashTracker(node.knownChildrenHashCode());
     }
 
     public static CollectionNodeBuilder<MapEntryNode, OrderedMapNode> create() {
@@ -66,24 +59,27 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
         return new ImmutableOrderedMapNodeBuilder((ImmutableOrderedMapNode) node);
     }
 
-    private void checkDirty() {
-        if (dirty) {
-            value = new LinkedHashMap<>(value);
-            dirty = false;
-        }
-    }
-
     @Override
     public CollectionNodeBuilder<MapEntryNode, OrderedMapNode> withChild(final MapEntryNode child) {
-        checkDirty();
+        childrenHash.update(child.getIdentifier(), value.get(child.getIdentifier()), child);
         this.value.put(child.getIdentifier(), child);
         return this;
     }
 
+    @Override
+    public OrderedCollectionNodeBuilder<MapEntryNode, OrderedMapNode> withChild(final int position,
+            final MapEntryNode child) {
+        childrenHash.update(child.getIdentifier(), value.get(child.getIdentifier()), child);
+        this.value.insert(position, child.getIdentifier(), child);
+        return this;
+    }
+
     @Override
     public CollectionNodeBuilder<MapEntryNode, OrderedMapNode> withoutChild(final PathArgument key) {
-        checkDirty();
-        this.value.remove(key);
+        if (key instanceof NodeIdentifierWithPredicates) {
+            childrenHash.update(key, value.get((NodeIdentifierWithPredicates) key), null);
+            this.value.remove((NodeIdentifierWithPredicates) key);
+        }
         return this;
     }
 
@@ -105,8 +101,7 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
     @Override
     public OrderedMapNode build() {
-        dirty = true;
-        return new ImmutableOrderedMapNode(nodeIdentifier, value);
+        return new ImmutableOrderedMapNode(nodeIdentifier, value.build(), childrenHash.hashCodeIfKnown());
     }
 
     @Override
@@ -124,14 +119,20 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
     protected static final class ImmutableOrderedMapNode extends AbstractImmutableNormalizedNode<NodeIdentifier, Collection<MapEntryNode>> implements Immutable, OrderedMapNode {
 
-        private final Map<NodeIdentifierWithPredicates, MapEntryNode> children;
+        private final PersistentOrderedMap<NodeIdentifierWithPredicates, MapEntryNode> children;
 
         ImmutableOrderedMapNode(final NodeIdentifier nodeIdentifier,
-                         final Map<NodeIdentifierWithPredicates, MapEntryNode> children) {
-            super(nodeIdentifier);
+                         final PersistentOrderedMap<NodeIdentifierWithPredicates, MapEntryNode> children,
+                         @Nullable final Integer childrenHashCode) {
+            super(nodeIdentifier, childrenHashCode);
             this.children = children;
         }
 
+        @Nullable
+        Integer knownChildrenHashCode() {
+            return knownValueHashCode();
+        }
+
         @Override
         public Optional<MapEntryNode> getChild(final NodeIdentifierWithPredicates child) {
             return Optional.fromNullable(children.get(child));
@@ -149,7 +150,7 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
         @Override
         public MapEntryNode getChild(final int position) {
-            return Iterables.get(children.values(), position);
+            return children.valueAt(position);
         }
 
         @Override
@@ -159,7 +160,7 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
 
         @Override
         public Collection<MapEntryNode> getValue() {
-            return UnmodifiableCollection.create(children.values());
+            return children.values();
         }
     }
 }
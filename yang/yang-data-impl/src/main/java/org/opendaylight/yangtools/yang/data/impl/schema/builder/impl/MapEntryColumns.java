@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+
+/**
+ * Column-wise storage of homogeneous {@link MapEntryNode}s. Each entry is stored as a row, with each of its leaves
+ * being stored in a column array, using primitive arrays for {@link Long} and {@link Integer} values. Rows are
+ * located by their key through an open-addressing hash index. Entries are not retained, but are re-created from
+ * their row when they are requested.
+ *
+ * <p>
+ * Only entries which consist solely of leaves without attributes can be stored. All stored entries have the same
+ * set of leaves and their keys are formed by the leaves' values.
+ */
+final class MapEntryColumns {
+    private final QName nodeType;
+    private final QName[] keys;
+    private final int[] keyColumns;
+    private final NodeIdentifier[] columnIds;
+    private final Column[] columns;
+    private final int[] index;
+    private final int rows;
+
+    private MapEntryColumns(final Layout layout, final Column[] columns, final int rows) {
+        this.nodeType = layout.nodeType;
+        this.keys = layout.keys;
+        this.keyColumns = layout.keyColumns;
+        this.columnIds = layout.columnIds;
+        this.columns = columns;
+        this.rows = rows;
+
+        // Keep the load factor at or below 2/3
+        index = new int[Integer.highestOneBit(Math.max(2, rows + rows / 2) - 1) << 1];
+        final int mask = index.length - 1;
+        for (int row = 0; row < rows; ++row) {
+            int slot = rowHashCode(row) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = row + 1;
+        }
+    }
+
+    /**
+     * Pack the specified entries into columns. Entries which cannot be stored in columns are put into the misfits
+     * map.
+     *
+     * @param entries Entries to pack
+     * @param misfits Map receiving entries which could not be packed
+     * @return Packed entries, or null if none of the entries could be packed
+     */
+    @Nullable
+    static MapEntryColumns pack(final Collection<MapEntryNode> entries,
+            final Map<NodeIdentifierWithPredicates, Optional<MapEntryNode>> misfits) {
+        Layout layout = null;
+        final List<Object[]> values = new ArrayList<>(entries.size());
+        for (final MapEntryNode entry : entries) {
+            if (layout == null) {
+                layout = Layout.of(entry);
+            }
+
+            final Object[] row = layout == null ? null : layout.values(entry);
+            if (row != null) {
+                values.add(row);
+            } else {
+                misfits.put(entry.getIdentifier(), Optional.of(entry));
+            }
+        }
+
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        final Column[] columns = new Column[layout.columnIds.length];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = Column.of(values, i);
+        }
+        return new MapEntryColumns(layout, columns, values.size());
+    }
+
+    int size() {
+        return rows;
+    }
+
+    /**
+     * Look up the row holding an entry.
+     *
+     * @param id Entry identifier
+     * @return Row index, or -1 if the entry is not present
+     */
+    int rowOf(final NodeIdentifierWithPredicates id) {
+        final Map<QName, Object> keyValues = id.getKeyValues();
+        if (keyValues.size() != keys.length || !nodeType.equals(id.getNodeType())) {
+            return -1;
+        }
+
+        int hash = 0;
+        for (final QName key : keys) {
+            final Object value = keyValues.get(key);
+            if (value == null) {
+                return -1;
+            }
+            hash = 31 * hash + value.hashCode();
+        }
+
+        final int mask = index.length - 1;
+        for (int slot = spread(hash) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            final int row = index[slot] - 1;
+            if (keyMatches(row, keyValues)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    NodeIdentifierWithPredicates identifierAt(final int row) {
+        if (keys.length == 1) {
+            return new NodeIdentifierWithPredicates(nodeType, keys[0], columns[keyColumns[0]].get(row));
+        }
+
+        final ImmutableMap.Builder<QName, Object> builder = ImmutableMap.builder();
+        for (int i = 0; i < keys.length; ++i) {
+            builder.put(keys[i], columns[keyColumns[i]].get(row));
+        }
+        return new NodeIdentifierWithPredicates(nodeType, builder.build());
+    }
+
+    MapEntryNode entryAt(final int row) {
+        return entryAt(row, identifierAt(row));
+    }
+
+    MapEntryNode entryAt(final int row, final NodeIdentifierWithPredicates id) {
+        final DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> builder =
+                ImmutableMapEntryNodeBuilder.create(columns.length).withNodeIdentifier(id);
+        for (int i = 0; i < columns.length; ++i) {
+            builder.withChild(ImmutableNodes.leafNode(columnIds[i], columns[i].get(row)));
+        }
+        return builder.build();
+    }
+
+    private boolean keyMatches(final int row, final Map<QName, Object> keyValues) {
+        for (int i = 0; i < keys.length; ++i) {
+            if (!columns[keyColumns[i]].matches(row, keyValues.get(keys[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int rowHashCode(final int row) {
+        int hash = 0;
+        for (final int column : keyColumns) {
+            hash = 31 * hash + columns[column].hashCode(row);
+        }
+        return spread(hash);
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private static boolean hasAttributes(final Object node) {
+        return node instanceof AttributesContainer && !((AttributesContainer) node).getAttributes().isEmpty();
+    }
+
+    /**
+     * Shape of the stored entries, established from the first entry.
+     */
+    private static final class Layout {
+        final QName nodeType;
+        final QName[] keys;
+        final int[] keyColumns;
+        final NodeIdentifier[] columnIds;
+        final Map<PathArgument, Integer> columnIndex;
+
+        private Layout(final QName nodeType, final QName[] keys, final int[] keyColumns,
+                final NodeIdentifier[] columnIds, final Map<PathArgument, Integer> columnIndex) {
+            this.nodeType = nodeType;
+            this.keys = keys;
+            this.keyColumns = keyColumns;
+            this.columnIds = columnIds;
+            this.columnIndex = columnIndex;
+        }
+
+        @Nullable
+        static Layout of(final MapEntryNode entry) {
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children = entry.getValue();
+            final NodeIdentifier[] columnIds = new NodeIdentifier[children.size()];
+            final Map<PathArgument, Integer> columnIndex = new HashMap<>();
+            for (final DataContainerChild<? extends PathArgument, ?> child : children) {
+                if (!(child.getIdentifier() instanceof NodeIdentifier)) {
+                    return null;
+                }
+
+                final int column = columnIndex.size();
+                columnIds[column] = (NodeIdentifier) child.getIdentifier();
+                columnIndex.put(child.getIdentifier(), column);
+            }
+
+            final Map<QName, Object> keyValues = entry.getIdentifier().getKeyValues();
+            final QName[] keys = keyValues.keySet().toArray(new QName[keyValues.size()]);
+            final int[] keyColumns = new int[keys.length];
+            for (int i = 0; i < keys.length; ++i) {
+                final Integer column = columnIndex.get(new NodeIdentifier(keys[i]));
+                if (column == null) {
+                    return null;
+                }
+                keyColumns[i] = column;
+            }
+
+            return new Layout(entry.getNodeType(), keys, keyColumns, columnIds, ImmutableMap.copyOf(columnIndex));
+        }
+
+        /**
+         * Extract the values of an entry's columns.
+         *
+         * @param entry Entry
+         * @return Column values, or null if the entry does not fit this layout
+         */
+        @Nullable
+        Object[] values(final MapEntryNode entry) {
+            final NodeIdentifierWithPredicates id = entry.getIdentifier();
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children = entry.getValue();
+            if (children.size() != columnIds.length || id.getKeyValues().size() != keys.length
+                    || !nodeType.equals(id.getNodeType()) || hasAttributes(entry)) {
+                return null;
+            }
+
+            final Object[] values = new Object[columnIds.length];
+            for (final DataContainerChild<? extends PathArgument, ?> child : children) {
+                final Integer column = columnIndex.get(child.getIdentifier());
+                if (column == null || !(child instanceof LeafNode) || child.getValue() == null
+                        || hasAttributes(child)) {
+                    return null;
+                }
+                values[column] = child.getValue();
+            }
+
+            // Array values are compared by content in identifiers, which we do not support when indexing
+            for (int i = 0; i < keys.length; ++i) {
+                final Object value = id.getKeyValues().get(keys[i]);
+                if (value == null || value.getClass().isArray() || !value.equals(values[keyColumns[i]])) {
+                    return null;
+                }
+            }
+            return values;
+        }
+    }
+
+    private abstract static class Column {
+        static Column of(final List<Object[]> values, final int column) {
+            boolean longs = true;
+            boolean ints = true;
+            for (final Object[] row : values) {
+                longs &= row[column] instanceof Long;
+                ints &= row[column] instanceof Integer;
+            }
+
+            final int size = values.size();
+            if (longs) {
+                final long[] array = new long[size];
+                for (int i = 0; i < size; ++i) {
+                    array[i] = (Long) values.get(i)[column];
+                }
+                return new LongColumn(array);
+            }
+            if (ints) {
+                final int[] array = new int[size];
+                for (int i = 0; i < size; ++i) {
+                    array[i] = (Integer) values.get(i)[column];
+                }
+                return new IntColumn(array);
+            }
+
+            final Object[] array = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                array[i] = values.get(i)[column];
+            }
+            return new ObjectColumn(array);
+        }
+
+        abstract Object get(int row);
+
+        abstract int hashCode(int row);
+
+        abstract boolean matches(int row, Object value);
+    }
+
+    private static final class LongColumn extends Column {
+        private final long[] values;
+
+        LongColumn(final long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        Object get(final int row) {
+            return values[row];
+        }
+
+        @Override
+        int hashCode(final int row) {
+            return Long.hashCode(values[row]);
+        }
+
+        @Override
+        boolean matches(final int row, final Object value) {
+            return value instanceof Long && (Long) value == values[row];
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        private final int[] values;
+
+        IntColumn(final int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        Object get(final int row) {
+            return values[row];
+        }
+
+        @Override
+        int hashCode(final int row) {
+            return Integer.hashCode(values[row]);
+        }
+
+        @Override
+        boolean matches(final int row, final Object value) {
+            return value instanceof Integer && (Integer) value == values[row];
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        private final Object[] values;
+
+        ObjectColumn(final Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        Object get(final int row) {
+            return values[row];
+        }
+
+        @Override
+        int hashCode(final int row) {
+            return values[row].hashCode();
+        }
+
+        @Override
+        boolean matches(final int row, final Object value) {
+            return values[row].equals(value);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.util.MapAdaptor;
+
+/**
+ * An immutable map which retains the order of its entries and supports positional access, backing user-ordered
+ * collection nodes. Keys are looked up in a map managed by {@link MapAdaptor}, values are kept in a persistent
+ * weight-balanced tree ordered by a label assigned to each entry, with each tree node tracking the size of its subtree.
+ * Lookup by key takes constant time, while lookup by position, insertion at a position and removal take logarithmic
+ * time. Creating a {@link Builder} from a large map does not copy it.
+ *
+ * <p>
+ * Labels are drawn from [0, 2^{@value #LABEL_BITS}). Appended and prepended entries are labeled {@value #LABEL_STEP}
+ * apart, an entry inserted between two other entries takes the label halfway between theirs. If there is no such
+ * label, the smallest aligned block of labels around the insertion point whose density is below a threshold, which
+ * decreases with the size of the block, is relabeled evenly, as per Bender et al., "Two Simplified Algorithms for
+ * Maintaining Order in a List". This takes amortized logarithmic time even for repeated insertions at the same
+ * position.
+ *
+ * <p>
+ * Equality and hash code follow the {@link Map} contract, hence the order of entries is not taken into account.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class PersistentOrderedMap<K, V> implements Immutable {
+    private static final int LABEL_BITS = 62;
+    private static final long LABEL_UNIVERSE = 1L << LABEL_BITS;
+    private static final long LABEL_STEP = 1L << 32;
+    // Maximum density of a block of 2^i labels is DENSITY_THRESHOLD^-i, which still allows Integer.MAX_VALUE entries
+    // in the whole universe
+    private static final double DENSITY_THRESHOLD = 1.4;
+    // Weight-balanced tree parameters, as per Hirai and Yamamoto
+    private static final int DELTA = 3;
+    private static final int GAMMA = 2;
+
+    private static final PersistentOrderedMap<?, ?> EMPTY = new PersistentOrderedMap<>(ImmutableMap.of(), null);
+
+    private static final class Slot<V> {
+        final long label;
+        final V value;
+
+        Slot(final long label, final V value) {
+            this.label = label;
+            this.value = value;
+        }
+    }
+
+    private static final class Node<K, V> {
+        final long label;
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int size;
+
+        Node(final long label, final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+            this.label = label;
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private final Map<K, Slot<V>> slots;
+    private final Node<K, V> root;
+
+    private PersistentOrderedMap(final Map<K, Slot<V>> slots, final Node<K, V> root) {
+        this.slots = Preconditions.checkNotNull(slots);
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentOrderedMap<K, V> of() {
+        return (PersistentOrderedMap<K, V>) EMPTY;
+    }
+
+    static <K, V> Builder<K, V> builder(final int sizeHint) {
+        return new Builder<>(MapAdaptor.getDefaultInstance().initialSnapshot(Math.max(sizeHint, 0)), null);
+    }
+
+    Builder<K, V> toBuilder() {
+        return new Builder<>(MapAdaptor.getDefaultInstance().takeSnapshot(slots), root);
+    }
+
+    V get(final K key) {
+        final Slot<V> slot = slots.get(key);
+        return slot == null ? null : slot.value;
+    }
+
+    /**
+     * Return the value at specified position.
+     *
+     * @param position Position of the value
+     * @return Value at the position
+     * @throws IndexOutOfBoundsException if the position is out of bounds
+     */
+    V valueAt(final int position) {
+        Preconditions.checkElementIndex(position, size(root));
+        return select(root, position).value;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Return an unmodifiable view of the values in their order.
+     *
+     * @return Values view
+     */
+    Collection<V> values() {
+        return new Values<>(root);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (final Entry<K, Slot<V>> e : slots.entrySet()) {
+            result += Objects.hashCode(e.getKey()) ^ Objects.hashCode(e.getValue().value);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PersistentOrderedMap)) {
+            return false;
+        }
+
+        final PersistentOrderedMap<?, ?> other = (PersistentOrderedMap<?, ?>) obj;
+        if (size() != other.size()) {
+            return false;
+        }
+        for (final Entry<K, Slot<V>> e : slots.entrySet()) {
+            final Slot<?> otherSlot = other.slots.get(e.getKey());
+            if (otherSlot == null || !Objects.equals(e.getValue().value, otherSlot.value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return values().toString();
+    }
+
+    /**
+     * Mutable builder of a {@link PersistentOrderedMap}. Modifications of the tree copy only the path to the modified
+     * node, hence a built map is not affected by subsequent modifications.
+     */
+    static final class Builder<K, V> {
+        private Map<K, Slot<V>> slots;
+        private Node<K, V> root;
+        // Slots of the last built map, which have to be snapshotted before we modify them again
+        private Map<K, Slot<V>> builtSlots;
+
+        Builder(final Map<K, Slot<V>> slots, final Node<K, V> root) {
+            this.slots = Preconditions.checkNotNull(slots);
+            this.root = root;
+        }
+
+        V get(final K key) {
+            final Slot<V> slot = slots.get(key);
+            return slot == null ? null : slot.value;
+        }
+
+        int size() {
+            return PersistentOrderedMap.size(root);
+        }
+
+        /**
+         * Associate a value with a key. If the key is already present, its value is replaced and it keeps its
+         * position, otherwise it is appended.
+         *
+         * @param key Key
+         * @param value Value
+         */
+        void put(final K key, final V value) {
+            checkBuilt();
+            final Slot<V> slot = slots.get(key);
+            if (slot != null) {
+                slots.put(key, new Slot<>(slot.label, value));
+                root = PersistentOrderedMap.insert(root, slot.label, key, value);
+                return;
+            }
+
+            addAt(PersistentOrderedMap.size(root), key, value);
+        }
+
+        /**
+         * Insert a value at specified position. If the key is already present, it is removed first, hence the
+         * position is interpreted as if it were not present.
+         *
+         * @param position Position, between zero and the size of this builder
+         * @param key Key
+         * @param value Value
+         * @throws IndexOutOfBoundsException if the position is out of bounds
+         */
+        void insert(final int position, final K key, final V value) {
+            checkBuilt();
+            remove(key);
+            Preconditions.checkPositionIndex(position, PersistentOrderedMap.size(root));
+            addAt(position, key, value);
+        }
+
+        /**
+         * Remove a key.
+         *
+         * @param key Key
+         */
+        void remove(final K key) {
+            checkBuilt();
+            final Slot<V> slot = slots.remove(key);
+            if (slot != null) {
+                root = delete(root, slot.label);
+            }
+        }
+
+        PersistentOrderedMap<K, V> build() {
+            if (root == null) {
+                return of();
+            }
+
+            if (builtSlots == null) {
+                builtSlots = MapAdaptor.getDefaultInstance().optimize(slots);
+            }
+            return new PersistentOrderedMap<>(builtSlots, root);
+        }
+
+        private void checkBuilt() {
+            if (builtSlots != null) {
+                slots = MapAdaptor.getDefaultInstance().takeSnapshot(builtSlots);
+                builtSlots = null;
+            }
+        }
+
+        private void addAt(final int position, final K key, final V value) {
+            final int size = PersistentOrderedMap.size(root);
+            final long label;
+            if (size == 0) {
+                label = LABEL_UNIVERSE / 2;
+            } else {
+                // Labels beyond either end are virtual, so that appending and prepending need no special casing
+                final long lower = position == 0 ? -1 : select(root, position - 1).label;
+                final long upper = position == size ? LABEL_UNIVERSE : select(root, position).label;
+                final long gap = upper - lower;
+                if (gap < 2) {
+                    label = relabel(position, position == 0 ? upper : lower);
+                } else if (position == size) {
+                    label = lower + Math.min(LABEL_STEP, gap / 2);
+                } else if (position == 0) {
+                    label = upper - Math.min(LABEL_STEP, gap / 2);
+                } else {
+                    label = lower + gap / 2;
+                }
+            }
+
+            slots.put(key, new Slot<>(label, value));
+            root = PersistentOrderedMap.insert(root, label, key, value);
+        }
+
+        /**
+         * Make room for an entry at specified position by relabeling the smallest sufficiently sparse block of labels
+         * containing the label of an adjacent entry.
+         *
+         * @param position Position of the new entry
+         * @param anchor Label of the entry adjacent to the position
+         * @return Label of the new entry
+         */
+        private long relabel(final int position, final long anchor) {
+            double capacity = 1;
+            for (int bits = 1; ; ++bits) {
+                capacity *= 2 / DENSITY_THRESHOLD;
+                final long blockSize = 1L << bits;
+                final long from = anchor & -blockSize;
+                final int first = rank(root, from);
+                final int count = rank(root, from + blockSize) - first;
+                if (count + 1 <= capacity || bits == LABEL_BITS) {
+                    final Relabeling relabeling = new Relabeling(from, from + blockSize - 1, blockSize / (count + 1),
+                        position - first);
+                    root = relabeling.relabel(root);
+                    return relabeling.labelAt(relabeling.skip);
+                }
+            }
+        }
+
+        /**
+         * Even relabeling of the entries within a range of labels, reserving a label for a new entry. Relabeled nodes
+         * retain their shape, as their order does not change.
+         */
+        private final class Relabeling {
+            final long from;
+            final long to;
+            final long spacing;
+            final int skip;
+            int index;
+
+            Relabeling(final long from, final long to, final long spacing, final int skip) {
+                this.from = from;
+                this.to = to;
+                this.spacing = spacing;
+                this.skip = skip;
+            }
+
+            long labelAt(final int offset) {
+                return from + offset * spacing;
+            }
+
+            Node<K, V> relabel(final Node<K, V> node) {
+                if (node == null) {
+                    return null;
+                }
+                if (node.label < from) {
+                    final Node<K, V> right = relabel(node.right);
+                    return right == node.right ? node : new Node<>(node.label, node.key, node.value, node.left, right);
+                }
+                if (node.label > to) {
+                    final Node<K, V> left = relabel(node.left);
+                    return left == node.left ? node : new Node<>(node.label, node.key, node.value, left, node.right);
+                }
+
+                final Node<K, V> left = relabel(node.left);
+                if (index == skip) {
+                    index++;
+                }
+                final long label = labelAt(index++);
+                slots.put(node.key, new Slot<>(label, node.value));
+                return new Node<>(label, node.key, node.value, left, relabel(node.right));
+            }
+        }
+    }
+
+    private static final class Values<K, V> extends AbstractCollection<V> {
+        private final Node<K, V> root;
+
+        Values(final Node<K, V> root) {
+            this.root = root;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            final Iterator<Node<K, V>> it = new NodeIterator<>(root);
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return it.next().value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return PersistentOrderedMap.size(root);
+        }
+    }
+
+    private static final class NodeIterator<K, V> implements Iterator<Node<K, V>> {
+        private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+        NodeIterator(final Node<K, V> root) {
+            pushLeft(root);
+        }
+
+        private void pushLeft(final Node<K, V> node) {
+            for (Node<K, V> n = node; n != null; n = n.left) {
+                stack.push(n);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final Node<K, V> ret = stack.pop();
+            pushLeft(ret.right);
+            return ret;
+        }
+    }
+
+    private static int size(final Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <K, V> Node<K, V> select(final Node<K, V> root, final int position) {
+        Node<K, V> node = root;
+        int index = position;
+        while (true) {
+            final int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    // Number of labels less than specified label
+    private static int rank(final Node<?, ?> root, final long label) {
+        int ret = 0;
+        Node<?, ?> node = root;
+        while (node != null) {
+            if (node.label < label) {
+                ret += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return ret;
+    }
+
+    private static <K, V> Node<K, V> min(final Node<K, V> root) {
+        Node<K, V> node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static <K, V> Node<K, V> max(final Node<K, V> root) {
+        Node<K, V> node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static <K, V> Node<K, V> insert(final Node<K, V> node, final long label, final K key, final V value) {
+        if (node == null) {
+            return new Node<>(label, key, value, null, null);
+        }
+        if (label < node.label) {
+            return balance(node.label, node.key, node.value, insert(node.left, label, key, value), node.right);
+        }
+        if (label > node.label) {
+            return balance(node.label, node.key, node.value, node.left, insert(node.right, label, key, value));
+        }
+        return new Node<>(label, key, value, node.left, node.right);
+    }
+
+    private static <K, V> Node<K, V> delete(final Node<K, V> node, final long label) {
+        if (node == null) {
+            return null;
+        }
+        if (label < node.label) {
+            return balance(node.label, node.key, node.value, delete(node.left, label), node.right);
+        }
+        if (label > node.label) {
+            return balance(node.label, node.key, node.value, node.left, delete(node.right, label));
+        }
+        return glue(node.left, node.right);
+    }
+
+    private static <K, V> Node<K, V> glue(final Node<K, V> left, final Node<K, V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.size > right.size) {
+            final Node<K, V> m = max(left);
+            return balance(m.label, m.key, m.value, delete(left, m.label), right);
+        }
+        final Node<K, V> m = min(right);
+        return balance(m.label, m.key, m.value, left, delete(right, m.label));
+    }
+
+    private static <K, V> Node<K, V> balance(final long label, final K key, final V value, final Node<K, V> left,
+            final Node<K, V> right) {
+        final int leftWeight = size(left) + 1;
+        final int rightWeight = size(right) + 1;
+        if (rightWeight > DELTA * leftWeight) {
+            if (size(right.left) + 1 < GAMMA * (size(right.right) + 1)) {
+                // Single left rotation
+                return new Node<>(right.label, right.key, right.value,
+                    new Node<>(label, key, value, left, right.left), right.right);
+            }
+            // Double left rotation
+            final Node<K, V> rl = right.left;
+            return new Node<>(rl.label, rl.key, rl.value, new Node<>(label, key, value, left, rl.left),
+                new Node<>(right.label, right.key, right.value, rl.right, right.right));
+        }
+        if (leftWeight > DELTA * rightWeight) {
+            if (size(left.right) + 1 < GAMMA * (size(left.left) + 1)) {
+                // Single right rotation
+                return new Node<>(left.label, left.key, left.value, left.left,
+                    new Node<>(label, key, value, left.right, right));
+            }
+            // Double right rotation
+            final Node<K, V> lr = left.right;
+            return new Node<>(lr.label, lr.key, lr.value, new Node<>(left.label, left.key, left.value, left.left,
+                lr.left), new Node<>(label, key, value, lr.right, right));
+        }
+        return new Node<>(label, key, value, left, right);
+    }
+}
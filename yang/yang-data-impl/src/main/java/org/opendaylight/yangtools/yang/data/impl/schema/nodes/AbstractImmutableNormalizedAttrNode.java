@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.nodes;
+
+import com.google.common.base.MoreObjects.ToStringHelper;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+
+/**
+ * Base class for value nodes with attributes which do not hold a reference to their value. Subclasses keep the value
+ * in a more compact form, such as an unboxed primitive field, or derive it from their node identifier, and
+ * re-create it on each invocation of {@link #getValue()}.
+ *
+ * @param <K> Node identifier type
+ * @param <V> Value type
+ */
+public abstract class AbstractImmutableNormalizedAttrNode<K extends PathArgument, V>
+        extends AbstractImmutableNormalizedNode<K, V> implements AttributesContainer {
+
+    private final Map<QName, String> attributes;
+
+    protected AbstractImmutableNormalizedAttrNode(final K nodeIdentifier, final Map<QName, String> attributes) {
+        super(nodeIdentifier);
+        this.attributes = ImmutableMap.copyOf(attributes);
+    }
+
+    @Override
+    public final Map<QName, String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public final Object getAttributeValue(final QName value) {
+        return attributes.get(value);
+    }
+
+    @Override
+    protected ToStringHelper addToStringAttributes(final ToStringHelper toStringHelper) {
+        return super.addToStringAttributes(toStringHelper).add("attributes", attributes);
+    }
+}
@@ -10,6 +10,7 @@ package org.opendaylight.yangtools.yang.data.impl.schema.nodes;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.base.Preconditions;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -17,11 +18,27 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
 public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V> implements NormalizedNode<K, V>, Immutable {
     private final K nodeIdentifier;
+    // Memoized hash code, zero if it has not been computed yet
+    private int hash;
 
     protected AbstractImmutableNormalizedNode(final K nodeIdentifier) {
         this.nodeIdentifier = Preconditions.checkNotNull(nodeIdentifier, "nodeIdentifier");
     }
 
+    /**
+     * Create a node whose value hash code may already be known, for example because it has been derived from an
+     * existing node incrementally.
+     *
+     * @param nodeIdentifier Node identifier
+     * @param valueHashCode Hash code {@link #valueHashCode()} would return, or null if it is not known
+     */
+    protected AbstractImmutableNormalizedNode(final K nodeIdentifier, @Nullable final Integer valueHashCode) {
+        this(nodeIdentifier);
+        if (valueHashCode != null) {
+            hash = hashCode(valueHashCode);
+        }
+    }
+
     @Override
     public final QName getNodeType() {
         return getIdentifier().getNodeType();
@@ -44,6 +61,17 @@ public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V>
     protected abstract boolean valueEquals(AbstractImmutableNormalizedNode<?, ?> other);
     protected abstract int valueHashCode();
 
+    /**
+     * Return the hash code of this node's value, if it has already been computed. This method never computes it.
+     *
+     * @return Hash code {@link #valueHashCode()} would return, or null if it is not known
+     */
+    @Nullable
+    protected final Integer knownValueHashCode() {
+        final int local = hash;
+        return local == 0 ? null : local - 31 * nodeIdentifier.hashCode();
+    }
+
     @Override
     public final boolean equals(final Object obj) {
         if (this == obj) {
@@ -53,10 +81,19 @@ public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V>
             return false;
         }
         if (this.getClass() != obj.getClass()) {
-            return false;
+            /*
+             * Other implementations, for example proxies of subtrees stored elsewhere, may know how to compare
+             * themselves to us. Immutable nodes of different classes are never equal.
+             */
+            return obj instanceof NormalizedNode && !(obj instanceof AbstractImmutableNormalizedNode)
+                    && obj.equals(this);
         }
 
         final AbstractImmutableNormalizedNode<?, ?> other = (AbstractImmutableNormalizedNode<?, ?>)obj;
+        // Hash codes are only compared if both of them are known, as computing them is as expensive as valueEquals()
+        if (hash != 0 && other.hash != 0 && hash != other.hash) {
+            return false;
+        }
         if (!nodeIdentifier.equals(other.nodeIdentifier)) {
             return false;
         }
@@ -66,8 +103,18 @@ public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V>
 
     @Override
     public final int hashCode() {
+        // Nodes are immutable, hence a racy single-check is sufficient
+        int result = hash;
+        if (result == 0) {
+            result = hashCode(valueHashCode());
+            hash = result;
+        }
+        return result;
+    }
+
+    private int hashCode(final int valueHashCode) {
         int result = nodeIdentifier.hashCode();
-        result = 31 * result + valueHashCode();
+        result = 31 * result + valueHashCode;
         return result;
     }
 }
@@ -20,7 +20,12 @@ public abstract class AbstractImmutableNormalizedValueNode<K extends PathArgumen
     private final V value;
 
     protected AbstractImmutableNormalizedValueNode(final K nodeIdentifier, @Nullable final V value) {
-        super(nodeIdentifier);
+        this(nodeIdentifier, value, null);
+    }
+
+    protected AbstractImmutableNormalizedValueNode(final K nodeIdentifier, @Nullable final V value,
+            @Nullable final Integer valueHashCode) {
+        super(nodeIdentifier, valueHashCode);
         if (value == null) {
             /*
              * Null value is allowed for empty type definition so it should be debug,
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.StoreTreeNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.MutableTreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+
+/**
+ * A {@link TreeNode} which represents the result of a sealed {@link InMemoryDataTreeModification} without actually
+ * applying the modification. Children which the modification has not modified are looked up in the original tree,
+ * children which it has only touched are overlaid recursively. Anything else, including this node's data and
+ * versions, is looked up in the modification's applied root, which is computed on first access.
+ *
+ * <p>
+ * Overlays are only used for nodes whose strategy guarantees that a touched node remains present and that its
+ * children which have not been modified remain unchanged, which is not the case for choices, as selecting a case
+ * removes the other cases' children, and for structural containers, which disappear once they become empty.
+ */
+final class ChainedTreeNode implements TreeNode {
+    private final InMemoryDataTreeModification parent;
+    private final ModificationApplyOperation strategy;
+    private final ModifiedNode modification;
+    private final YangInstanceIdentifier path;
+    private final TreeNode original;
+
+    // Node within the parent's applied root, populated once it is known
+    private TreeNode applied;
+
+    private ChainedTreeNode(final InMemoryDataTreeModification parent, final YangInstanceIdentifier path,
+            final ModificationApplyOperation strategy, final ModifiedNode modification, final TreeNode original) {
+        this.parent = Preconditions.checkNotNull(parent);
+        this.path = Preconditions.checkNotNull(path);
+        this.strategy = Preconditions.checkNotNull(strategy);
+        this.modification = Preconditions.checkNotNull(modification);
+        this.original = Preconditions.checkNotNull(original);
+    }
+
+    /**
+     * Create an overlay of a sealed modification's root, if the modification allows it.
+     *
+     * @param parent Sealed modification
+     * @param strategy Root strategy
+     * @param modification Root modification node
+     * @param original Root node the modification is based on
+     * @return An overlay, or null if the modification needs to be applied
+     */
+    static ChainedTreeNode createRoot(final InMemoryDataTreeModification parent,
+            final ModificationApplyOperation strategy, final ModifiedNode modification, final TreeNode original) {
+        return canOverlay(strategy, modification) ? new ChainedTreeNode(parent, YangInstanceIdentifier.EMPTY,
+            strategy, modification, original) : null;
+    }
+
+    /**
+     * Check whether a modified node can be overlaid over its original node, i.e. whether children the modification has
+     * not modified are guaranteed to remain unchanged when it is applied.
+     *
+     * @param strategy Node strategy
+     * @param modification Node modification
+     * @return True if the node can be overlaid
+     */
+    static boolean canOverlay(final ModificationApplyOperation strategy, final ModifiedNode modification) {
+        if (modification.getOperation() != LogicalOperation.TOUCH) {
+            return false;
+        }
+
+        final ModificationApplyOperation op = strategy instanceof RootModificationApplyOperation
+                ? ((RootModificationApplyOperation) strategy).getDelegate() : strategy;
+        return op instanceof AbstractNodeContainerModificationStrategy && !(op instanceof ChoiceModificationStrategy);
+    }
+
+    @Override
+    public PathArgument getIdentifier() {
+        return original.getIdentifier();
+    }
+
+    @Override
+    public Optional<TreeNode> getChild(final PathArgument child) {
+        final TreeNode node = peekApplied();
+        if (node != null) {
+            return node.getChild(child);
+        }
+
+        final Optional<ModifiedNode> maybeChildMod = modification.getChild(child);
+        if (!maybeChildMod.isPresent()) {
+            return original.getChild(child);
+        }
+
+        final ModifiedNode childMod = maybeChildMod.get();
+        switch (childMod.getOperation()) {
+            case NONE:
+                return original.getChild(child);
+            case DELETE:
+                return Optional.absent();
+            case TOUCH:
+                final Optional<ModificationApplyOperation> childStrategy = strategy.getChild(child);
+                final Optional<TreeNode> childOriginal = original.getChild(child);
+                if (childStrategy.isPresent() && childOriginal.isPresent()
+                        && canOverlay(childStrategy.get(), childMod)) {
+                    return Optional.of(new ChainedTreeNode(parent, path.node(child), childStrategy.get(), childMod,
+                        childOriginal.get()));
+                }
+                break;
+            default:
+                break;
+        }
+
+        return applied().getChild(child);
+    }
+
+    @Override
+    public Version getVersion() {
+        return applied().getVersion();
+    }
+
+    @Override
+    public Version getSubtreeVersion() {
+        return applied().getSubtreeVersion();
+    }
+
+    @Override
+    public NormalizedNode<?, ?> getData() {
+        return applied().getData();
+    }
+
+    @Override
+    public MutableTreeNode mutable() {
+        return applied().mutable();
+    }
+
+    private TreeNode peekApplied() {
+        if (applied == null) {
+            final TreeNode root = parent.peekAppliedRoot();
+            if (root != null) {
+                applied = StoreTreeNodes.findNodeChecked(root, path);
+            }
+        }
+        return applied;
+    }
+
+    private TreeNode applied() {
+        if (applied == null) {
+            applied = StoreTreeNodes.findNodeChecked(parent.getAppliedRoot(), path);
+        }
+        return applied;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("path", path).add("modification", modification)
+                .add("applied", applied).toString();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateVisitor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * Reports changes between two {@link TreeNode}s to a {@link DataTreeCandidateVisitor}, without instantiating any
+ * candidate nodes. Where a {@link ModifiedNode} is available, only its modified children are looked at. Nodes which
+ * have been written are compared with their previous state: subtrees which have the same subtree version or the same
+ * data are skipped in constant time, containers are descended into and other nodes are compared by value.
+ *
+ * <p>
+ * Children of user-ordered and unkeyed lists are not compared individually, as changes in their order cannot be
+ * expressed as changes of their children. Such lists are reported as written instead, regardless of whether they
+ * have been written or modified. This does not apply to the root node, whose children are always reported.
+ */
+final class ChangeWalker {
+    private ChangeWalker() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Report changes of the children of a node, as captured by its modification.
+     *
+     * @param visitor Visitor to report changes to
+     * @param mod Modification of the node
+     * @param before Node before the modification, null if it did not exist
+     * @param after Node after the modification, null if it does not exist
+     */
+    static void walkChildren(final DataTreeCandidateVisitor visitor, final ModifiedNode mod,
+            @Nullable final TreeNode before, @Nullable final TreeNode after) {
+        switch (mod.getModificationType()) {
+            case UNMODIFIED:
+                break;
+            case APPEARED:
+            case DISAPPEARED:
+            case SUBTREE_MODIFIED:
+                walkModifiedChildren(visitor, mod, before, after);
+                break;
+            case DELETE:
+            case WRITE:
+                diffChildren(visitor, before, after);
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled modification type " + mod.getModificationType());
+        }
+    }
+
+    /**
+     * Report changes of a node which is not covered by a modification.
+     *
+     * @param visitor Visitor to report changes to
+     * @param id Node identifier
+     * @param before Node before the change, null if it did not exist
+     * @param after Node after the change, null if it does not exist
+     */
+    static void diff(final DataTreeCandidateVisitor visitor, final PathArgument id, @Nullable final TreeNode before,
+            @Nullable final TreeNode after) {
+        if (before == null) {
+            if (after != null) {
+                visitor.written(id, null, after.getData());
+            }
+            return;
+        }
+        if (after == null) {
+            visitor.deleted(id, before.getData());
+            return;
+        }
+        if (before == after || before.getSubtreeVersion() == after.getSubtreeVersion()) {
+            return;
+        }
+
+        final NormalizedNode<?, ?> beforeData = before.getData();
+        final NormalizedNode<?, ?> afterData = after.getData();
+        if (beforeData == afterData) {
+            return;
+        }
+        if (isComparable(beforeData) && isComparable(afterData)) {
+            if (visitor.enter(id)) {
+                diffChildren(visitor, before, after);
+                visitor.exit();
+            }
+        } else if (!beforeData.equals(afterData)) {
+            visitor.written(id, beforeData, afterData);
+        }
+    }
+
+    private static void walkModifiedChildren(final DataTreeCandidateVisitor visitor, final ModifiedNode mod,
+            final TreeNode before, final TreeNode after) {
+        for (final ModifiedNode childMod : mod.getChildren()) {
+            final PathArgument id = childMod.getIdentifier();
+            switch (childMod.getModificationType()) {
+                case UNMODIFIED:
+                    break;
+                case SUBTREE_MODIFIED:
+                    final TreeNode childBefore = child(before, id);
+                    final TreeNode childAfter = child(after, id);
+                    if (childBefore != null && childAfter != null && isComparable(childBefore.getData())
+                            && isComparable(childAfter.getData())) {
+                        if (visitor.enter(id)) {
+                            walkModifiedChildren(visitor, childMod, childBefore, childAfter);
+                            visitor.exit();
+                        }
+                    } else {
+                        diff(visitor, id, childBefore, childAfter);
+                    }
+                    break;
+                case APPEARED:
+                case DISAPPEARED:
+                case DELETE:
+                case WRITE:
+                    diff(visitor, id, child(before, id), child(after, id));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unhandled modification type "
+                            + childMod.getModificationType());
+            }
+        }
+    }
+
+    /**
+     * Report changes of the children of a node which is not covered by a modification.
+     *
+     * @param visitor Visitor to report changes to
+     * @param before Node before the change, null if it did not exist
+     * @param after Node after the change, null if it does not exist
+     */
+    @SuppressWarnings("unchecked")
+    static void diffChildren(final DataTreeCandidateVisitor visitor, @Nullable final TreeNode before,
+            @Nullable final TreeNode after) {
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> beforeData =
+                before != null && before.getData() instanceof NormalizedNodeContainer
+                    ? (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) before.getData() : null;
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> afterData =
+                after != null && after.getData() instanceof NormalizedNodeContainer
+                    ? (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) after.getData() : null;
+
+        int matched = 0;
+        if (afterData != null) {
+            for (final NormalizedNode<?, ?> child : afterData.getValue()) {
+                final PathArgument id = child.getIdentifier();
+                final NormalizedNode<?, ?> childBefore = beforeData == null ? null : beforeData.getChild(id).orNull();
+                if (childBefore == null) {
+                    visitor.written(id, null, child);
+                } else {
+                    matched++;
+                    // Unchanged children are skipped without looking up their TreeNodes
+                    if (childBefore != child) {
+                        diff(visitor, id, child(before, id), child(after, id));
+                    }
+                }
+            }
+        }
+        // If all children have been matched, none of them can have been deleted
+        if (beforeData != null && matched != beforeData.getValue().size()) {
+            for (final NormalizedNode<?, ?> child : beforeData.getValue()) {
+                final PathArgument id = child.getIdentifier();
+                if (afterData == null || !afterData.getChild(id).isPresent()) {
+                    visitor.deleted(id, child);
+                }
+            }
+        }
+    }
+
+    private static boolean isComparable(final NormalizedNode<?, ?> data) {
+        return data instanceof NormalizedNodeContainer && !(data instanceof OrderedNodeContainer);
+    }
+
+    private static TreeNode child(@Nullable final TreeNode parent, final PathArgument id) {
+        return parent == null ? null : parent.getChild(id).orNull();
+    }
+}
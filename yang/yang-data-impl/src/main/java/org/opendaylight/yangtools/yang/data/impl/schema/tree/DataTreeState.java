@@ -9,6 +9,9 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.lang.ref.WeakReference;
+import java.util.List;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -22,18 +25,30 @@ final class DataTreeState {
     private final LatestOperationHolder holder;
     private final SchemaContext schemaContext;
     private final TreeNode root;
+    /*
+     * Roots from which cold subtrees have been spilled to produce the current root. These are weakly referenced, so
+     * they do not keep spilled subtrees on heap once no candidate based on them exists.
+     */
+    private final List<WeakReference<TreeNode>> spilledFrom;
 
     private DataTreeState(final TreeNode root) {
         this.root = Preconditions.checkNotNull(root);
         holder = new LatestOperationHolder();
         schemaContext = null;
+        spilledFrom = ImmutableList.of();
     }
 
     private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext) {
+        this(root, holder, schemaContext, ImmutableList.of());
+    }
+
+    private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext,
+            final List<WeakReference<TreeNode>> spilledFrom) {
         // It should be impossible to instantiate a new root without a SchemaContext
         this.schemaContext = Preconditions.checkNotNull(schemaContext);
         this.holder = Preconditions.checkNotNull(holder);
         this.root = Preconditions.checkNotNull(root);
+        this.spilledFrom = spilledFrom;
     }
 
     static DataTreeState createInitial(final TreeNode root) {
@@ -44,19 +59,50 @@ final class DataTreeState {
         return root;
     }
 
+    /**
+     * Check whether a candidate based on a particular root can be committed on top of this state. This is the case if
+     * it is based on the current root, or on one of the roots from which the current root was produced by spilling
+     * cold subtrees, as they hold the same data.
+     *
+     * @param candidateRoot Root on which a candidate is based
+     * @return True if the candidate can be committed
+     */
+    boolean isCurrentRoot(final TreeNode candidateRoot) {
+        if (candidateRoot == root) {
+            return true;
+        }
+        for (final WeakReference<TreeNode> ref : spilledFrom) {
+            if (candidateRoot == ref.get()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     InMemoryDataTreeSnapshot newSnapshot() {
         return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot());
     }
 
     DataTreeState withSchemaContext(final SchemaContext newSchemaContext, final ModificationApplyOperation operation) {
         holder.setCurrent(operation);
-        return new DataTreeState(root, holder, newSchemaContext);
+        return new DataTreeState(root, holder, newSchemaContext, spilledFrom);
     }
 
     DataTreeState withRoot(final TreeNode newRoot) {
         return new DataTreeState(newRoot, holder, schemaContext);
     }
 
+    DataTreeState withSpilledRoot(final TreeNode newRoot) {
+        final ImmutableList.Builder<WeakReference<TreeNode>> builder = ImmutableList.builder();
+        builder.add(new WeakReference<>(root));
+        for (final WeakReference<TreeNode> ref : spilledFrom) {
+            if (ref.get() != null) {
+                builder.add(ref);
+            }
+        }
+        return new DataTreeState(newRoot, holder, schemaContext, builder.build());
+    }
+
     @Override
     public String toString() {
         final TreeNode r = root;
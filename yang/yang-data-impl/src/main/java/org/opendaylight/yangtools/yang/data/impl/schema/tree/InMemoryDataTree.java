@@ -11,10 +11,13 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SpillableDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SubtreeSpillPolicy;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
@@ -29,12 +32,17 @@ import org.slf4j.LoggerFactory;
 /**
  * Read-only snapshot of the data tree.
  */
-final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducingDataTree {
+final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducingDataTree, SpillableDataTree {
     private static final AtomicReferenceFieldUpdater<InMemoryDataTree, DataTreeState> STATE_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(InMemoryDataTree.class, DataTreeState.class, "state");
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryDataTree.class);
+    private static final int MAX_SPILL_ATTEMPTS = 3;
 
     private final DataTreeConfiguration treeConfig;
+    private final OffHeapNodeStore store;
+
+    @GuardedBy("this")
+    private SubtreeSpiller spiller;
 
     /**
      * Current data store state generation.
@@ -43,7 +51,13 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
 
     InMemoryDataTree(final TreeNode rootNode, final DataTreeConfiguration treeConfig,
         final SchemaContext schemaContext) {
+        this(rootNode, treeConfig, schemaContext, null);
+    }
+
+    InMemoryDataTree(final TreeNode rootNode, final DataTreeConfiguration treeConfig,
+        final SchemaContext schemaContext, final OffHeapNodeStore store) {
         this.treeConfig = Preconditions.checkNotNull(treeConfig, "treeConfig");
+        this.store = store;
         state = DataTreeState.createInitial(rootNode);
         if (schemaContext != null) {
             setSchemaContext(schemaContext);
@@ -113,7 +127,7 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
             LOG.debug("Updating datastore from {} to {}", currentRoot, newRoot);
 
             final TreeNode oldRoot = c.getBeforeRoot();
-            if (oldRoot != currentRoot) {
+            if (!currentState.isCurrentRoot(oldRoot)) {
                 final String oldStr = simpleToString(oldRoot);
                 final String currentStr = simpleToString(currentRoot);
                 throw new IllegalStateException("Store tree " + currentStr + " and candidate base " + oldStr + " differ.");
@@ -124,6 +138,41 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
         } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
     }
 
+    /*
+     * This method is synchronized to serialize spilling passes. It does not block commits, but it needs to retry its
+     * pass if one happens concurrently. Retries reuse proxies of subtrees spilled by previous attempts, but still walk
+     * the whole tree, hence the number of attempts is bounded: a pass racing with a steady stream of commits gives up
+     * and leaves its subtrees to the next pass.
+     */
+    @Override
+    public synchronized void spillColdSubtrees(final SubtreeSpillPolicy policy) {
+        Preconditions.checkNotNull(policy);
+        if (spiller == null) {
+            spiller = new SubtreeSpiller(store != null ? store
+                    : OffHeapNodeStore.direct(OffHeapNodeStore.DEFAULT_SEGMENT_SIZE));
+        }
+
+        spiller.startPass();
+        for (int attempt = 1; ; ++attempt) {
+            final DataTreeState currentState = state;
+            final TreeNode currentRoot = currentState.getRoot();
+            final TreeNode newRoot = spiller.spill(getRootPath(), currentRoot, policy);
+            if (newRoot == currentRoot) {
+                LOG.debug("No subtrees spilled from {}", currentRoot);
+                return;
+            }
+
+            if (STATE_UPDATER.compareAndSet(this, currentState, currentState.withSpilledRoot(newRoot))) {
+                LOG.debug("Spilled cold subtrees, {} bytes stored off-heap", spiller.getStore().usedBytes());
+                return;
+            }
+            if (attempt == MAX_SPILL_ATTEMPTS) {
+                LOG.debug("Spilling raced with commits {} times, deferring to next pass", attempt);
+                return;
+            }
+        }
+    }
+
     private static String simpleToString(final Object o) {
         return o.getClass().getName() + "@" + Integer.toHexString(o.hashCode());
     }
@@ -12,6 +12,7 @@ import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateVisitor;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 
 final class InMemoryDataTreeCandidate extends AbstractDataTreeCandidate {
@@ -51,6 +52,11 @@ final class InMemoryDataTreeCandidate extends AbstractDataTreeCandidate {
         return root;
     }
 
+    @Override
+    public void accept(final DataTreeCandidateVisitor visitor) {
+        ChangeWalker.walkChildren(visitor, root.getMod(), root.getOldMeta(), root.getNewMeta());
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("rootPath", getRootPath()).add("rootNode", getRootNode()).toString();
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
@@ -15,6 +17,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration.Builder;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SpillableDataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
@@ -45,6 +48,20 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
             Version.initial()), treeConfig, null);
     }
 
+    /**
+     * Create a new data tree which spills cold subtrees into the specified store. All data trees created by this
+     * factory implement {@link SpillableDataTree}, this method allows the backing store to be selected.
+     *
+     * @param treeConfig Tree configuration
+     * @param store Store to hold spilled subtrees
+     * @return A new data tree
+     */
+    @Beta
+    public TipProducingDataTree create(final DataTreeConfiguration treeConfig, final OffHeapNodeStore store) {
+        return new InMemoryDataTree(TreeNodeFactory.createTreeNode(createRoot(treeConfig.getRootPath()),
+            Version.initial()), treeConfig, null, Preconditions.checkNotNull(store));
+    }
+
     private static NormalizedNode<?, ?> createRoot(final YangInstanceIdentifier path) {
         if (path.isEmpty()) {
             return ROOT_CONTAINER;
@@ -10,7 +10,7 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.Collection;
-import java.util.Map.Entry;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -19,7 +19,6 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeModification;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModificationCursor;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.StoreTreeNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 import org.slf4j.Logger;
@@ -30,19 +29,29 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
             AtomicIntegerFieldUpdater.newUpdater(InMemoryDataTreeModification.class, "sealed");
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryDataTreeModification.class);
 
+    /**
+     * Maximum number of chained modifications which can be stacked on top of each other without being applied. Each
+     * chained modification retains its predecessors, hence this bounds both memory and lookup depth.
+     */
+    private static final int MAX_CHAIN_DEPTH = 16;
+
     private final RootModificationApplyOperation strategyTree;
     private final InMemoryDataTreeSnapshot snapshot;
     private final ModifiedNode rootNode;
     private final Version version;
+    private final int chainDepth;
 
     private volatile int sealed = 0;
 
+    // Result of applying this modification to the snapshot, computed at most once
+    private volatile TreeNode appliedRoot;
+    // Root this modification's nodes were last applied to
+    private TreeNode lastAppliedTo;
+    // Set once a modification has been chained on top of this one without applying it
+    private boolean chained;
+
     InMemoryDataTreeModification(final InMemoryDataTreeSnapshot snapshot,
             final RootModificationApplyOperation resolver) {
-        this.snapshot = Preconditions.checkNotNull(snapshot);
-        this.strategyTree = Preconditions.checkNotNull(resolver).snapshot();
-        this.rootNode = ModifiedNode.createUnmodified(snapshot.getRootNode(), strategyTree.getChildPolicy());
-
         /*
          * We could allocate version beforehand, since Version contract
          * states two allocated version must be always different.
@@ -52,7 +61,16 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
          * node in modification and in data tree (if successfully
          * committed) will be same and will not change.
          */
-        this.version = snapshot.getRootNode().getSubtreeVersion().next();
+        this(snapshot, resolver, snapshot.getRootNode().getSubtreeVersion().next(), 0);
+    }
+
+    private InMemoryDataTreeModification(final InMemoryDataTreeSnapshot snapshot,
+            final RootModificationApplyOperation resolver, final Version version, final int chainDepth) {
+        this.snapshot = Preconditions.checkNotNull(snapshot);
+        this.strategyTree = Preconditions.checkNotNull(resolver).snapshot();
+        this.rootNode = ModifiedNode.createUnmodified(snapshot.getRootNode(), strategyTree.getChildPolicy());
+        this.version = Preconditions.checkNotNull(version);
+        this.chainDepth = chainDepth;
     }
 
     ModifiedNode getRootModification() {
@@ -90,13 +108,47 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
          * Walk the tree from the top, looking for the first node between root and
          * the requested path which has been modified. If no such node exists,
          * we use the node itself.
+         *
+         * If we encounter a node which has only touched some of its children and
+         * the requested child is not among them, the requested data has not been
+         * modified and we read it from the original tree, without materializing
+         * the touched node.
          */
-        final Entry<YangInstanceIdentifier, ModifiedNode> entry = StoreTreeNodes.findClosestsOrFirstMatch(rootNode,
-            path, ModifiedNode.IS_TERMINAL_PREDICATE);
-        final YangInstanceIdentifier key = entry.getKey();
-        final ModifiedNode mod = entry.getValue();
+        upgradeIfPossible();
 
-        final Optional<TreeNode> result = resolveSnapshot(key, mod);
+        ModificationApplyOperation operation = strategyTree;
+        ModifiedNode mod = rootNode;
+        int depth = 0;
+        for (final PathArgument pathArg : path.getPathArguments()) {
+            if (ModifiedNode.IS_TERMINAL_PREDICATE.apply(mod)) {
+                break;
+            }
+
+            final Optional<ModifiedNode> potential = mod.getChild(pathArg);
+            if (!potential.isPresent()) {
+                if (ChainedTreeNode.canOverlay(operation, mod) && mod.getOriginal().isPresent()) {
+                    return readOriginal(mod.getOriginal().get(), path, depth);
+                }
+                break;
+            }
+
+            final Optional<ModificationApplyOperation> childOperation = operation.getChild(pathArg);
+            if (!childOperation.isPresent()) {
+                break;
+            }
+
+            operation = childOperation.get();
+            mod = potential.get();
+            ++depth;
+        }
+
+        final YangInstanceIdentifier key = path.getAncestor(depth);
+        if (mod.getOperation() == LogicalOperation.NONE) {
+            final Optional<TreeNode> original = mod.getOriginal();
+            return original.isPresent() ? readOriginal(original.get(), path, depth) : Optional.absent();
+        }
+
+        final Optional<TreeNode> result = resolveSnapshot(key, operation, mod);
         if (result.isPresent()) {
             final NormalizedNode<?, ?> data = result.get().getData();
             return NormalizedNodes.findNode(key, data, path);
@@ -105,14 +157,41 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         return Optional.absent();
     }
 
-    private Optional<TreeNode> resolveSnapshot(final YangInstanceIdentifier path, final ModifiedNode modification) {
+    /**
+     * Read data from an original node. If the node overlays a preceding modification in a chain, we descend through
+     * its children first, as its data is available only once the preceding modification has been applied.
+     *
+     * @param original Original node
+     * @param path Path to read
+     * @param depth Depth of the original node within the path
+     * @return Data at the path, if present
+     */
+    private static Optional<NormalizedNode<?, ?>> readOriginal(final TreeNode original,
+            final YangInstanceIdentifier path, final int depth) {
+        final List<PathArgument> args = path.getPathArguments();
+        TreeNode node = original;
+        int nodeDepth = depth;
+        while (node instanceof ChainedTreeNode && nodeDepth < args.size()) {
+            final Optional<TreeNode> child = node.getChild(args.get(nodeDepth));
+            if (!child.isPresent()) {
+                return Optional.absent();
+            }
+            node = child.get();
+            ++nodeDepth;
+        }
+
+        return NormalizedNodes.findNode(path.getAncestor(nodeDepth), node.getData(), path);
+    }
+
+    private Optional<TreeNode> resolveSnapshot(final YangInstanceIdentifier path,
+            final ModificationApplyOperation operation, final ModifiedNode modification) {
         final Optional<TreeNode> potentialSnapshot = modification.getSnapshot();
         if (potentialSnapshot != null) {
             return potentialSnapshot;
         }
 
         try {
-            return resolveModificationStrategy(path).apply(modification, modification.getOriginal(), version);
+            return operation.apply(modification, modification.getOriginal(), version);
         } catch (final Exception e) {
             LOG.error("Could not create snapshot for {}:{}", path, modification, e);
             throw e;
@@ -125,13 +204,6 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         }
     }
 
-    private ModificationApplyOperation resolveModificationStrategy(final YangInstanceIdentifier path) {
-        LOG.trace("Resolving modification apply strategy for {}", path);
-
-        upgradeIfPossible();
-        return StoreTreeNodes.findNodeChecked(strategyTree, path);
-    }
-
     private OperationWithModification resolveModificationFor(final YangInstanceIdentifier path) {
         upgradeIfPossible();
 
@@ -183,17 +255,84 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         }
 
         /*
-         * We will use preallocated version, this means returned snapshot will
-         * have same version each time this method is called.
+         * Unless this modification has already been applied, overlay it lazily, so that the new modification
+         * applies it only if it needs to. Otherwise we will use preallocated version, this means returned snapshot
+         * will have same version each time this method is called.
          */
-        final TreeNode originalSnapshotRoot = snapshot.getRootNode();
-        final Optional<TreeNode> tempRoot = strategyTree.apply(rootNode, Optional.of(originalSnapshotRoot), version);
-        Preconditions.checkState(tempRoot.isPresent(),
-            "Data tree root is not present, possibly removed by previous modification");
+        TreeNode tempRoot = appliedRoot;
+        int tempDepth = 0;
+        if (tempRoot == null && chainDepth < MAX_CHAIN_DEPTH) {
+            tempRoot = ChainedTreeNode.createRoot(this, strategyTree, rootNode, snapshot.getRootNode());
+            if (tempRoot != null) {
+                synchronized (this) {
+                    chained = true;
+                }
+                tempDepth = chainDepth + 1;
+            }
+        }
+        if (tempRoot == null) {
+            tempRoot = getAppliedRoot();
+        }
 
         final InMemoryDataTreeSnapshot tempTree = new InMemoryDataTreeSnapshot(snapshot.getSchemaContext(),
-            tempRoot.get(), strategyTree);
-        return tempTree.newModification();
+            tempRoot, strategyTree);
+        return new InMemoryDataTreeModification(tempTree, strategyTree, version.next(), tempDepth);
+    }
+
+    /**
+     * Return the result of applying this sealed modification to its snapshot, if it has already been computed.
+     *
+     * @return Applied root, or null
+     */
+    TreeNode peekAppliedRoot() {
+        return appliedRoot;
+    }
+
+    /**
+     * Return the result of applying this sealed modification to its snapshot, computing it if needed.
+     *
+     * @return Applied root
+     */
+    synchronized TreeNode getAppliedRoot() {
+        TreeNode ret = appliedRoot;
+        if (ret == null) {
+            ret = applyToSnapshot().get();
+        }
+        return ret;
+    }
+
+    /**
+     * Apply this sealed modification to a tree root, as part of preparing it. If the root is this modification's
+     * snapshot, the result is shared with modifications chained on top of this one.
+     *
+     * @param currentRoot Current root
+     * @return Resulting root
+     */
+    synchronized Optional<TreeNode> applyTo(final TreeNode currentRoot) {
+        final TreeNode snapshotRoot = snapshot.getRootNode();
+        if (currentRoot == snapshotRoot) {
+            // Node modification types reflect the last apply, make sure they match the returned root
+            return appliedRoot != null && lastAppliedTo == snapshotRoot ? Optional.of(appliedRoot) : applyToSnapshot();
+        }
+
+        if (chained && appliedRoot == null) {
+            // Chained modifications will need the result based on our snapshot. Compute it before the result for
+            // the current root, so node modification types are not overwritten once they are reported.
+            applyToSnapshot();
+        }
+
+        lastAppliedTo = currentRoot;
+        return strategyTree.apply(rootNode, Optional.of(currentRoot), version);
+    }
+
+    private Optional<TreeNode> applyToSnapshot() {
+        final TreeNode snapshotRoot = snapshot.getRootNode();
+        final Optional<TreeNode> ret = strategyTree.apply(rootNode, Optional.of(snapshotRoot), version);
+        Preconditions.checkState(ret.isPresent(),
+            "Data tree root is not present, possibly removed by previous modification");
+        lastAppliedTo = snapshotRoot;
+        appliedRoot = ret.get();
+        return ret;
     }
 
     Version getVersion() {
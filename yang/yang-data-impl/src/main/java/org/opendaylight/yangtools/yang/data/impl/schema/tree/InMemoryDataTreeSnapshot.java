@@ -15,11 +15,15 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshotCursor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DiffableDataTreeSnapshot;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
-final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements CursorAwareDataTreeSnapshot {
+final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements CursorAwareDataTreeSnapshot,
+        DiffableDataTreeSnapshot {
     private final RootModificationApplyOperation applyOper;
     private final SchemaContext schemaContext;
     private final TreeNode rootNode;
@@ -61,6 +65,12 @@ final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements Curs
         return openCursor(new InMemoryDataTreeSnapshotCursor(this, path, (NormalizedNodeContainer<?, ?, ?>)root));
     }
 
+    @Override
+    public DataTreeCandidate diffFrom(@Nonnull final DataTreeSnapshot before) {
+        Preconditions.checkArgument(before instanceof InMemoryDataTreeSnapshot, "Unsupported snapshot %s", before);
+        return new SnapshotDiffCandidate(((InMemoryDataTreeSnapshot) before).rootNode, rootNode);
+    }
+
     @Override
     public String toString() {
         return rootNode.getSubtreeVersion().toString();
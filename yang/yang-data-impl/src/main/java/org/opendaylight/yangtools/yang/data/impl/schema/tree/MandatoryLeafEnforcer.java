@@ -9,12 +9,11 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableCollection.Builder;
-import com.google.common.collect.ImmutableList;
-import java.util.Collection;
+import com.google.common.collect.ImmutableListMultimap;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
@@ -30,20 +29,37 @@ import org.slf4j.LoggerFactory;
 // TODO: would making this Serializable be useful (for Functions and similar?)
 abstract class MandatoryLeafEnforcer implements Immutable {
     private static final class Strict extends MandatoryLeafEnforcer {
-        private final Collection<YangInstanceIdentifier> mandatoryNodes;
+        // Mandatory descendants, indexed by the child they are found under
+        private final ImmutableListMultimap<PathArgument, YangInstanceIdentifier> mandatoryNodes;
 
-        Strict(final Collection<YangInstanceIdentifier> mandatoryNodes) {
+        Strict(final ImmutableListMultimap<PathArgument, YangInstanceIdentifier> mandatoryNodes) {
             this.mandatoryNodes = Preconditions.checkNotNull(mandatoryNodes);
         }
 
         @Override
         void enforceOnData(final NormalizedNode<?, ?> data) {
-            for (final YangInstanceIdentifier id : mandatoryNodes) {
-                final Optional<NormalizedNode<?, ?>> descandant = NormalizedNodes.findNode(data, id);
-                Preconditions.checkArgument(descandant.isPresent(), "Node %s is missing mandatory descendant %s",
-                        data.getIdentifier(), id);
+            for (final YangInstanceIdentifier id : mandatoryNodes.values()) {
+                enforceOnDescendant(data, id);
             }
         }
+
+        @Override
+        void enforceOnModification(final ModifiedNode modification, final TreeNode tree) {
+            final NormalizedNode<?, ?> data = tree.getData();
+            for (final ModifiedNode child : modification.getChildren()) {
+                if (child.getOperation() != LogicalOperation.NONE) {
+                    for (final YangInstanceIdentifier id : mandatoryNodes.get(child.getIdentifier())) {
+                        enforceOnDescendant(data, id);
+                    }
+                }
+            }
+        }
+
+        private static void enforceOnDescendant(final NormalizedNode<?, ?> data, final YangInstanceIdentifier id) {
+            final Optional<NormalizedNode<?, ?>> descandant = NormalizedNodes.findNode(data, id);
+            Preconditions.checkArgument(descandant.isPresent(), "Node %s is missing mandatory descendant %s",
+                    data.getIdentifier(), id);
+        }
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(MandatoryLeafEnforcer.class);
@@ -52,6 +68,11 @@ abstract class MandatoryLeafEnforcer implements Immutable {
         void enforceOnData(final NormalizedNode<?, ?> normalizedNode) {
             // Intentional no-op
         }
+
+        @Override
+        void enforceOnModification(final ModifiedNode modification, final TreeNode tree) {
+            // Intentional no-op
+        }
     };
 
     final void enforceOnTreeNode(final TreeNode tree) {
@@ -60,7 +81,18 @@ abstract class MandatoryLeafEnforcer implements Immutable {
 
     abstract void enforceOnData(final NormalizedNode<?, ?> normalizedNode);
 
-    private static void findMandatoryNodes(final Builder<YangInstanceIdentifier> builder,
+    /**
+     * Enforce mandatory descendants on the result of applying a touch or a merge to a node which has been enforced
+     * before. Only mandatory descendants found under modified children can go missing, hence the remaining ones are
+     * not checked.
+     *
+     * @param modification Applied modification
+     * @param tree Resulting node
+     */
+    abstract void enforceOnModification(final ModifiedNode modification, final TreeNode tree);
+
+    private static void findMandatoryNodes(
+            final ImmutableListMultimap.Builder<PathArgument, YangInstanceIdentifier> builder,
             final YangInstanceIdentifier id, final DataNodeContainer schema, final TreeType type) {
         for (final DataSchemaNode child : schema.getChildNodes()) {
             if (SchemaAwareApplyOperation.belongsToTree(type, child)) {
@@ -75,7 +107,7 @@ abstract class MandatoryLeafEnforcer implements Immutable {
                     if (constraints.isMandatory() || (minElements != null && minElements.intValue() > 0)) {
                         final YangInstanceIdentifier childId = id.node(NodeIdentifier.create(child.getQName()));
                         LOG.debug("Adding mandatory child {}", childId);
-                        builder.add(childId.toOptimized());
+                        builder.put(childId.getPathArguments().get(0), childId.toOptimized());
                     }
                 }
             }
@@ -87,9 +119,10 @@ abstract class MandatoryLeafEnforcer implements Immutable {
             return NOOP_ENFORCER;
         }
 
-        final Builder<YangInstanceIdentifier> builder = ImmutableList.builder();
+        final ImmutableListMultimap.Builder<PathArgument, YangInstanceIdentifier> builder =
+                ImmutableListMultimap.builder();
         findMandatoryNodes(builder, YangInstanceIdentifier.EMPTY, schema, treeConfig.getTreeType());
-        final Collection<YangInstanceIdentifier> mandatoryNodes = builder.build();
+        final ImmutableListMultimap<PathArgument, YangInstanceIdentifier> mandatoryNodes = builder.build();
         return mandatoryNodes.isEmpty() ? NOOP_ENFORCER : new Strict(mandatoryNodes);
     }
 }
@@ -48,8 +48,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
     }
 
     private void validateMinMaxElements(final YangInstanceIdentifier path, final PathArgument id,
-            final NormalizedNode<?, ?> data) throws DataValidationFailedException {
-        final int children = numOfChildrenFromValue(data);
+            final int children) throws DataValidationFailedException {
         if (minElements != null && minElements > children) {
             throw new DataValidationFailedException(path, String.format(
                     "%s does not have enough elements (%s), needs at least %s", id,
@@ -70,6 +69,11 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         }
 
         final ModifiedNode modification = (ModifiedNode) nodeMod;
+        final int children = numOfChildrenFromModification(modification, current);
+        if (children >= 0) {
+            validateMinMaxElements(path, modification.getIdentifier(), children);
+            return;
+        }
 
         // We need to actually perform the operation to get deal with merge in a sane manner. We know the modification
         // is immutable, so the result of validation will probably not change.
@@ -77,7 +81,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         Verify.verify(maybeApplied.isPresent());
 
         final TreeNode applied = maybeApplied.get();
-        validateMinMaxElements(path, modification.getIdentifier(), applied.getData());
+        validateMinMaxElements(path, modification.getIdentifier(), numOfChildrenFromValue(applied.getData()));
 
         // Everything passed. We now have a snapshot of the result node, it would be too bad if we just threw it out.
         // We know what the result of an apply operation is going to be *if* the following are kept unchanged:
@@ -88,6 +92,58 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         modification.setValidatedNode(this, current, applied);
     }
 
+    /**
+     * Compute the number of children a node will have once a modification is applied, without actually applying it.
+     * This is possible for written nodes, whose value is complete once the modification is sealed, and for touched
+     * keyed containers, where each modified child either appears, disappears or keeps its presence.
+     *
+     * @param modification Node modification
+     * @param current Current node
+     * @return Number of children, or -1 if the modification has to be applied to find out
+     */
+    private static int numOfChildrenFromModification(final ModifiedNode modification,
+            final Optional<TreeNode> current) {
+        switch (modification.getOperation()) {
+            case WRITE:
+                return modification.getChildren().isEmpty()
+                        ? numOfChildrenFromValue(modification.getWrittenValue()) : -1;
+            case TOUCH:
+                if (!current.isPresent() || !(current.get().getData() instanceof NormalizedNodeContainer)) {
+                    return -1;
+                }
+                break;
+            default:
+                return -1;
+        }
+
+        final TreeNode currentMeta = current.get();
+        int ret = numOfChildrenFromValue(currentMeta.getData());
+        for (final ModifiedNode child : modification.getChildren()) {
+            final boolean before = currentMeta.getChild(child.getIdentifier()).isPresent();
+            final boolean after;
+            switch (child.getOperation()) {
+                case DELETE:
+                    after = false;
+                    break;
+                case MERGE:
+                case TOUCH:
+                case WRITE:
+                    after = true;
+                    break;
+                case NONE:
+                    after = before;
+                    break;
+                default:
+                    return -1;
+            }
+
+            if (before != after) {
+                ret += after ? 1 : -1;
+            }
+        }
+        return ret;
+    }
+
     private static int numOfChildrenFromValue(final NormalizedNode<?, ?> value) {
         if (value instanceof NormalizedNodeContainer) {
             return ((NormalizedNodeContainer<?, ?, ?>) value).getValue().size();
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * A {@link DataTreeCandidateNode} of a node which is present both before and after the change and whose modified
+ * children are known upfront. It is {@link ModificationType#SUBTREE_MODIFIED} if it has any modified children,
+ * {@link ModificationType#UNMODIFIED} otherwise.
+ */
+final class ModifiedChildrenCandidateNode implements DataTreeCandidateNode {
+    private final PathArgument identifier;
+    private final NormalizedNode<?, ?> dataBefore;
+    private final NormalizedNode<?, ?> dataAfter;
+    private final Map<PathArgument, DataTreeCandidateNode> children;
+
+    /**
+     * Create a new node.
+     *
+     * @param identifier Node identifier, null for the root node
+     * @param dataBefore Data before the change
+     * @param dataAfter Data after the change
+     * @param children Modified children
+     */
+    ModifiedChildrenCandidateNode(final PathArgument identifier, final NormalizedNode<?, ?> dataBefore,
+            final NormalizedNode<?, ?> dataAfter, final Map<PathArgument, DataTreeCandidateNode> children) {
+        this.identifier = identifier;
+        this.dataBefore = Preconditions.checkNotNull(dataBefore);
+        this.dataAfter = Preconditions.checkNotNull(dataAfter);
+        this.children = Preconditions.checkNotNull(children);
+    }
+
+    @Override
+    @Nonnull
+    public PathArgument getIdentifier() {
+        Preconditions.checkState(identifier != null, "Attempted to get identifier of the root node");
+        return identifier;
+    }
+
+    @Override
+    @Nonnull
+    public Collection<DataTreeCandidateNode> getChildNodes() {
+        return Collections.unmodifiableCollection(children.values());
+    }
+
+    @Override
+    public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+        return children.get(childIdentifier);
+    }
+
+    @Override
+    @Nonnull
+    public ModificationType getModificationType() {
+        return children.isEmpty() ? ModificationType.UNMODIFIED : ModificationType.SUBTREE_MODIFIED;
+    }
+
+    @Override
+    @Nonnull
+    public Optional<NormalizedNode<?, ?>> getDataBefore() {
+        return Optional.of(dataBefore);
+    }
+
+    @Override
+    @Nonnull
+    public Optional<NormalizedNode<?, ?>> getDataAfter() {
+        return Optional.of(dataAfter);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("identifier", identifier).add("children", children.keySet())
+                .toString();
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage of serialized subtrees outside of the Java heap, either in direct buffers or in memory-mapped temporary
+ * files. Storage is allocated in segments, up to a maximum size, and is append-only within a segment. Each stored
+ * subtree is tracked through a phantom reference to its owner, the proxy standing in for it, and once all subtrees of
+ * a segment other than the one being appended to have become unreachable, the segment is released. Space taken by
+ * subtrees which have been modified or removed after being spilled is therefore reclaimed only when their segment
+ * empties, making the store best suited for data which stays cold once it has been spilled.
+ *
+ * <p>
+ * {@link QName}s are not stored in serialized subtrees, but in a dictionary kept on heap, as there are only as many
+ * of them as there are nodes in the schema.
+ */
+@Beta
+public final class OffHeapNodeStore {
+    /**
+     * Default segment size, 64MiB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Default maximum size, 1GiB.
+     */
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapNodeStore.class);
+    private static final int SEGMENT_SHIFT = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+    // Each subtree is preceded by its length
+    private static final int HEADER_SIZE = 4;
+
+    /**
+     * Phantom reference to the owner of a stored subtree, which needs to be kept reachable until it is enqueued.
+     */
+    private static final class Allocation extends PhantomReference<Object> {
+        final long address;
+
+        Allocation(final Object owner, final ReferenceQueue<Object> queue, final long address) {
+            super(owner, queue);
+            this.address = address;
+        }
+    }
+
+    private final ConcurrentMap<QName, Integer> qnameIndices = new ConcurrentHashMap<>();
+    private final Set<Allocation> allocations = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Object> released = new ReferenceQueue<>();
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+
+    // Both arrays are replaced or updated under the lock, readers access them without locking
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private volatile QName[] qnames = new QName[0];
+    @GuardedBy("this")
+    private long[] liveBytes = new long[0];
+    @GuardedBy("this")
+    private int qnameCount;
+    @GuardedBy("this")
+    private long usedBytes;
+    @GuardedBy("this")
+    private long allocatedBytes;
+    @GuardedBy("this")
+    private boolean full;
+
+    private OffHeapNodeStore(final Path directory, final int segmentSize, final long maxSize) {
+        Preconditions.checkArgument(segmentSize > 0, "Segment size %s is not positive", segmentSize);
+        Preconditions.checkArgument(maxSize >= segmentSize, "Maximum size %s is less than segment size %s", maxSize,
+            segmentSize);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create a store backed by direct buffers, taking at most {@value #DEFAULT_MAX_SIZE} bytes.
+     *
+     * @param segmentSize Size of each buffer
+     * @return A new store
+     */
+    public static OffHeapNodeStore direct(final int segmentSize) {
+        return direct(segmentSize, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a store backed by direct buffers.
+     *
+     * @param segmentSize Size of each buffer
+     * @param maxSize Maximum number of bytes taken by all buffers
+     * @return A new store
+     */
+    public static OffHeapNodeStore direct(final int segmentSize, final long maxSize) {
+        return new OffHeapNodeStore(null, segmentSize, maxSize);
+    }
+
+    /**
+     * Create a store backed by memory-mapped temporary files, allowing the operating system to page out subtrees
+     * which are not being accessed. The store takes at most {@value #DEFAULT_MAX_SIZE} bytes.
+     *
+     * @param directory Directory in which to create the files
+     * @param segmentSize Size of each file
+     * @return A new store
+     */
+    public static OffHeapNodeStore mappedFile(final Path directory, final int segmentSize) {
+        return mappedFile(directory, segmentSize, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a store backed by memory-mapped temporary files, allowing the operating system to page out subtrees
+     * which are not being accessed.
+     *
+     * @param directory Directory in which to create the files
+     * @param segmentSize Size of each file
+     * @param maxSize Maximum number of bytes taken by all files
+     * @return A new store
+     */
+    public static OffHeapNodeStore mappedFile(final Path directory, final int segmentSize, final long maxSize) {
+        return new OffHeapNodeStore(Preconditions.checkNotNull(directory), segmentSize, maxSize);
+    }
+
+    /**
+     * Return the number of bytes taken by reachable spilled subtrees.
+     *
+     * @return Number of bytes used
+     */
+    public synchronized long usedBytes() {
+        expunge();
+        return usedBytes;
+    }
+
+    /**
+     * Return the number of bytes taken by segments which have not been released.
+     *
+     * @return Number of bytes allocated
+     */
+    public synchronized long allocatedBytes() {
+        expunge();
+        return allocatedBytes;
+    }
+
+    /**
+     * Check whether an append has failed because the store has reached its maximum size, and no segment has been
+     * released since.
+     *
+     * @return True if the store is full
+     */
+    synchronized boolean isFull() {
+        expunge();
+        return full;
+    }
+
+    /**
+     * Append a serialized subtree. Its space is reclaimed only once it has been {@link #track(Object, long) tracked}
+     * and its owner has become unreachable.
+     *
+     * @param bytes Buffer holding the subtree
+     * @param length Length of the subtree
+     * @return Address of the subtree
+     * @throws IOException if a new segment cannot be allocated, or if the store would exceed its maximum size
+     */
+    synchronized long append(final byte[] bytes, final int length) throws IOException {
+        expunge();
+
+        final int size = length + HEADER_SIZE;
+        ByteBuffer segment = segments.length == 0 ? null : segments[segments.length - 1];
+        if (segment == null || segment.remaining() < size) {
+            final int newSize = Math.max(segmentSize, size);
+            if (allocatedBytes + newSize > maxSize) {
+                full = true;
+                throw new IOException("Store of " + allocatedBytes + " bytes cannot grow by " + newSize
+                    + " bytes without exceeding " + maxSize + " bytes");
+            }
+
+            segment = allocate(newSize);
+            final ByteBuffer[] newSegments = Arrays.copyOf(segments, segments.length + 1);
+            newSegments[segments.length] = segment;
+            liveBytes = Arrays.copyOf(liveBytes, segments.length + 1);
+            allocatedBytes += newSize;
+            segments = newSegments;
+
+            // The previous segment may have emptied while it was being appended to
+            if (newSegments.length > 1 && liveBytes[newSegments.length - 2] == 0) {
+                release(newSegments.length - 2);
+            }
+        }
+
+        segment.putInt(length);
+        final int offset = segment.position();
+        segment.put(bytes, 0, length);
+        liveBytes[segments.length - 1] += size;
+        usedBytes += size;
+        return (long) (segments.length - 1) << SEGMENT_SHIFT | offset;
+    }
+
+    /**
+     * Track the owner of a subtree, so that the subtree is released once the owner becomes unreachable. The owner
+     * must not access the subtree after that point.
+     *
+     * @param owner Owner of the subtree
+     * @param address Address of the subtree
+     */
+    void track(final Object owner, final long address) {
+        allocations.add(new Allocation(Preconditions.checkNotNull(owner), released, address));
+    }
+
+    @GuardedBy("this")
+    private void expunge() {
+        for (Reference<?> ref = released.poll(); ref != null; ref = released.poll()) {
+            final Allocation allocation = (Allocation) ref;
+            allocations.remove(allocation);
+
+            final int index = (int) (allocation.address >>> SEGMENT_SHIFT);
+            final ByteBuffer segment = segments[index];
+            final int size = segment.getInt(offset(allocation.address) - HEADER_SIZE) + HEADER_SIZE;
+            liveBytes[index] -= size;
+            usedBytes -= size;
+
+            // The last segment is still being appended to
+            if (liveBytes[index] == 0 && index != segments.length - 1) {
+                release(index);
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void release(final int index) {
+        final ByteBuffer[] newSegments = segments.clone();
+        final ByteBuffer segment = newSegments[index];
+        LOG.debug("Releasing segment {} of {} bytes", index, segment.capacity());
+        newSegments[index] = null;
+        segments = newSegments;
+        allocatedBytes -= segment.capacity();
+        full = false;
+    }
+
+    /**
+     * Return the segment holding a subtree. Callers must not modify the segment, nor rely on its position, and must
+     * use absolute reads only.
+     *
+     * @param address Address of the subtree
+     * @return Segment holding the subtree
+     */
+    ByteBuffer segment(final long address) {
+        return segments[(int) (address >>> SEGMENT_SHIFT)];
+    }
+
+    static int offset(final long address) {
+        return (int) (address & OFFSET_MASK);
+    }
+
+    int qnameIndex(final QName qname) {
+        final Integer existing = qnameIndices.get(qname);
+        return existing != null ? existing : addQName(qname);
+    }
+
+    QName qname(final int index) {
+        return qnames[index];
+    }
+
+    private synchronized int addQName(final QName qname) {
+        final Integer existing = qnameIndices.get(qname);
+        if (existing != null) {
+            return existing;
+        }
+
+        final int index = qnameCount++;
+        if (index == qnames.length) {
+            qnames = Arrays.copyOf(qnames, Math.max(16, index * 2));
+        }
+        // Publish the QName before its index, so that readers never see an index without its QName
+        final QName[] local = qnames;
+        local[index] = qname;
+        qnames = local;
+        qnameIndices.put(qname, index);
+        return index;
+    }
+
+    private ByteBuffer allocate(final int size) throws IOException {
+        if (directory == null) {
+            return ByteBuffer.allocateDirect(size);
+        }
+
+        final Path file = Files.createTempFile(directory, "spilled-", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(MapMode.READ_WRITE, 0, size);
+        } finally {
+            // The mapping stays valid once the file has been deleted, at least on POSIX systems
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                LOG.debug("Failed to delete {}, deleting it on exit", file, e);
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+}
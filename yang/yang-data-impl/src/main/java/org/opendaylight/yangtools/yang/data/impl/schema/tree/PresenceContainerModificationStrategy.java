@@ -38,7 +38,7 @@ final class PresenceContainerModificationStrategy extends ContainerModificationS
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode ret = super.applyMerge(modification, currentMeta, version);
-        enforcer.enforceOnTreeNode(ret);
+        enforcer.enforceOnModification(modification, ret);
         return ret;
     }
 
@@ -53,7 +53,7 @@ final class PresenceContainerModificationStrategy extends ContainerModificationS
     @Override
     protected TreeNode applyTouch(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode ret = super.applyTouch(modification, currentMeta, version);
-        enforcer.enforceOnTreeNode(ret);
+        enforcer.enforceOnModification(modification, ret);
         return ret;
     }
 }
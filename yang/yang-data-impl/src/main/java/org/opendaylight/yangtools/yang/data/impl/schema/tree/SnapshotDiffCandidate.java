@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateVisitor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * A {@link DataTreeCandidate} describing differences between the root nodes of two snapshots. The differences are
+ * found by {@link ChangeWalker}, hence subtrees which both snapshots share are not compared. Candidate nodes are only
+ * built when {@link #getRootNode()} is first invoked, {@link #accept(DataTreeCandidateVisitor)} reports differences
+ * directly.
+ */
+final class SnapshotDiffCandidate implements DataTreeCandidate {
+    private final TreeNode beforeRoot;
+    private final TreeNode afterRoot;
+
+    private volatile DataTreeCandidateNode rootNode;
+
+    SnapshotDiffCandidate(final TreeNode beforeRoot, final TreeNode afterRoot) {
+        this.beforeRoot = Preconditions.checkNotNull(beforeRoot);
+        this.afterRoot = Preconditions.checkNotNull(afterRoot);
+    }
+
+    @Override
+    public DataTreeCandidateNode getRootNode() {
+        DataTreeCandidateNode ret = rootNode;
+        if (ret == null) {
+            final NodeBuilder builder = new NodeBuilder(beforeRoot.getData(), afterRoot.getData());
+            accept(builder);
+            ret = builder.build();
+            rootNode = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public YangInstanceIdentifier getRootPath() {
+        return YangInstanceIdentifier.EMPTY;
+    }
+
+    @Override
+    public void accept(final DataTreeCandidateVisitor visitor) {
+        if (beforeRoot != afterRoot && beforeRoot.getSubtreeVersion() != afterRoot.getSubtreeVersion()) {
+            ChangeWalker.diffChildren(visitor, beforeRoot, afterRoot);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("before", beforeRoot.getSubtreeVersion())
+                .add("after", afterRoot.getSubtreeVersion()).toString();
+    }
+
+    /**
+     * Visitor which builds candidate nodes out of the reported differences.
+     */
+    private static final class NodeBuilder implements DataTreeCandidateVisitor {
+        private final Deque<Level> stack = new ArrayDeque<>();
+
+        NodeBuilder(final NormalizedNode<?, ?> beforeRoot, final NormalizedNode<?, ?> afterRoot) {
+            stack.push(new Level(null, beforeRoot, afterRoot));
+        }
+
+        DataTreeCandidateNode build() {
+            Preconditions.checkState(stack.size() == 1, "Unbalanced enter/exit, stack %s", stack);
+            return stack.peek().build();
+        }
+
+        @Override
+        public boolean enter(final PathArgument child) {
+            final Level parent = stack.peek();
+            stack.push(new Level(child, child(parent.before, child), child(parent.after, child)));
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static NormalizedNode<?, ?> child(final NormalizedNode<?, ?> parent, final PathArgument child) {
+            final Optional<NormalizedNode<?, ?>> ret =
+                    ((NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) parent).getChild(child);
+            Preconditions.checkState(ret.isPresent(), "Entered child %s is missing in %s", child, parent);
+            return ret.get();
+        }
+
+        @Override
+        public void exit() {
+            final Level level = stack.pop();
+            if (!level.children.isEmpty()) {
+                stack.peek().children.put(level.identifier, level.build());
+            }
+        }
+
+        @Override
+        public void written(final PathArgument child, final NormalizedNode<?, ?> before,
+                final NormalizedNode<?, ?> after) {
+            stack.peek().children.put(child, before == null ? AbstractRecursiveCandidateNode.writeNode(after)
+                    : AbstractRecursiveCandidateNode.replaceNode(before, after));
+        }
+
+        @Override
+        public void deleted(final PathArgument child, final NormalizedNode<?, ?> before) {
+            stack.peek().children.put(child, AbstractRecursiveCandidateNode.deleteNode(before));
+        }
+    }
+
+    private static final class Level {
+        final Map<PathArgument, DataTreeCandidateNode> children = new HashMap<>();
+        final PathArgument identifier;
+        final NormalizedNode<?, ?> before;
+        final NormalizedNode<?, ?> after;
+
+        Level(final PathArgument identifier, final NormalizedNode<?, ?> before, final NormalizedNode<?, ?> after) {
+            this.identifier = identifier;
+            this.before = before;
+            this.after = after;
+        }
+
+        DataTreeCandidateNode build() {
+            return new ModifiedChildrenCandidateNode(identifier, before, after, children);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(identifier);
+        }
+    }
+}
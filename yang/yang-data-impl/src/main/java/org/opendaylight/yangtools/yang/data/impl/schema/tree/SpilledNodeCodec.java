@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamAttributeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableColumnarMapNodeBuilder;
+
+/**
+ * Binary serialization of subtrees stored in an {@link OffHeapNodeStore}. A subtree is stored as a sequence of
+ * {@link NormalizedNodeStreamWriter} events, with QNames replaced by indices into the store's dictionary and integers
+ * encoded as variable-length quantities. Subtrees containing attributes or anyxml nodes cannot be serialized.
+ *
+ * <p>
+ * Columnar map nodes are marked as such and are decoded through
+ * {@link ImmutableColumnarMapNodeBuilder}, so that a loaded subtree is equal to the one which has been spilled.
+ */
+final class SpilledNodeCodec {
+    private static final byte END_NODE = 0;
+    private static final byte LEAF = 1;
+    private static final byte LEAF_SET = 2;
+    private static final byte ORDERED_LEAF_SET = 3;
+    private static final byte LEAF_SET_ENTRY = 4;
+    private static final byte CONTAINER = 5;
+    private static final byte UNKEYED_LIST = 6;
+    private static final byte UNKEYED_LIST_ITEM = 7;
+    private static final byte MAP = 8;
+    private static final byte MAP_ENTRY = 9;
+    private static final byte ORDERED_MAP = 10;
+    private static final byte CHOICE = 11;
+    private static final byte AUGMENTATION = 12;
+    private static final byte COLUMNAR_MAP = 13;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte TRUE_VALUE = 2;
+    private static final byte FALSE_VALUE = 3;
+    private static final byte BYTE_VALUE = 4;
+    private static final byte SHORT_VALUE = 5;
+    private static final byte INT_VALUE = 6;
+    private static final byte LONG_VALUE = 7;
+    private static final byte BIG_INTEGER_VALUE = 8;
+    private static final byte BIG_DECIMAL_VALUE = 9;
+    private static final byte QNAME_VALUE = 10;
+    private static final byte BINARY_VALUE = 11;
+    private static final byte BITS_VALUE = 12;
+    private static final byte SERIALIZED_VALUE = 13;
+
+    private SpilledNodeCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Serialize a subtree into a store.
+     *
+     * @param store Store to append to
+     * @param node Subtree root
+     * @return Address of the serialized subtree
+     * @throws IOException if the subtree cannot be serialized
+     */
+    static long write(final OffHeapNodeStore store, final NormalizedNode<?, ?> node) throws IOException {
+        final Encoder encoder = new Encoder(store);
+        new EncodingWriter(encoder).write(node);
+        return store.append(encoder.bytes, encoder.length);
+    }
+
+    /**
+     * Deserialize a subtree from a store.
+     *
+     * @param store Store holding the subtree
+     * @param address Address of the subtree
+     * @return Subtree root
+     */
+    static NormalizedNode<?, ?> read(final OffHeapNodeStore store, final long address) {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final Decoder decoder = new Decoder(store, address);
+        try {
+            decoder.readNode(new DecodingWriter(result));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read subtree at " + address, e);
+        }
+        return result.getResult();
+    }
+
+    /**
+     * A {@link NormalizedNodeWriter} which emits columnar map nodes as such.
+     */
+    private static final class EncodingWriter extends NormalizedNodeWriter {
+        private final Encoder encoder;
+
+        EncodingWriter(final Encoder encoder) {
+            super(encoder);
+            this.encoder = encoder;
+        }
+
+        @Override
+        protected boolean wasProcessedAsCompositeNode(final NormalizedNode<?, ?> node) throws IOException {
+            if (ImmutableColumnarMapNodeBuilder.isColumnar(node)) {
+                final MapNode map = (MapNode) node;
+                encoder.startColumnarMapNode(map.getIdentifier(), childSizeHint(map.getValue()));
+                return writeChildren(map.getValue());
+            }
+            return super.wasProcessedAsCompositeNode(node);
+        }
+    }
+
+    /**
+     * An {@link ImmutableNormalizedNodeStreamWriter} which also accepts nodes which have already been built.
+     */
+    private static final class DecodingWriter extends ImmutableNormalizedNodeStreamWriter {
+        DecodingWriter(final NormalizedNodeResult result) {
+            super(result);
+        }
+
+        void node(final NormalizedNode<?, ?> node) {
+            writeChild(node);
+        }
+    }
+
+    private static final class Encoder implements NormalizedNodeStreamAttributeWriter {
+        private final OffHeapNodeStore store;
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        Encoder(final OffHeapNodeStore store) {
+            this.store = store;
+        }
+
+        private void ensure(final int size) {
+            if (length + size > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + size));
+            }
+        }
+
+        private void writeByte(final int value) {
+            ensure(1);
+            bytes[length++] = (byte) value;
+        }
+
+        private void writeVarLong(final long value) {
+            ensure(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                bytes[length++] = (byte) (remaining & 0x7F | 0x80);
+                remaining >>>= 7;
+            }
+            bytes[length++] = (byte) remaining;
+        }
+
+        private void writeBytes(final byte[] value) {
+            writeVarLong(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        private void writeString(final String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeQName(final QName qname) {
+            writeVarLong(store.qnameIndex(qname));
+        }
+
+        private void startNode(final byte type, final NodeIdentifier name, final int childSizeHint) {
+            writeByte(type);
+            writeQName(name.getNodeType());
+            writeVarLong(childSizeHint + 1L);
+        }
+
+        private static void checkAttributes(final Map<QName, String> attributes) throws IOException {
+            if (!attributes.isEmpty()) {
+                throw new IOException("Attributes " + attributes + " cannot be spilled");
+            }
+        }
+
+        private void writeValue(final Object value) throws IOException {
+            if (value == null) {
+                writeByte(NULL_VALUE);
+            } else if (value instanceof String) {
+                writeByte(STRING_VALUE);
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                writeByte((Boolean) value ? TRUE_VALUE : FALSE_VALUE);
+            } else if (value instanceof Byte) {
+                writeByte(BYTE_VALUE);
+                writeByte((Byte) value);
+            } else if (value instanceof Short) {
+                writeByte(SHORT_VALUE);
+                writeVarLong((Short) value & 0xFFFFL);
+            } else if (value instanceof Integer) {
+                writeByte(INT_VALUE);
+                writeVarLong((Integer) value & 0xFFFFFFFFL);
+            } else if (value instanceof Long) {
+                writeByte(LONG_VALUE);
+                writeVarLong((Long) value);
+            } else if (value instanceof BigInteger) {
+                writeByte(BIG_INTEGER_VALUE);
+                writeBytes(((BigInteger) value).toByteArray());
+            } else if (value instanceof BigDecimal) {
+                writeByte(BIG_DECIMAL_VALUE);
+                writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+                writeVarLong(((BigDecimal) value).scale() & 0xFFFFFFFFL);
+            } else if (value instanceof QName) {
+                writeByte(QNAME_VALUE);
+                writeQName((QName) value);
+            } else if (value instanceof byte[]) {
+                writeByte(BINARY_VALUE);
+                writeBytes((byte[]) value);
+            } else if (value instanceof Set && isStringSet((Set<?>) value)) {
+                writeByte(BITS_VALUE);
+                writeVarLong(((Set<?>) value).size());
+                for (final Object bit : (Set<?>) value) {
+                    writeString((String) bit);
+                }
+            } else if (value instanceof Serializable) {
+                writeByte(SERIALIZED_VALUE);
+                final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+                    oos.writeObject(value);
+                }
+                writeBytes(bos.toByteArray());
+            } else {
+                throw new IOException("Value " + value + " of " + value.getClass() + " cannot be spilled");
+            }
+        }
+
+        private static boolean isStringSet(final Set<?> set) {
+            for (final Object element : set) {
+                if (!(element instanceof String)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+            writeByte(LEAF);
+            writeQName(name.getNodeType());
+            writeValue(value);
+        }
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value, final Map<QName, String> attributes)
+                throws IOException {
+            checkAttributes(attributes);
+            leafNode(name, value);
+        }
+
+        @Override
+        public void startLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            startNode(LEAF_SET, name, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            startNode(ORDERED_LEAF_SET, name, childSizeHint);
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+            writeByte(LEAF_SET_ENTRY);
+            writeQName(name);
+            writeValue(value);
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value, final Map<QName, String> attributes)
+                throws IOException {
+            checkAttributes(attributes);
+            leafSetEntryNode(name, value);
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint) {
+            startNode(CONTAINER, name, childSizeHint);
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint,
+                final Map<QName, String> attributes) throws IOException {
+            checkAttributes(attributes);
+            startContainerNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) {
+            startNode(UNKEYED_LIST, name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) {
+            startNode(UNKEYED_LIST_ITEM, name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint,
+                final Map<QName, String> attributes) throws IOException {
+            checkAttributes(attributes);
+            startUnkeyedListItem(name, childSizeHint);
+        }
+
+        @Override
+        public void startMapNode(final NodeIdentifier name, final int childSizeHint) {
+            startNode(MAP, name, childSizeHint);
+        }
+
+        void startColumnarMapNode(final NodeIdentifier name, final int childSizeHint) {
+            startNode(COLUMNAR_MAP, name, childSizeHint);
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+                throws IOException {
+            writeByte(MAP_ENTRY);
+            writeQName(identifier.getNodeType());
+            writeVarLong(childSizeHint + 1L);
+            writeVarLong(identifier.getKeyValues().size());
+            for (final Entry<QName, Object> key : identifier.getKeyValues().entrySet()) {
+                writeQName(key.getKey());
+                writeValue(key.getValue());
+            }
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint,
+                final Map<QName, String> attributes) throws IOException {
+            checkAttributes(attributes);
+            startMapEntryNode(identifier, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) {
+            startNode(ORDERED_MAP, name, childSizeHint);
+        }
+
+        @Override
+        public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) {
+            startNode(CHOICE, name, childSizeHint);
+        }
+
+        @Override
+        public void startAugmentationNode(final AugmentationIdentifier identifier) {
+            writeByte(AUGMENTATION);
+            writeVarLong(identifier.getPossibleChildNames().size());
+            for (final QName qname : identifier.getPossibleChildNames()) {
+                writeQName(qname);
+            }
+        }
+
+        @Override
+        public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+            throw new IOException("Anyxml node " + name + " cannot be spilled");
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint)
+                throws IOException {
+            throw new IOException("Anyxml node " + name + " cannot be spilled");
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint,
+                final Map<QName, String> attributes) throws IOException {
+            startYangModeledAnyXmlNode(name, childSizeHint);
+        }
+
+        @Override
+        public void endNode() {
+            writeByte(END_NODE);
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+
+        @Override
+        public void flush() {
+            // No-op
+        }
+    }
+
+    private static final class Decoder {
+        private final OffHeapNodeStore store;
+        private final ByteBuffer buffer;
+        private int position;
+
+        Decoder(final OffHeapNodeStore store, final long address) {
+            this.store = store;
+            this.buffer = store.segment(address);
+            this.position = OffHeapNodeStore.offset(address);
+        }
+
+        private byte readByte() {
+            return buffer.get(position++);
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0;; shift += 7) {
+                final byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+            }
+        }
+
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        private byte[] readBytes() {
+            final byte[] ret = new byte[readVarInt()];
+            for (int i = 0; i < ret.length; ++i) {
+                ret[i] = readByte();
+            }
+            return ret;
+        }
+
+        private String readString() {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        private QName readQName() {
+            return store.qname(readVarInt());
+        }
+
+        private NodeIdentifier readNodeIdentifier() {
+            return NodeIdentifier.create(readQName());
+        }
+
+        private Object readValue() throws IOException {
+            final byte type = readByte();
+            switch (type) {
+                case NULL_VALUE:
+                    return null;
+                case STRING_VALUE:
+                    return readString();
+                case TRUE_VALUE:
+                    return Boolean.TRUE;
+                case FALSE_VALUE:
+                    return Boolean.FALSE;
+                case BYTE_VALUE:
+                    return readByte();
+                case SHORT_VALUE:
+                    return (short) readVarLong();
+                case INT_VALUE:
+                    return readVarInt();
+                case LONG_VALUE:
+                    return readVarLong();
+                case BIG_INTEGER_VALUE:
+                    return new BigInteger(readBytes());
+                case BIG_DECIMAL_VALUE:
+                    final BigInteger unscaled = new BigInteger(readBytes());
+                    return new BigDecimal(unscaled, readVarInt());
+                case QNAME_VALUE:
+                    return readQName();
+                case BINARY_VALUE:
+                    return readBytes();
+                case BITS_VALUE:
+                    final int size = readVarInt();
+                    final ImmutableSet.Builder<String> bits = ImmutableSet.builder();
+                    for (int i = 0; i < size; ++i) {
+                        bits.add(readString());
+                    }
+                    return bits.build();
+                case SERIALIZED_VALUE:
+                    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readBytes()))) {
+                        return ois.readObject();
+                    } catch (ClassNotFoundException e) {
+                        throw new IOException("Failed to read value", e);
+                    }
+                default:
+                    throw new IOException("Unknown value type " + type);
+            }
+        }
+
+        private NodeIdentifierWithPredicates readMapEntryIdentifier(final QName nodeType) throws IOException {
+            final int size = readVarInt();
+            if (size == 1) {
+                return new NodeIdentifierWithPredicates(nodeType, readQName(), readValue());
+            }
+
+            final ImmutableMap.Builder<QName, Object> keys = ImmutableMap.builder();
+            for (int i = 0; i < size; ++i) {
+                keys.put(readQName(), readValue());
+            }
+            return new NodeIdentifierWithPredicates(nodeType, keys.build());
+        }
+
+        /**
+         * Read a columnar map node. Its entries are decoded into a regular map node first, which is then packed.
+         */
+        private MapNode readColumnarMap() throws IOException {
+            final NodeIdentifier name = readNodeIdentifier();
+            final int childSizeHint = readVarInt() - 1;
+            final NormalizedNodeResult entries = new NormalizedNodeResult();
+            final DecodingWriter writer = new DecodingWriter(entries);
+            writer.startMapNode(name, childSizeHint);
+            while (buffer.get(position) != END_NODE) {
+                readNode(writer);
+            }
+            position++;
+            writer.endNode();
+            return Builders.columnarMapBuilder((MapNode) entries.getResult()).build();
+        }
+
+        void readNode(final DecodingWriter writer) throws IOException {
+            int depth = 0;
+            do {
+                final byte type = readByte();
+                switch (type) {
+                    case END_NODE:
+                        writer.endNode();
+                        depth--;
+                        break;
+                    case LEAF:
+                        writer.leafNode(readNodeIdentifier(), readValue());
+                        break;
+                    case LEAF_SET_ENTRY:
+                        writer.leafSetEntryNode(readQName(), readValue());
+                        break;
+                    case LEAF_SET:
+                        writer.startLeafSet(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case ORDERED_LEAF_SET:
+                        writer.startOrderedLeafSet(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case CONTAINER:
+                        writer.startContainerNode(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case UNKEYED_LIST:
+                        writer.startUnkeyedList(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case UNKEYED_LIST_ITEM:
+                        writer.startUnkeyedListItem(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case MAP:
+                        writer.startMapNode(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case MAP_ENTRY:
+                        final QName nodeType = readQName();
+                        final int childSizeHint = readVarInt() - 1;
+                        writer.startMapEntryNode(readMapEntryIdentifier(nodeType), childSizeHint);
+                        depth++;
+                        break;
+                    case COLUMNAR_MAP:
+                        writer.node(readColumnarMap());
+                        break;
+                    case ORDERED_MAP:
+                        writer.startOrderedMapNode(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case CHOICE:
+                        writer.startChoiceNode(readNodeIdentifier(), readVarInt() - 1);
+                        depth++;
+                        break;
+                    case AUGMENTATION:
+                        final int size = readVarInt();
+                        final ImmutableSet.Builder<QName> qnames = ImmutableSet.builder();
+                        for (int i = 0; i < size; ++i) {
+                            qnames.add(readQName());
+                        }
+                        writer.startAugmentationNode(new AugmentationIdentifier(qnames.build()));
+                        depth++;
+                        break;
+                    default:
+                        throw new IOException("Unknown node type " + type);
+                }
+            } while (depth > 0);
+        }
+    }
+}
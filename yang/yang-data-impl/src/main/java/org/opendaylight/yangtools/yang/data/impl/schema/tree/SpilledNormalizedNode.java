@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SpilledNode;
+
+/**
+ * Proxy for a subtree stored in an {@link OffHeapNodeStore}. It keeps only the identifier and hash code on heap and
+ * loads the subtree on access, keeping it weakly reachable, so that repeated accesses do not need to decode it again.
+ * The store releases the subtree once the proxy becomes unreachable.
+ *
+ * <p>
+ * A proxy is equal to any node equal to the loaded subtree. Immutable node implementations likewise compare equal to
+ * proxies of equal subtrees.
+ *
+ * @param <I> Identifier type
+ * @param <T> Subtree type
+ */
+abstract class SpilledNormalizedNode<I extends PathArgument, T extends NormalizedNode<I, ?>> implements SpilledNode {
+    private final OffHeapNodeStore store;
+    private final I identifier;
+    private final long address;
+    private final int hashCode;
+
+    private volatile WeakReference<T> loaded;
+
+    SpilledNormalizedNode(final OffHeapNodeStore store, final long address, final T data) {
+        this.store = Preconditions.checkNotNull(store);
+        this.address = address;
+        this.identifier = data.getIdentifier();
+        this.hashCode = data.hashCode();
+        this.loaded = new WeakReference<>(data);
+        store.track(this, address);
+    }
+
+    /**
+     * Spill a subtree into a store.
+     *
+     * @param store Store to spill into
+     * @param data Subtree to spill
+     * @return Proxy for the spilled subtree, or null if the subtree is not supported
+     * @throws IOException if the subtree cannot be serialized
+     */
+    static NormalizedNode<?, ?> spill(final OffHeapNodeStore store, final NormalizedNode<?, ?> data)
+            throws IOException {
+        if (data instanceof ContainerNode) {
+            return new SpilledContainerNode(store, SpilledNodeCodec.write(store, data), (ContainerNode) data);
+        }
+        if (data instanceof MapEntryNode) {
+            return new SpilledMapEntryNode(store, SpilledNodeCodec.write(store, data), (MapEntryNode) data);
+        }
+        if (data instanceof MapNode && !(data instanceof OrderedMapNode)) {
+            return new SpilledMapNode(store, SpilledNodeCodec.write(store, data), (MapNode) data);
+        }
+        return null;
+    }
+
+    @Override
+    public final T load() {
+        final WeakReference<T> ref = loaded;
+        T ret = ref.get();
+        if (ret == null) {
+            @SuppressWarnings("unchecked")
+            final T read = (T) SpilledNodeCodec.read(store, address);
+            ret = read;
+            // Writing the field after reading also keeps this proxy, and hence the stored subtree, reachable
+            loaded = new WeakReference<>(ret);
+        }
+        return ret;
+    }
+
+    public final I getIdentifier() {
+        return identifier;
+    }
+
+    public final QName getNodeType() {
+        return identifier.getNodeType();
+    }
+
+    @Override
+    public final int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NormalizedNode)) {
+            return false;
+        }
+        final Object other = obj instanceof SpilledNode ? ((SpilledNode) obj).load() : obj;
+        return hashCode == other.hashCode() && load().equals(other);
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("identifier", identifier).add("address", address).toString();
+    }
+
+    private static final class SpilledContainerNode extends SpilledNormalizedNode<NodeIdentifier, ContainerNode>
+            implements ContainerNode {
+        SpilledContainerNode(final OffHeapNodeStore store, final long address, final ContainerNode data) {
+            super(store, address, data);
+        }
+
+        @Override
+        public Collection<DataContainerChild<? extends PathArgument, ?>> getValue() {
+            return load().getValue();
+        }
+
+        @Override
+        public Optional<DataContainerChild<? extends PathArgument, ?>> getChild(final PathArgument child) {
+            return load().getChild(child);
+        }
+
+        @Override
+        public Map<QName, String> getAttributes() {
+            return load().getAttributes();
+        }
+
+        @Override
+        public Object getAttributeValue(final QName name) {
+            return load().getAttributeValue(name);
+        }
+    }
+
+    private static final class SpilledMapEntryNode
+            extends SpilledNormalizedNode<NodeIdentifierWithPredicates, MapEntryNode> implements MapEntryNode {
+        SpilledMapEntryNode(final OffHeapNodeStore store, final long address, final MapEntryNode data) {
+            super(store, address, data);
+        }
+
+        @Override
+        public Collection<DataContainerChild<? extends PathArgument, ?>> getValue() {
+            return load().getValue();
+        }
+
+        @Override
+        public Optional<DataContainerChild<? extends PathArgument, ?>> getChild(final PathArgument child) {
+            return load().getChild(child);
+        }
+
+        @Override
+        public Map<QName, String> getAttributes() {
+            return load().getAttributes();
+        }
+
+        @Override
+        public Object getAttributeValue(final QName name) {
+            return load().getAttributeValue(name);
+        }
+    }
+
+    private static final class SpilledMapNode extends SpilledNormalizedNode<NodeIdentifier, MapNode>
+            implements MapNode {
+        SpilledMapNode(final OffHeapNodeStore store, final long address, final MapNode data) {
+            super(store, address, data);
+        }
+
+        @Override
+        public Collection<MapEntryNode> getValue() {
+            return load().getValue();
+        }
+
+        @Override
+        public Optional<MapEntryNode> getChild(final NodeIdentifierWithPredicates child) {
+            return load().getChild(child);
+        }
+    }
+}
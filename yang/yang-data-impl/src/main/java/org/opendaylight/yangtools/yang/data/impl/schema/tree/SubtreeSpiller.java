@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SubtreeSpillPolicy;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.MutableTreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SpilledNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableAugmentationNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableChoiceNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedMapNodeBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replaces cold subtrees of a data tree with proxies backed by an {@link OffHeapNodeStore}. Coldness is tracked by
+ * remembering the subtree versions seen by each pass: a node whose subtree version has already been seen by a previous
+ * pass has not been modified since. Parents of spilled subtrees are rebuilt, retaining their versions, as their data
+ * would otherwise keep the spilled subtrees reachable.
+ *
+ * <p>
+ * A spilled subtree reports a single version for all of its nodes, hence only subtrees whose nodes all share the same
+ * version are spilled. Subtrees which have been modified below their root, for example by a merge, stay on heap, as
+ * they would otherwise report stale versions to conflict detection.
+ *
+ * <p>
+ * This class is not thread-safe, passes need to be serialized by the caller.
+ */
+final class SubtreeSpiller {
+    private static final Logger LOG = LoggerFactory.getLogger(SubtreeSpiller.class);
+
+    // All caches are identity-based and do not prevent versions or subtrees from being garbage-collected
+    private final Cache<Version, Integer> seenVersions = CacheBuilder.newBuilder().weakKeys().build();
+    // Subtrees found to contain more than one version, mapped to their subtree version at that time
+    private final Cache<NormalizedNode<?, ?>, Version> mixedVersions = CacheBuilder.newBuilder().weakKeys().build();
+    private final Cache<NormalizedNode<?, ?>, NormalizedNode<?, ?>> proxies =
+            CacheBuilder.newBuilder().weakKeys().build();
+    private final OffHeapNodeStore store;
+    private int pass;
+
+    SubtreeSpiller(final OffHeapNodeStore store) {
+        this.store = Preconditions.checkNotNull(store);
+    }
+
+    OffHeapNodeStore getStore() {
+        return store;
+    }
+
+    /**
+     * Start a new pass. A pass may invoke {@link #spill(YangInstanceIdentifier, TreeNode, SubtreeSpillPolicy)} more
+     * than once, for example when a commit has raced with it, in which case subtrees which have already been spilled
+     * reuse their proxies.
+     */
+    void startPass() {
+        pass++;
+    }
+
+    /**
+     * Spill cold subtrees of a tree.
+     *
+     * @param path Path to the root node
+     * @param root Root node
+     * @param policy Spill policy
+     * @return New root node, or the same node if nothing has been spilled
+     */
+    TreeNode spill(final YangInstanceIdentifier path, final TreeNode root, final SubtreeSpillPolicy policy) {
+        return spillChildren(path, root, root.getData(), policy);
+    }
+
+    private TreeNode spillChildren(final YangInstanceIdentifier path, final TreeNode node,
+            final NormalizedNode<?, ?> data, final SubtreeSpillPolicy policy) {
+        @SuppressWarnings("unchecked")
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> container =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) data;
+
+        List<TreeNode> newChildren = null;
+        List<NormalizedNode<?, ?>> newData = null;
+        for (final NormalizedNode<?, ?> childData : container.getValue()) {
+            if (!isTraversable(childData)) {
+                continue;
+            }
+
+            final PathArgument childId = childData.getIdentifier();
+            final YangInstanceIdentifier childPath = path.node(childId);
+            final TreeNode child = node.getChild(childId).get();
+            final NormalizedNode<?, ?> proxy = spillIfCold(childPath, child, childData, policy);
+
+            // The data of a spilled tree node is the loaded subtree, hence we track the proxy separately
+            final TreeNode newChild;
+            final NormalizedNode<?, ?> newChildData;
+            if (proxy != null) {
+                newChild = TreeNodeFactory.createTreeNode(proxy, child.getVersion());
+                newChildData = proxy;
+            } else {
+                newChild = spillChildren(childPath, child, childData, policy);
+                if (newChild == child) {
+                    continue;
+                }
+                newChildData = newChild.getData();
+            }
+
+            if (newChildren == null) {
+                newChildren = new ArrayList<>();
+                newData = new ArrayList<>();
+            }
+            newChildren.add(newChild);
+            newData.add(newChildData);
+        }
+        if (newChildren == null) {
+            return node;
+        }
+
+        final MutableTreeNode mutable = node.mutable();
+        mutable.setData(rebuild(data, newData));
+        for (final TreeNode child : newChildren) {
+            mutable.addChild(child);
+        }
+        mutable.setSubtreeVersion(node.getSubtreeVersion());
+        return mutable.seal();
+    }
+
+    private NormalizedNode<?, ?> spillIfCold(final YangInstanceIdentifier path, final TreeNode node,
+            final NormalizedNode<?, ?> data, final SubtreeSpillPolicy policy) {
+        final Version subtreeVersion = node.getSubtreeVersion();
+        final Integer seenAt = seenVersions.getIfPresent(subtreeVersion);
+        if (seenAt == null) {
+            seenVersions.put(subtreeVersion, pass);
+            return null;
+        }
+        if (seenAt < pass && isSpillable(data) && policy.shouldSpill(path, data) && hasSingleVersion(node, data)) {
+            return proxyFor(data);
+        }
+        return null;
+    }
+
+    private boolean hasSingleVersion(final TreeNode node, final NormalizedNode<?, ?> data) {
+        final Version version = node.getSubtreeVersion();
+        if (!version.equals(node.getVersion()) || version.equals(mixedVersions.getIfPresent(data))) {
+            return false;
+        }
+        if (!hasVersion(node, data, version)) {
+            mixedVersions.put(data, version);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean hasVersion(final TreeNode node, final NormalizedNode<?, ?> data, final Version version) {
+        if (!version.equals(node.getVersion())) {
+            return false;
+        }
+        if (data instanceof NormalizedNodeContainer) {
+            for (final Object child : ((NormalizedNodeContainer<?, ?, ?>) data).getValue()) {
+                final NormalizedNode<?, ?> childData = (NormalizedNode<?, ?>) child;
+                if (!hasVersion(node.getChild(childData.getIdentifier()).get(), childData, version)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private NormalizedNode<?, ?> proxyFor(final NormalizedNode<?, ?> data) {
+        NormalizedNode<?, ?> proxy = proxies.getIfPresent(data);
+        if (proxy == null) {
+            // Do not bother serializing subtrees which cannot be stored
+            if (store.isFull()) {
+                return null;
+            }
+            try {
+                proxy = SpilledNormalizedNode.spill(store, data);
+            } catch (IOException e) {
+                LOG.debug("Failed to spill {}, keeping it on heap", data.getIdentifier(), e);
+                return null;
+            }
+            if (proxy != null) {
+                proxies.put(data, proxy);
+            }
+        }
+        return proxy;
+    }
+
+    private static boolean isTraversable(final NormalizedNode<?, ?> data) {
+        if (data instanceof SpilledNode) {
+            return false;
+        }
+        return data instanceof DataContainerNode || data instanceof MapNode;
+    }
+
+    private static boolean isSpillable(final NormalizedNode<?, ?> data) {
+        return data instanceof ContainerNode || data instanceof MapEntryNode
+                || data instanceof MapNode && !(data instanceof OrderedMapNode);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static NormalizedNode<?, ?> rebuild(final NormalizedNode<?, ?> data,
+            final Collection<NormalizedNode<?, ?>> children) {
+        if (data instanceof MapNode) {
+            final CollectionNodeBuilder<MapEntryNode, ? extends MapNode> builder = data instanceof OrderedMapNode
+                    ? ImmutableOrderedMapNodeBuilder.create((MapNode) data)
+                            : ImmutableMapNodeBuilder.create((MapNode) data);
+            for (final NormalizedNode<?, ?> child : children) {
+                builder.withChild((MapEntryNode) child);
+            }
+            return builder.build();
+        }
+
+        final DataContainerNodeBuilder builder;
+        if (data instanceof ContainerNode) {
+            builder = ImmutableContainerNodeBuilder.create((ContainerNode) data);
+        } else if (data instanceof MapEntryNode) {
+            builder = ImmutableMapEntryNodeBuilder.create((MapEntryNode) data);
+        } else if (data instanceof ChoiceNode) {
+            builder = ImmutableChoiceNodeBuilder.create((ChoiceNode) data);
+        } else {
+            Verify.verify(data instanceof AugmentationNode, "Unexpected node %s", data);
+            builder = ImmutableAugmentationNodeBuilder.create((AugmentationNode) data);
+        }
+        for (final NormalizedNode<?, ?> child : children) {
+            builder.withChild((DataContainerChild<?, ?>) child);
+        }
+        return builder.build();
+    }
+}
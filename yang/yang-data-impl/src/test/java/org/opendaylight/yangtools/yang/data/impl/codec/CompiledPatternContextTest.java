@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.util.CompiledPattern;
+import org.opendaylight.yangtools.yang.model.util.BaseConstraints;
+
+public class CompiledPatternContextTest {
+
+    private static CompiledPatternContext compile(final String regex) {
+        return new CompiledPatternContext(BaseConstraints.newPatternConstraint(regex, Optional.absent(),
+            Optional.absent()));
+    }
+
+    private static boolean accepts(final CompiledPatternContext context, final String value) {
+        try {
+            context.validate(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testToXsdRegex() {
+        assertEquals("[A-Z]+", CompiledPattern.toXsdRegex("^[A-Z]+$"));
+        assertEquals("abc\\$", CompiledPattern.toXsdRegex("^abc\\$$"));
+        assertEquals("[^:]+\\.[a-z^$]", CompiledPattern.toXsdRegex("^[^:]+\\.[a-z^$]$"));
+        assertEquals("", CompiledPattern.toXsdRegex("^$"));
+
+        assertNull(CompiledPattern.toXsdRegex("^\\d+$"));
+        assertNull(CompiledPattern.toXsdRegex("^\\w+$"));
+        assertNull(CompiledPattern.toXsdRegex("^a^b$"));
+        assertNull(CompiledPattern.toXsdRegex("^a$b$"));
+        assertNull(CompiledPattern.toXsdRegex("^[a-z&&[^c]]$"));
+        assertNull(CompiledPattern.toXsdRegex("^[a-z[0-9]]$"));
+    }
+
+    @Test
+    public void testDeterministicValidation() {
+        final CompiledPatternContext context = compile("^(([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])\\.){3}"
+            + "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])(%[\\p{N}\\p{L}]+)?$");
+        assertTrue(context.isDeterministic());
+        assertTrue(accepts(context, "192.168.1.1"));
+        assertTrue(accepts(context, "10.0.0.1%eth0"));
+        assertFalse(accepts(context, "192.168.1.256"));
+        assertFalse(accepts(context, "192.168.1"));
+    }
+
+    @Test
+    public void testFallbackValidation() {
+        final CompiledPatternContext context = compile("^\\d{3}$");
+        assertFalse(context.isDeterministic());
+        assertTrue(accepts(context, "123"));
+        assertFalse(accepts(context, "12a"));
+    }
+
+    @Test
+    public void testErrorMessage() {
+        final CompiledPatternContext context = compile("^[a-z]+$");
+        try {
+            context.validate("ABC");
+            fail("Exception should have been thrown.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Supplied value does not match the regular expression ^[a-z]+$. [ABC]", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.util.UnionMemberClassifier;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.BaseConstraints;
+import org.opendaylight.yangtools.yang.model.util.type.BaseTypes;
+import org.opendaylight.yangtools.yang.model.util.type.EnumPairBuilder;
+import org.opendaylight.yangtools.yang.model.util.type.EnumerationTypeBuilder;
+import org.opendaylight.yangtools.yang.model.util.type.RestrictedTypes;
+
+public class UnionStringCodecTest {
+    private static final SchemaPath PATH = SchemaPath.create(true, QName.create("urn:test", "2016-01-01", "test"));
+
+    private static StringTypeDefinition patternString(final String regex) {
+        return RestrictedTypes.newStringBuilder(BaseTypes.stringType(), PATH).addPatternConstraint(
+            BaseConstraints.newPatternConstraint(regex, Optional.absent(), Optional.absent())).build();
+    }
+
+    private static TypeDefinition<?> enumeration(final String... names) {
+        final EnumerationTypeBuilder builder = BaseTypes.enumerationTypeBuilder(PATH);
+        for (int i = 0; i < names.length; ++i) {
+            builder.addEnum(EnumPairBuilder.create(names[i], i).build());
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testIntegerClassification() {
+        final UnionMemberClassifier int8 = UnionMemberClassifier.forType(BaseTypes.int8Type());
+        assertTrue(int8.mayDeserialize("0"));
+        assertTrue(int8.mayDeserialize("-128"));
+        assertTrue(int8.mayDeserialize("+12"));
+        assertTrue(int8.mayDeserialize("0x7F"));
+        assertTrue(int8.mayDeserialize("017"));
+        assertFalse(int8.mayDeserialize(""));
+        assertFalse(int8.mayDeserialize("-"));
+        assertFalse(int8.mayDeserialize("-0"));
+        assertFalse(int8.mayDeserialize("00"));
+        assertFalse(int8.mayDeserialize("08"));
+        assertFalse(int8.mayDeserialize("0x"));
+        assertFalse(int8.mayDeserialize("1000"));
+        assertFalse(int8.mayDeserialize("1.0"));
+        assertFalse(int8.mayDeserialize("abc"));
+
+        final UnionMemberClassifier uint64 = UnionMemberClassifier.forType(BaseTypes.uint64Type());
+        assertTrue(uint64.mayDeserialize("18446744073709551615"));
+        assertFalse(uint64.mayDeserialize("184467440737095516150"));
+
+        assertTrue(int8.maySerialize((byte) 1));
+        assertTrue(int8.maySerialize(null));
+        assertFalse(int8.maySerialize("1"));
+    }
+
+    @Test
+    public void testOtherClassification() {
+        final UnionMemberClassifier bool = UnionMemberClassifier.forType(BaseTypes.booleanType());
+        assertTrue(bool.mayDeserialize("true"));
+        assertTrue(bool.mayDeserialize("FALSE"));
+        assertFalse(bool.mayDeserialize("yes"));
+
+        final UnionMemberClassifier enumeration = UnionMemberClassifier.forType(enumeration("one", "two"));
+        assertTrue(enumeration.mayDeserialize("one"));
+        assertFalse(enumeration.mayDeserialize("three"));
+
+        final UnionMemberClassifier string = UnionMemberClassifier.forType(patternString("^[a-z]+$"));
+        assertTrue(string.mayDeserialize("abc"));
+        assertFalse(string.mayDeserialize("ABC"));
+        assertTrue(string.maySerialize("ABC"));
+        assertFalse(string.maySerialize(1));
+
+        final UnionMemberClassifier binary = UnionMemberClassifier.forType(BaseTypes.binaryType());
+        assertTrue(binary.mayDeserialize("anything"));
+        assertTrue(binary.maySerialize(new byte[0]));
+        assertFalse(binary.maySerialize("AAAA"));
+    }
+
+    @Test
+    public void testUnionDeserialization() {
+        final UnionTypeDefinition union = BaseTypes.unionTypeBuilder(PATH)
+                .addType(BaseTypes.uint16Type())
+                .addType(patternString("^[0-9]+(\\.[0-9]+){3}$"))
+                .addType(enumeration("any", "none"))
+                .build();
+        final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(union);
+
+        assertEquals("80", codec.deserialize("80"));
+        assertNull(deserializeOrNull(codec, "70000"));
+        assertEquals("10.0.0.1", codec.deserialize("10.0.0.1"));
+        assertEquals("any", codec.deserialize("any"));
+        assertNull(deserializeOrNull(codec, "some"));
+    }
+
+    private static Object deserializeOrNull(final TypeDefinitionAwareCodec<Object, ?> codec, final String str) {
+        try {
+            return codec.deserialize(str);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
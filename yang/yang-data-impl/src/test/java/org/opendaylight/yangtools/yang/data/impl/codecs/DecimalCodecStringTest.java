@@ -43,8 +43,15 @@ public class DecimalCodecStringTest {
         DecimalCodec<String> codec = TypeDefinitionAwareCodecTestHelper.getCodec(getType(), DecimalCodec.class);
 
         assertEquals("deserialize", new BigDecimal("123.456"), codec.deserialize("123.456"));
+        assertEquals("deserialize", new BigDecimal("-0.50"), codec.deserialize("-0.50"));
+        assertEquals("deserialize", new BigDecimal("+42"), codec.deserialize("+42"));
+        assertEquals("deserialize", new BigDecimal("1234567890.1234567890"),
+            codec.deserialize("1234567890.1234567890"));
+        assertEquals("deserialize", new BigDecimal("1.5E3"), codec.deserialize("1.5E3"));
 
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "12o.3");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "-");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "1.2.3");
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "");
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, null);
     }
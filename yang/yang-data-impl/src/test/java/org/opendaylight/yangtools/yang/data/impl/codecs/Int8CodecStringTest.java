@@ -47,6 +47,17 @@ public class Int8CodecStringTest {
         assertEquals("deserialize", codec.deserialize(negOctal), Byte.valueOf(negOctal, 8));
         assertEquals("deserialize", codec.deserialize(integer), Byte.valueOf(integer, 10));
         assertEquals("deserialize", codec.deserialize(negInteger), Byte.valueOf(negInteger, 10));
+        assertEquals("deserialize", codec.deserialize("0"), Byte.valueOf((byte) 0));
+        assertEquals("deserialize", codec.deserialize("-128"), Byte.valueOf(Byte.MIN_VALUE));
+        assertEquals("deserialize", codec.deserialize("0x7F"), Byte.valueOf(Byte.MAX_VALUE));
+
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "128");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "-0x81");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "99999999999999999999");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "-0");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "08");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "0x");
+        TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "+");
 
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "1o");
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "");
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.yangtools.yang.data.impl.codecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.net.URISyntaxException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaCodecTree;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class SchemaCodecTreeTest {
+    private static SchemaContext schemaContext;
+    private static ContainerSchemaNode container;
+
+    @BeforeClass
+    public static void setup() throws ReactorException, URISyntaxException, FileNotFoundException {
+        schemaContext = YangParserTestUtils.parseYangSource("/schema-codec-tree-test.yang");
+        final Module module = schemaContext.findModuleByName("schema-codec-tree-test", null);
+        assertNotNull(module);
+        container = (ContainerSchemaNode) module.getDataChildByName(QName.create(module.getQNameModule(),
+            "test-container"));
+        assertNotNull(container);
+    }
+
+    private static <T> T child(final Class<T> type, final String localName) {
+        return type.cast(container.getDataChildByName(QName.create(container.getQName(), localName)));
+    }
+
+    @Test
+    public void testSharedInstance() {
+        final SchemaCodecTree tree = SchemaCodecTree.from(schemaContext);
+        assertSame(tree, SchemaCodecTree.from(schemaContext));
+        assertSame(schemaContext, tree.getSchemaContext());
+    }
+
+    @Test
+    public void testSharedInstanceSurvivesCollection() {
+        // Only the identity is retained, the tree has to be kept alive by the SchemaContext
+        final int identity = System.identityHashCode(SchemaCodecTree.from(schemaContext));
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        assertEquals(identity, System.identityHashCode(SchemaCodecTree.from(schemaContext)));
+    }
+
+    @Test
+    public void testResolvedTypes() {
+        final SchemaCodecTree tree = SchemaCodecTree.from(schemaContext);
+        final LeafSchemaNode stringLeaf = child(LeafSchemaNode.class, "string-leaf");
+        assertSame(stringLeaf.getType(), tree.getType(stringLeaf));
+
+        final TypeDefinition<?> leafrefType = tree.getType(child(LeafSchemaNode.class, "leafref-leaf"));
+        assertTrue(leafrefType instanceof StringTypeDefinition);
+
+        final TypeDefinition<?> leafListType = tree.getType(child(LeafListSchemaNode.class, "int-leaf-list"));
+        assertTrue(leafListType instanceof IntegerTypeDefinition);
+    }
+
+    @Test
+    public void testCachedCodecs() {
+        final SchemaCodecTree tree = SchemaCodecTree.from(schemaContext);
+        final TypeDefinition<?> type = tree.getType(child(LeafListSchemaNode.class, "int-leaf-list"));
+        final TypeDefinitionAwareCodec<Object, ?> codec = tree.getCodec(type);
+        assertNotNull(codec);
+        assertSame(codec, tree.getCodec(type));
+        assertEquals(Integer.valueOf(5), codec.deserialize("5"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedNode() {
+        SchemaCodecTree.from(schemaContext).getType(container);
+    }
+}
@@ -42,6 +42,9 @@ public class Uint64CodecStringTest {
         assertEquals("deserialize", codec.deserialize(hexa), new BigInteger("75EDC78edCBA", 16));
         assertEquals("deserialize", codec.deserialize(octal), new BigInteger(octal, 8));
         assertEquals("deserialize", codec.deserialize(integer), new BigInteger(integer, 10));
+        assertEquals("deserialize", codec.deserialize("18446744073709551615"),
+            new BigInteger("18446744073709551615"));
+        assertEquals("deserialize", codec.deserialize("0xFFFFFFFFFFFFFFFF"), new BigInteger("FFFFFFFFFFFFFFFF", 16));
 
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "12345o");
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "");
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.TestModel;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class ImmutableColumnarMapNodeBuilderTest {
+    private static final QName LIST_QNAME = QName.create("urn:test", "2016-01-01", "list");
+    private static final QName KEY_QNAME = QName.create(LIST_QNAME, "key");
+    private static final QName OTHER_KEY_QNAME = QName.create(LIST_QNAME, "other-key");
+    private static final QName COUNTER_QNAME = QName.create(LIST_QNAME, "counter");
+    private static final QName NAME_QNAME = QName.create(LIST_QNAME, "name");
+
+    private static NodeIdentifierWithPredicates key(final int key) {
+        return new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, key);
+    }
+
+    private static MapEntryNode entry(final int key, final long counter) {
+        return ImmutableNodes.mapEntryBuilder(LIST_QNAME, KEY_QNAME, key)
+                .withChild(ImmutableNodes.leafNode(COUNTER_QNAME, counter))
+                .withChild(ImmutableNodes.leafNode(NAME_QNAME, "name" + key)).build();
+    }
+
+    private static MapEntryNode misfit(final int key) {
+        return ImmutableNodes.mapEntryBuilder(LIST_QNAME, KEY_QNAME, key)
+                .withChild(ImmutableNodes.containerNode(COUNTER_QNAME)).build();
+    }
+
+    private static <T extends CollectionNodeBuilder<MapEntryNode, MapNode>> T fill(final T builder, final int from,
+            final int to) {
+        builder.withNodeIdentifier(new NodeIdentifier(LIST_QNAME));
+        for (int i = from; i < to; ++i) {
+            builder.withChild(entry(i, i * 10L));
+        }
+        return builder;
+    }
+
+    private static void assertSameEntries(final MapNode expected, final MapNode actual) {
+        assertEquals(expected.getValue().size(), actual.getValue().size());
+        assertEquals(ImmutableSet.copyOf(expected.getValue()), ImmutableSet.copyOf(actual.getValue()));
+        for (final MapEntryNode entry : expected.getValue()) {
+            assertEquals(entry, actual.getChild(entry.getIdentifier()).get());
+        }
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    private static boolean isColumnar(final MapNode node) {
+        return node instanceof ImmutableColumnarMapNodeBuilder.ColumnarMapNode;
+    }
+
+    @Test
+    public void testBuild() {
+        final MapNode columnar = fill(Builders.columnarMapBuilder(), 0, 100).build();
+        assertTrue(isColumnar(columnar));
+        assertSameEntries(fill(Builders.mapBuilder(), 0, 100).build(), columnar);
+
+        assertEquals(entry(5, 50L), columnar.getChild(key(5)).get());
+        assertFalse(columnar.getChild(key(100)).isPresent());
+        assertFalse(columnar.getChild(new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, 5L)).isPresent());
+        assertFalse(columnar.getChild(new NodeIdentifierWithPredicates(LIST_QNAME, COUNTER_QNAME, 50L)).isPresent());
+
+        assertEquals(columnar, fill(Builders.columnarMapBuilder(), 0, 100).build());
+        assertNotEquals(columnar, fill(Builders.columnarMapBuilder(), 0, 99).build());
+    }
+
+    @Test
+    public void testModify() {
+        final MapNode base = fill(Builders.columnarMapBuilder(), 0, 1000).build();
+        final MapNode modified = Builders.mapBuilder(base).withChild(entry(5, 0L)).withChild(entry(1000, 0L))
+                .withoutChild(key(7)).withoutChild(key(2000)).withoutChild(key(1000)).withChild(entry(1001, 0L))
+                .withoutChild(key(8)).withChild(entry(8, 1L)).build();
+        assertTrue(isColumnar(modified));
+
+        final MapNode expected = fill(Builders.mapBuilder(), 0, 1000).withChild(entry(5, 0L))
+                .withoutChild(key(7)).withChild(entry(1001, 0L)).withChild(entry(8, 1L)).build();
+        assertSameEntries(expected, modified);
+        assertFalse(modified.getChild(key(7)).isPresent());
+
+        // The original node is not affected
+        assertSameEntries(fill(Builders.mapBuilder(), 0, 1000).build(), base);
+    }
+
+    @Test
+    public void testRepack() {
+        MapNode node = fill(Builders.columnarMapBuilder(), 0, 100).build();
+        final CollectionNodeBuilder<MapEntryNode, MapNode> expected = fill(Builders.mapBuilder(), 0, 100);
+        for (int i = 0; i < 500; ++i) {
+            node = Builders.mapBuilder(node).withChild(entry(i, -i)).withoutChild(key(i / 2)).build();
+            expected.withChild(entry(i, -i)).withoutChild(key(i / 2));
+        }
+
+        assertTrue(isColumnar(node));
+        assertSameEntries(expected.build(), node);
+    }
+
+    @Test
+    public void testMisfits() {
+        final MapNode mixed = fill(Builders.columnarMapBuilder(), 0, 10).withChild(misfit(10)).build();
+        assertTrue(isColumnar(mixed));
+        assertSameEntries(fill(Builders.mapBuilder(), 0, 10).withChild(misfit(10)).build(), mixed);
+
+        final MapNode regular = fill(Builders.columnarMapBuilder(), 0, 1).withChild(misfit(1)).withChild(misfit(2))
+                .build();
+        assertFalse(isColumnar(regular));
+        assertEquals(fill(Builders.mapBuilder(), 0, 1).withChild(misfit(1)).withChild(misfit(2)).build(), regular);
+
+        assertFalse(isColumnar(Builders.columnarMapBuilder().withNodeIdentifier(new NodeIdentifier(LIST_QNAME))
+            .build()));
+    }
+
+    @Test
+    public void testCompoundKey() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = Builders.columnarMapBuilder()
+                .withNodeIdentifier(new NodeIdentifier(LIST_QNAME));
+        for (int i = 0; i < 10; ++i) {
+            final Map<QName, Object> keys = ImmutableMap.<QName, Object>of(KEY_QNAME, i, OTHER_KEY_QNAME, "key" + i);
+            builder.withChild(Builders.mapEntryBuilder()
+                .withNodeIdentifier(new NodeIdentifierWithPredicates(LIST_QNAME, keys))
+                .withChild(ImmutableNodes.leafNode(KEY_QNAME, i))
+                .withChild(ImmutableNodes.leafNode(OTHER_KEY_QNAME, "key" + i)).build());
+        }
+
+        final MapNode node = builder.build();
+        assertTrue(isColumnar(node));
+        assertTrue(node.getChild(new NodeIdentifierWithPredicates(LIST_QNAME,
+            ImmutableMap.<QName, Object>of(OTHER_KEY_QNAME, "key3", KEY_QNAME, 3))).isPresent());
+        assertFalse(node.getChild(new NodeIdentifierWithPredicates(LIST_QNAME,
+            ImmutableMap.<QName, Object>of(OTHER_KEY_QNAME, "key3", KEY_QNAME, 4))).isPresent());
+    }
+
+    @Test
+    public void testDataTree() throws ReactorException, DataValidationFailedException {
+        final DataTree tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = Builders.columnarMapBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.OUTER_LIST_QNAME));
+        for (int i = 0; i < 100; ++i) {
+            builder.withChild(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i));
+        }
+        final MapNode list = builder.build();
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, list);
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        final YangInstanceIdentifier entryPath = YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 5).build();
+        mod = tree.takeSnapshot().newModification();
+        mod.delete(entryPath);
+        mod.write(YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+            .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 100).build(),
+            ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 100));
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        final NormalizedNode<?, ?> read = tree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH).get();
+        assertSame(list.getClass(), read.getClass());
+        assertEquals(100, ((MapNode) read).getValue().size());
+        assertFalse(tree.takeSnapshot().readNode(entryPath).isPresent());
+        assertEquals(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 100),
+            tree.takeSnapshot().readNode(YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 100).build()).get());
+    }
+}
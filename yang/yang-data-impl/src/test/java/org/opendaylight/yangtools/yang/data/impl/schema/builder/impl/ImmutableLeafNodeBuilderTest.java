@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import java.util.Map;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+
+public class ImmutableLeafNodeBuilderTest {
+    private static final QName LEAF_QNAME = QName.create("urn:test", "2016-01-01", "leaf");
+    private static final BigInteger UINT64_MAX = new BigInteger("18446744073709551615");
+
+    private static <T> LeafNode<T> leaf(final T value) {
+        return ImmutableLeafNodeBuilder.<T>create().withNodeIdentifier(new NodeIdentifier(LEAF_QNAME))
+                .withValue(value).build();
+    }
+
+    private static <T> void assertLeaf(final T value) {
+        final LeafNode<T> leaf = leaf(value);
+        assertEquals(value, leaf.getValue());
+        assertEquals(value.getClass(), leaf.getValue().getClass());
+        assertEquals(leaf, leaf(value));
+        assertEquals(leaf.hashCode(), leaf(value).hashCode());
+        assertEquals(31 * new NodeIdentifier(LEAF_QNAME).hashCode() + value.hashCode(), leaf.hashCode());
+    }
+
+    @Test
+    public void testPrimitiveValues() {
+        assertLeaf(Integer.MIN_VALUE);
+        assertLeaf(12345);
+        assertLeaf(Long.MAX_VALUE);
+        assertLeaf(-1L);
+        assertLeaf((short) 1000);
+        assertLeaf(Boolean.TRUE);
+        assertLeaf("string");
+    }
+
+    @Test
+    public void testUint64Values() {
+        assertLeaf(BigInteger.ZERO);
+        assertLeaf(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+        assertLeaf(UINT64_MAX);
+        // Values outside of uint64 range are held as they are
+        assertLeaf(UINT64_MAX.add(BigInteger.ONE));
+        assertLeaf(BigInteger.valueOf(-1));
+
+        assertNotEquals(leaf(UINT64_MAX), leaf(BigInteger.valueOf(-1)));
+    }
+
+    @Test
+    public void testDifferentValueTypes() {
+        assertNotEquals(leaf(1), leaf(1L));
+        assertNotEquals(leaf(1L), leaf(BigInteger.ONE));
+        assertNotEquals(leaf((short) 1), leaf(1));
+    }
+
+    @Test
+    public void testAttributes() {
+        final Map<QName, String> attributes = ImmutableMap.of(QName.create(LEAF_QNAME, "attr"), "value");
+        final LeafNode<Long> leaf = ImmutableLeafNodeBuilder.<Long>create()
+                .withNodeIdentifier(new NodeIdentifier(LEAF_QNAME)).withValue(5L).withAttributes(attributes).build();
+        assertEquals(attributes, ((AttributesContainer) leaf).getAttributes());
+        assertEquals(Long.valueOf(5), leaf.getValue());
+    }
+
+    @Test
+    public void testLeafSetEntryValue() {
+        final String value = "value";
+        final LeafSetEntryNode<String> entry = ImmutableLeafSetEntryNodeBuilder.<String>create()
+                .withNodeIdentifier(new NodeWithValue<>(LEAF_QNAME, value)).withValue(new String(value)).build();
+        assertSame(value, entry.getValue());
+        assertEquals(entry, ImmutableLeafSetEntryNodeBuilder.<String>create()
+                .withNodeIdentifier(new NodeWithValue<>(LEAF_QNAME, value)).withValue(value).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLeafSetEntryValueMismatch() {
+        ImmutableLeafSetEntryNodeBuilder.<String>create().withNodeIdentifier(new NodeWithValue<>(LEAF_QNAME, "value"))
+                .withValue("other").build();
+    }
+}
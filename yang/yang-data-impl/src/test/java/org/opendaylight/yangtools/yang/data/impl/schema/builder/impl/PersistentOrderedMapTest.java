@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class PersistentOrderedMapTest {
+
+    private static void assertOrder(final List<Integer> expected, final PersistentOrderedMap<Integer, Integer> map) {
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, new ArrayList<>(map.values()));
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), map.valueAt(i));
+            assertEquals(expected.get(i), map.get(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void testAppendAndReplace() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        for (int i = 0; i < 100; ++i) {
+            builder.put(i, i);
+        }
+
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            expected.add(i);
+        }
+        assertOrder(expected, builder.build());
+
+        // Replacing a value retains its position
+        builder.put(50, 50);
+        assertOrder(expected, builder.build());
+    }
+
+    @Test
+    public void testPositionalInsert() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        builder.put(1, 1);
+        builder.put(3, 3);
+        builder.insert(0, 0, 0);
+        builder.insert(2, 2, 2);
+        builder.insert(4, 4, 4);
+        assertOrder(ImmutableList.of(0, 1, 2, 3, 4), builder.build());
+
+        // Inserting a present key moves it
+        builder.insert(0, 4, 4);
+        assertOrder(ImmutableList.of(4, 0, 1, 2, 3), builder.build());
+    }
+
+    @Test
+    public void testRelabel() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        builder.put(-1, -1);
+        builder.put(-2, -2);
+
+        // Keep inserting at the same position, exhausting the label gap several times
+        final List<Integer> expected = new ArrayList<>();
+        expected.add(-1);
+        for (int i = 0; i < 200; ++i) {
+            builder.insert(1, i, i);
+            expected.add(1, i);
+        }
+        expected.add(-2);
+        assertOrder(expected, builder.build());
+
+        // Keep prepending
+        for (int i = 200; i < 300; ++i) {
+            builder.insert(0, i, i);
+            expected.add(0, i);
+        }
+        assertOrder(expected, builder.build());
+    }
+
+    @Test
+    public void testRepeatedInsertAtSamePosition() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            builder.put(i, i);
+            expected.add(i);
+        }
+
+        // Far more insertions at a single position than there are labels between two appended entries
+        for (int i = 1000; i < 11000; ++i) {
+            builder.insert(500, i, i);
+            expected.add(500, i);
+        }
+        for (int i = 11000; i < 12000; ++i) {
+            builder.insert(0, i, i);
+            expected.add(0, i);
+            builder.insert(expected.size(), -i, -i);
+            expected.add(-i);
+        }
+        assertOrder(expected, builder.build());
+    }
+
+    @Test
+    public void testRemove() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            builder.put(i, i);
+            expected.add(i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            builder.remove(i);
+            expected.remove(Integer.valueOf(i));
+        }
+        assertOrder(expected, builder.build());
+        assertNull(builder.build().get(0));
+
+        for (Integer i : new ArrayList<>(expected)) {
+            builder.remove(i);
+        }
+        assertSame(PersistentOrderedMap.of(), builder.build());
+    }
+
+    @Test
+    public void testBuiltMapIsNotModified() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        builder.put(0, 0);
+        builder.put(1, 1);
+        final PersistentOrderedMap<Integer, Integer> first = builder.build();
+
+        builder.remove(0);
+        builder.insert(0, 2, 2);
+        final PersistentOrderedMap<Integer, Integer> second = builder.build();
+        assertOrder(ImmutableList.of(0, 1), first);
+        assertOrder(ImmutableList.of(2, 1), second);
+
+        final PersistentOrderedMap.Builder<Integer, Integer> other = first.toBuilder();
+        other.insert(1, 3, 3);
+        assertOrder(ImmutableList.of(0, 3, 1), other.build());
+        assertOrder(ImmutableList.of(0, 1), first);
+    }
+
+    @Test
+    public void testEquals() {
+        final PersistentOrderedMap.Builder<Integer, Integer> first = PersistentOrderedMap.builder(0);
+        first.put(0, 0);
+        first.put(1, 1);
+        final PersistentOrderedMap.Builder<Integer, Integer> second = PersistentOrderedMap.builder(0);
+        second.put(1, 1);
+        second.insert(0, 0, 0);
+
+        assertEquals(first.build(), second.build());
+        assertEquals(first.build().hashCode(), second.build().hashCode());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testValueAtOutOfBounds() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        builder.put(0, 0);
+        builder.build().valueAt(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInsertOutOfBounds() {
+        final PersistentOrderedMap.Builder<Integer, Integer> builder = PersistentOrderedMap.builder(0);
+        builder.put(0, 0);
+        builder.insert(2, 1, 1);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.nodes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.ListNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedLeafSetNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedMapNodeBuilder;
+
+public class NormalizedNodeHashCodeTest {
+    private static final QName LIST_QNAME = QName.create("urn:test", "2016-01-01", "list");
+    private static final QName KEY_QNAME = QName.create(LIST_QNAME, "key");
+    private static final QName VALUE_QNAME = QName.create(LIST_QNAME, "value");
+    private static final QName LEAF_LIST_QNAME = QName.create(LIST_QNAME, "leaf-list");
+
+    private static MapEntryNode entry(final int key, final String value) {
+        return ImmutableNodes.mapEntryBuilder(LIST_QNAME, KEY_QNAME, key)
+                .withChild(ImmutableNodes.leafNode(VALUE_QNAME, value)).build();
+    }
+
+    private static <T extends CollectionNodeBuilder<MapEntryNode, ?>> T fill(final T builder, final int from,
+            final int to) {
+        builder.withNodeIdentifier(new NodeIdentifier(LIST_QNAME));
+        for (int i = from; i < to; ++i) {
+            builder.withChild(entry(i, "value"));
+        }
+        return builder;
+    }
+
+    private static <T extends ListNodeBuilder<String, LeafSetEntryNode<String>>> T fillLeafSet(final T builder,
+            final int from, final int to) {
+        builder.withNodeIdentifier(new NodeIdentifier(LEAF_LIST_QNAME));
+        for (int i = from; i < to; ++i) {
+            builder.withChildValue("value" + i);
+        }
+        return builder;
+    }
+
+    @Test
+    public void testMemoizedHashCode() {
+        final MapNode first = fill(Builders.mapBuilder(), 0, 10).build();
+        final MapNode second = fill(Builders.mapBuilder(), 0, 10).build();
+
+        assertEquals(first.hashCode(), first.hashCode());
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testUnequalWithKnownHashCodes() {
+        final MapNode first = fill(Builders.mapBuilder(), 0, 10).build();
+        final MapNode second = fill(Builders.mapBuilder(), 1, 11).build();
+
+        assertNotEquals(first.hashCode(), second.hashCode());
+        assertFalse(first.equals(second));
+        assertFalse(second.equals(first));
+    }
+
+    @Test
+    public void testDerivedMapHashCode() {
+        final MapNode base = fill(Builders.mapBuilder(), 0, 100).build();
+        // Make the hash code known, so that derived nodes compute theirs incrementally
+        base.hashCode();
+
+        final MapNode derived = Builders.mapBuilder(base).withChild(entry(5, "changed"))
+                .withoutChild(new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, 7))
+                .withoutChild(new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, 1000))
+                .withChild(entry(100, "value")).withChild(entry(10, "value")).build();
+
+        final MapNode expected = fill(Builders.mapBuilder(), 0, 101).withChild(entry(5, "changed"))
+                .withoutChild(new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, 7)).build();
+        assertEquals(expected.hashCode(), derived.hashCode());
+        assertEquals(expected, derived);
+
+        // Derived from a node whose hash code is not known
+        final MapNode unknown = Builders.mapBuilder(fill(Builders.mapBuilder(), 0, 100).build())
+                .withChild(entry(5, "changed")).build();
+        assertEquals(fill(Builders.mapBuilder(), 0, 100).withChild(entry(5, "changed")).build().hashCode(),
+            unknown.hashCode());
+    }
+
+    @Test
+    public void testDerivedOrderedMapHashCode() {
+        final OrderedMapNode base = fill(Builders.orderedMapBuilder(), 0, 100).build();
+        base.hashCode();
+
+        final OrderedMapNode derived = ((ImmutableOrderedMapNodeBuilder) ImmutableOrderedMapNodeBuilder.create(base))
+                .withChild(0, entry(50, "moved")).withChild(entry(100, "value"))
+                .withoutChild(new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, 3)).build();
+
+        final OrderedMapNode expected = fill(Builders.orderedMapBuilder(), 0, 101).withChild(entry(50, "moved"))
+                .withoutChild(new NodeIdentifierWithPredicates(LIST_QNAME, KEY_QNAME, 3)).build();
+        assertEquals(expected.hashCode(), derived.hashCode());
+    }
+
+    @Test
+    public void testDerivedLeafSetHashCode() {
+        final LeafSetNode<String> base = fillLeafSet(Builders.<String>leafSetBuilder(), 0, 20).build();
+        base.hashCode();
+        final LeafSetNode<String> derived = Builders.leafSetBuilder(base).withChildValue("value20")
+                .withoutChild(new NodeWithValue<>(LEAF_LIST_QNAME, "value0")).build();
+        assertEquals(fillLeafSet(Builders.<String>leafSetBuilder(), 1, 21).build().hashCode(), derived.hashCode());
+
+        final LeafSetNode<String> orderedBase = fillLeafSet(Builders.<String>orderedLeafSetBuilder(), 0, 20).build();
+        orderedBase.hashCode();
+        final LeafSetNode<String> orderedDerived = ImmutableOrderedLeafSetNodeBuilder.create(orderedBase)
+                .withChildValue("value20").withoutChild(new NodeWithValue<>(LEAF_LIST_QNAME, "value0")).build();
+        assertEquals(fillLeafSet(Builders.<String>orderedLeafSetBuilder(), 1, 21).build().hashCode(),
+            orderedDerived.hashCode());
+    }
+}
@@ -70,6 +70,58 @@ public class Bug5830Test {
         testMultipleContainers();
     }
 
+    @Test
+    public void testMandatoryNodesOnTouch() throws ReactorException, DataValidationFailedException {
+        final SchemaContext schemaContext = TestModel.createTestContext("/bug5830/foo-presence.yang");
+        assertNotNull("Schema context must not be null.", schemaContext);
+
+        final InMemoryDataTree inMemoryDataTree = initDataTree(schemaContext);
+        final YangInstanceIdentifier taskPath = YangInstanceIdentifier.of(TASK_CONTAINER).node(TASK)
+                .node(new NodeIdentifierWithPredicates(TASK, ImmutableMap.of(TASK_ID, "123")));
+        final MapEntryNode taskEntryNode = Builders.mapEntryBuilder()
+                .withNodeIdentifier(new NodeIdentifierWithPredicates(TASK, ImmutableMap.of(TASK_ID, "123")))
+                .withChild(ImmutableNodes.leafNode(TASK_ID, "123"))
+                .withChild(ImmutableNodes.leafNode(TASK_MANDATORY_LEAF, "mandatory data"))
+                .withChild(createTaskDataContainer(true)).build();
+
+        InMemoryDataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(taskPath, taskEntryNode);
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modificationTree));
+
+        // Modifying a non-mandatory leaf is fine
+        modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.delete(taskPath.node(TASK_DATA).node(OTHER_DATA));
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modificationTree));
+
+        try {
+            modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+            modificationTree.delete(taskPath.node(TASK_MANDATORY_LEAF));
+            modificationTree.ready();
+            inMemoryDataTree.validate(modificationTree);
+            inMemoryDataTree.prepare(modificationTree);
+            fail("Should fail due to missing mandatory node.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Node (foo?revision=2016-05-17)task[{(foo?revision=2016-05-17)task-id=123}] is missing "
+                    + "mandatory descendant /(foo?revision=2016-05-17)task-mandatory-leaf", e.getMessage());
+        }
+
+        try {
+            modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+            modificationTree.delete(taskPath.node(TASK_DATA).node(MANDATORY_DATA));
+            modificationTree.ready();
+            inMemoryDataTree.validate(modificationTree);
+            inMemoryDataTree.prepare(modificationTree);
+            fail("Should fail due to missing mandatory node under present presence container.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Node (foo?revision=2016-05-17)task-data is missing mandatory descendant "
+                    + "/(foo?revision=2016-05-17)mandatory-data", e.getMessage());
+        }
+    }
+
     private static void testPresenceContainer() throws ReactorException, DataValidationFailedException {
         final SchemaContext schemaContext = TestModel.createTestContext("/bug5830/foo-presence.yang");
         assertNotNull("Schema context must not be null.", schemaContext);
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class ChainedModificationTest {
+    private DataTree tree;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerEntry(0)).build());
+        mod.ready();
+        commit(mod);
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        return ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id);
+    }
+
+    private DataTreeCandidate commit(final DataTreeModification mod) throws DataValidationFailedException {
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        tree.commit(candidate);
+        return candidate;
+    }
+
+    private int outerListSize() {
+        final Optional<NormalizedNode<?, ?>> list = tree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH);
+        assertTrue(list.isPresent());
+        return ((MapNode) list.get()).getValue().size();
+    }
+
+    @Test
+    public void testChainedModificationIsNotApplied() throws DataValidationFailedException {
+        final InMemoryDataTreeModification first = (InMemoryDataTreeModification) tree.takeSnapshot()
+                .newModification();
+        first.write(outerEntryPath(1), outerEntry(1));
+        first.ready();
+
+        final InMemoryDataTreeModification second = first.newModification();
+        second.write(outerEntryPath(2), outerEntry(2));
+        second.ready();
+
+        // Writing to entries the first modification did not touch does not require applying it
+        assertNull(first.peekAppliedRoot());
+
+        tree.validate(first);
+        final DataTreeCandidate candidate = tree.prepare(first);
+        tree.commit(candidate);
+
+        // Preparing on top of the original snapshot produces the root shared with chained modifications
+        assertNotNull(first.peekAppliedRoot());
+        assertSame(first.peekAppliedRoot().getData(), candidate.getRootNode().getDataAfter().get());
+
+        commit(second);
+        assertEquals(3, outerListSize());
+    }
+
+    @Test
+    public void testReadThroughChain() throws DataValidationFailedException {
+        final DataTreeModification initial = tree.takeSnapshot().newModification();
+        initial.write(outerEntryPath(3), outerEntry(3));
+        initial.ready();
+        commit(initial);
+
+        final InMemoryDataTreeModification first = (InMemoryDataTreeModification) tree.takeSnapshot()
+                .newModification();
+        first.write(outerEntryPath(1), outerEntry(1));
+        first.delete(outerEntryPath(0));
+        first.ready();
+
+        // Reading paths the first modification has not modified does not require applying it
+        final DataTreeModification second = first.newModification();
+        assertEquals(Optional.of(outerEntry(3)), second.readNode(outerEntryPath(3)));
+        assertFalse(second.readNode(outerEntryPath(5)).isPresent());
+        assertNull(first.peekAppliedRoot());
+
+        assertEquals(Optional.of(outerEntry(1)), second.readNode(outerEntryPath(1)));
+        assertFalse(second.readNode(outerEntryPath(0)).isPresent());
+        second.write(outerEntryPath(2), outerEntry(2));
+        second.ready();
+
+        final DataTreeModification third = second.newModification();
+        assertTrue(third.readNode(outerEntryPath(1)).isPresent());
+        assertTrue(third.readNode(outerEntryPath(2)).isPresent());
+        third.delete(outerEntryPath(1));
+        third.ready();
+
+        commit(first);
+        commit(second);
+        commit(third);
+
+        assertFalse(tree.takeSnapshot().readNode(outerEntryPath(0)).isPresent());
+        assertFalse(tree.takeSnapshot().readNode(outerEntryPath(1)).isPresent());
+        assertTrue(tree.takeSnapshot().readNode(outerEntryPath(2)).isPresent());
+    }
+
+    @Test
+    public void testLongChain() throws DataValidationFailedException {
+        final List<DataTreeModification> chain = new ArrayList<>();
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        for (int i = 1; i <= 100; ++i) {
+            mod.write(outerEntryPath(i), outerEntry(i));
+            mod.ready();
+            chain.add(mod);
+            mod = mod.newModification();
+        }
+
+        assertTrue(mod.readNode(outerEntryPath(100)).isPresent());
+        for (DataTreeModification link : chain) {
+            commit(link);
+        }
+        assertEquals(101, outerListSize());
+    }
+
+    @Test
+    public void testChainedModificationAfterConcurrentCommit() throws DataValidationFailedException {
+        final DataTreeModification first = tree.takeSnapshot().newModification();
+        first.write(outerEntryPath(1), outerEntry(1));
+        first.ready();
+
+        final DataTreeModification second = first.newModification();
+        second.write(outerEntryPath(2), outerEntry(2));
+        second.ready();
+
+        // Move the tree, so that the first modification is not prepared on top of its snapshot
+        final DataTreeModification other = tree.takeSnapshot().newModification();
+        other.write(outerEntryPath(3), outerEntry(3));
+        other.ready();
+        commit(other);
+
+        final DataTreeCandidate candidate = commit(first);
+        assertEquals(ModificationType.WRITE, candidate.getRootNode().getModifiedChild(TestModel.TEST_PATH
+            .getLastPathArgument()).getModifiedChild(TestModel.OUTER_LIST_PATH.getLastPathArgument())
+            .getModifiedChild(outerEntryPath(1).getLastPathArgument()).getModificationType());
+
+        commit(second);
+        assertEquals(4, outerListSize());
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateVisitor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class DataTreeCandidateVisitorTest {
+    private static final String ORDERED_NS = "ordered-list-modification-test";
+    private static final String ORDERED_REV = "1970-01-01";
+    private static final MapEntryNode ENTRY_2 = outerEntry(2, ImmutableMap.of("a", "x"));
+
+    private DataTree tree;
+
+    private static final class RecordingVisitor implements DataTreeCandidateVisitor {
+        private final Deque<PathArgument> stack = new ArrayDeque<>();
+        private final Map<YangInstanceIdentifier, Optional<NormalizedNode<?, ?>>> changes = new HashMap<>();
+        private final List<YangInstanceIdentifier> entered = new ArrayList<>();
+        private final YangInstanceIdentifier skipped;
+
+        RecordingVisitor(final YangInstanceIdentifier skipped) {
+            this.skipped = skipped;
+        }
+
+        private YangInstanceIdentifier path(final PathArgument child) {
+            final List<PathArgument> args = new ArrayList<>(stack.size() + 1);
+            for (final Iterator<PathArgument> it = stack.descendingIterator(); it.hasNext(); ) {
+                args.add(it.next());
+            }
+            args.add(child);
+            return YangInstanceIdentifier.create(args);
+        }
+
+        @Override
+        public boolean enter(final PathArgument child) {
+            final YangInstanceIdentifier path = path(child);
+            entered.add(path);
+            if (path.equals(skipped)) {
+                return false;
+            }
+            stack.push(child);
+            return true;
+        }
+
+        @Override
+        public void exit() {
+            stack.pop();
+        }
+
+        @Override
+        public void written(final PathArgument child, final NormalizedNode<?, ?> before,
+                final NormalizedNode<?, ?> after) {
+            changes.put(path(child), Optional.of(after));
+        }
+
+        @Override
+        public void deleted(final PathArgument child, final NormalizedNode<?, ?> before) {
+            changes.put(path(child), Optional.absent());
+        }
+
+        void replay(final DataTreeModification modification) {
+            for (final Map.Entry<YangInstanceIdentifier, Optional<NormalizedNode<?, ?>>> e : changes.entrySet()) {
+                if (e.getValue().isPresent()) {
+                    modification.write(e.getKey(), e.getValue().get());
+                } else {
+                    modification.delete(e.getKey());
+                }
+            }
+        }
+    }
+
+    private static MapEntryNode outerEntry(final int id, final Map<String, String> inner) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+            TestModel.INNER_LIST_QNAME);
+        for (final Map.Entry<String, String> e : inner.entrySet()) {
+            innerList.withChild(ImmutableNodes.mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME,
+                e.getKey()).withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, e.getValue())).build());
+        }
+        return ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(innerList.build()).build();
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static YangInstanceIdentifier innerValuePath(final int id, final String name) {
+        return YangInstanceIdentifier.builder(outerEntryPath(id)).node(TestModel.INNER_LIST_QNAME)
+                .nodeWithKey(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name).node(TestModel.VALUE_QNAME)
+                .build();
+    }
+
+    private DataTreeCandidate commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        tree.commit(candidate);
+        return candidate;
+    }
+
+    private NormalizedNode<?, ?> readTest() {
+        return tree.takeSnapshot().readNode(TestModel.TEST_PATH).get();
+    }
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerEntry(1, ImmutableMap.of("a", "x", "b", "y")))
+            .withChild(ENTRY_2)
+            .withChild(outerEntry(3, ImmutableMap.of("a", "x")))
+            .build());
+        commit(mod);
+    }
+
+    @Test
+    public void testSubtreeModification() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(innerValuePath(1, "b"), ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "z"));
+        mod.delete(outerEntryPath(3));
+        final DataTreeCandidate candidate = commit(mod);
+
+        final RecordingVisitor visitor = new RecordingVisitor(null);
+        candidate.accept(visitor);
+        assertEquals(ImmutableMap.of(
+            innerValuePath(1, "b"), Optional.of(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "z")),
+            outerEntryPath(3), Optional.absent()), visitor.changes);
+
+        // Candidate nodes report the same changes
+        final RecordingVisitor nodeVisitor = new RecordingVisitor(null);
+        DataTreeCandidateNodes.acceptChildren(nodeVisitor, candidate.getRootNode());
+        assertEquals(visitor.changes, nodeVisitor.changes);
+    }
+
+    @Test
+    public void testReplace() throws DataValidationFailedException {
+        final NormalizedNode<?, ?> before = readTest();
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerEntry(1, ImmutableMap.of("a", "x", "b", "z")))
+            .withChild(ENTRY_2)
+            .withChild(outerEntry(4, ImmutableMap.of("c", "x")))
+            .build());
+        final DataTreeCandidate candidate = commit(mod);
+
+        final RecordingVisitor visitor = new RecordingVisitor(null);
+        candidate.accept(visitor);
+        assertEquals(ImmutableMap.of(
+            innerValuePath(1, "b"), Optional.of(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "z")),
+            outerEntryPath(3), Optional.absent(),
+            outerEntryPath(4), Optional.of(outerEntry(4, ImmutableMap.of("c", "x")))), visitor.changes);
+
+        // The unchanged entry is skipped without being entered
+        assertFalse(visitor.entered.contains(outerEntryPath(2)));
+
+        // Replaying the reported changes results in the same data
+        final NormalizedNode<?, ?> after = readTest();
+        final DataTreeModification replay = tree.takeSnapshot().newModification();
+        replay.write(TestModel.TEST_PATH, before);
+        visitor.replay(replay);
+        assertEquals(after, replay.readNode(TestModel.TEST_PATH).get());
+    }
+
+    @Test
+    public void testSkipSubtree() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(innerValuePath(1, "b"), ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "z"));
+        mod.write(innerValuePath(3, "a"), ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "z"));
+        final DataTreeCandidate candidate = commit(mod);
+
+        final RecordingVisitor visitor = new RecordingVisitor(outerEntryPath(1));
+        candidate.accept(visitor);
+        assertEquals(ImmutableMap.of(
+            innerValuePath(3, "a"), Optional.of(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "z"))),
+            visitor.changes);
+    }
+
+    @Test
+    public void testOrderedListReportedAsWritten() throws Exception {
+        tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(YangParserTestUtils.parseYangSource("/ordered-list-modification-test.yang"));
+        final QName parentContainer = QName.create(ORDERED_NS, ORDERED_REV, "parent-container");
+        final QName childContainer = QName.create(ORDERED_NS, ORDERED_REV, "child-container");
+        final QName list = QName.create(ORDERED_NS, ORDERED_REV, "parent-ordered-list");
+        final QName key = QName.create(ORDERED_NS, ORDERED_REV, "parent-key-leaf");
+        final QName leaf = QName.create(ORDERED_NS, ORDERED_REV, "parent-ordinary-leaf");
+        final YangInstanceIdentifier listPath = YangInstanceIdentifier.of(parentContainer).node(childContainer)
+                .node(list);
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.of(parentContainer), ImmutableNodes.containerNode(parentContainer));
+        mod.write(YangInstanceIdentifier.of(parentContainer).node(childContainer),
+            ImmutableNodes.containerNode(childContainer));
+        mod.write(listPath, Builders.orderedMapBuilder().withNodeIdentifier(new NodeIdentifier(list))
+            .withChild(ImmutableNodes.mapEntry(list, key, "a")).withChild(ImmutableNodes.mapEntry(list, key, "b"))
+            .build());
+        commit(mod);
+
+        // Modifying an entry of the list reports the whole list
+        mod = tree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.builder(listPath).nodeWithKey(list, key, "b").node(leaf).build(),
+            ImmutableNodes.leafNode(leaf, "x"));
+        final RecordingVisitor visitor = new RecordingVisitor(null);
+        commit(mod).accept(visitor);
+        assertEquals(ImmutableMap.of(listPath, tree.takeSnapshot().readNode(listPath)), visitor.changes);
+        assertFalse(visitor.entered.contains(listPath));
+    }
+
+    @Test
+    public void testUnmodified() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        final DataTreeCandidate candidate = commit(mod);
+
+        final RecordingVisitor visitor = new RecordingVisitor(null);
+        candidate.accept(visitor);
+        assertTrue(visitor.changes.isEmpty());
+        assertTrue(visitor.entered.isEmpty());
+    }
+}
@@ -182,6 +182,37 @@ public class ListConstraintsValidation {
         inMemoryDataTree.validate(modificationTree);
     }
 
+    @Test(expected=DataValidationFailedException.class)
+    public void minMaxListTouchFail() throws DataValidationFailedException {
+        final MapNode mapNode = ImmutableNodes.mapNodeBuilder()
+                .withNodeIdentifier(new NodeIdentifier(MIN_MAX_LIST_QNAME))
+                .withChild(ImmutableNodes.mapEntry(MIN_MAX_LIST_QNAME, MIN_MAX_KEY_LEAF_QNAME, "foo"))
+                .withChild(ImmutableNodes.mapEntry(MIN_MAX_LIST_QNAME, MIN_MAX_KEY_LEAF_QNAME, "bar"))
+                .withChild(ImmutableNodes.mapEntry(MIN_MAX_LIST_QNAME, MIN_MAX_KEY_LEAF_QNAME, "goo")).build();
+
+        InMemoryDataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(MIN_MAX_LIST_PATH, mapNode);
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modificationTree));
+
+        // Replacing an existing entry and removing a non-existent one keeps the count
+        final MapEntryNode fooEntryNode = ImmutableNodes.mapEntry(MIN_MAX_LIST_QNAME, MIN_MAX_KEY_LEAF_QNAME, "foo");
+        final MapEntryNode bazEntryNode = ImmutableNodes.mapEntry(MIN_MAX_LIST_QNAME, MIN_MAX_KEY_LEAF_QNAME, "baz");
+        modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(MIN_MAX_LIST_PATH.node(fooEntryNode.getIdentifier()), fooEntryNode);
+        modificationTree.delete(MIN_MAX_LIST_PATH.node(bazEntryNode.getIdentifier()));
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modificationTree));
+
+        // Adding a fourth entry does not
+        modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.merge(MIN_MAX_LIST_PATH.node(bazEntryNode.getIdentifier()), bazEntryNode);
+        modificationTree.ready();
+        inMemoryDataTree.validate(modificationTree);
+    }
+
     @Test
     public void minMaxLeafListPass() throws DataValidationFailedException {
         final DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
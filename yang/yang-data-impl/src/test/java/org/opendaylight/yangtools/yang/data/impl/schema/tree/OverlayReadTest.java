@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class OverlayReadTest {
+    private DataTree tree;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerEntry(0)).withChild(outerEntry(2)).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        return ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id);
+    }
+
+    private static ModifiedNode outerListModification(final InMemoryDataTreeModification mod) {
+        return mod.getRootModification().getChild(new NodeIdentifier(TestModel.TEST_QNAME)).get()
+                .getChild(new NodeIdentifier(TestModel.OUTER_LIST_QNAME)).get();
+    }
+
+    @Test
+    public void testReadUnmodifiedSibling() {
+        final InMemoryDataTreeModification mod = (InMemoryDataTreeModification) tree.takeSnapshot()
+                .newModification();
+        mod.write(outerEntryPath(1), outerEntry(1));
+
+        assertEquals(Optional.of(outerEntry(2)), mod.readNode(outerEntryPath(2)));
+        assertEquals(Optional.of(outerEntry(1)), mod.readNode(outerEntryPath(1)));
+        assertFalse(mod.readNode(outerEntryPath(3)).isPresent());
+        assertTrue(mod.readNode(outerEntryPath(2).node(TestModel.ID_QNAME)).isPresent());
+
+        // None of the reads should have materialized the list itself
+        assertNull(outerListModification(mod).getSnapshot());
+    }
+
+    @Test
+    public void testReadAfterDelete() {
+        final InMemoryDataTreeModification mod = (InMemoryDataTreeModification) tree.takeSnapshot()
+                .newModification();
+        mod.delete(outerEntryPath(0));
+        mod.write(outerEntryPath(1), outerEntry(1));
+
+        assertFalse(mod.readNode(outerEntryPath(0)).isPresent());
+        assertTrue(mod.readNode(outerEntryPath(2)).isPresent());
+        assertNull(outerListModification(mod).getSnapshot());
+
+        // Reading the list has to apply the modification
+        final Optional<NormalizedNode<?, ?>> list = mod.readNode(TestModel.OUTER_LIST_PATH);
+        assertTrue(list.isPresent());
+        assertEquals(2, ((MapNode) list.get()).getValue().size());
+        assertNotNull(outerListModification(mod).getSnapshot());
+    }
+
+    @Test
+    public void testReadModifyWrite() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        for (int i = 0; i < 10; ++i) {
+            if (!mod.readNode(outerEntryPath(i)).isPresent()) {
+                mod.write(outerEntryPath(i), outerEntry(i));
+            }
+            assertTrue(mod.readNode(outerEntryPath(i)).isPresent());
+        }
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        final Optional<NormalizedNode<?, ?>> list = tree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH);
+        assertEquals(10, ((MapNode) list.get()).getValue().size());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DiffableDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class SnapshotDiffTest {
+    private DataTree tree;
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode outerEntry(final int id) {
+        return ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id);
+    }
+
+    private void commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private static DataTreeCandidateNode child(final DataTreeCandidateNode node, final YangInstanceIdentifier path) {
+        DataTreeCandidateNode ret = node;
+        for (final PathArgument arg : path.getPathArguments()) {
+            ret = ret.getModifiedChild(arg);
+            if (ret == null) {
+                return null;
+            }
+        }
+        return ret;
+    }
+
+    private static void assertDiffApplies(final DataTreeSnapshot before, final DataTreeSnapshot after) {
+        final DataTreeCandidate candidate = ((DiffableDataTreeSnapshot) after).diffFrom(before);
+        final DataTreeModification mod = before.newModification();
+        DataTreeCandidates.applyToModification(mod, candidate);
+        assertEquals(after.readNode(YangInstanceIdentifier.EMPTY), mod.readNode(YangInstanceIdentifier.EMPTY));
+    }
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerEntry(1)).withChild(outerEntry(2)).withChild(outerEntry(3)).build());
+        commit(mod);
+    }
+
+    @Test
+    public void testSameSnapshot() {
+        final DiffableDataTreeSnapshot snapshot = (DiffableDataTreeSnapshot) tree.takeSnapshot();
+        final DataTreeCandidate candidate = snapshot.diffFrom(tree.takeSnapshot());
+        assertEquals(ModificationType.UNMODIFIED, candidate.getRootNode().getModificationType());
+        assertTrue(candidate.getRootNode().getChildNodes().isEmpty());
+        assertEquals(YangInstanceIdentifier.EMPTY, candidate.getRootPath());
+    }
+
+    @Test
+    public void testSparseChanges() throws DataValidationFailedException {
+        final DataTreeSnapshot before = tree.takeSnapshot();
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.delete(outerEntryPath(1));
+        commit(mod);
+        mod = tree.takeSnapshot().newModification();
+        mod.write(outerEntryPath(4), outerEntry(4));
+        mod.write(TestModel.INNER_CONTAINER_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.INNER_CONTAINER_QNAME))
+            .withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "value")).build());
+        commit(mod);
+
+        final DataTreeSnapshot after = tree.takeSnapshot();
+        final DataTreeCandidateNode root = ((DiffableDataTreeSnapshot) after).diffFrom(before).getRootNode();
+        assertEquals(ModificationType.SUBTREE_MODIFIED, root.getModificationType());
+        assertEquals(ModificationType.DELETE, child(root, outerEntryPath(1)).getModificationType());
+        assertEquals(ModificationType.WRITE, child(root, outerEntryPath(4)).getModificationType());
+        assertEquals(ModificationType.WRITE, child(root, TestModel.INNER_CONTAINER_PATH).getModificationType());
+        assertNull(child(root, outerEntryPath(2)));
+        assertEquals(2, child(root, TestModel.TEST_PATH).getChildNodes().size());
+        assertEquals(2, child(root, TestModel.OUTER_LIST_PATH).getChildNodes().size());
+
+        assertDiffApplies(before, after);
+        assertDiffApplies(after, before);
+    }
+
+    @Test
+    public void testRevertedChange() throws DataValidationFailedException {
+        final DataTreeSnapshot before = tree.takeSnapshot();
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.delete(outerEntryPath(1));
+        commit(mod);
+        mod = tree.takeSnapshot().newModification();
+        mod.write(outerEntryPath(1), outerEntry(1));
+        commit(mod);
+
+        // The entry has been replaced by an equal one, which is not a difference
+        final DataTreeSnapshot after = tree.takeSnapshot();
+        final DataTreeCandidate candidate = ((DiffableDataTreeSnapshot) after).diffFrom(before);
+        assertEquals(ModificationType.UNMODIFIED, candidate.getRootNode().getModificationType());
+        assertDiffApplies(before, after);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignSnapshot() {
+        final DataTreeSnapshot foreign = new DataTreeSnapshot() {
+            @Override
+            public com.google.common.base.Optional<org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode<?, ?>>
+                    readNode(final YangInstanceIdentifier path) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public DataTreeModification newModification() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        ((DiffableDataTreeSnapshot) tree.takeSnapshot()).diffFrom(foreign);
+    }
+}
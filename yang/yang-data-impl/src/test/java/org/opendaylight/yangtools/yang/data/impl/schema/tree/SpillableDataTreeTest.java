@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SpillableDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SubtreeSpillPolicy;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SpilledNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableColumnarMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.valid.DataValidationException;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class SpillableDataTreeTest {
+    private static final SubtreeSpillPolicy SPILL_OUTER_ENTRIES = (path, data) ->
+            data.getIdentifier() instanceof NodeIdentifierWithPredicates
+            && TestModel.OUTER_LIST_QNAME.equals(data.getNodeType());
+
+    private OffHeapNodeStore store;
+    private TipProducingDataTree tree;
+
+    private static YangInstanceIdentifier outerEntryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode innerEntry(final String name, final String value) {
+        return ImmutableNodes.mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name)
+                .withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, value)).build();
+    }
+
+    private static MapEntryNode outerEntry(final int id, final MapEntryNode... innerEntries) {
+        return ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.INNER_LIST_QNAME).withValue(
+                    Arrays.asList(innerEntries)).build()).build();
+    }
+
+    private void commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private SpillableDataTree spillable() {
+        return (SpillableDataTree) tree;
+    }
+
+    private NormalizedNode<?, ?> read(final YangInstanceIdentifier path) {
+        return tree.takeSnapshot().readNode(path).get();
+    }
+
+    private boolean isSpilled(final int id) {
+        final MapNode list = (MapNode) read(TestModel.OUTER_LIST_PATH);
+        return list.getChild((NodeIdentifierWithPredicates) outerEntryPath(id).getLastPathArgument()).get()
+                instanceof SpilledNode;
+    }
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        createTree(OffHeapNodeStore.direct(4096));
+    }
+
+    private void createTree(final OffHeapNodeStore store) throws ReactorException, DataValidationFailedException {
+        this.store = store;
+        tree = InMemoryDataTreeFactory.getInstance().create(DataTreeConfiguration.DEFAULT_OPERATIONAL, store);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerEntry(1, innerEntry("a", "1"), innerEntry("b", "2")))
+            .withChild(outerEntry(2, innerEntry("c", "3")))
+            .withChild(outerEntry(3)).build());
+        commit(mod);
+    }
+
+    @Test
+    public void testSpillColdSubtrees() {
+        final NormalizedNode<?, ?> expected = read(TestModel.TEST_PATH);
+
+        // The first pass only records the state of the tree
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertFalse(isSpilled(1));
+        assertEquals(0, store.usedBytes());
+
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(1));
+        assertTrue(isSpilled(2));
+        assertTrue(isSpilled(3));
+        assertTrue(store.usedBytes() > 0);
+
+        assertEquals(outerEntry(1, innerEntry("a", "1"), innerEntry("b", "2")), read(outerEntryPath(1)));
+        assertEquals(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "3"), read(YangInstanceIdentifier.builder(
+            outerEntryPath(2)).node(TestModel.INNER_LIST_QNAME)
+            .nodeWithKey(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "c").node(TestModel.VALUE_QNAME).build()));
+        assertEquals(expected, read(TestModel.TEST_PATH));
+
+        // Nothing has changed, hence nothing is spilled again
+        final long usedBytes = store.usedBytes();
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertEquals(usedBytes, store.usedBytes());
+    }
+
+    @Test
+    public void testSpilledNodesEscapingReads() {
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+
+        final MapNode list = (MapNode) read(TestModel.OUTER_LIST_PATH);
+        final MapEntryNode expected = outerEntry(1, innerEntry("a", "1"), innerEntry("b", "2"));
+        final MapEntryNode spilled = list.getChild(expected.getIdentifier()).get();
+        assertTrue(spilled instanceof SpilledNode);
+        assertEquals(expected, spilled);
+        assertEquals(spilled, expected);
+
+        // Builders copy proxies from their loaded form
+        assertEquals(expected, ImmutableMapEntryNodeBuilder.create(spilled).build());
+        assertEquals(list, ImmutableMapNodeBuilder.create(list).build());
+        final MapEntryNode modified = ImmutableMapEntryNodeBuilder.create(spilled)
+                .withChild(leaf("extra", 1)).build();
+        assertEquals(expected.getValue().size() + 1, modified.getValue().size());
+    }
+
+    @Test
+    public void testModifySpilledSubtree() throws DataValidationFailedException {
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(1));
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.merge(YangInstanceIdentifier.builder(outerEntryPath(1)).node(TestModel.INNER_LIST_QNAME)
+            .nodeWithKey(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "d").build(), innerEntry("d", "4"));
+        mod.delete(outerEntryPath(2));
+        mod.write(outerEntryPath(3), outerEntry(3, innerEntry("e", "5")));
+        commit(mod);
+
+        assertFalse(isSpilled(1));
+        assertFalse(isSpilled(3));
+        assertEquals(outerEntry(1, innerEntry("a", "1"), innerEntry("b", "2"), innerEntry("d", "4")),
+            read(outerEntryPath(1)));
+        assertFalse(tree.takeSnapshot().readNode(outerEntryPath(2)).isPresent());
+
+        // The rewritten entry is cold again after two more passes, the merged one has nodes of different versions
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertFalse(isSpilled(3));
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(3));
+        assertFalse(isSpilled(1));
+        assertEquals(outerEntry(3, innerEntry("e", "5")), read(outerEntryPath(3)));
+        assertEquals(outerEntry(1, innerEntry("a", "1"), innerEntry("b", "2"), innerEntry("d", "4")),
+            read(outerEntryPath(1)));
+    }
+
+    @Test(expected = ConflictingModificationAppliedException.class)
+    public void testConflictBelowSpilledSubtree() throws DataValidationFailedException {
+        final YangInstanceIdentifier valuePath = YangInstanceIdentifier.builder(outerEntryPath(1))
+                .node(TestModel.INNER_LIST_QNAME).nodeWithKey(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "a")
+                .node(TestModel.VALUE_QNAME).build();
+        final DataTreeModification conflicting = tree.takeSnapshot().newModification();
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(valuePath, ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "5"));
+        commit(mod);
+
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(2));
+        assertFalse(isSpilled(1));
+
+        conflicting.write(valuePath, ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "6"));
+        commit(conflicting);
+    }
+
+    @Test
+    public void testCommitCandidatePreparedBeforeSpill() throws DataValidationFailedException {
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(outerEntryPath(4), outerEntry(4));
+        mod.ready();
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(1));
+
+        tree.commit(candidate);
+        assertEquals(outerEntry(4), read(outerEntryPath(4)));
+        assertEquals(outerEntry(2, innerEntry("c", "3")), read(outerEntryPath(2)));
+    }
+
+    @Test
+    public void testSpillRacingWithCommits() {
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+
+        // Every attempt of the second pass races with a commit
+        final AtomicInteger attempts = new AtomicInteger();
+        spillable().spillColdSubtrees((path, data) -> {
+            if (path.equals(outerEntryPath(1))) {
+                final int id = 4 + attempts.getAndIncrement();
+                final DataTreeModification mod = tree.takeSnapshot().newModification();
+                mod.write(outerEntryPath(id), outerEntry(id));
+                try {
+                    commit(mod);
+                } catch (DataValidationFailedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            return SPILL_OUTER_ENTRIES.shouldSpill(path, data);
+        });
+
+        assertEquals(3, attempts.get());
+        assertFalse(isSpilled(1));
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(1));
+    }
+
+    @Test
+    public void testSpillIntoFullStore() throws ReactorException, DataValidationFailedException {
+        createTree(OffHeapNodeStore.direct(8, 8));
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+
+        assertTrue(store.isFull());
+        assertFalse(isSpilled(1));
+        assertFalse(isSpilled(3));
+        assertEquals(0, store.usedBytes());
+        assertEquals(outerEntry(1, innerEntry("a", "1"), innerEntry("b", "2")), read(outerEntryPath(1)));
+    }
+
+    @Test
+    public void testStoreBound() throws IOException {
+        final OffHeapNodeStore bounded = OffHeapNodeStore.direct(64, 128);
+        final byte[] bytes = new byte[40];
+        bounded.append(bytes, bytes.length);
+        bounded.append(bytes, bytes.length);
+        assertFalse(bounded.isFull());
+        assertEquals(128, bounded.allocatedBytes());
+
+        try {
+            bounded.append(bytes, bytes.length);
+            fail("Append beyond maximum size should have failed");
+        } catch (IOException e) {
+            assertTrue(bounded.isFull());
+        }
+    }
+
+    @Test
+    public void testReleaseUnreachableSubtrees() throws IOException, InterruptedException {
+        final OffHeapNodeStore bounded = OffHeapNodeStore.direct(64, 128);
+        final byte[] bytes = new byte[40];
+        Object owner = new Object();
+        bounded.track(owner, bounded.append(bytes, bytes.length));
+        final Object retained = new Object();
+        bounded.track(retained, bounded.append(bytes, bytes.length));
+        assertEquals(88, bounded.usedBytes());
+
+        owner = null;
+        for (int i = 0; i < 100 && bounded.allocatedBytes() != 64; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // The first segment has been released, the second one is still in use
+        assertEquals(64, bounded.allocatedBytes());
+        assertEquals(44, bounded.usedBytes());
+        bounded.append(bytes, bytes.length);
+        assertEquals(128, bounded.allocatedBytes());
+        assertNotNull(retained);
+    }
+
+    @Test
+    public void testSpillColumnarList() throws IOException, DataValidationFailedException {
+        final MapNode inner = Builders.columnarMapBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.INNER_LIST_QNAME))
+                .withChild(innerEntry("a", "1")).withChild(innerEntry("b", "2")).build();
+        assertTrue(ImmutableColumnarMapNodeBuilder.isColumnar(inner));
+
+        final NormalizedNode<?, ?> decoded = SpilledNodeCodec.read(store, SpilledNodeCodec.write(store, inner));
+        assertTrue(ImmutableColumnarMapNodeBuilder.isColumnar(decoded));
+        assertEquals(inner, decoded);
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(outerEntryPath(1), ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1)
+            .withChild(inner).build());
+        commit(mod);
+
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        spillable().spillColdSubtrees(SPILL_OUTER_ENTRIES);
+        assertTrue(isSpilled(1));
+
+        // Only the proxy references the loaded entry, hence this clears it and the next read decodes the entry
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        final YangInstanceIdentifier innerPath = YangInstanceIdentifier.builder(outerEntryPath(1))
+                .node(TestModel.INNER_LIST_QNAME).build();
+        final NormalizedNode<?, ?> loaded = read(innerPath);
+        assertTrue(ImmutableColumnarMapNodeBuilder.isColumnar(loaded));
+        assertEquals(inner, loaded);
+
+        // The list stays columnar when it is modified
+        mod = tree.takeSnapshot().newModification();
+        mod.merge(YangInstanceIdentifier.builder(innerPath)
+            .nodeWithKey(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "c").build(), innerEntry("c", "3"));
+        commit(mod);
+        final NormalizedNode<?, ?> modified = read(innerPath);
+        assertTrue(ImmutableColumnarMapNodeBuilder.isColumnar(modified));
+        assertEquals(3, ((MapNode) modified).getValue().size());
+    }
+
+    @Test
+    public void testSchemaAwareBuilders() throws ReactorException, DataValidationFailedException {
+        final ContainerSchemaNode testSchema = (ContainerSchemaNode) TestModel.createTestContext()
+                .getDataChildByName(TestModel.TEST_QNAME);
+        final ListSchemaNode outerSchema = (ListSchemaNode) testSchema.getDataChildByName(TestModel.OUTER_LIST_QNAME);
+        final ListSchemaNode innerSchema = (ListSchemaNode) outerSchema.getDataChildByName(
+            TestModel.INNER_LIST_QNAME);
+
+        final NormalizedNode<?, ?> expected = read(TestModel.TEST_PATH);
+        final SubtreeSpillPolicy spillLists = (path, data) -> data instanceof MapNode;
+        spillable().spillColdSubtrees(spillLists);
+        spillable().spillColdSubtrees(spillLists);
+        final MapNode outer = (MapNode) read(TestModel.OUTER_LIST_PATH);
+        assertTrue(outer instanceof SpilledNode);
+        assertEquals(outer, Builders.mapBuilder(outerSchema, outer).build());
+
+        final SubtreeSpillPolicy spillContainer = (path, data) -> TestModel.TEST_QNAME.equals(data.getNodeType());
+        createTree(OffHeapNodeStore.direct(4096));
+        spillable().spillColdSubtrees(spillContainer);
+        spillable().spillColdSubtrees(spillContainer);
+        final ContainerNode container = (ContainerNode) read(TestModel.TEST_PATH);
+        assertTrue(container instanceof SpilledNode);
+        assertEquals(expected, Builders.containerBuilder(testSchema, container).build());
+
+        final MapNode columnar = Builders.columnarMapBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.INNER_LIST_QNAME))
+                .withChild(innerEntry("a", "1")).build();
+        final MapNode copy = Builders.mapBuilder(innerSchema, columnar).withChild(innerEntry("b", "2")).build();
+        assertTrue(ImmutableColumnarMapNodeBuilder.isColumnar(copy));
+        assertEquals(2, copy.getValue().size());
+        try {
+            Builders.mapBuilder(innerSchema, columnar).withChild(outerEntry(1));
+            fail("Entry of a different list should have been rejected");
+        } catch (DataValidationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testCodecValues() throws Exception {
+        final QName leafList = QName.create(TestModel.TEST_QNAME, "leaf-list");
+        final ContainerNode container = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(leaf("string", "abcé"))
+                .withChild(leaf("null", null))
+                .withChild(leaf("boolean", Boolean.TRUE))
+                .withChild(leaf("byte", (byte) -5))
+                .withChild(leaf("short", (short) -300))
+                .withChild(leaf("int", Integer.MIN_VALUE))
+                .withChild(leaf("long", -1L))
+                .withChild(leaf("big-integer", BigInteger.valueOf(Long.MAX_VALUE).pow(2)))
+                .withChild(leaf("big-decimal", new BigDecimal("-12.345")))
+                .withChild(leaf("qname", TestModel.ID_QNAME))
+                .withChild(leaf("bits", ImmutableSet.of("one", "two")))
+                .withChild(Builders.leafSetBuilder().withNodeIdentifier(new NodeIdentifier(leafList))
+                    .withChildValue("x").withChildValue("y").build())
+                .withChild(ImmutableNodes.choiceNode(TestModel.OUTER_CHOICE_QNAME))
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                    .withChild(outerEntry(1, innerEntry("a", "1"))).build())
+                .build();
+
+        final long address = SpilledNodeCodec.write(store, container);
+        assertEquals(container, SpilledNodeCodec.read(store, address));
+
+        final byte[] binary = new byte[] { 1, 2, 3 };
+        final LeafNode<?> binaryLeaf = leaf("binary", binary);
+        final LeafNode<?> read = (LeafNode<?>) SpilledNodeCodec.read(store, SpilledNodeCodec.write(store, binaryLeaf));
+        assertArrayEquals(binary, (byte[]) read.getValue());
+    }
+
+    private static LeafNode<Object> leaf(final String localName, final Object value) {
+        return ImmutableNodes.leafNode(QName.create(TestModel.TEST_QNAME, localName), value);
+    }
+}
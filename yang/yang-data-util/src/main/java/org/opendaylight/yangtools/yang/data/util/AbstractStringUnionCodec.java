@@ -9,6 +9,7 @@
 package org.opendaylight.yangtools.yang.data.util;
 
 import com.google.common.base.Preconditions;
+import java.util.List;
 import org.opendaylight.yangtools.concepts.Codec;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
@@ -16,12 +17,19 @@ import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Base class for codecs of union types. Member types are tried in declaration order, skipping those which
+ * {@link UnionMemberClassifier} determines cannot accept the value, so that a non-matching member does not cost
+ * an exception. Codecs of individual members are looked up once, on first use.
+ */
 public abstract class AbstractStringUnionCodec implements Codec<String, Object> {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractStringUnionCodec.class);
 
     protected final DataSchemaNode schema;
     protected final UnionTypeDefinition typeDefinition;
 
+    private volatile Member[] members;
+
     protected AbstractStringUnionCodec(final DataSchemaNode schema, final UnionTypeDefinition typeDefinition) {
         this.schema = Preconditions.checkNotNull(schema);
         this.typeDefinition = Preconditions.checkNotNull(typeDefinition);
@@ -31,16 +39,18 @@ public abstract class AbstractStringUnionCodec implements Codec<String, Object>
 
     @Override
     public final String serialize(final Object data) {
-        for (final TypeDefinition<?> type : typeDefinition.getTypes()) {
-            Codec<String, Object> codec = codecFor(type);
-            if (codec == null) {
-                LOG.debug("no codec found for {}", type);
+        for (final Member member : members()) {
+            if (member.codec == null) {
+                LOG.debug("no codec found for {}", member.type);
+                continue;
+            }
+            if (!member.classifier.maySerialize(data)) {
                 continue;
             }
             try {
-                return codec.serialize(data);
+                return member.codec.serialize(data);
             } catch (final Exception e) {
-                LOG.debug("Data {} did not match for {}", data, type, e);
+                LOG.debug("Data {} did not match for {}", data, member.type, e);
                 // invalid - try the next union type.
             }
         }
@@ -54,9 +64,8 @@ public abstract class AbstractStringUnionCodec implements Codec<String, Object>
         }
 
         Object returnValue = null;
-        for (final TypeDefinition<?> type : typeDefinition.getTypes()) {
-            Codec<String, Object> codec = codecFor(type);
-            if (codec == null) {
+        for (final Member member : members()) {
+            if (member.codec == null) {
                 /*
                  * This is a type for which we have no codec (eg identity ref) so we'll say it's
                  * valid
@@ -64,14 +73,17 @@ public abstract class AbstractStringUnionCodec implements Codec<String, Object>
                 returnValue = stringRepresentation;
                 continue;
             }
+            if (!member.classifier.mayDeserialize(stringRepresentation)) {
+                continue;
+            }
             try {
-                final Object deserialized = codec.deserialize(stringRepresentation);
+                final Object deserialized = member.codec.deserialize(stringRepresentation);
                 if (deserialized != null) {
                     return deserialized;
                 }
                 returnValue = stringRepresentation;
             } catch (final Exception e) {
-                LOG.debug("Value {} did not matched representation for {}", stringRepresentation, type, e);
+                LOG.debug("Value {} did not matched representation for {}", stringRepresentation, member.type, e);
                 // invalid - try the next union type.
             }
         }
@@ -80,4 +92,34 @@ public abstract class AbstractStringUnionCodec implements Codec<String, Object>
         }
         throw new IllegalArgumentException("Invalid value \"" + stringRepresentation + "\" for union type.");
     }
+
+    private Member[] members() {
+        Member[] ret = members;
+        if (ret == null) {
+            /*
+             * Member codecs are looked up lazily, as subclasses are not fully initialized when our constructor runs.
+             * Concurrent initialization is benign, as all threads end up with equivalent arrays.
+             */
+            final List<TypeDefinition<?>> types = typeDefinition.getTypes();
+            ret = new Member[types.size()];
+            for (int i = 0; i < ret.length; ++i) {
+                final TypeDefinition<?> type = types.get(i);
+                ret[i] = new Member(type, codecFor(type));
+            }
+            members = ret;
+        }
+        return ret;
+    }
+
+    private static final class Member {
+        final TypeDefinition<?> type;
+        final Codec<String, Object> codec;
+        final UnionMemberClassifier classifier;
+
+        Member(final TypeDefinition<?> type, final Codec<String, Object> codec) {
+            this.type = type;
+            this.codec = codec;
+            this.classifier = UnionMemberClassifier.forType(type);
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.xsd.regex.DeterministicMatcher;
+import org.opendaylight.yangtools.xsd.regex.ParseException;
+import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiled form of a {@link PatternConstraint}. Patterns which can be expressed as XML Schema regular expressions are
+ * matched by a {@link DeterministicMatcher}, all others fall back to {@link java.util.regex}. Compiled patterns are
+ * shared between all users of a particular constraint, so that codecs and {@link UnionMemberClassifier}s agree on
+ * the result and compile each pattern only once.
+ */
+@Beta
+public final class CompiledPattern {
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledPattern.class);
+
+    // Escapes which have the same meaning in both Java and XML Schema regular expressions
+    private static final String COMMON_ESCAPES = "nrt\\|.-^?*+{}()[]$pP";
+
+    // Identity-based, does not prevent constraints from being garbage-collected along with their schema context
+    private static final Cache<PatternConstraint, CompiledPattern> CACHE = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final Pattern pattern;
+    private final DeterministicMatcher matcher;
+
+    private CompiledPattern(final String regex) {
+        pattern = Pattern.compile("^" + regex + "$");
+        matcher = compileMatcher(regex);
+    }
+
+    /**
+     * Return the compiled form of a pattern constraint.
+     *
+     * @param constraint Pattern constraint
+     * @return Compiled pattern
+     * @throws PatternSyntaxException if the regular expression of the constraint is not valid
+     */
+    public static CompiledPattern of(@Nonnull final PatternConstraint constraint) {
+        CompiledPattern ret = CACHE.getIfPresent(constraint);
+        if (ret == null) {
+            ret = new CompiledPattern(constraint.getRegularExpression());
+            CACHE.put(constraint, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Check whether a string matches this pattern.
+     *
+     * @param str String to match
+     * @return True if the whole string matches
+     */
+    public boolean matches(@Nonnull final String str) {
+        return matcher != null ? matcher.matches(str) : pattern.matcher(str).matches();
+    }
+
+    /**
+     * Return the anchored Java regular expression of this pattern.
+     *
+     * @return Java regular expression
+     */
+    public String pattern() {
+        return pattern.pattern();
+    }
+
+    /**
+     * Check whether this pattern is matched by a {@link DeterministicMatcher}.
+     *
+     * @return True if this pattern does not fall back to {@link java.util.regex}
+     */
+    public boolean isDeterministic() {
+        return matcher != null;
+    }
+
+    private static DeterministicMatcher compileMatcher(final String javaRegex) {
+        final String xsdRegex = toXsdRegex(javaRegex);
+        if (xsdRegex == null) {
+            LOG.debug("Pattern {} uses Java-specific constructs, using java.util.regex", javaRegex);
+            return null;
+        }
+
+        try {
+            return DeterministicMatcher.compile(xsdRegex);
+        } catch (ParseException | UnsupportedOperationException e) {
+            LOG.debug("Pattern {} cannot be compiled into an automaton, using java.util.regex", javaRegex, e);
+            return null;
+        }
+    }
+
+    /**
+     * Translate a Java regular expression, as provided by {@link PatternConstraint#getRegularExpression()}, back to
+     * an equivalent XML Schema regular expression. This strips the anchors added by the parser and checks that the
+     * remainder only uses constructs which have the same meaning in both syntaxes.
+     *
+     * @param javaRegex Java regular expression
+     * @return XML Schema regular expression, or null if the expression cannot be translated
+     */
+    @Nullable
+    public static String toXsdRegex(@Nonnull final String javaRegex) {
+        int begin = 0;
+        while (begin < javaRegex.length() && javaRegex.charAt(begin) == '^') {
+            begin++;
+        }
+        int end = javaRegex.length();
+        while (end > begin && javaRegex.charAt(end - 1) == '$' && !isEscaped(javaRegex, end - 1)) {
+            end--;
+        }
+
+        boolean inClass = false;
+        for (int i = begin; i < end; ++i) {
+            final char ch = javaRegex.charAt(i);
+            switch (ch) {
+                case '\\':
+                    if (i + 1 == end || COMMON_ESCAPES.indexOf(javaRegex.charAt(i + 1)) == -1) {
+                        // \d, \w, \s and friends differ, everything else is either Java or XSD-specific
+                        return null;
+                    }
+                    i++;
+                    break;
+                case '[':
+                    if (inClass) {
+                        // Nested classes and XSD class subtraction
+                        return null;
+                    }
+                    inClass = true;
+                    if (i + 1 < end && javaRegex.charAt(i + 1) == '^') {
+                        i++;
+                    }
+                    break;
+                case ']':
+                    inClass = false;
+                    break;
+                case '^':
+                case '$':
+                    // Anchors in Java, literals in XSD
+                    if (!inClass) {
+                        return null;
+                    }
+                    break;
+                case '&':
+                    // Class intersection in Java
+                    if (inClass && i + 1 < end && javaRegex.charAt(i + 1) == '&') {
+                        return null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return javaRegex.substring(begin, end);
+    }
+
+    private static boolean isEscaped(final String str, final int offset) {
+        int backslashes = 0;
+        for (int i = offset - 1; i >= 0 && str.charAt(i) == '\\'; --i) {
+            backslashes++;
+        }
+        return backslashes % 2 != 0;
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.INT16_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.INT32_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.INT64_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.INT8_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT16_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT32_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT64_QNAME;
+import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT8_QNAME;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BinaryTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BitsTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BooleanTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.DecimalTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.EnumTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnsignedIntegerTypeDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cheap, exception-free pre-check of whether a value can belong to a particular member type of a union. Union codecs
+ * use it to skip member types which cannot possibly accept a value, instead of invoking the member codec and catching
+ * the resulting exception.
+ *
+ * <p>
+ * Classification is conservative: a negative answer guarantees that the member codec would reject the value, while
+ * a positive answer means the member codec still has to be consulted. String representations are classified based
+ * on their lexical form (digits, enumeration and bit names, patterns), objects are classified based on their class.
+ */
+@Beta
+public abstract class UnionMemberClassifier {
+    private static final Logger LOG = LoggerFactory.getLogger(UnionMemberClassifier.class);
+
+    private static final UnionMemberClassifier ANY = new Unrestricted(Object.class);
+    private static final UnionMemberClassifier BINARY = new Unrestricted(byte[].class);
+    private static final UnionMemberClassifier IDENTITYREF = new Unrestricted(QName.class);
+    private static final UnionMemberClassifier INSTANCE_IDENTIFIER = new Unrestricted(YangInstanceIdentifier.class);
+    private static final UnionMemberClassifier STRING = new Unrestricted(String.class);
+
+    private static final UnionMemberClassifier BOOLEAN = new UnionMemberClassifier(Boolean.class) {
+        @Override
+        public boolean mayDeserialize(final String str) {
+            return "true".equalsIgnoreCase(str) || "false".equalsIgnoreCase(str);
+        }
+    };
+
+    private static final UnionMemberClassifier DECIMAL = new UnionMemberClassifier(Number.class) {
+        @Override
+        public boolean mayDeserialize(final String str) {
+            // Superset of what BigDecimal accepts: a sign, digits, a decimal point and an exponent
+            boolean digits = false;
+            for (int i = 0; i < str.length(); ++i) {
+                final char ch = str.charAt(i);
+                if (ch >= '0' && ch <= '9') {
+                    digits = true;
+                } else if (ch != '+' && ch != '-' && ch != '.' && ch != 'e' && ch != 'E') {
+                    return false;
+                }
+            }
+            return digits;
+        }
+    };
+
+    private final Class<?> valueClass;
+
+    UnionMemberClassifier(final Class<?> valueClass) {
+        this.valueClass = Preconditions.checkNotNull(valueClass);
+    }
+
+    /**
+     * Return a classifier for a union member type.
+     *
+     * @param type Member type
+     * @return A classifier
+     */
+    @Nonnull public static UnionMemberClassifier forType(@Nonnull final TypeDefinition<?> type) {
+        if (type instanceof StringTypeDefinition) {
+            return forString((StringTypeDefinition) type);
+        } else if (type instanceof IntegerTypeDefinition) {
+            return forInteger(baseTypeOf((IntegerTypeDefinition) type).getQName());
+        } else if (type instanceof UnsignedIntegerTypeDefinition) {
+            return forInteger(baseTypeOf((UnsignedIntegerTypeDefinition) type).getQName());
+        } else if (type instanceof EnumTypeDefinition) {
+            final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (EnumTypeDefinition.EnumPair pair : ((EnumTypeDefinition) type).getValues()) {
+                builder.add(pair.getName());
+            }
+            return new Enumeration(builder.build());
+        } else if (type instanceof BitsTypeDefinition) {
+            final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (BitsTypeDefinition.Bit bit : ((BitsTypeDefinition) type).getBits()) {
+                builder.add(bit.getName());
+            }
+            return new Bits(builder.build());
+        } else if (type instanceof BooleanTypeDefinition) {
+            return BOOLEAN;
+        } else if (type instanceof DecimalTypeDefinition) {
+            return DECIMAL;
+        } else if (type instanceof BinaryTypeDefinition) {
+            return BINARY;
+        } else if (type instanceof IdentityrefTypeDefinition) {
+            return IDENTITYREF;
+        } else if (type instanceof InstanceIdentifierTypeDefinition) {
+            return INSTANCE_IDENTIFIER;
+        } else {
+            // Leafrefs, nested unions, empty (whose codecs differ between formats) and anything else we do not know
+            // how to classify
+            return ANY;
+        }
+    }
+
+    /**
+     * Check whether a string representation may be accepted by the member type.
+     *
+     * @param str String representation
+     * @return False if the member codec is guaranteed to reject the string, true otherwise
+     */
+    public abstract boolean mayDeserialize(@Nonnull String str);
+
+    /**
+     * Check whether an object may be serialized by the member type.
+     *
+     * @param value Object to serialize
+     * @return False if the member codec is guaranteed to reject the object, true otherwise
+     */
+    public final boolean maySerialize(@Nullable final Object value) {
+        return value == null || valueClass.isInstance(value);
+    }
+
+    private static UnionMemberClassifier forString(final StringTypeDefinition type) {
+        final List<PatternConstraint> constraints = type.getPatternConstraints();
+        if (constraints.isEmpty()) {
+            return STRING;
+        }
+
+        final CompiledPattern[] patterns = new CompiledPattern[constraints.size()];
+        for (int i = 0; i < patterns.length; ++i) {
+            final PatternConstraint constraint = constraints.get(i);
+            try {
+                patterns[i] = CompiledPattern.of(constraint);
+            } catch (PatternSyntaxException e) {
+                LOG.debug("Pattern {} cannot be compiled, not classifying type {}", constraint.getRegularExpression(),
+                    type, e);
+                return STRING;
+            }
+        }
+        return new PatternString(patterns);
+    }
+
+    private static UnionMemberClassifier forInteger(final QName baseType) {
+        if (INT8_QNAME.equals(baseType) || UINT8_QNAME.equals(baseType)) {
+            return new Integral(3);
+        } else if (INT16_QNAME.equals(baseType) || UINT16_QNAME.equals(baseType)) {
+            return new Integral(5);
+        } else if (INT32_QNAME.equals(baseType) || UINT32_QNAME.equals(baseType)) {
+            return new Integral(10);
+        } else if (INT64_QNAME.equals(baseType)) {
+            return new Integral(19);
+        } else if (UINT64_QNAME.equals(baseType)) {
+            return new Integral(20);
+        } else {
+            return new Integral(Integer.MAX_VALUE);
+        }
+    }
+
+    private static <T extends TypeDefinition<T>> T baseTypeOf(final T type) {
+        T ret = type;
+        while (ret.getBaseType() != null) {
+            ret = ret.getBaseType();
+        }
+        return ret;
+    }
+
+    private static final class Unrestricted extends UnionMemberClassifier {
+        Unrestricted(final Class<?> valueClass) {
+            super(valueClass);
+        }
+
+        @Override
+        public boolean mayDeserialize(final String str) {
+            return true;
+        }
+    }
+
+    /**
+     * Integer types accept "0", a decimal number without leading zeroes, a hexadecimal number prefixed with "0x" and
+     * an octal number prefixed with "0", all of them optionally signed. Decimal numbers with more digits than the
+     * type can hold are rejected outright.
+     */
+    private static final class Integral extends UnionMemberClassifier {
+        private final int maxDecimalDigits;
+
+        Integral(final int maxDecimalDigits) {
+            super(Number.class);
+            this.maxDecimalDigits = maxDecimalDigits;
+        }
+
+        @Override
+        public boolean mayDeserialize(final String str) {
+            final int length = str.length();
+            if (length == 1) {
+                final char ch = str.charAt(0);
+                return ch >= '0' && ch <= '9';
+            }
+
+            int offset = 0;
+            if (length != 0 && (str.charAt(0) == '+' || str.charAt(0) == '-')) {
+                offset = 1;
+            }
+            if (offset == length) {
+                return false;
+            }
+
+            final char first = str.charAt(offset);
+            if (first >= '1' && first <= '9') {
+                return length - offset <= maxDecimalDigits && allMatch(str, offset + 1, '0', '9');
+            }
+            if (first != '0' || offset + 1 == length) {
+                return false;
+            }
+
+            final char second = str.charAt(offset + 1);
+            if (second == 'x' || second == 'X') {
+                return offset + 2 != length && allHex(str, offset + 2);
+            }
+            return second != '0' && allMatch(str, offset + 1, '0', '7');
+        }
+
+        private static boolean allMatch(final String str, final int offset, final char min, final char max) {
+            for (int i = offset; i < str.length(); ++i) {
+                final char ch = str.charAt(i);
+                if (ch < min || ch > max) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean allHex(final String str, final int offset) {
+            for (int i = offset; i < str.length(); ++i) {
+                final char ch = str.charAt(i);
+                if ((ch < '0' || ch > '9') && (ch < 'a' || ch > 'f') && (ch < 'A' || ch > 'F')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Enumeration extends UnionMemberClassifier {
+        private final Set<String> names;
+
+        Enumeration(final Set<String> names) {
+            super(String.class);
+            this.names = Preconditions.checkNotNull(names);
+        }
+
+        @Override
+        public boolean mayDeserialize(final String str) {
+            return names.contains(str);
+        }
+    }
+
+    private static final class Bits extends UnionMemberClassifier {
+        private final Set<String> names;
+
+        Bits(final Set<String> names) {
+            super(Set.class);
+            this.names = Preconditions.checkNotNull(names);
+        }
+
+        @Override
+        public boolean mayDeserialize(final String str) {
+            int start = 0;
+            while (start < str.length()) {
+                int end = str.indexOf(' ', start);
+                if (end == -1) {
+                    end = str.length();
+                }
+                final String bit = str.substring(start, end).trim();
+                if (!bit.isEmpty() && !names.contains(bit)) {
+                    return false;
+                }
+                start = end + 1;
+            }
+            return true;
+        }
+    }
+
+    private static final class PatternString extends UnionMemberClassifier {
+        private final CompiledPattern[] patterns;
+
+        PatternString(final CompiledPattern[] patterns) {
+            super(String.class);
+            this.patterns = Preconditions.checkNotNull(patterns);
+        }
+
+        @Override
+        public boolean mayDeserialize(final String str) {
+            for (CompiledPattern pattern : patterns) {
+                if (!pattern.matches(str)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -10,8 +10,10 @@ package org.opendaylight.yangtools.yang2sources.plugin;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
 import com.google.common.io.CharStreams;
 import java.io.Closeable;
 import java.io.File;
@@ -19,19 +21,29 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.FileUtils;
 import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo.SubmoduleDependencyInfo;
 import org.opendaylight.yangtools.yang.parser.repo.YangTextSchemaContextResolver;
 import org.opendaylight.yangtools.yang.parser.util.NamedFileInputStream;
 import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
@@ -181,7 +193,8 @@ class YangToSourcesProcessor {
                     YangsInZipsResult dependentYangResult = Util.findYangFilesInDependenciesAsStream(project);
                     Closeable dependentYangResult1 = dependentYangResult;
                     closeables.add(dependentYangResult1);
-                    List<InputStream> yangStreams = toStreamsWithoutDuplicates(dependentYangResult.getYangStreams());
+                    List<InputStream> yangStreams = toStreamsWithoutDuplicates(
+                        requiredDependencies(yangFilesInProject, dependentYangResult.getYangStreams()));
                     all.addAll(yangStreams);
                     closeables.addAll(yangStreams);
                 }
@@ -240,6 +253,64 @@ class YangToSourcesProcessor {
         return false;
     }
 
+    /**
+     * Select sources found in dependencies which are transitively imported or included by project sources, so that
+     * models which are not referenced by the project are not parsed at all. Only source headers are scanned to
+     * determine this. Sources whose header cannot be scanned are retained, so that the parser reports them.
+     */
+    private static List<YangSourceFromDependency> requiredDependencies(final Collection<File> projectFiles,
+            final List<YangSourceFromDependency> list) throws IOException {
+        final Deque<String> required = new ArrayDeque<>();
+        for (File file : projectFiles) {
+            try {
+                addRequired(required, YangModelDependencyInfo.forYangText(YangTextSchemaSource.forFile(file)));
+            } catch (IllegalArgumentException | YangSyntaxErrorException e) {
+                LOG.debug("{} Failed to scan header of {}, retaining all dependencies", LOG_PREFIX, file, e);
+                return list;
+            }
+        }
+
+        final List<YangSourceFromDependency> ret = new ArrayList<>();
+        final Multimap<String, Entry<YangSourceFromDependency, YangModelDependencyInfo>> byName =
+                ArrayListMultimap.create();
+        for (YangSourceFromDependency source : list) {
+            try {
+                final YangModelDependencyInfo info = YangModelDependencyInfo.forYangText(
+                    YangTextSchemaSource.delegateForByteSource(RevisionSourceIdentifier.create(source.getDescription()),
+                        source));
+                byName.put(info.getName(), new SimpleImmutableEntry<>(source, info));
+            } catch (IllegalArgumentException | YangSyntaxErrorException e) {
+                LOG.debug("{} Failed to scan header of {}, retaining it", LOG_PREFIX, source.getDescription(), e);
+                ret.add(source);
+            } catch (IOException e) {
+                throw new IOException("Exception when reading from: " + source.getDescription(), e);
+            }
+        }
+
+        final Set<String> visited = new HashSet<>();
+        while (!required.isEmpty()) {
+            final String name = required.pop();
+            if (visited.add(name)) {
+                for (Entry<YangSourceFromDependency, YangModelDependencyInfo> e : byName.get(name)) {
+                    ret.add(e.getKey());
+                    addRequired(required, e.getValue());
+                }
+            }
+        }
+
+        LOG.debug("{} {} of {} dependency sources are required by the project", LOG_PREFIX, ret.size(), list.size());
+        return ret;
+    }
+
+    private static void addRequired(final Deque<String> required, final YangModelDependencyInfo info) {
+        for (ModuleImport dependency : info.getDependencies()) {
+            required.push(dependency.getModuleName());
+        }
+        if (info instanceof SubmoduleDependencyInfo) {
+            required.push(((SubmoduleDependencyInfo) info).getParentModule());
+        }
+    }
+
     private static List<InputStream> toStreamsWithoutDuplicates(final List<YangSourceFromDependency> list)
             throws IOException {
         final Map<String, YangSourceFromDependency> byContent = new HashMap<>();
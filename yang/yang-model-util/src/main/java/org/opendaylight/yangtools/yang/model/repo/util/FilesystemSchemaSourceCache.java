@@ -11,30 +11,40 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
+import com.google.common.base.Verify;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.text.DateFormat;
-import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
@@ -42,12 +52,19 @@ import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Costs;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Cache implementation that stores schemas in form of files under provided folder
+ * Cache implementation that stores schemas in form of files under provided folder. Cached sources are tracked in an
+ * index, which is persisted as an append-only manifest in the same folder, so that the cache can be restored without
+ * hashing each file. On restore, the manifest is reconciled with a listing of the folder, so that files which have
+ * been added, modified or deleted in the meantime are accounted for. Lookups consult the in-memory index and do not
+ * block, unless they miss it and fall back to looking for the file on disk, while updates are serialized. Sources
+ * with identical content share storage by being hard-linked to the same file, where the filesystem supports it. The
+ * cache can optionally be bounded, in which case least recently used sources are evicted.
  */
 public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> {
 
@@ -63,14 +80,62 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
                     "(?<moduleName>[^@]+)" +
                     "(@(?<revision>" + SourceIdentifier.REVISION_PATTERN + "))?");
 
+    /**
+     * Name of the manifest file. It contains one record per line, "+ hash file" records a file being added to the
+     * cache, "- file" records its removal.
+     */
+    static final String MANIFEST_FILE = ".manifest";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String ADDED = "+";
+    private static final String REMOVED = "-";
+
+    /**
+     * Minimum number of obsolete records before the manifest is compacted.
+     */
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    /*
+     * Cached sources indexed by module name and revision. Sources without a revision are stored under an empty
+     * revision, which sorts before all valid revisions, hence the last entry is always the newest revision.
+     */
+    private final ConcurrentMap<String, ConcurrentNavigableMap<String, CachedSource<T>>> index =
+            new ConcurrentHashMap<>();
+
+    // Sources by content hash, guarded by this
+    private final SetMultimap<String, CachedSource<T>> contents = HashMultimap.create();
+
     private final Class<T> representation;
     private final File storageDirectory;
+    private final File manifest;
+    private final int maxSources;
+
+    // Guarded by this
+    private int size;
+    private int manifestRecords;
 
     public FilesystemSchemaSourceCache(
             final SchemaSourceRegistry consumer, final Class<T> representation, final File storageDirectory) {
+        this(consumer, representation, storageDirectory, 0);
+    }
+
+    /**
+     * Create a cache holding up to a specified number of sources. Once this number is exceeded, least recently used
+     * sources are evicted until the cache is filled to seven eighths of its capacity, so that the cost of eviction is
+     * amortized across multiple offers.
+     *
+     * @param consumer Registry with which cached sources are registered
+     * @param representation Cached representation
+     * @param storageDirectory Directory holding cached sources
+     * @param maxSources Maximum number of cached sources, 0 if unbounded
+     * @throws IllegalArgumentException if maxSources is negative or the storage directory cannot be used
+     */
+    public FilesystemSchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final File storageDirectory, final int maxSources) {
         super(consumer, representation, Costs.LOCAL_IO);
         this.representation = representation;
         this.storageDirectory = Preconditions.checkNotNull(storageDirectory);
+        Preconditions.checkArgument(maxSources >= 0, "Invalid maximum number of sources %s", maxSources);
+        this.maxSources = maxSources;
 
         checkSupportedRepresentation(representation);
 
@@ -82,6 +147,7 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
         Preconditions.checkArgument(storageDirectory.canWrite());
         Preconditions.checkArgument(storageDirectory.canRead());
 
+        manifest = new File(storageDirectory, MANIFEST_FILE);
         init();
     }
 
@@ -99,114 +165,432 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     /**
      * Restore cache state
      */
-    private void init() {
+    private synchronized void init() {
+        Map<String, String> recorded = null;
+        final long manifestModified = manifest.lastModified();
+        if (manifest.isFile()) {
+            try {
+                recorded = readManifest();
+            } catch (final IOException e) {
+                LOG.warn("Unable to read cache manifest {}, hashing all files in {}", manifest, storageDirectory, e);
+            }
+        }
 
-        final CachedModulesFileVisitor fileVisitor = new CachedModulesFileVisitor();
-        try {
-            Files.walkFileTree(storageDirectory.toPath(), fileVisitor);
-        } catch (final IOException e) {
-            LOG.warn("Unable to restore cache from {}. Starting with empty cache", storageDirectory);
-            return;
+        // Hash only files which are not recorded in the manifest or have been modified after it was last updated. If
+        // there is no usable manifest, e.g. the cache has been created by a previous version, this hashes all files.
+        boolean stale = recorded == null;
+        final Map<String, String> files = new LinkedHashMap<>();
+        for (final Entry<String, Long> e : scanStorageDirectory().entrySet()) {
+            final String name = e.getKey();
+            String hash = recorded == null ? null : recorded.get(name);
+            if (hash == null || e.getValue() > manifestModified) {
+                final String current;
+                try {
+                    current = hashFile(new File(storageDirectory, name));
+                } catch (final IOException ex) {
+                    LOG.warn("Unable to restore cached file {}. Ignoring", name, ex);
+                    stale = true;
+                    continue;
+                }
+                if (!current.equals(hash)) {
+                    LOG.debug("Cached file {} is not recorded in the manifest or has been modified", name);
+                    stale = true;
+                }
+                hash = current;
+            }
+            files.put(name, hash);
+        }
+        if (recorded != null && !files.keySet().containsAll(recorded.keySet())) {
+            LOG.debug("Some files recorded in the manifest have been deleted from {}", storageDirectory);
+            stale = true;
+        }
+
+        for (final Entry<String, String> e : files.entrySet()) {
+            final File file = new File(storageDirectory, e.getKey());
+            final Matcher matcher = matchFileName(file);
+            if (!matcher.matches()) {
+                LOG.debug("Skipping cached file {}, cannot restore source identifier, does not match {}", e.getKey(),
+                    CACHED_FILE_PATTERN);
+                continue;
+            }
+
+            final String moduleName = matcher.group("moduleName");
+            final String revision = matcher.group("revision");
+            final SourceIdentifier sourceId = RevisionSourceIdentifier.create(moduleName,
+                Optional.fromNullable(revision));
+            LOG.trace("Restoring cached file {} as {}", e.getKey(), sourceId);
+            addSource(moduleName, Strings.nullToEmpty(revision), file, e.getValue(), sourceId);
         }
 
-        for (final SourceIdentifier cachedSchema : fileVisitor.getCachedSchemas()) {
-            register(cachedSchema);
+        if (stale || manifestRecords > size) {
+            compactManifest();
         }
+        evictIfNeeded();
     }
 
     @Override
-    public synchronized CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
-        final File file = sourceIdToFile(sourceIdentifier, storageDirectory);
-        if (file.exists() && file.canRead()) {
-            LOG.trace("Source {} found in cache as {}", sourceIdentifier, file);
-            final SchemaSourceRepresentation restored = STORAGE_ADAPTERS.get(representation).restore(sourceIdentifier, file);
-            return Futures.immediateCheckedFuture(representation.cast(restored));
+    public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
+        CachedSource<T> cached = lookup(sourceIdentifier);
+        if (cached != null && !cached.file.isFile()) {
+            removeIfMissing(cached);
+            cached = null;
+        }
+        if (cached == null) {
+            cached = probe(sourceIdentifier);
+        }
+        if (cached != null) {
+            cached.lastAccess = System.nanoTime();
+            try {
+                final SchemaSourceRepresentation restored = STORAGE_ADAPTERS.get(representation).restore(
+                    sourceIdentifier, cached.file);
+                LOG.trace("Source {} found in cache as {}", sourceIdentifier, cached.file);
+                return Futures.immediateCheckedFuture(representation.cast(restored));
+            } catch (final IllegalArgumentException e) {
+                LOG.debug("Source {} cached as {} is not available", sourceIdentifier, cached.file, e);
+            }
         }
 
-        LOG.debug("Source {} not found in cache as {}", sourceIdentifier, file);
+        LOG.debug("Source {} not found in cache", sourceIdentifier);
         return Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("Source not found", sourceIdentifier));
     }
 
     @Override
     protected synchronized void offer(final T source) {
-        LOG.trace("Source {} offered to cache", source.getIdentifier());
-        final File file = sourceIdToFile(source);
-        if (file.exists()) {
-            LOG.debug("Source {} already in cache as {}", source.getIdentifier(), file);
-            return;
+        final SourceIdentifier sourceId = source.getIdentifier();
+        LOG.trace("Source {} offered to cache", sourceId);
+
+        final String revision = revisionOf(sourceId);
+        final ConcurrentNavigableMap<String, CachedSource<T>> revisions = index.get(sourceId.getName());
+        if (revisions != null) {
+            final CachedSource<T> existing = revisions.get(revision);
+            if (existing != null) {
+                LOG.debug("Source {} already in cache as {}", sourceId, existing.file);
+                return;
+            }
         }
 
-        storeSource(file, source);
-        register(source.getIdentifier());
-        LOG.trace("Source {} stored in cache as {}", source.getIdentifier(), file);
+        final File file = new File(storageDirectory, fileName(sourceId.getName(), revision));
+        final File temporary = new File(storageDirectory, file.getName() + TEMPORARY_SUFFIX);
+        storeSource(temporary, source);
+
+        final String hash;
+        try {
+            hash = hashFile(temporary);
+            final CachedSource<T> sameContent = Iterables.getFirst(contents.get(hash), null);
+            if (sameContent == null || !linkFile(file, sameContent.file)) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(temporary.toPath());
+        } catch (final IOException e) {
+            temporary.delete();
+            throw new IllegalStateException("Cannot store schema source " + sourceId + " to " + file, e);
+        }
+
+        addSource(sourceId.getName(), revision, file, hash, sourceId);
+        appendManifest(ADDED + ' ' + hash + ' ' + file.getName());
+        LOG.trace("Source {} stored in cache as {}", sourceId, file);
+        evictIfNeeded();
     }
 
-    private File sourceIdToFile(final T source) {
-        return sourceIdToFile(source.getIdentifier(), storageDirectory);
+    /**
+     * Look for a source which is not in the index on disk. This picks up files which have been placed into the
+     * storage directory by other means while the cache is running.
+     */
+    private synchronized CachedSource<T> probe(final SourceIdentifier sourceIdentifier) {
+        // The source may have been added while we were waiting
+        final CachedSource<T> existing = lookup(sourceIdentifier);
+        if (existing != null) {
+            return existing;
+        }
+
+        final File file = findFile(sourceIdentifier);
+        if (file == null) {
+            return null;
+        }
+
+        final String hash;
+        try {
+            hash = hashFile(file);
+        } catch (final IOException e) {
+            LOG.debug("Unable to read file {}", file, e);
+            return null;
+        }
+
+        final Matcher matcher = matchFileName(file);
+        Verify.verify(matcher.matches());
+        final String revision = matcher.group("revision");
+        final SourceIdentifier sourceId = RevisionSourceIdentifier.create(sourceIdentifier.getName(),
+            Optional.fromNullable(revision));
+        LOG.debug("Source {} found in {}, adding it to cache", sourceId, file);
+        final CachedSource<T> cached = addSource(sourceIdentifier.getName(), Strings.nullToEmpty(revision), file,
+            hash, sourceId);
+        if (cached.file == file) {
+            appendManifest(ADDED + ' ' + hash + ' ' + relativeName(file));
+            evictIfNeeded();
+        }
+        return cached;
     }
 
-    static File sourceIdToFile(final SourceIdentifier identifier, final File storageDirectory) {
-        final String rev = identifier.getRevision();
-        final File file;
-        if (Strings.isNullOrEmpty(rev)) {
-            file = findFileWithNewestRev(identifier, storageDirectory);
-        } else {
-            file = new File(storageDirectory, identifier.toYangFilename());
+    private File findFile(final SourceIdentifier sourceIdentifier) {
+        final String revision = revisionOf(sourceIdentifier);
+        if (!revision.isEmpty()) {
+            final File file = new File(storageDirectory, fileName(sourceIdentifier.getName(), revision));
+            return file.isFile() ? file : null;
+        }
+
+        // No revision requested, use the newest one. An empty revision sorts before all valid revisions.
+        final File[] candidates = storageDirectory.listFiles();
+        if (candidates == null) {
+            return null;
+        }
+        File newest = null;
+        String newestRevision = null;
+        for (final File candidate : candidates) {
+            final Matcher matcher = matchFileName(candidate);
+            if (candidate.isFile() && candidate.getName().endsWith(".yang") && matcher.matches()
+                    && sourceIdentifier.getName().equals(matcher.group("moduleName"))) {
+                final String candidateRevision = Strings.nullToEmpty(matcher.group("revision"));
+                if (newestRevision == null || candidateRevision.compareTo(newestRevision) > 0) {
+                    newest = candidate;
+                    newestRevision = candidateRevision;
+                }
+            }
+        }
+        return newest;
+    }
+
+    private synchronized void removeIfMissing(final CachedSource<T> cached) {
+        final ConcurrentNavigableMap<String, CachedSource<T>> revisions = index.get(cached.moduleName);
+        if (revisions != null && revisions.get(cached.revision) == cached && !cached.file.isFile()) {
+            LOG.debug("Cached file {} has been deleted, removing it from cache", cached.file);
+            removeSource(cached);
+        }
+    }
+
+    private CachedSource<T> lookup(final SourceIdentifier sourceIdentifier) {
+        final ConcurrentNavigableMap<String, CachedSource<T>> revisions = index.get(sourceIdentifier.getName());
+        if (revisions == null) {
+            return null;
+        }
+
+        final String revision = revisionOf(sourceIdentifier);
+        if (!revision.isEmpty()) {
+            return revisions.get(revision);
+        }
+
+        // No revision requested, use the newest one
+        final Entry<String, CachedSource<T>> newest = revisions.lastEntry();
+        return newest == null ? null : newest.getValue();
+    }
+
+    private CachedSource<T> addSource(final String moduleName, final String revision, final File file,
+            final String hash, final SourceIdentifier sourceId) {
+        final ConcurrentNavigableMap<String, CachedSource<T>> revisions = index.computeIfAbsent(moduleName,
+            k -> new ConcurrentSkipListMap<>());
+        // Files in different subdirectories may map to the same source, the first one found is used
+        final CachedSource<T> existing = revisions.get(revision);
+        if (existing != null) {
+            LOG.debug("Source {} already cached as {}, ignoring {}", sourceId, existing.file, file);
+            return existing;
         }
-        return file;
+
+        final CachedSource<T> cached = new CachedSource<>(moduleName, revision, file, hash, register(sourceId));
+        revisions.put(revision, cached);
+        contents.put(hash, cached);
+        size++;
+        return cached;
     }
 
-    private static File findFileWithNewestRev(final SourceIdentifier identifier, final File storageDirectory) {
-        File[] files = storageDirectory.listFiles(new FilenameFilter() {
-            final Pattern p = Pattern.compile(Pattern.quote(identifier.getName()) + "(\\.yang|@\\d\\d\\d\\d-\\d\\d-\\d\\d.yang)");
+    private void removeSource(final CachedSource<T> cached) {
+        final ConcurrentNavigableMap<String, CachedSource<T>> revisions = index.get(cached.moduleName);
+        revisions.remove(cached.revision);
+        if (revisions.isEmpty()) {
+            index.remove(cached.moduleName);
+        }
+        contents.remove(cached.hash, cached);
+        size--;
+
+        cached.registration.close();
+        if (!cached.file.delete() && cached.file.exists()) {
+            LOG.debug("Failed to delete evicted file {}", cached.file);
+        }
+        appendManifest(REMOVED + ' ' + relativeName(cached.file));
+    }
+
+    private void evictIfNeeded() {
+        if (maxSources == 0 || size <= maxSources) {
+            return;
+        }
+
+        final List<CachedSource<T>> sources = new ArrayList<>(size);
+        for (final ConcurrentNavigableMap<String, CachedSource<T>> revisions : index.values()) {
+            sources.addAll(revisions.values());
+        }
+        sources.sort(Comparator.comparingLong(s -> s.lastAccess));
+
+        final int evict = size - maxSources + maxSources / 8;
+        for (final CachedSource<T> cached : sources.subList(0, Math.min(evict, sources.size()))) {
+            LOG.debug("Evicting source {} from cache", cached.file);
+            removeSource(cached);
+        }
 
-            @Override
-            public boolean accept(final File dir, final String name) {
-                return p.matcher(name).matches();
+        if (manifestRecords - size > Math.max(size, MIN_COMPACTION_RECORDS)) {
+            compactManifest();
+        }
+    }
+
+    private Map<String, String> readManifest() throws IOException {
+        final Map<String, String> files = new LinkedHashMap<>();
+        manifestRecords = 0;
+        try (BufferedReader reader = Files.newBufferedReader(manifest.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                manifestRecords++;
+                // File names may contain spaces, hence they are always the last field
+                final String[] fields = line.split(" ", 3);
+                if (fields.length == 3 && ADDED.equals(fields[0])) {
+                    files.remove(fields[2]);
+                    files.put(fields[2], fields[1]);
+                } else if (line.startsWith(REMOVED + ' ')) {
+                    files.remove(line.substring(REMOVED.length() + 1));
+                } else {
+                    LOG.debug("Ignoring invalid manifest record \"{}\"", line);
+                }
             }
-        });
-
-        if (files.length == 0) {
-            return new File(storageDirectory, identifier.toYangFilename());
-        }
-        if (files.length == 1) {
-            return files[0];
-        }
-
-        File file = null;
-        TreeMap<Date, File> map = new TreeMap<>();
-        for (File sorted : files) {
-            String fileName = sorted.getName();
-            Matcher m = SourceIdentifier.REVISION_PATTERN.matcher(fileName);
-            if (m.find()) {
-                String revStr = m.group();
-                /*
-                 * FIXME: Consider using string for comparison.
-                 * String is comparable, pattern check tested format
-                 * so comparing as ASCII string should be sufficient
-                 */
-                DateFormat df = SimpleDateFormatUtil.getRevisionFormat();
-                try {
-                    Date d = df.parse(revStr);
-                    map.put(d, sorted);
-                } catch (final ParseException e) {
-                    LOG.info("Unable to parse date from yang file name {}", fileName);
-                    map.put(new Date(0L), sorted);
+        }
+        return files;
+    }
+
+    /**
+     * List files in the storage directory and its subdirectories.
+     *
+     * @return Last modification times of files, indexed by their path relative to the storage directory
+     */
+    private Map<String, Long> scanStorageDirectory() {
+        final Map<String, Long> files = new LinkedHashMap<>();
+        try {
+            Files.walkFileTree(storageDirectory.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                    final String name = file.getFileName().toString();
+                    if (!attrs.isRegularFile() || manifest.toPath().equals(file)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if (name.endsWith(TEMPORARY_SUFFIX)) {
+                        LOG.debug("Removing incomplete cached file {}", file);
+                        Files.deleteIfExists(file);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    files.put(relativeName(file.toFile()), attrs.lastModifiedTime().toMillis());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                    LOG.warn("Unable to restore cached file {}. Ignoring", file, exc);
+                    return FileVisitResult.CONTINUE;
                 }
+            });
+        } catch (final IOException e) {
+            LOG.warn("Unable to restore cache from {}. Starting with empty cache", storageDirectory, e);
+            files.clear();
+        }
+        return files;
+    }
+
+    private String relativeName(final File file) {
+        return storageDirectory.toPath().relativize(file.toPath()).toString();
+    }
 
-            } else {
-                map.put(new Date(0L), sorted);
+    private static Matcher matchFileName(final File file) {
+        return CACHED_FILE_PATTERN.matcher(com.google.common.io.Files.getNameWithoutExtension(file.getName()));
+    }
+
+    private void appendManifest(final String record) {
+        try (Writer writer = Files.newBufferedWriter(manifest.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(record);
+            writer.write('\n');
+            manifestRecords++;
+        } catch (final IOException e) {
+            LOG.warn("Failed to update cache manifest {}, cache will be rebuilt on restart", manifest, e);
+            manifest.delete();
+        }
+    }
+
+    /**
+     * Rewrite the manifest so it contains only records of currently cached sources. The manifest is replaced
+     * atomically, so it remains valid if this process is interrupted.
+     */
+    private void compactManifest() {
+        final File temporary = new File(storageDirectory, MANIFEST_FILE + TEMPORARY_SUFFIX);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.UTF_8)) {
+                for (final ConcurrentNavigableMap<String, CachedSource<T>> revisions : index.values()) {
+                    for (final CachedSource<T> cached : revisions.values()) {
+                        writer.write(ADDED + ' ' + cached.hash + ' ' + relativeName(cached.file) + '\n');
+                    }
+                }
             }
+            Files.move(temporary.toPath(), manifest.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            manifestRecords = size;
+        } catch (final IOException e) {
+            LOG.warn("Failed to write cache manifest {}, cache will be rebuilt on restart", manifest, e);
+            temporary.delete();
+            manifest.delete();
+        }
+    }
+
+    private static boolean linkFile(final File file, final File existing) {
+        try {
+            Files.deleteIfExists(file.toPath());
+            Files.createLink(file.toPath(), existing.toPath());
+            return true;
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOG.debug("Failed to link {} to {}, storing a copy", file, existing, e);
+            return false;
         }
-        file = map.lastEntry().getValue();
+    }
 
-        return file;
+    private static String hashFile(final File file) throws IOException {
+        return com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString();
+    }
+
+    private static String revisionOf(final SourceIdentifier identifier) {
+        final String rev = identifier.getRevision();
+        return Strings.isNullOrEmpty(rev) || SourceIdentifier.NOT_PRESENT_FORMATTED_REVISION.equals(rev) ? "" : rev;
+    }
+
+    private static String fileName(final String moduleName, final String revision) {
+        return revision.isEmpty() ? moduleName + ".yang" : moduleName + '@' + revision + ".yang";
     }
 
     private void storeSource(final File file, final T schemaRepresentation) {
         STORAGE_ADAPTERS.get(representation).store(file, schemaRepresentation);
     }
 
+    private static final class CachedSource<T extends SchemaSourceRepresentation> {
+        final String moduleName;
+        final String revision;
+        final File file;
+        final String hash;
+        final SchemaSourceRegistration<T> registration;
+
+        // Updated by readers without synchronization, hence eviction order is approximate
+        volatile long lastAccess = System.nanoTime();
+
+        CachedSource(final String moduleName, final String revision, final File file, final String hash,
+                final SchemaSourceRegistration<T> registration) {
+            this.moduleName = moduleName;
+            this.revision = revision;
+            this.file = file;
+            this.hash = hash;
+            this.registration = registration;
+        }
+    }
+
     private static abstract class StorageAdapter<T extends SchemaSourceRepresentation> {
 
         private final Class<T> supportedType;
@@ -266,44 +650,4 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             };
         }
     }
-
-    private static final class CachedModulesFileVisitor extends SimpleFileVisitor<Path> {
-        private final List<SourceIdentifier> cachedSchemas = Lists.newArrayList();
-
-        @Override
-        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
-            final FileVisitResult fileVisitResult = super.visitFile(file, attrs);
-            String fileName = file.toFile().getName();
-            fileName = com.google.common.io.Files.getNameWithoutExtension(fileName);
-
-            final Optional<SourceIdentifier> si = getSourceIdentifier(fileName);
-            if (si.isPresent()) {
-                LOG.trace("Restoring cached file {} as {}", file, si.get());
-                cachedSchemas.add(si.get());
-            } else {
-                LOG.debug("Skipping cached file {}, cannot restore source identifier from filename: {}, does not match {}", file, fileName, CACHED_FILE_PATTERN);
-            }
-            return fileVisitResult;
-        }
-
-        private static Optional<SourceIdentifier> getSourceIdentifier(final String fileName) {
-            final Matcher matcher = CACHED_FILE_PATTERN.matcher(fileName);
-            if (matcher.matches()) {
-                final String moduleName = matcher.group("moduleName");
-                final String revision = matcher.group("revision");
-                return Optional.of(RevisionSourceIdentifier.create(moduleName, Optional.fromNullable(revision)));
-            }
-            return Optional.absent();
-        }
-
-        @Override
-        public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
-            LOG.warn("Unable to restore cached file {}. Ignoring", file, exc);
-            return FileVisitResult.CONTINUE;
-        }
-
-        public List<SourceIdentifier> getCachedSchemas() {
-            return cachedSchemas;
-        }
-    }
 }
@@ -10,31 +10,58 @@ package org.opendaylight.yangtools.yang.model.repo.util;
 import com.google.common.annotations.Beta;
 import com.google.common.base.FinalizablePhantomReference;
 import com.google.common.base.FinalizableReferenceQueue;
+import com.google.common.cache.AbstractCache.SimpleStatsCounter;
+import com.google.common.cache.AbstractCache.StatsCounter;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Costs;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 
+/**
+ * Cache holding schema sources in memory. Sources are registered with the consumer while they are cached and are
+ * unregistered once they are evicted, hence when this cache is used together with a {@link FilesystemSchemaSourceCache},
+ * requests for evicted sources are served from disk before falling back to original providers, and the sources are
+ * cached again once they are encountered.
+ *
+ * <p>
+ * Caches can be bounded by the number of sources or by their weight, such as their text size. Weight-based bounds
+ * prevent a few large sources from displacing many small ones. Hits, misses and evictions are recorded in
+ * {@link #getStats()}. A miss followed by the source being offered again is recorded as a load, whose time covers
+ * acquiring the source from other providers.
+ *
+ * @param <T> Cached schema source type.
+ */
 @Beta
 public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> implements AutoCloseable {
-    private final List<FinalizablePhantomReference<T>> regs = Collections.synchronizedList(new ArrayList<>());
+    private static final int MAX_PENDING_LOADS = 4096;
+
+    private final ConcurrentMap<SourceIdentifier, FinalizablePhantomReference<T>> regs = new ConcurrentHashMap<>();
     private final FinalizableReferenceQueue queue = new FinalizableReferenceQueue();
+    private final StatsCounter stats = new SimpleStatsCounter();
+    private final Cache<SourceIdentifier, Long> pendingLoads = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PENDING_LOADS).build();
     private final Cache<SourceIdentifier, T> cache;
 
-    protected InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation, final CacheBuilder<Object, Object> builder) {
+    protected InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final CacheBuilder<Object, Object> builder) {
         super(consumer, representation, Costs.IMMEDIATE);
-        cache = builder.build();
+        cache = builder.removalListener(this::sourceRemoved).build();
     }
 
     public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createSoftCache(final SchemaSourceRegistry consumer, final Class<R> representation) {
@@ -47,43 +74,127 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
                 .expireAfterAccess(lifetime, units));
     }
 
+    /**
+     * Create a cache bounded by the total weight of cached sources. Once the bound is exceeded, least recently used
+     * sources are evicted.
+     *
+     * @param consumer Registry with which cached sources are registered
+     * @param representation Cached representation
+     * @param maximumWeight Maximum total weight of cached sources
+     * @param weigher Weigher assigning weight to sources, see {@link #textSizeWeigher()}
+     * @return A new cache
+     * @throws IllegalArgumentException if maximumWeight is negative
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createWeightedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumWeight,
+            final Weigher<? super SourceIdentifier, ? super R> weigher) {
+        return new InMemorySchemaSourceCache<>(consumer, representation, CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((key, value) -> weigher.weigh((SourceIdentifier) key, representation.cast(value))));
+    }
+
+    /**
+     * Return a weigher which weighs {@link YangTextSchemaSource}s by their size in bytes. Sizes which are not known
+     * upfront are determined by reading the source.
+     *
+     * @return A weigher
+     */
+    public static Weigher<SourceIdentifier, YangTextSchemaSource> textSizeWeigher() {
+        return TextSizeWeigher.INSTANCE;
+    }
+
+    /**
+     * Return a snapshot of this cache's statistics.
+     *
+     * @return Statistics snapshot
+     */
+    public CacheStats getStats() {
+        return stats.snapshot();
+    }
+
     @Override
     public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
         final T present = cache.getIfPresent(sourceIdentifier);
         if (present != null) {
+            stats.recordHits(1);
             return Futures.immediateCheckedFuture(present);
         }
 
+        stats.recordMisses(1);
+        pendingLoads.put(sourceIdentifier, System.nanoTime());
         return Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("Source not found", sourceIdentifier));
     }
 
     @Override
     protected void offer(final T source) {
-        final T present = cache.getIfPresent(source.getIdentifier());
-        if (present == null) {
-            cache.put(source.getIdentifier(), source);
+        final SourceIdentifier sourceId = source.getIdentifier();
+        if (cache.asMap().putIfAbsent(sourceId, source) == null) {
+            final Long missed = pendingLoads.getIfPresent(sourceId);
+            if (missed != null) {
+                pendingLoads.invalidate(sourceId);
+                stats.recordLoadSuccess(System.nanoTime() - missed);
+            }
 
-            final SchemaSourceRegistration<T> reg = register(source.getIdentifier());
+            final SchemaSourceRegistration<T> reg = register(sourceId);
             final FinalizablePhantomReference<T> ref = new FinalizablePhantomReference<T>(source, queue) {
                 @Override
                 public void finalizeReferent() {
                     reg.close();
-                    regs.remove(this);
+                    regs.remove(sourceId, this);
                 }
             };
 
-            regs.add(ref);
+            final FinalizablePhantomReference<T> prev = regs.put(sourceId, ref);
+            if (prev != null) {
+                // Previous registration has not been cleaned up yet, the new one has already taken over
+                prev.finalizeReferent();
+            }
+
+            // The source may have been evicted while we were registering it. Unlike reads, this check does not count
+            // as an access, hence it does not affect eviction order or expiry.
+            if (!cache.asMap().containsKey(sourceId)) {
+                ref.finalizeReferent();
+            }
+        }
+    }
+
+    private void sourceRemoved(final RemovalNotification<Object, Object> notification) {
+        if (notification.wasEvicted()) {
+            stats.recordEviction();
+        }
+
+        final FinalizablePhantomReference<T> ref = regs.remove(notification.getKey());
+        if (ref != null) {
+            ref.finalizeReferent();
         }
     }
 
     @Override
     public void close() {
-        while (!regs.isEmpty()) {
-            final FinalizablePhantomReference<?> ref = regs.get(0);
+        final Iterator<FinalizablePhantomReference<T>> it = regs.values().iterator();
+        while (it.hasNext()) {
+            final FinalizablePhantomReference<T> ref = it.next();
+            it.remove();
             ref.finalizeReferent();
         }
 
         cache.invalidateAll();
         queue.close();
     }
+
+    private static final class TextSizeWeigher implements Weigher<SourceIdentifier, YangTextSchemaSource> {
+        static final TextSizeWeigher INSTANCE = new TextSizeWeigher();
+
+        @Override
+        public int weigh(final SourceIdentifier key, final YangTextSchemaSource value) {
+            final long size;
+            try {
+                size = value.size();
+            } catch (IOException e) {
+                // The source cannot be read, hence it does not hold onto its text
+                return 0;
+            }
+            return (int) Math.min(size, Integer.MAX_VALUE);
+        }
+    }
 }
@@ -13,9 +13,12 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.either;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -145,18 +148,17 @@ public class FilesystemSchemaSourceCacheTest {
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithEmptyDir() {
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier, this.storageDir);
+    public void getSourceEmptyRevWithEmptyDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
-                YangTextSchemaSource.class, sourceIdToFile);
+                YangTextSchemaSource.class, new File(this.storageDir, "test.yang"));
         Assert.assertNotNull(cache);
-        final List<File> storedFiles = Arrays.asList(sourceIdToFile.listFiles());
-        assertEquals(0, storedFiles.size());
+        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
+        assertFalse(isAvailable(cache.getSource(sourceIdentifier)));
+        assertEquals(0, new File(this.storageDir, "test.yang").listFiles().length);
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithOneItemInDir() {
+    public void getSourceEmptyRevWithOneItemInDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
                 YangTextSchemaSource.class, this.storageDir);
         final String content = "content1";
@@ -164,28 +166,137 @@ public class FilesystemSchemaSourceCacheTest {
         cache.offer(source);
 
         final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier,
-                this.storageDir);
-        Assert.assertNotNull(sourceIdToFile);
-        final List<File> storedFiles = Arrays.asList(this.storageDir.listFiles());
+        assertEquals(content, readSource(cache, sourceIdentifier));
+        final List<File> storedFiles = getFilesFromCache();
         assertEquals(1, storedFiles.size());
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithMoreItemsInDir() {
+    public void getSourceEmptyRevWithMoreItemsInDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
                 YangTextSchemaSource.class, this.storageDir);
-        final String content = "content1";
-        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", content);
-        final YangTextSchemaSource source2 = new TestingYangSource("test", "2013-12-12", content);
-        cache.offer(source);
+        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", "content1");
+        final YangTextSchemaSource source2 = new TestingYangSource("test", "2013-12-12", "content2");
+        final YangTextSchemaSource source3 = new TestingYangSource("test", null, "content3");
         cache.offer(source2);
+        cache.offer(source);
+        cache.offer(source3);
 
         final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier, this.storageDir);
-        Assert.assertNotNull(sourceIdToFile);
-        final List<File> storedFiles = Arrays.asList(this.storageDir.listFiles());
-        assertEquals(2, storedFiles.size());
+        assertEquals("content2", readSource(cache, sourceIdentifier));
+        final List<File> storedFiles = getFilesFromCache();
+        assertEquals(3, storedFiles.size());
+    }
+
+    @Test
+    public void testRestoreFromManifest() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+        cache.offer(new TestingYangSource("test2", null, "content2"));
+        assertTrue(new File(this.storageDir, FilesystemSchemaSourceCache.MANIFEST_FILE).isFile());
+
+        // The manifest is reconciled with files added and deleted while the cache is not running, including files
+        // in subdirectories
+        Files.write("content3", new File(this.storageDir, "test3.yang"), StandardCharsets.UTF_8);
+        final File subdirectory = new File(this.storageDir, "sub");
+        assertTrue(subdirectory.mkdir());
+        Files.write("content4", new File(subdirectory, "test4@2013-12-12.yang"), StandardCharsets.UTF_8);
+        assertTrue(new File(this.storageDir, "test2.yang").delete());
+
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        assertEquals("content1", readSource(restored, RevisionSourceIdentifier.create("test", "2012-12-12")));
+        assertFalse(isAvailable(restored.getSource(RevisionSourceIdentifier.create("test2"))));
+        assertEquals("content3", readSource(restored, RevisionSourceIdentifier.create("test3")));
+        assertEquals("content4", readSource(restored, RevisionSourceIdentifier.create("test4", "2013-12-12")));
+        verify(this.registry, times(5)).registerSchemaSource(any(SchemaSourceProvider.class),
+            any(PotentialSchemaSource.class));
+
+        // The reconciled manifest is used on next restore
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restoredAgain = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        assertFalse(isAvailable(restoredAgain.getSource(RevisionSourceIdentifier.create("test2"))));
+        assertEquals("content4", readSource(restoredAgain, RevisionSourceIdentifier.create("test4", "2013-12-12")));
+        verify(this.registry, times(8)).registerSchemaSource(any(SchemaSourceProvider.class),
+            any(PotentialSchemaSource.class));
+    }
+
+    @Test
+    public void testRestoreDuplicateSource() throws Exception {
+        Files.write("content1", new File(this.storageDir, "test@2012-12-12.yang"), StandardCharsets.UTF_8);
+        final File subdirectory = new File(this.storageDir, "sub");
+        assertTrue(subdirectory.mkdir());
+        Files.write("content2", new File(subdirectory, "test@2012-12-12.yang"), StandardCharsets.UTF_8);
+
+        // Only one of the files is registered and it does not count twice towards the maximum size
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir, 1);
+        assertTrue(isAvailable(restored.getSource(RevisionSourceIdentifier.create("test", "2012-12-12"))));
+        verify(this.registry).registerSchemaSource(any(SchemaSourceProvider.class), any(PotentialSchemaSource.class));
+        verify(this.registration, never()).close();
+    }
+
+    @Test
+    public void testFilesChangedWhileRunning() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+
+        // A file placed into the directory is found on disk when it is not in the index
+        Files.write("content2", new File(this.storageDir, "test@2013-12-12.yang"), StandardCharsets.UTF_8);
+        assertEquals("content2", readSource(cache, RevisionSourceIdentifier.create("test", "2013-12-12")));
+        Files.write("content3", new File(this.storageDir, "test2@2013-12-12.yang"), StandardCharsets.UTF_8);
+        assertEquals("content3", readSource(cache, RevisionSourceIdentifier.create("test2")));
+        verify(this.registry, times(3)).registerSchemaSource(any(SchemaSourceProvider.class),
+            any(PotentialSchemaSource.class));
+
+        // A deleted file is removed from the index
+        assertTrue(new File(this.storageDir, "test@2012-12-12.yang").delete());
+        assertFalse(isAvailable(cache.getSource(RevisionSourceIdentifier.create("test", "2012-12-12"))));
+        verify(this.registration).close();
+        assertEquals("content2", readSource(cache, RevisionSourceIdentifier.create("test")));
+    }
+
+    @Test
+    public void testCacheIdenticalContent() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content1"));
+
+        final File first = new File(this.storageDir, "test@2012-12-12.yang");
+        final File second = new File(this.storageDir, "test@2013-12-12.yang");
+        assertEquals("content1", Files.toString(first, StandardCharsets.UTF_8));
+        assertEquals("content1", Files.toString(second, StandardCharsets.UTF_8));
+        // Identical content is stored only once
+        assertTrue(java.nio.file.Files.isSameFile(first.toPath(), second.toPath()));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir, 2);
+        final SourceIdentifier first = RevisionSourceIdentifier.create("first");
+        final SourceIdentifier second = RevisionSourceIdentifier.create("second");
+        final SourceIdentifier third = RevisionSourceIdentifier.create("third");
+        cache.offer(new TestingYangSource("first", null, "content1"));
+        cache.offer(new TestingYangSource("second", null, "content2"));
+        Thread.sleep(1);
+        cache.getSource(first);
+        cache.offer(new TestingYangSource("third", null, "content3"));
+
+        assertTrue(isAvailable(cache.getSource(first)));
+        assertFalse(isAvailable(cache.getSource(second)));
+        assertTrue(isAvailable(cache.getSource(third)));
+        assertEquals(2, getFilesFromCache().size());
+        verify(this.registration).close();
+
+        // Eviction is persisted
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir, 2);
+        assertFalse(isAvailable(restored.getSource(second)));
+        assertTrue(isAvailable(restored.getSource(third)));
     }
 
     @Test
@@ -221,7 +332,23 @@ public class FilesystemSchemaSourceCacheTest {
     }
 
     private List<File> getFilesFromCache() {
-        return Arrays.asList(this.storageDir.listFiles());
+        return Arrays.asList(this.storageDir.listFiles(
+            (dir, name) -> !FilesystemSchemaSourceCache.MANIFEST_FILE.equals(name)));
+    }
+
+    private static boolean isAvailable(final CheckedFuture<? extends YangTextSchemaSource, SchemaSourceException> future)
+            throws InterruptedException {
+        try {
+            future.get();
+            return true;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private static String readSource(final FilesystemSchemaSourceCache<YangTextSchemaSource> cache,
+            final SourceIdentifier sourceIdentifier) throws Exception {
+        return cache.getSource(sourceIdentifier).checkedGet().asCharSource(StandardCharsets.UTF_8).read();
     }
 
     private class TestingYangSource extends YangTextSchemaSource {
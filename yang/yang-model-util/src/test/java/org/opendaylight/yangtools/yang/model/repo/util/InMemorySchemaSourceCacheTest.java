@@ -9,9 +9,11 @@ package org.opendaylight.yangtools.yang.model.repo.util;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
+import com.google.common.cache.CacheStats;
 import com.google.common.util.concurrent.CheckedFuture;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -127,6 +129,64 @@ public class InMemorySchemaSourceCacheTest {
         inMemorySchemaSourceCache2.close();
     }
 
+    @Test
+    public void inMemorySchemaSourceCacheWeightedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangTextSchemaSource> inMemorySchemaSourceCache = InMemorySchemaSourceCache
+                .createWeightedCache(this.registry, YangTextSchemaSource.class, 12,
+                    InMemorySchemaSourceCache.textSizeWeigher());
+
+        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", "content1");
+        final YangTextSchemaSource source2 = new TestingYangSource("test2", "2012-12-12", "content2");
+        final YangTextSchemaSource source3 = new TestingYangSource("test3", "2012-12-12", "tiny");
+        inMemorySchemaSourceCache.offer(source);
+        inMemorySchemaSourceCache.offer(source2);
+
+        // Second source has pushed out the first one
+        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "2012-12-12");
+        final SourceIdentifier sourceIdentifier2 = RevisionSourceIdentifier.create("test2", "2012-12-12");
+        Assert.assertFalse(isAvailable(inMemorySchemaSourceCache.getSource(sourceIdentifier)));
+        Assert.assertTrue(isAvailable(inMemorySchemaSourceCache.getSource(sourceIdentifier2)));
+        verify(this.registration).close();
+
+        // A small source does not need to displace anything
+        inMemorySchemaSourceCache.offer(source3);
+        Assert.assertTrue(isAvailable(inMemorySchemaSourceCache.getSource(sourceIdentifier2)));
+
+        final CacheStats stats = inMemorySchemaSourceCache.getStats();
+        Assert.assertEquals(1, stats.evictionCount());
+        Assert.assertEquals(2, stats.hitCount());
+        Assert.assertEquals(1, stats.missCount());
+        inMemorySchemaSourceCache.close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheLoadStatsTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> inMemorySchemaSourceCache = InMemorySchemaSourceCache
+                .createSoftCache(this.registry, InMemorySchemaSourceCacheTest.representation);
+        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "2012-12-12");
+        Assert.assertFalse(isAvailable(inMemorySchemaSourceCache.getSource(sourceIdentifier)));
+
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test", "2012-12-12", "content"));
+        Assert.assertTrue(isAvailable(inMemorySchemaSourceCache.getSource(sourceIdentifier)));
+
+        final CacheStats stats = inMemorySchemaSourceCache.getStats();
+        Assert.assertEquals(1, stats.missCount());
+        Assert.assertEquals(1, stats.hitCount());
+        Assert.assertEquals(1, stats.loadSuccessCount());
+        inMemorySchemaSourceCache.close();
+        verify(this.registration).close();
+    }
+
+    private static boolean isAvailable(final CheckedFuture<?, SchemaSourceException> future)
+            throws InterruptedException {
+        try {
+            future.get();
+            return true;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
     private class TestingYangSource extends YangTextSchemaSource {
 
         private final String content;
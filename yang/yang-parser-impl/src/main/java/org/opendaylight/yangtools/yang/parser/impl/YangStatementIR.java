@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.impl;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Verify;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.Immutable;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.ArgumentContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.KeywordContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+
+/**
+ * Compact, array-based representation of a YANG source's statements. Statements are stored in document order, each
+ * statement being followed by its substatements, so that a statement's subtree occupies a contiguous range of indices.
+ * For each statement we retain only its keyword, its raw argument tokens and its position in the source text, which
+ * is all {@link YangStatementParserListenerImpl} needs to emit the statement in every reactor phase.
+ *
+ * <p>
+ * Once an instance has been created, the ANTLR parse tree it has been created from can be discarded, as it is
+ * typically several times larger than the source text.
+ */
+@Beta
+@Immutable
+public final class YangStatementIR {
+    private final String[] keywords;
+    private final String[][] arguments;
+    private final int[] lines;
+    private final int[] columns;
+    // Index one past the last substatement of each statement
+    private final int[] ends;
+
+    private YangStatementIR(final int size) {
+        this(new String[size], new String[size][], new int[size], new int[size], new int[size]);
+    }
+
+    YangStatementIR(final String[] keywords, final String[][] arguments, final int[] lines, final int[] columns,
+            final int[] ends) {
+        this.keywords = keywords;
+        this.arguments = arguments;
+        this.lines = lines;
+        this.columns = columns;
+        this.ends = ends;
+    }
+
+    /**
+     * Create an IR from an ANTLR parse tree.
+     *
+     * @param root Root statement
+     * @return An IR
+     */
+    public static YangStatementIR create(final StatementContext root) {
+        final YangStatementIR ret = new YangStatementIR(countStatements(root));
+        final int size = ret.fill(root, 0, new HashMap<>());
+        Verify.verify(size == ret.size(), "Filled %s statements, expected %s", size, ret.size());
+        return ret;
+    }
+
+    /**
+     * Return the number of statements.
+     *
+     * @return Number of statements
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Return the keyword of a statement, including its prefix, if any.
+     *
+     * @param index Statement index
+     * @return Statement keyword
+     */
+    public String keyword(final int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Return the raw argument tokens of a statement.
+     *
+     * @param index Statement index
+     * @return Argument tokens, null if the statement does not have an argument
+     */
+    public String[] argument(final int index) {
+        return arguments[index];
+    }
+
+    /**
+     * Return the line at which a statement starts.
+     *
+     * @param index Statement index
+     * @return Line number, starting at 1
+     */
+    public int line(final int index) {
+        return lines[index];
+    }
+
+    /**
+     * Return the column at which a statement starts.
+     *
+     * @param index Statement index
+     * @return Column number, starting at 0
+     */
+    public int column(final int index) {
+        return columns[index];
+    }
+
+    /**
+     * Return the index following the last substatement of a statement. Direct substatements of a statement at
+     * {@code index} are found by starting at {@code index + 1} and continuing at {@code end()} of each substatement.
+     *
+     * @param index Statement index
+     * @return Index one past the statement's subtree
+     */
+    public int end(final int index) {
+        return ends[index];
+    }
+
+    private static int countStatements(final StatementContext ctx) {
+        int ret = 1;
+        for (StatementContext child : ctx.statement()) {
+            ret += countStatements(child);
+        }
+        return ret;
+    }
+
+    private int fill(final StatementContext ctx, final int index, final Map<String, String> strings) {
+        final Token start = ctx.getStart();
+        keywords[index] = dedup(strings, Verify.verifyNotNull(ctx.getChild(KeywordContext.class, 0)).getText());
+        arguments[index] = argumentTokens(ctx.getChild(ArgumentContext.class, 0), strings);
+        lines[index] = start.getLine();
+        columns[index] = start.getCharPositionInLine();
+
+        int next = index + 1;
+        for (StatementContext child : ctx.statement()) {
+            next = fill(child, next, strings);
+        }
+        ends[index] = next;
+        return next;
+    }
+
+    private static String[] argumentTokens(final ArgumentContext ctx, final Map<String, String> strings) {
+        if (ctx == null) {
+            return null;
+        }
+
+        final List<TerminalNode> tokens = ctx.STRING();
+        if (tokens.isEmpty()) {
+            return new String[] { dedup(strings, ctx.IDENTIFIER().getText()) };
+        }
+
+        final String[] ret = new String[tokens.size()];
+        for (int i = 0; i < ret.length; ++i) {
+            final ParseTree token = tokens.get(i);
+            ret[i] = dedup(strings, token.getText());
+        }
+        return ret;
+    }
+
+    private static String dedup(final Map<String, String> strings, final String str) {
+        final String existing = strings.putIfAbsent(str, str);
+        return existing != null ? existing : str;
+    }
+}
@@ -78,26 +78,56 @@ public class YangStatementParserListenerImpl extends YangStatementParserBaseList
         counters.push(new Counter());
     }
 
+    /**
+     * Emit statements stored in an IR, exactly as if the parse tree it was created from were walked with this
+     * listener.
+     *
+     * @param ir Statement IR
+     */
+    public void walk(final YangStatementIR ir) {
+        if (ir.size() != 0) {
+            walk(ir, 0);
+        }
+    }
+
+    private void walk(final YangStatementIR ir, final int index) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, ir.line(index),
+            ir.column(index));
+        final String keywordTxt = ir.keyword(index);
+        final int childId = counters.peek().getAndIncrement();
+        counters.push(new Counter());
+
+        final QName validStatementDefinition = startStatement(keywordTxt, ref);
+        if (validStatementDefinition != null) {
+            final String[] argumentTokens = ir.argument(index);
+            final String argument = argumentTokens != null
+                    ? Utils.stringFromArgumentTokens(argumentTokens, yangVersion, ref) : null;
+            writer.startStatement(childId, validStatementDefinition, argument, ref);
+        }
+
+        final int end = ir.end(index);
+        for (int child = index + 1; child < end; child = ir.end(child)) {
+            walk(ir, child);
+        }
+
+        endStatement(keywordTxt, ref);
+    }
+
     @Override
     public void enterStatement(final StatementContext ctx) {
         final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, ctx.getStart().getLine(),
                 ctx.getStart().getCharPositionInLine());
         final String keywordTxt = Verify.verifyNotNull(ctx.getChild(KeywordContext.class, 0)).getText();
-        final QName validStatementDefinition = getValidStatementDefinition(prefixes, stmtDef, keywordTxt);
-
         final int childId = counters.peek().getAndIncrement();
         counters.push(new Counter());
-        if (stmtDef == null || validStatementDefinition == null || !toBeSkipped.isEmpty()) {
-            SourceException.throwIf(writer.getPhase() == ModelProcessingPhase.FULL_DECLARATION, ref,
-                    "%s is not a YANG statement or use of extension.", keywordTxt);
-            toBeSkipped.add(keywordTxt);
-            return;
-        }
 
-        final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
-        final String argument = argumentCtx != null ? Utils.stringFromStringContext(argumentCtx, yangVersion, ref)
-                : null;
-        writer.startStatement(childId, validStatementDefinition, argument, ref);
+        final QName validStatementDefinition = startStatement(keywordTxt, ref);
+        if (validStatementDefinition != null) {
+            final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
+            final String argument = argumentCtx != null
+                    ? Utils.stringFromStringContext(argumentCtx, yangVersion, ref) : null;
+            writer.startStatement(childId, validStatementDefinition, argument, ref);
+        }
     }
 
     @Override
@@ -106,7 +136,26 @@ public class YangStatementParserListenerImpl extends YangStatementParserBaseList
             sourceName, ctx.getStart().getLine(), ctx.getStart().getCharPositionInLine());
 
         final KeywordContext keyword = ctx.getChild(KeywordContext.class, 0);
-        final String statementName = keyword.getText();
+        endStatement(keyword.getText(), ref);
+    }
+
+    /**
+     * Resolve the definition of a statement which is being entered, checking whether it should be emitted.
+     *
+     * @return Statement definition, or null if the statement should be skipped
+     */
+    private QName startStatement(final String keywordTxt, final StatementSourceReference ref) {
+        final QName validStatementDefinition = getValidStatementDefinition(prefixes, stmtDef, keywordTxt);
+        if (stmtDef == null || validStatementDefinition == null || !toBeSkipped.isEmpty()) {
+            SourceException.throwIf(writer.getPhase() == ModelProcessingPhase.FULL_DECLARATION, ref,
+                    "%s is not a YANG statement or use of extension.", keywordTxt);
+            toBeSkipped.add(keywordTxt);
+            return null;
+        }
+        return validStatementDefinition;
+    }
+
+    private void endStatement(final String statementName, final StatementSourceReference ref) {
         if (stmtDef != null && getValidStatementDefinition(prefixes, stmtDef, statementName) != null
                 && toBeSkipped.isEmpty()) {
             writer.endStatement(ref);
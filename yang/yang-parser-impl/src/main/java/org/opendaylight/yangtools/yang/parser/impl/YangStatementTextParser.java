@@ -0,0 +1,593 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.impl;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableSet;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+
+/**
+ * Hand-written parser of YANG text, producing a {@link YangStatementIR} without going through ANTLR. It operates
+ * directly on the characters of a {@link CharBuffer} and follows the tokenization rules of the ANTLR grammar in
+ * {@code src/main/antlr}, including its longest-match resolution, so that both engines produce the same statements.
+ *
+ * <p>
+ * Keywords, identifiers and short argument strings are interned while scanning: a string is instantiated only when
+ * its characters have not been seen before, and common YANG keywords are shared across all sources.
+ */
+@Beta
+public final class YangStatementTextParser {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Strings longer than this are not worth interning, as they are typically descriptions
+    private static final int MAX_INTERN_LENGTH = 64;
+
+    private static final StringTable KEYWORDS = new StringTable(256);
+
+    // Statements which may appear in a module or submodule before its body statements, see RFC7950 section 7.1.1
+    private static final Set<String> HEADER_KEYWORDS = ImmutableSet.of("yang-version", "namespace", "prefix",
+        "belongs-to", "import", "include", "organization", "contact", "description", "reference", "revision");
+
+    static {
+        for (String str : new String[] {
+            "action", "add", "anydata", "anyxml", "argument", "augment", "base", "belongs-to", "binary", "bit",
+            "bits", "boolean", "case", "choice", "config", "contact", "container", "current", "decimal64",
+            "default", "delete", "deprecated", "description", "deviate", "deviation", "empty", "enum",
+            "enumeration", "error-app-tag", "error-message", "extension", "false", "feature", "fraction-digits",
+            "grouping", "identity", "identityref", "if-feature", "import", "include", "input", "instance-identifier",
+            "int16", "int32", "int64", "int8", "invert-match", "key", "leaf", "leaf-list", "leafref", "length",
+            "list", "mandatory", "max", "max-elements", "min", "min-elements", "modifier", "module", "must",
+            "namespace", "not-supported", "notification", "obsolete", "ordered-by", "organization", "output", "path",
+            "pattern", "position", "prefix", "presence", "range", "reference", "refine", "replace",
+            "require-instance", "revision", "revision-date", "rpc", "status", "string", "submodule", "system",
+            "true", "type", "typedef", "uint16", "uint32", "uint64", "uint8", "unbounded", "union", "unique", "units",
+            "user", "uses", "value", "when", "yang-version", "yin-element",
+        }) {
+            KEYWORDS.intern(str.toCharArray(), 0, str.length(), null);
+        }
+    }
+
+    private final StringTable strings = new StringTable(INITIAL_CAPACITY);
+    private final String sourceName;
+    private final char[] buf;
+    private final int limit;
+    private final boolean headerOnly;
+    // Set while skipping a body statement in header-only mode
+    private boolean skipping;
+
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+
+    // Position of the first separator token skipped by the last call to skipSeparators(), or -1
+    private int sepPos;
+    private int sepLine;
+    private int sepColumn;
+
+    private String[] keywords = new String[INITIAL_CAPACITY];
+    private String[][] arguments = new String[INITIAL_CAPACITY][];
+    private int[] lines = new int[INITIAL_CAPACITY];
+    private int[] columns = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private YangStatementTextParser(final char[] buf, final int offset, final int limit,
+            final String sourceName, final boolean headerOnly) {
+        this.buf = buf;
+        this.pos = offset;
+        this.lineStart = offset;
+        this.limit = limit;
+        this.sourceName = sourceName;
+        this.headerOnly = headerOnly;
+    }
+
+    /**
+     * Parse YANG text. As with the ANTLR grammar, only the first top-level statement is parsed and any content
+     * following it is ignored. The buffer's position is not modified and no reference to it is retained.
+     *
+     * @param text Text to parse
+     * @param sourceName Source name, used for error reporting
+     * @return Parsed statements
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangStatementIR parse(@Nonnull final CharBuffer text, @Nullable final String sourceName)
+            throws YangSyntaxErrorException {
+        return newParser(text, sourceName, false).parse();
+    }
+
+    /**
+     * Parse only the header of a YANG module or submodule, i.e. the root statement and its header, linkage, meta
+     * and revision statements, including their substatements. Extension statements are retained, too. Body
+     * statements are checked for syntax, but they are skipped without retaining any of their strings, hence this is
+     * much cheaper than {@link #parse(CharBuffer, String)}. The resulting IR is sufficient to determine the identity
+     * and dependencies of a source, but it cannot be used to build a model.
+     *
+     * <p>
+     * We do not stop at the first body statement, as models in the wild place linkage and extension statements after
+     * body statements, too.
+     *
+     * @param text Text to parse
+     * @param sourceName Source name, used for error reporting
+     * @return Parsed header statements
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangStatementIR parseHeader(@Nonnull final CharBuffer text, @Nullable final String sourceName)
+            throws YangSyntaxErrorException {
+        return newParser(text, sourceName, true).parse();
+    }
+
+    private static YangStatementTextParser newParser(final CharBuffer text, final String sourceName,
+            final boolean headerOnly) {
+        if (text.hasArray()) {
+            final int offset = text.arrayOffset() + text.position();
+            return new YangStatementTextParser(text.array(), offset, offset + text.remaining(), sourceName,
+                headerOnly);
+        }
+
+        final char[] chars = new char[text.remaining()];
+        text.duplicate().get(chars);
+        return new YangStatementTextParser(chars, 0, chars.length, sourceName, headerOnly);
+    }
+
+    private YangStatementIR parse() throws YangSyntaxErrorException {
+        // The root statement's leading separators are part of it, hence it starts at the first separator, if any
+        skipSeparators();
+        if (sepPos != -1) {
+            parseStatement(sepLine, sepColumn);
+        } else {
+            parseStatement(line, pos - lineStart);
+        }
+
+        return new YangStatementIR(Arrays.copyOf(keywords, size), Arrays.copyOf(arguments, size),
+            Arrays.copyOf(lines, size), Arrays.copyOf(columns, size), Arrays.copyOf(ends, size));
+    }
+
+    private void parseStatement(final int stmtLine, final int stmtColumn) throws YangSyntaxErrorException {
+        final int index = size++;
+        if (index == keywords.length) {
+            final int newCapacity = index * 2;
+            keywords = Arrays.copyOf(keywords, newCapacity);
+            arguments = Arrays.copyOf(arguments, newCapacity);
+            lines = Arrays.copyOf(lines, newCapacity);
+            columns = Arrays.copyOf(columns, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+        }
+        lines[index] = stmtLine;
+        columns[index] = stmtColumn;
+
+        // keyword : IDENTIFIER
+        if (pos == limit) {
+            throw syntaxError("keyword");
+        }
+        if (!isIdentifierStart(buf[pos]) || unquotedLength(pos) > identifierLength(pos)) {
+            // ANTLR reports this as a token it could delete to recover
+            throw syntaxError("extraneous input", "keyword");
+        }
+        final int keywordEnd = pos + identifierLength(pos);
+        keywords[index] = intern(pos, keywordEnd);
+        pos = keywordEnd;
+        skipSeparators();
+
+        // argument : STRING (SEP* PLUS SEP* STRING)* | IDENTIFIER
+        if (pos != limit && buf[pos] != ';' && buf[pos] != '{') {
+            arguments[index] = parseArgument();
+        }
+
+        // (SEMICOLON | LEFT_BRACE SEP* (statement)* SEP* RIGHT_BRACE SEP*)
+        if (pos == limit) {
+            throw syntaxError("';' or '{'");
+        }
+        switch (buf[pos]) {
+            case ';':
+                pos++;
+                break;
+            case '{':
+                pos++;
+                skipSeparators();
+                while (pos != limit && buf[pos] != '}') {
+                    if (index == 0 && headerOnly && isBodyStatement()) {
+                        skipStatement();
+                    } else {
+                        parseStatement(line, pos - lineStart);
+                    }
+                    skipSeparators();
+                }
+                if (pos == limit) {
+                    throw syntaxError("'}'");
+                }
+                pos++;
+                break;
+            default:
+                throw syntaxError("';' or '{'");
+        }
+
+        ends[index] = size;
+    }
+
+    private boolean isBodyStatement() {
+        if (!isIdentifierStart(buf[pos])) {
+            // Let parseStatement() report the error
+            return false;
+        }
+
+        final String keyword = intern(pos, pos + identifierLength(pos));
+        return keyword.indexOf(':') == -1 && !HEADER_KEYWORDS.contains(keyword);
+    }
+
+    /**
+     * Parse a statement without retaining it. Its strings are not instantiated and it is removed from the IR once
+     * it has been parsed.
+     */
+    private void skipStatement() throws YangSyntaxErrorException {
+        final int mark = size;
+        skipping = true;
+        parseStatement(line, pos - lineStart);
+        skipping = false;
+        Arrays.fill(keywords, mark, size, null);
+        Arrays.fill(arguments, mark, size, null);
+        size = mark;
+    }
+
+    private String[] parseArgument() throws YangSyntaxErrorException {
+        final char first = buf[pos];
+        if (first == '"' || first == '\'') {
+            return parseStrings(quotedEnd(pos));
+        }
+        if (!isUnquotedStart(first) && !isIdentifierStart(first)) {
+            throw syntaxError("argument");
+        }
+
+        final int identLength = isIdentifierStart(first) ? identifierLength(pos) : 0;
+        final int unquotedLength = unquotedLength(pos);
+        if (first == ':' && unquotedLength == 1) {
+            // A lone colon is lexed as COLON
+            throw syntaxError("argument");
+        }
+        if (identLength >= unquotedLength) {
+            // IDENTIFIER wins ties, as it is defined first. It cannot be concatenated.
+            final String ret = intern(pos, pos + identLength);
+            pos += identLength;
+            skipSeparators();
+            return new String[] { ret };
+        }
+        return parseStrings(pos + unquotedLength);
+    }
+
+    private String[] parseStrings(final int firstEnd) throws YangSyntaxErrorException {
+        final String first = internString(pos, firstEnd);
+        advanceTo(firstEnd);
+        skipSeparators();
+        if (pos == limit || buf[pos] != '+') {
+            return new String[] { first };
+        }
+
+        final List<String> ret = new ArrayList<>(2);
+        ret.add(first);
+        while (pos != limit && buf[pos] == '+') {
+            pos++;
+            skipSeparators();
+            ret.add(parseString());
+            skipSeparators();
+        }
+        return ret.toArray(new String[ret.size()]);
+    }
+
+    private String parseString() throws YangSyntaxErrorException {
+        if (pos == limit) {
+            throw syntaxError("string");
+        }
+
+        final char first = buf[pos];
+        final int end;
+        if (first == '"' || first == '\'') {
+            end = quotedEnd(pos);
+        } else if (isUnquotedStart(first)) {
+            final int length = unquotedLength(pos);
+            if (isIdentifierStart(first) && identifierLength(pos) >= length) {
+                // This would be lexed as an IDENTIFIER, which cannot be concatenated
+                throw syntaxError("string");
+            }
+            end = pos + length;
+        } else {
+            throw syntaxError("string");
+        }
+
+        final String ret = internString(pos, end);
+        advanceTo(end);
+        return ret;
+    }
+
+    /**
+     * Find the end of a quoted string. A single-quoted string cannot contain a single quote, hence it extends up to
+     * the first one. The grammar allows escape sequences inside double-quoted strings and the lexer picks the longest
+     * match, hence a double-quoted string extends up to the first quote which is not preceded by a backslash. If there
+     * is no such quote, it extends up to the last quote preceded by a backslash.
+     */
+    private int quotedEnd(final int start) throws YangSyntaxErrorException {
+        final char quote = buf[start];
+        int candidate = -1;
+        for (int i = start + 1; i < limit; ++i) {
+            if (buf[i] == quote) {
+                if (quote == '\'' || buf[i - 1] != '\\') {
+                    return i + 1;
+                }
+                candidate = i + 1;
+            }
+        }
+        if (candidate == -1) {
+            throw syntaxError("terminated string");
+        }
+        return candidate;
+    }
+
+    /**
+     * Skip separators and comments. Records the position of the first separator token, i.e. whitespace which is not
+     * part of a line comment, into {@link #sepPos}.
+     */
+    private void skipSeparators() throws YangSyntaxErrorException {
+        sepPos = -1;
+        while (pos < limit) {
+            final char ch = buf[pos];
+            if (isWhitespace(ch)) {
+                final int start = pos;
+                final int startLine = line;
+                final int startColumn = pos - lineStart;
+                skipWhitespace();
+                if (isLineComment(pos)) {
+                    // Leading whitespace is part of a line comment
+                    skipLineComment();
+                } else if (sepPos == -1) {
+                    sepPos = start;
+                    sepLine = startLine;
+                    sepColumn = startColumn;
+                }
+            } else if (isLineComment(pos)) {
+                skipLineComment();
+            } else if (ch == '/' && pos + 1 < limit && buf[pos + 1] == '*') {
+                skipBlockComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean isLineComment(final int offset) {
+        return offset + 1 < limit && buf[offset] == '/' && buf[offset + 1] == '/';
+    }
+
+    private void skipLineComment() {
+        pos += 2;
+        while (pos < limit && buf[pos] != '\n' && buf[pos] != '\r') {
+            pos++;
+        }
+        // Trailing whitespace is part of a line comment
+        skipWhitespace();
+    }
+
+    private void skipBlockComment() throws YangSyntaxErrorException {
+        for (int i = pos + 2; i + 1 < limit; ++i) {
+            if (buf[i] == '*' && buf[i + 1] == '/') {
+                advanceTo(i + 2);
+                return;
+            }
+        }
+        throw syntaxError("terminated comment");
+    }
+
+    private void skipWhitespace() {
+        while (pos < limit) {
+            final char ch = buf[pos];
+            if (ch == '\n') {
+                line++;
+                lineStart = pos + 1;
+            } else if (ch != ' ' && ch != '\t' && ch != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private void advanceTo(final int newPos) {
+        for (int i = pos; i < newPos; ++i) {
+            if (buf[i] == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        pos = newPos;
+    }
+
+    // IDENTIFIER : [a-zA-Z_/][a-zA-Z0-9_\-.:/]*
+    private int identifierLength(final int start) {
+        int i = start + 1;
+        while (i < limit && isIdentifierPart(buf[i])) {
+            i++;
+        }
+        return i - start;
+    }
+
+    // Unquoted alternative of STRING, which is used when it yields a longer token than IDENTIFIER
+    private int unquotedLength(final int start) {
+        if (!isUnquotedStart(buf[start])) {
+            return 0;
+        }
+
+        int i = start + 1;
+        while (i < limit) {
+            final char ch = buf[i];
+            if (isWhitespace(ch) || ch == ';' || ch == '{' || ch == '}') {
+                break;
+            }
+            i++;
+        }
+        return i - start;
+    }
+
+    private static boolean isWhitespace(final char ch) {
+        return ch == ' ' || ch == '\n' || ch == '\t' || ch == '\r';
+    }
+
+    private static boolean isIdentifierStart(final char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch == '_' || ch == '/';
+    }
+
+    private static boolean isIdentifierPart(final char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_' || ch == '-'
+                || ch == '.' || ch == ':' || ch == '/';
+    }
+
+    private static boolean isUnquotedStart(final char ch) {
+        switch (ch) {
+            case ' ':
+            case '\n':
+            case '\r':
+            case '\t':
+            case ';':
+            case '{':
+            case '}':
+            case '"':
+            case '\'':
+            case '/':
+            case '+':
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private String intern(final int start, final int end) {
+        if (skipping) {
+            return null;
+        }
+        return KEYWORDS.intern(buf, start, end, strings);
+    }
+
+    private String internString(final int start, final int end) {
+        if (skipping) {
+            return null;
+        }
+        return end - start > MAX_INTERN_LENGTH ? new String(buf, start, end - start) : intern(start, end);
+    }
+
+    private YangSyntaxErrorException syntaxError(final String expected) {
+        return syntaxError("mismatched input", expected);
+    }
+
+    private YangSyntaxErrorException syntaxError(final String problem, final String expected) {
+        final String found;
+        if (pos == limit) {
+            found = "<EOF>";
+        } else {
+            int end = pos + 1;
+            while (end < limit && end - pos < 20 && !isWhitespace(buf[end])) {
+                end++;
+            }
+            found = new String(buf, pos, end - pos);
+        }
+
+        final String module = size != 0 && arguments[0] != null && arguments[0].length == 1 ? arguments[0][0]
+                : sourceName;
+        return new YangSyntaxErrorException(module, line, pos - lineStart,
+            problem + " '" + found + "' expecting " + expected);
+    }
+
+    /**
+     * Open-addressing hash table of strings, which can be looked up by a range of characters.
+     */
+    private static final class StringTable {
+        private String[] table;
+        private int size;
+
+        StringTable(final int capacity) {
+            table = new String[capacity];
+        }
+
+        /**
+         * Look up the string made of specified characters, falling back to another table and adding it there if
+         * not found.
+         */
+        String intern(final char[] chars, final int start, final int end, final StringTable fallback) {
+            int hash = 0;
+            for (int i = start; i < end; ++i) {
+                hash = 31 * hash + chars[i];
+            }
+
+            final String existing = lookup(chars, start, end, hash);
+            if (existing != null) {
+                return existing;
+            }
+            if (fallback != null) {
+                return fallback.intern(chars, start, end, null);
+            }
+
+            final String str = new String(chars, start, end - start);
+            if (size * 2 >= table.length) {
+                resize();
+            }
+            insert(str, hash);
+            return str;
+        }
+
+        private String lookup(final char[] chars, final int start, final int end, final int hash) {
+            final int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = slot + 1 & mask) {
+                final String str = table[slot];
+                if (str == null) {
+                    return null;
+                }
+                if (str.hashCode() == hash && matches(str, chars, start, end)) {
+                    return str;
+                }
+            }
+        }
+
+        private static boolean matches(final String str, final char[] chars, final int start, final int end) {
+            if (str.length() != end - start) {
+                return false;
+            }
+            for (int i = start; i < end; ++i) {
+                if (str.charAt(i - start) != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void insert(final String str, final int hash) {
+            final int mask = table.length - 1;
+            int slot = spread(hash) & mask;
+            while (table[slot] != null) {
+                slot = slot + 1 & mask;
+            }
+            table[slot] = str;
+            size++;
+        }
+
+        private void resize() {
+            final String[] old = table;
+            table = new String[old.length * 2];
+            size = 0;
+            for (String str : old) {
+                if (str != null) {
+                    insert(str, str.hashCode());
+                }
+            }
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ hash >>> 16;
+        }
+    }
+}
@@ -10,8 +10,15 @@ package org.opendaylight.yangtools.yang.parser.impl.util;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -21,15 +28,18 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
 import org.opendaylight.yangtools.concepts.SemVer;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.YangVersion;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.ModuleImport;
 import org.opendaylight.yangtools.yang.model.api.YangStmtMapping;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementIR;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementTextParser;
 import org.opendaylight.yangtools.yang.parser.spi.source.DeclarationInTextSource;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementSourceReference;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.SupportedExtensionsMapping;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
-import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
 import org.opendaylight.yangtools.yang.parser.util.NamedInputStream;
 
 /**
@@ -217,8 +227,123 @@ public abstract class YangModelDependencyInfo {
      *             If input stream is not valid YANG stream
      */
     public static YangModelDependencyInfo fromInputStream(final InputStream yangStream) {
-        final StatementContext yangAST = new YangStatementSourceImpl(yangStream).getYangAST();
-        return parseAST(yangAST, yangStream instanceof NamedInputStream ? yangStream.toString() : null);
+        final String sourceName = yangStream instanceof NamedInputStream ? yangStream.toString() : null;
+        try {
+            return parseHeader(scanHeader(yangStream, sourceName), sourceName);
+        } catch (IOException | YangSyntaxErrorException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Extracts {@link YangModelDependencyInfo} from a YANG text source. Only the module or submodule header is
+     * retained while scanning the source, hence this is much cheaper than parsing it.
+     *
+     * @param source YANG text source
+     * @return {@link YangModelDependencyInfo}
+     * @throws IOException if the source cannot be read
+     * @throws YangSyntaxErrorException if the source is not syntactically valid
+     * @throws IllegalArgumentException if the source is not a module or a submodule
+     */
+    public static YangModelDependencyInfo forYangText(final YangTextSchemaSource source) throws IOException,
+            YangSyntaxErrorException {
+        final String sourceName = source.getIdentifier().toYangFilename();
+        try (InputStream stream = source.openStream()) {
+            return parseHeader(scanHeader(stream, sourceName), sourceName);
+        }
+    }
+
+    /**
+     * Extracts {@link YangModelDependencyInfo} from statements of a parsed YANG source.
+     *
+     * @param statements Parsed statements
+     * @param sourceName Source name, used only for error reporting
+     * @return {@link YangModelDependencyInfo}
+     * @throws IllegalArgumentException if the source is not a module or a submodule
+     */
+    public static YangModelDependencyInfo forStatements(final YangStatementIR statements, final String sourceName) {
+        return parseHeader(statements, sourceName);
+    }
+
+    private static YangStatementIR scanHeader(final InputStream stream, final String sourceName)
+            throws IOException, YangSyntaxErrorException {
+        final CharBuffer text = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(ByteBuffer.wrap(ByteStreams.toByteArray(stream)));
+        return YangStatementTextParser.parseHeader(text, sourceName);
+    }
+
+    private static YangModelDependencyInfo parseHeader(final YangStatementIR header, final String sourceName) {
+        final String keyword = header.keyword(0);
+        final boolean isModule = YangStmtMapping.MODULE.getStatementName().getLocalName().equals(keyword);
+        if (!isModule && !YangStmtMapping.SUBMODULE.getStatementName().getLocalName().equals(keyword)) {
+            throw new IllegalArgumentException("Root of parsed source must be either module or submodule");
+        }
+
+        final String name = argumentString(header, 0, sourceName);
+        final Set<ModuleImport> imports = new HashSet<>();
+        final Set<ModuleImport> includes = new HashSet<>();
+        String latestRevision = null;
+        String belongsTo = null;
+        for (int i = 1; i < header.end(0); i = header.end(i)) {
+            final String subKeyword = header.keyword(i);
+            if (YangStmtMapping.IMPORT.getStatementName().getLocalName().equals(subKeyword)) {
+                imports.add(new ModuleImportImpl(argumentString(header, i, sourceName),
+                    getRevisionDate(header, i, sourceName),
+                    Optional.fromNullable(getSemanticVersion(header, i, sourceName))));
+            } else if (YangStmtMapping.INCLUDE.getStatementName().getLocalName().equals(subKeyword)) {
+                includes.add(new ModuleImportImpl(argumentString(header, i, sourceName),
+                    getRevisionDate(header, i, sourceName)));
+            } else if (YangStmtMapping.REVISION.getStatementName().getLocalName().equals(subKeyword)) {
+                final String currentRevision = argumentString(header, i, sourceName);
+                if (latestRevision == null || latestRevision.compareTo(currentRevision) == -1) {
+                    latestRevision = currentRevision;
+                }
+            } else if (belongsTo == null
+                    && YangStmtMapping.BELONGS_TO.getStatementName().getLocalName().equals(subKeyword)) {
+                belongsTo = argumentString(header, i, sourceName);
+            }
+        }
+
+        if (isModule) {
+            return new ModuleDependencyInfo(name, latestRevision, ImmutableSet.copyOf(imports),
+                ImmutableSet.copyOf(includes), Optional.fromNullable(getSemanticVersion(header, 0, sourceName)));
+        }
+        return new SubmoduleDependencyInfo(name, latestRevision, belongsTo, ImmutableSet.copyOf(imports),
+            ImmutableSet.copyOf(includes));
+    }
+
+    private static Date getRevisionDate(final YangStatementIR header, final int index, final String sourceName) {
+        String revisionDateStr = null;
+        for (int i = index + 1; i < header.end(index); i = header.end(i)) {
+            if (YangStmtMapping.REVISION_DATE.getStatementName().getLocalName().equals(header.keyword(i))) {
+                revisionDateStr = argumentString(header, i, sourceName);
+            }
+        }
+        return revisionDateStr == null ? null : QName.parseRevision(revisionDateStr);
+    }
+
+    private static SemVer getSemanticVersion(final YangStatementIR header, final int index, final String sourceName) {
+        final String semVerStmtName = SupportedExtensionsMapping.SEMANTIC_VERSION.getStatementName().getLocalName();
+        for (int i = index + 1; i < header.end(index); i = header.end(i)) {
+            if (semVerStmtName.equals(Utils.trimPrefix(header.keyword(i)))) {
+                final String semVerString = argumentString(header, i, sourceName);
+                return Strings.isNullOrEmpty(semVerString) ? null : SemVer.valueOf(semVerString);
+            }
+        }
+        return null;
+    }
+
+    private static String argumentString(final YangStatementIR header, final int index, final String sourceName) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, header.line(index),
+            header.column(index));
+        final String[] tokens = header.argument(index);
+        if (tokens == null) {
+            throw new IllegalArgumentException("Statement " + header.keyword(index) + " at " + ref
+                + " is missing an argument");
+        }
+        return Utils.stringFromArgumentTokens(tokens, YangVersion.VERSION_1, ref);
     }
 
     private static YangModelDependencyInfo parseModuleContext(final StatementContext module, final String sourceName) {
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.Deviation;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of effective modules shared between schema contexts. Contexts are built from sources independently, but a
+ * module of a newly-built context is replaced with an equivalent module of a previously-built context, so that devices
+ * which advertise nearly identical sets of modules do not retain separate copies of them.
+ *
+ * <p>
+ * Two modules are considered equivalent if the sources which can affect their effective model are the same: the module
+ * itself, modules it imports or includes, modules which augment or deviate any of them or derive identities from their
+ * identities, and so on transitively. Parser mode and supported features have to match as well. As with context
+ * caching, sources with the same identifier are assumed to have the same content.
+ *
+ * <p>
+ * Augmentations, deviations and derived identities are the only statements which modify the effective model of
+ * another module. Other references to other modules, such as leafref paths, identityref bases, groupings and typedefs,
+ * are resolved within the referencing module and are covered by its imports.
+ */
+final class SharedModuleCache {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedModuleCache.class);
+
+    private final Cache<ModuleKey, Module> modules = CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * Replace modules of a freshly-built context with equivalent modules from previously-built contexts, and make its
+     * modules available to contexts built later.
+     *
+     * @param context Freshly-built context
+     * @param statementParserMode Parser mode used to build the context
+     * @param supportedFeatures Features supported by the context, null if all features are supported
+     * @return A context sharing modules, or the original context if none of its modules are shared
+     */
+    SchemaContext share(final SchemaContext context, final StatementParserMode statementParserMode,
+            final Set<QName> supportedFeatures) {
+        if (!(context instanceof EffectiveSchemaContext)) {
+            return context;
+        }
+
+        final Map<Module, ModuleKey> keys = computeKeys(context, statementParserMode,
+            supportedFeatures == null ? null : ImmutableSet.copyOf(supportedFeatures));
+        final Map<Object, Object> replacements = new IdentityHashMap<>();
+        for (final Map.Entry<Module, ModuleKey> e : keys.entrySet()) {
+            final Module module = e.getKey();
+            final Module shared;
+            try {
+                shared = modules.get(e.getValue(), () -> module);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Failed to look up module " + e.getValue(), ex);
+            }
+            if (shared != module) {
+                addReplacements(replacements, module, shared);
+            }
+        }
+
+        if (replacements.isEmpty()) {
+            return context;
+        }
+
+        LOG.debug("Context {} shares {} of {} modules with previous contexts", context,
+            keys.size() - countUnshared(keys.keySet(), replacements), context.getModules().size());
+        final EffectiveSchemaContext effective = (EffectiveSchemaContext) context;
+        final List<DeclaredStatement<?>> declared = new ArrayList<>(effective.getRootDeclaredStatements().size());
+        for (final DeclaredStatement<?> stmt : effective.getRootDeclaredStatements()) {
+            declared.add((DeclaredStatement<?>) replacements.getOrDefault(stmt, stmt));
+        }
+        final List<EffectiveStatement<?, ?>> roots = new ArrayList<>(effective.getRootEffectiveStatements().size());
+        for (final EffectiveStatement<?, ?> stmt : effective.getRootEffectiveStatements()) {
+            roots.add((EffectiveStatement<?, ?>) replacements.getOrDefault(stmt, stmt));
+        }
+        return new EffectiveSchemaContext(declared, roots);
+    }
+
+    private static int countUnshared(final Set<Module> modules, final Map<Object, Object> replacements) {
+        int ret = 0;
+        for (final Module module : modules) {
+            if (!replacements.containsKey(module)) {
+                ret++;
+            }
+        }
+        return ret;
+    }
+
+    private static void addReplacements(final Map<Object, Object> replacements, final Module module,
+            final Module shared) {
+        replacements.put(module, shared);
+        if (module instanceof EffectiveStatement && shared instanceof EffectiveStatement) {
+            replacements.put(((EffectiveStatement<?, ?>) module).getDeclared(),
+                ((EffectiveStatement<?, ?>) shared).getDeclared());
+        }
+
+        // Submodules are listed among root statements, too
+        for (final Module submodule : module.getSubmodules()) {
+            for (final Module sharedSubmodule : shared.getSubmodules()) {
+                if (submodule.getName().equals(sharedSubmodule.getName())
+                        && Objects.equals(submodule.getRevision(), sharedSubmodule.getRevision())) {
+                    addReplacements(replacements, submodule, sharedSubmodule);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static Map<Module, ModuleKey> computeKeys(final SchemaContext context,
+            final StatementParserMode statementParserMode, final Set<QName> supportedFeatures) {
+        // Modules which can affect each module directly
+        final Map<Module, Set<Module>> edges = new HashMap<>();
+        final Set<Module> unresolved = new HashSet<>();
+        for (final Module module : context.getModules()) {
+            edges.computeIfAbsent(module, k -> new HashSet<>());
+        }
+        for (final Module module : context.getModules()) {
+            final Set<Module> moduleEdges = edges.get(module);
+            for (final ModuleImport imp : module.getImports()) {
+                final Date revision = imp.getRevision();
+                final Module imported = context.findModuleByName(imp.getModuleName(),
+                    SimpleDateFormatUtil.DEFAULT_DATE_IMP.equals(revision) ? null : revision);
+                if (imported != null) {
+                    moduleEdges.add(imported);
+                } else {
+                    unresolved.add(module);
+                }
+            }
+            for (final AugmentationSchema augment : module.getAugmentations()) {
+                addTargetEdge(context, edges, module, augment.getTargetPath());
+            }
+            for (final Deviation deviation : module.getDeviations()) {
+                addTargetEdge(context, edges, module, deviation.getTargetPath());
+            }
+            // Base identities list identities derived from them across the whole context
+            for (final IdentitySchemaNode identity : module.getIdentities()) {
+                for (final IdentitySchemaNode base : identity.getBaseIdentities()) {
+                    addReverseEdge(context, edges, module, base.getQName().getModule());
+                }
+            }
+        }
+
+        final Map<Module, ModuleKey> ret = new HashMap<>();
+        for (final Module module : context.getModules()) {
+            final Set<Module> closure = closure(module, edges);
+            if (!closure.stream().anyMatch(unresolved::contains)) {
+                final ImmutableSet.Builder<SourceIdentifier> sources = ImmutableSet.builder();
+                for (final Module member : closure) {
+                    addSourceIdentifiers(sources, member);
+                }
+                ret.put(module, new ModuleKey(sourceIdentifier(module), sources.build(), statementParserMode,
+                    supportedFeatures));
+            } else {
+                LOG.debug("Not sharing module {}, its imports cannot be resolved", module);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Record that a module augmenting or deviating a target affects the module owning the target.
+     */
+    private static void addTargetEdge(final SchemaContext context, final Map<Module, Set<Module>> edges,
+            final Module module, final SchemaPath target) {
+        if (target == null) {
+            return;
+        }
+        final Iterable<QName> path = target.getPathFromRoot();
+        if (!path.iterator().hasNext()) {
+            return;
+        }
+
+        addReverseEdge(context, edges, module, path.iterator().next().getModule());
+    }
+
+    /**
+     * Record that a module affects the module defining a namespace.
+     */
+    private static void addReverseEdge(final SchemaContext context, final Map<Module, Set<Module>> edges,
+            final Module module, final QNameModule targetModule) {
+        final Module owner = context.findModuleByNamespaceAndRevision(targetModule.getNamespace(),
+            targetModule.getRevision());
+        if (owner != null && owner != module) {
+            edges.computeIfAbsent(owner, k -> new HashSet<>()).add(module);
+        }
+    }
+
+    private static Set<Module> closure(final Module module, final Map<Module, Set<Module>> edges) {
+        final Set<Module> ret = new HashSet<>();
+        final Queue<Module> queue = new ArrayDeque<>();
+        ret.add(module);
+        queue.add(module);
+
+        Module current;
+        while ((current = queue.poll()) != null) {
+            for (final Module next : edges.getOrDefault(current, ImmutableSet.of())) {
+                if (ret.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static void addSourceIdentifiers(final ImmutableSet.Builder<SourceIdentifier> builder,
+            final Module module) {
+        builder.add(sourceIdentifier(module));
+        for (final Module submodule : module.getSubmodules()) {
+            addSourceIdentifiers(builder, submodule);
+        }
+    }
+
+    private static SourceIdentifier sourceIdentifier(final Module module) {
+        final Date revision = module.getRevision();
+        return RevisionSourceIdentifier.create(module.getName(), revision == null ? Optional.absent()
+                : Optional.of(SimpleDateFormatUtil.getRevisionFormat().format(revision)));
+    }
+
+    private static final class ModuleKey {
+        private final SourceIdentifier module;
+        private final Set<SourceIdentifier> sources;
+        private final StatementParserMode statementParserMode;
+        private final Set<QName> supportedFeatures;
+        private final int hashCode;
+
+        ModuleKey(final SourceIdentifier module, final Set<SourceIdentifier> sources,
+                final StatementParserMode statementParserMode, final Set<QName> supportedFeatures) {
+            this.module = module;
+            this.sources = sources;
+            this.statementParserMode = statementParserMode;
+            this.supportedFeatures = supportedFeatures;
+            this.hashCode = Objects.hash(module, sources, statementParserMode, supportedFeatures);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ModuleKey)) {
+                return false;
+            }
+            final ModuleKey other = (ModuleKey) obj;
+            return hashCode == other.hashCode && module.equals(other.module) && sources.equals(other.sources)
+                    && statementParserMode == other.statementParserMode
+                    && Objects.equals(supportedFeatures, other.supportedFeatures);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("module", module).add("sources", sources)
+                    .add("mode", statementParserMode).add("features", supportedFeatures).toString();
+        }
+    }
+}
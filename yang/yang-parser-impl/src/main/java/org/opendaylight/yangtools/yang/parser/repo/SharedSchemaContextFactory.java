@@ -20,6 +20,8 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -27,9 +29,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
-import org.antlr.v4.runtime.ParserRuleContext;
-import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
 import org.opendaylight.yangtools.util.concurrent.ExceptionMapper;
 import org.opendaylight.yangtools.util.concurrent.ReflectiveExceptionMapper;
 import org.opendaylight.yangtools.yang.common.QName;
@@ -40,11 +44,11 @@ import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
 import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
-import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
 import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,7 +75,7 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             final Set<QName> supportedFeatures) {
         return createSchemaContext(requiredSources,
                 statementParserMode == StatementParserMode.SEMVER_MODE ? this.semVerCache : this.cache,
-                new AssembleSources(supportedFeatures, statementParserMode));
+                new AssembleSources(repository.getModuleCache(), supportedFeatures, statementParserMode));
     }
 
     private ListenableFuture<ASTSchemaSource> requestSource(final SourceIdentifier identifier) {
@@ -92,8 +96,7 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         }
 
         // Request all sources be loaded
-        ListenableFuture<List<ASTSchemaSource>> sf = Futures.allAsList(Collections2.transform(uniqueSourceIdentifiers,
-            this::requestSource));
+        ListenableFuture<List<ASTSchemaSource>> sf = requestSources(uniqueSourceIdentifiers);
 
         // Detect mismatch between requested Source IDs and IDs that are extracted from parsed source
         // Also remove duplicates if present
@@ -119,6 +122,89 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         return Futures.makeChecked(cf, MAPPER);
     }
 
+    private ListenableFuture<List<ASTSchemaSource>> requestSources(final List<SourceIdentifier> identifiers) {
+        final Executor executor = repository.getSourceExecutor();
+        if (executor == null) {
+            return Futures.allAsList(Collections2.transform(identifiers, this::requestSource));
+        }
+
+        final List<SettableFuture<ASTSchemaSource>> results = new ArrayList<>(identifiers.size());
+        for (int i = 0; i < identifiers.size(); ++i) {
+            results.add(SettableFuture.create());
+        }
+
+        final AtomicInteger nextSource = new AtomicInteger();
+        final int workers = Math.min(repository.getSourceParallelism(), identifiers.size());
+        for (int i = 0; i < workers; ++i) {
+            scheduleNextSource(executor, identifiers, results, nextSource);
+        }
+        return Futures.allAsList(results);
+    }
+
+    /**
+     * Schedule a request for the next source. If the executor rejects it, no further requests can be made, hence all
+     * sources which have not been requested yet fail with the rejection.
+     */
+    private void scheduleNextSource(final Executor executor, final List<SourceIdentifier> identifiers,
+            final List<SettableFuture<ASTSchemaSource>> results, final AtomicInteger nextSource) {
+        try {
+            executor.execute(() -> requestNextSource(executor, identifiers, results, nextSource));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Executor {} rejected source request", executor, e);
+            for (int i = nextSource.getAndSet(identifiers.size()); i < identifiers.size(); ++i) {
+                results.get(i).setException(e);
+            }
+        }
+    }
+
+    /**
+     * Request sources which have not been requested yet, one at a time, so that the number of concurrent requests
+     * stays bounded. Sources which are available immediately are handled in a loop, a source which is not is followed
+     * by a new task scheduled once it becomes available, hence the stack does not grow with the number of sources.
+     */
+    private void requestNextSource(final Executor executor, final List<SourceIdentifier> identifiers,
+            final List<SettableFuture<ASTSchemaSource>> results, final AtomicInteger nextSource) {
+        while (true) {
+            final int index = nextSource.getAndIncrement();
+            if (index >= identifiers.size()) {
+                return;
+            }
+
+            final SettableFuture<ASTSchemaSource> result = results.get(index);
+            ListenableFuture<ASTSchemaSource> source;
+            try {
+                source = requestSource(identifiers.get(index));
+            } catch (RuntimeException e) {
+                source = Futures.immediateFailedFuture(e);
+            }
+
+            // Whichever of the callback and this loop gets to flip this flag second continues with the next source
+            final AtomicBoolean pending = new AtomicBoolean(true);
+            Futures.addCallback(source, new FutureCallback<ASTSchemaSource>() {
+                @Override
+                public void onSuccess(final ASTSchemaSource value) {
+                    result.set(value);
+                    continueRequests();
+                }
+
+                @Override
+                public void onFailure(@Nonnull final Throwable t) {
+                    result.setException(t);
+                    continueRequests();
+                }
+
+                private void continueRequests() {
+                    if (!pending.compareAndSet(true, false)) {
+                        scheduleNextSource(executor, identifiers, results, nextSource);
+                    }
+                }
+            });
+            if (pending.compareAndSet(true, false)) {
+                return;
+            }
+        }
+    }
+
     /**
      * @return set (preserving ordering) from the input collection
      */
@@ -169,12 +255,14 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
 
     private static final class AssembleSources implements AsyncFunction<List<ASTSchemaSource>, SchemaContext> {
 
+        private final SharedModuleCache moduleCache;
         private final Set<QName> supportedFeatures;
         private final StatementParserMode statementParserMode;
         private final Function<ASTSchemaSource, SourceIdentifier> getIdentifier;
 
-        private AssembleSources(final Set<QName> supportedFeatures,
+        private AssembleSources(final SharedModuleCache moduleCache, final Set<QName> supportedFeatures,
                 final StatementParserMode statementParserMode) {
+            this.moduleCache = Preconditions.checkNotNull(moduleCache);
             this.supportedFeatures = supportedFeatures;
             this.statementParserMode = Preconditions.checkNotNull(statementParserMode);
             switch (statementParserMode) {
@@ -203,16 +291,12 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
                         res.getResolvedSources(), res.getUnsatisfiedImports());
             }
 
-            final Map<SourceIdentifier, ParserRuleContext> asts = Maps.transformValues(srcs, ASTSchemaSource::getAST);
             final CrossSourceStatementReactor.BuildAction reactor =
                     YangInferencePipeline.RFC6020_REACTOR.newBuild(statementParserMode, supportedFeatures);
 
-            for (final Entry<SourceIdentifier, ParserRuleContext> e : asts.entrySet()) {
-                final ParserRuleContext parserRuleCtx = e.getValue();
-                Preconditions.checkArgument(parserRuleCtx instanceof StatementContext,
-                        "Unsupported context class %s for source %s", parserRuleCtx.getClass(), e.getKey());
-
-                reactor.addSource(new YangStatementSourceImpl(e.getKey(), (StatementContext) parserRuleCtx));
+            // Sources are built from the compact statement representation, so no parse tree is involved
+            for (final Entry<SourceIdentifier, ASTSchemaSource> e : srcs.entrySet()) {
+                reactor.addSource(YangStatementStreamSource.create(e.getKey(), e.getValue().getStatements()));
             }
 
             final SchemaContext schemaContext;
@@ -222,7 +306,9 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
                 throw new SchemaResolutionException("Failed to resolve required models", ex.getSourceIdentifier(), ex);
             }
 
-            return Futures.immediateCheckedFuture(schemaContext);
+            // Devices with similar module sets end up with separate, but identical modules, retain only one copy
+            return Futures.immediateCheckedFuture(moduleCache.share(schemaContext, statementParserMode,
+                supportedFeatures));
         }
     }
 }
@@ -13,7 +13,9 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Identifiable;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
@@ -38,10 +40,33 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
                     return new SharedSchemaContextFactory(SharedSchemaRepository.this, key);
                 }
             });
+    private final SharedModuleCache moduleCache = new SharedModuleCache();
     private final String id;
+    private final Executor sourceExecutor;
+    private final int sourceParallelism;
 
     public SharedSchemaRepository(final String id) {
         this.id = Preconditions.checkNotNull(id);
+        this.sourceExecutor = null;
+        this.sourceParallelism = 1;
+    }
+
+    /**
+     * Create a repository which fetches sources required by a {@link SchemaContext} in parallel. Up to
+     * {@code sourceParallelism} tasks are submitted to {@code sourceExecutor}, each of which requests one source at
+     * a time, hence source transformations, such as parsing YANG text, which complete on the requesting thread run
+     * concurrently. Sources are assembled into a context once all of them are available.
+     *
+     * @param id Repository identifier
+     * @param sourceExecutor Executor used to request sources
+     * @param sourceParallelism Maximum number of sources requested concurrently
+     * @throws IllegalArgumentException if sourceParallelism is less than 1
+     */
+    public SharedSchemaRepository(final String id, final Executor sourceExecutor, final int sourceParallelism) {
+        this.id = Preconditions.checkNotNull(id);
+        this.sourceExecutor = Preconditions.checkNotNull(sourceExecutor);
+        Preconditions.checkArgument(sourceParallelism > 0, "Invalid source parallelism %s", sourceParallelism);
+        this.sourceParallelism = sourceParallelism;
     }
 
     @Override
@@ -54,6 +79,28 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
         return cache.getUnchecked(filter);
     }
 
+    /**
+     * Return the executor used to request sources.
+     *
+     * @return Executor, null if sources should be requested by the thread creating a schema context
+     */
+    @Nullable Executor getSourceExecutor() {
+        return sourceExecutor;
+    }
+
+    int getSourceParallelism() {
+        return sourceParallelism;
+    }
+
+    /**
+     * Return the cache of modules shared by all contexts created by this repository's factories.
+     *
+     * @return Module cache
+     */
+    SharedModuleCache getModuleCache() {
+        return moduleCache;
+    }
+
     @Override
     public String toString() {
         return "SchemaRepository: " + id;
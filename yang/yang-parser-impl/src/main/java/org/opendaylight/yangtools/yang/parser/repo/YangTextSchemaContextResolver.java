@@ -45,6 +45,7 @@ import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 import org.opendaylight.yangtools.yang.model.repo.util.InMemorySchemaSourceCache;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
 import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
 import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
 import org.slf4j.Logger;
@@ -60,6 +61,7 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
             new AtomicReference<>(Optional.absent());
     private final InMemorySchemaSourceCache<ASTSchemaSource> cache;
     private final SchemaListenerRegistration transReg;
+    private final SchemaListenerRegistration cacheReg;
     private final SchemaSourceRegistry registry;
     private final SchemaRepository repository;
     private volatile Object version = new Object();
@@ -74,6 +76,8 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
 
         cache = InMemorySchemaSourceCache.createSoftCache(registry, ASTSchemaSource.class, SOURCE_LIFETIME_SECONDS,
             TimeUnit.SECONDS);
+        // ASTs are produced lazily by the transformer, retain them once they are
+        cacheReg = registry.registerSchemaSourceListener(cache);
     }
 
     public static YangTextSchemaContextResolver create(final String name) {
@@ -82,7 +86,8 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
     }
 
     /**
-     * Register a {@link YangTextSchemaSource}.
+     * Register a {@link YangTextSchemaSource}. The source is checked for syntax errors, but only its header is
+     * retained at this point. It is parsed into an AST once it is needed to assemble a schema context.
      *
      * @param source YANG text source
      * @throws YangSyntaxErrorException When the YANG file is syntactically invalid
@@ -94,13 +99,16 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
             throws SchemaSourceException, IOException, YangSyntaxErrorException {
         checkArgument(source != null);
 
-        final ASTSchemaSource ast = TextToASTTransformer.transformText(source);
-        LOG.trace("Resolved source {} to source {}", source, ast);
+        // Scanning the header is sufficient to acquire an accurate identifier
+        final YangModelDependencyInfo depInfo = YangModelDependencyInfo.forYangText(source);
+        final SourceIdentifier parsedId = depInfo.getFormattedRevision() == null
+                ? RevisionSourceIdentifier.create(depInfo.getName())
+                        : RevisionSourceIdentifier.create(depInfo.getName(), depInfo.getFormattedRevision());
+        LOG.trace("Resolved source {} to identifier {}", source, parsedId);
 
-        // AST carries an accurate identifier, check if it matches the one supplied by the source. If it
+        // The header carries an accurate identifier, check if it matches the one supplied by the source. If it
         // does not, check how much it differs and emit a warning.
         final SourceIdentifier providedId = source.getIdentifier();
-        final SourceIdentifier parsedId = ast.getIdentifier();
         final YangTextSchemaSource text;
         if (!parsedId.equals(providedId)) {
             if (!parsedId.getName().equals(providedId.getName())) {
@@ -131,7 +139,6 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
             final SchemaSourceRegistration<YangTextSchemaSource> reg = registry.registerSchemaSource(this,
                 PotentialSchemaSource.create(parsedId, YangTextSchemaSource.class, Costs.IMMEDIATE.getValue()));
             requiredSources.add(parsedId);
-            cache.schemaSourceEncountered(ast);
             LOG.debug("Added source {} to schema context requirements", parsedId);
             version = new Object();
 
@@ -266,6 +273,7 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
 
     @Override
     public void close() {
+        cacheReg.close();
         transReg.close();
     }
 }
@@ -10,8 +10,21 @@ package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.ParserRuleContext;
@@ -22,16 +35,21 @@ import org.antlr.v4.runtime.tree.TerminalNode;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementLexer;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.concepts.Delegator;
 import org.opendaylight.yangtools.concepts.Identifiable;
 import org.opendaylight.yangtools.yang.common.YangVersion;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementIR;
 import org.opendaylight.yangtools.yang.parser.impl.YangStatementParserListenerImpl;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementTextParser;
 import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
 import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class represents implementation of StatementStreamSource in order to emit YANG statements using supplied
@@ -41,6 +59,47 @@ import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
  */
 @Beta
 public final class YangStatementStreamSource implements Identifiable<SourceIdentifier>, StatementStreamSource {
+    /**
+     * Engine used to parse YANG text.
+     */
+    public enum Engine {
+        /**
+         * ANTLR-generated lexer and parser.
+         */
+        ANTLR,
+        /**
+         * Hand-written parser, see {@link YangStatementTextParser}.
+         */
+        NATIVE;
+    }
+
+    /**
+     * System property selecting the default {@link Engine}, which is used when an engine is not specified explicitly.
+     * Recognized values are {@code antlr} and {@code native}.
+     */
+    public static final String ENGINE_PROP = "org.opendaylight.yangtools.yang.parser.engine";
+
+    private static final Logger LOG = LoggerFactory.getLogger(YangStatementStreamSource.class);
+    private static final Engine DEFAULT_ENGINE;
+
+    static {
+        final String prop = System.getProperty(ENGINE_PROP);
+        Engine engine = Engine.ANTLR;
+        if (prop != null) {
+            try {
+                engine = Engine.valueOf(prop.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Ignoring unknown value {} of {}", prop, ENGINE_PROP, e);
+            }
+        }
+        DEFAULT_ENGINE = engine;
+        LOG.debug("Using {} engine to parse YANG text by default", DEFAULT_ENGINE);
+    }
+
+    // Buffers larger than this are not retained for reuse
+    private static final int MAX_POOLED_CHARS = 1024 * 1024;
+    private static final ThreadLocal<CharBuffer> CHAR_BUFFERS = new ThreadLocal<>();
+
     private static final ParseTreeListener MAKE_IMMUTABLE_LISTENER = new ParseTreeListener() {
         @Override
         public void enterEveryRule(final ParserRuleContext ctx) {
@@ -65,31 +124,92 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
 
     private final YangStatementParserListenerImpl yangStatementModelParser;
     private final SourceIdentifier identifier;
-    private final StatementContext context;
+    // Text of the source, null if the source has been created from already-parsed statements
+    private final YangTextSchemaSource source;
+    private final YangStatementIR statements;
 
-    private YangStatementStreamSource(final SourceIdentifier identifier, final YangStatementParserListenerImpl parser,
-            final StatementContext context) {
+    private YangStatementStreamSource(final SourceIdentifier identifier, final YangTextSchemaSource source,
+            final YangStatementParserListenerImpl parser, final YangStatementIR statements) {
         this.identifier = Preconditions.checkNotNull(identifier);
+        this.source = source;
         this.yangStatementModelParser = Preconditions.checkNotNull(parser);
-        this.context = Preconditions.checkNotNull(context);
+        this.statements = Preconditions.checkNotNull(statements);
     }
 
     public static YangStatementStreamSource create(final YangTextSchemaSource source) throws IOException,
             YangSyntaxErrorException {
-        final StatementContext context;
-        try (final InputStream stream = source.openStream()) {
-            context = parseYangSource(stream);
-        }
+        return create(source, DEFAULT_ENGINE);
+    }
 
+    public static YangStatementStreamSource create(final YangTextSchemaSource source, final Engine engine)
+            throws IOException, YangSyntaxErrorException {
         final String sourceName = source.getSymbolicName().orElse(null);
+        final YangStatementIR statements = parseStatements(source, sourceName, engine);
         final YangStatementParserListenerImpl parser = new YangStatementParserListenerImpl(sourceName);
-        return new YangStatementStreamSource(source.getIdentifier(), parser, context);
+        return new YangStatementStreamSource(source.getIdentifier(), source, parser, statements);
+    }
+
+    /**
+     * Create a new source from statements which have already been parsed, for example those held by an
+     * {@link org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource}. Sources created this way do not have
+     * any text, hence {@link #getYangAST()} is not available.
+     *
+     * @param identifier Source identifier
+     * @param statements Parsed statements
+     * @return A new source
+     */
+    public static YangStatementStreamSource create(final SourceIdentifier identifier,
+            final YangStatementIR statements) {
+        final YangStatementParserListenerImpl parser = new YangStatementParserListenerImpl(identifier.getName());
+        return new YangStatementStreamSource(identifier, null, parser, statements);
+    }
+
+    /**
+     * Parse YANG text into statements using the ANTLR engine. The parse tree is used only to build the statements,
+     * so it can be reclaimed as soon as this method returns.
+     *
+     * @param stream Stream containing YANG text
+     * @return Parsed statements
+     * @throws IOException if the stream cannot be read
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangStatementIR parseStatements(final InputStream stream) throws IOException,
+            YangSyntaxErrorException {
+        return YangStatementIR.create(parseStatement(stream));
+    }
+
+    /**
+     * Parse YANG text into statements using the default engine, as selected by {@link #ENGINE_PROP}.
+     *
+     * @param text YANG text
+     * @param sourceName Name of the source used in error messages, may be null
+     * @return Parsed statements
+     * @throws IOException if the text cannot be read
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangStatementIR parseStatements(final ByteSource text, @Nullable final String sourceName)
+            throws IOException, YangSyntaxErrorException {
+        return parseStatements(text, sourceName, DEFAULT_ENGINE);
+    }
+
+    private static YangStatementIR parseStatements(final ByteSource text, final String sourceName,
+            final Engine engine) throws IOException, YangSyntaxErrorException {
+        switch (engine) {
+            case ANTLR:
+                try (final InputStream stream = text.openStream()) {
+                    return parseStatements(stream);
+                }
+            case NATIVE:
+                return YangStatementTextParser.parse(readText(text), sourceName);
+            default:
+                throw new IllegalArgumentException("Unhandled engine " + engine);
+        }
     }
 
     @Override
     public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
         yangStatementModelParser.setAttributes(writer, stmtDef);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, context);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -102,7 +222,7 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
     public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
             final PrefixToModule preLinkagePrefixes, final YangVersion yangVersion) {
         yangStatementModelParser.setAttributes(writer, stmtDef, preLinkagePrefixes, yangVersion);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, context);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -115,7 +235,7 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
     public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
             final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes, final YangVersion yangVersion) {
         yangStatementModelParser.setAttributes(writer, stmtDef, prefixes, yangVersion);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, context);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -128,7 +248,7 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
     public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
             final PrefixToModule prefixes, final YangVersion yangVersion) {
         yangStatementModelParser.setAttributes(writer, stmtDef, prefixes, yangVersion);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, context);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -136,8 +256,31 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
         return identifier;
     }
 
+    /**
+     * Return the statements of this source.
+     *
+     * @return Parsed statements
+     */
+    public YangStatementIR getStatements() {
+        return statements;
+    }
+
+    /**
+     * Return the ANTLR parse tree of this source. The parse tree is not retained, hence this method parses the
+     * source again.
+     *
+     * @return ANTLR parse tree
+     * @throws IllegalStateException if the source cannot be read or parsed, or if it has been created without text
+     * @deprecated Provided for migration purposes only. Do not use.
+     */
+    @Deprecated
     public ParserRuleContext getYangAST() {
-        return context;
+        Preconditions.checkState(source != null, "Source %s has been created without text", identifier);
+        try (final InputStream stream = source.openStream()) {
+            return parseYangSource(stream);
+        } catch (IOException | YangSyntaxErrorException e) {
+            throw new IllegalStateException("Failed to re-parse source " + source, e);
+        }
     }
 
     /**
@@ -146,7 +289,62 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
     @Deprecated
     public static StatementContext parseYangSource(final InputStream stream) throws IOException,
             YangSyntaxErrorException {
-        final YangStatementLexer lexer = new YangStatementLexer(new ANTLRInputStream(stream));
+        final StatementContext result = parseStatement(stream);
+
+        // Walk the resulting tree and replace each children with an immutable list, lowering memory requirements
+        // and making sure the resulting tree will not get accidentally modified. An alternative would be to use
+        // org.antlr.v4.runtime.Parser.TrimToSizeListener, but that does not make the tree immutable.
+        ParseTreeWalker.DEFAULT.walk(MAKE_IMMUTABLE_LISTENER, result);
+
+        return result;
+    }
+
+    /**
+     * Read the text of a source into a thread-local buffer. Sources backed by a file are memory-mapped, so the only
+     * copy made is UTF-8 decoding into the buffer.
+     */
+    private static CharBuffer readText(final ByteSource source) throws IOException {
+        final ByteBuffer bytes;
+        final Object delegate = source instanceof Delegator ? ((Delegator<?>) source).getDelegate() : null;
+        if (delegate instanceof File) {
+            try (FileChannel channel = FileChannel.open(((File) delegate).toPath(), StandardOpenOption.READ)) {
+                bytes = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            }
+        } else {
+            bytes = ByteBuffer.wrap(source.read());
+        }
+
+        final CharsetDecoder decoder = newDecoder();
+        // UTF-8 never decodes to more chars than there are bytes
+        final int capacity = bytes.remaining();
+        CharBuffer chars = CHAR_BUFFERS.get();
+        if (chars == null || chars.capacity() < capacity) {
+            chars = CharBuffer.allocate(capacity);
+            if (capacity <= MAX_POOLED_CHARS) {
+                CHAR_BUFFERS.set(chars);
+            }
+        }
+
+        chars.clear();
+        decoder.decode(bytes, chars, true);
+        decoder.flush(chars);
+        chars.flip();
+        return chars;
+    }
+
+    /**
+     * Create a decoder for YANG text. Both engines decode text as UTF-8, replacing malformed input.
+     */
+    private static CharsetDecoder newDecoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private static StatementContext parseStatement(final InputStream stream) throws IOException,
+            YangSyntaxErrorException {
+        final YangStatementLexer lexer = new YangStatementLexer(new ANTLRInputStream(
+            new InputStreamReader(stream, newDecoder())));
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
         final YangStatementParser parser = new YangStatementParser(tokens);
         //disconnect from console error output
@@ -157,12 +355,6 @@ public final class YangStatementStreamSource implements Identifiable<SourceIdent
 
         final StatementContext result = parser.statement();
         errorListener.validate();
-
-        // Walk the resulting tree and replace each children with an immutable list, lowering memory requirements
-        // and making sure the resulting tree will not get accidentally modified. An alternative would be to use
-        // org.antlr.v4.runtime.Parser.TrimToSizeListener, but that does not make the tree immutable.
-        ParseTreeWalker.DEFAULT.walk(MAKE_IMMUTABLE_LISTENER, result);
-
         return result;
     }
 }
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
+
+import static org.opendaylight.yangtools.yang.parser.rfc6020.repo.StatementSourceReferenceHandler.extractRef;
+
+import com.google.common.base.Preconditions;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.Immutable;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.opendaylight.yangtools.util.xml.UntrustedXML;
+import org.opendaylight.yangtools.yang.parser.spi.source.DeclarationInTextSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementSourceReference;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Compact, array-based representation of a YIN document's elements. Elements are stored in document order, each
+ * element being followed by its descendants, so that an element's subtree occupies a contiguous range of indices.
+ * Attributes of all elements are stored in a separate set of arrays, with each element referencing a contiguous range
+ * of them. Text content is retained only for elements which do not have child elements, as that is where YIN arguments
+ * are stored.
+ *
+ * <p>
+ * The representation retains the information {@link YinStatementStreamSource} needs to emit statements in every
+ * reactor phase, in the same shape as the DOM document produced by {@link YinTextToDomTransformer}. It can be built
+ * directly from an XML stream, without instantiating a DOM document.
+ */
+@Immutable
+final class YinStatementIR {
+    private static final int INITIAL_CAPACITY = 64;
+    // Longer strings are typically unique
+    private static final int MAX_DEDUP_LENGTH = 64;
+
+    private final String[] namespaces;
+    private final String[] localNames;
+    private final String[] prefixes;
+    private final String[] texts;
+    private final StatementSourceReference[] refs;
+    // Index one past the last descendant of each element
+    private final int[] ends;
+    // Index of the first attribute of each element, plus a final entry holding the total number of attributes
+    private final int[] attributeOffsets;
+
+    private final String[] attributeNamespaces;
+    private final String[] attributeLocalNames;
+    private final String[] attributePrefixes;
+    private final String[] attributeValues;
+
+    private YinStatementIR(final Builder builder) {
+        final int size = builder.size;
+        namespaces = Arrays.copyOf(builder.namespaces, size);
+        localNames = Arrays.copyOf(builder.localNames, size);
+        prefixes = Arrays.copyOf(builder.prefixes, size);
+        texts = Arrays.copyOf(builder.texts, size);
+        refs = Arrays.copyOf(builder.refs, size);
+        ends = Arrays.copyOf(builder.ends, size);
+        attributeOffsets = Arrays.copyOf(builder.attributeOffsets, size + 1);
+        attributeOffsets[size] = builder.attributeCount;
+
+        final int attributeCount = builder.attributeCount;
+        attributeNamespaces = Arrays.copyOf(builder.attributeNamespaces, attributeCount);
+        attributeLocalNames = Arrays.copyOf(builder.attributeLocalNames, attributeCount);
+        attributePrefixes = Arrays.copyOf(builder.attributePrefixes, attributeCount);
+        attributeValues = Arrays.copyOf(builder.attributeValues, attributeCount);
+    }
+
+    /**
+     * Create an IR by streaming an XML document.
+     *
+     * @param stream Input stream
+     * @return An IR
+     * @throws XMLStreamException if the stream cannot be read or the document is not well-formed
+     */
+    static YinStatementIR create(final InputStream stream) throws XMLStreamException {
+        final XMLStreamReader reader = UntrustedXML.createXMLStreamReader(stream);
+        try {
+            return create(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static YinStatementIR create(final XMLStreamReader reader) throws XMLStreamException {
+        final Builder builder = new Builder();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    final Location location = reader.getLocation();
+                    builder.startElement(reader.getNamespaceURI(), reader.getLocalName(), reader.getPrefix(),
+                        DeclarationInTextSource.atPosition(null, location.getLineNumber(),
+                            location.getColumnNumber()));
+                    for (int i = 0, count = reader.getAttributeCount(); i < count; ++i) {
+                        builder.attribute(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i),
+                            reader.getAttributePrefix(i), reader.getAttributeValue(i));
+                    }
+                    builder.sortAttributes();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    builder.text(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    builder.endElement();
+                    break;
+                default:
+                    // Comments, processing instructions and similar do not affect statements
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create an IR from a DOM node, typically a document produced by {@link YinTextToDomTransformer}.
+     *
+     * @param root Root node, whose child elements are the top-level statements
+     * @return An IR
+     */
+    static YinStatementIR create(final Node root) {
+        final Builder builder = new Builder();
+        addChildren(builder, root);
+        return builder.build();
+    }
+
+    private static void addChildren(final Builder builder, final Node node) {
+        final NodeList children = node.getChildNodes();
+        for (int i = 0, len = children.getLength(); i < len; ++i) {
+            final Node child = children.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                addElement(builder, (Element) child);
+            }
+        }
+    }
+
+    private static void addElement(final Builder builder, final Element element) {
+        builder.startElement(element.getNamespaceURI(), element.getLocalName(), element.getPrefix(),
+            extractRef(element));
+
+        final NamedNodeMap attributes = element.getAttributes();
+        if (attributes != null) {
+            for (int i = 0, len = attributes.getLength(); i < len; ++i) {
+                final Attr attr = (Attr) attributes.item(i);
+                builder.attribute(attr.getNamespaceURI(), attr.getLocalName(), attr.getPrefix(), attr.getValue());
+            }
+        }
+
+        final int index = builder.size - 1;
+        addChildren(builder, element);
+        if (builder.size == index + 1) {
+            builder.text(element.getTextContent());
+        }
+        builder.endElement();
+    }
+
+    /**
+     * Return the number of elements.
+     *
+     * @return Number of elements
+     */
+    int size() {
+        return localNames.length;
+    }
+
+    String namespace(final int index) {
+        return namespaces[index];
+    }
+
+    String localName(final int index) {
+        return localNames[index];
+    }
+
+    String prefix(final int index) {
+        return prefixes[index];
+    }
+
+    StatementSourceReference reference(final int index) {
+        return refs[index];
+    }
+
+    int end(final int index) {
+        return ends[index];
+    }
+
+    /**
+     * Return the text content of an element, which is the concatenation of its text and the text of its descendants.
+     * Text which is directly contained in an element with child elements is not retained, as it is not significant in
+     * YIN.
+     *
+     * @param index Element index
+     * @return Text content
+     */
+    String textContent(final int index) {
+        final String text = texts[index];
+        if (text != null) {
+            return text;
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = index + 1, end = ends[index]; i < end; ++i) {
+            if (texts[i] != null) {
+                sb.append(texts[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    int attributeStart(final int index) {
+        return attributeOffsets[index];
+    }
+
+    int attributeEnd(final int index) {
+        return attributeOffsets[index + 1];
+    }
+
+    String attributeNamespace(final int attribute) {
+        return attributeNamespaces[attribute];
+    }
+
+    String attributeLocalName(final int attribute) {
+        return attributeLocalNames[attribute];
+    }
+
+    String attributePrefix(final int attribute) {
+        return attributePrefixes[attribute];
+    }
+
+    String attributeValue(final int attribute) {
+        return attributeValues[attribute];
+    }
+
+    private static final class Builder {
+        private final Map<String, String> strings = new HashMap<>();
+        private final StringBuilder text = new StringBuilder();
+
+        private String[] namespaces = new String[INITIAL_CAPACITY];
+        private String[] localNames = new String[INITIAL_CAPACITY];
+        private String[] prefixes = new String[INITIAL_CAPACITY];
+        private String[] texts = new String[INITIAL_CAPACITY];
+        private StatementSourceReference[] refs = new StatementSourceReference[INITIAL_CAPACITY];
+        private int[] ends = new int[INITIAL_CAPACITY];
+        private int[] attributeOffsets = new int[INITIAL_CAPACITY + 1];
+        private int size;
+
+        private String[] attributeNamespaces = new String[INITIAL_CAPACITY];
+        private String[] attributeLocalNames = new String[INITIAL_CAPACITY];
+        private String[] attributePrefixes = new String[INITIAL_CAPACITY];
+        private String[] attributeValues = new String[INITIAL_CAPACITY];
+        private int attributeCount;
+
+        // Indices of elements which have been started, but not ended
+        private int[] open = new int[16];
+        private int depth;
+
+        void startElement(final String namespace, final String localName, final String prefix,
+                final StatementSourceReference ref) {
+            if (size == localNames.length) {
+                final int newCapacity = size * 2;
+                namespaces = Arrays.copyOf(namespaces, newCapacity);
+                localNames = Arrays.copyOf(localNames, newCapacity);
+                prefixes = Arrays.copyOf(prefixes, newCapacity);
+                texts = Arrays.copyOf(texts, newCapacity);
+                refs = Arrays.copyOf(refs, newCapacity);
+                ends = Arrays.copyOf(ends, newCapacity);
+                attributeOffsets = Arrays.copyOf(attributeOffsets, newCapacity + 1);
+            }
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+            }
+
+            // Any text accumulated so far belongs to the parent, which has a child element now
+            text.setLength(0);
+
+            namespaces[size] = dedup(emptyToNull(namespace));
+            localNames[size] = dedup(localName);
+            prefixes[size] = dedup(emptyToNull(prefix));
+            refs[size] = ref;
+            attributeOffsets[size] = attributeCount;
+            open[depth++] = size++;
+        }
+
+        void attribute(final String namespace, final String localName, final String prefix, final String value) {
+            if (attributeCount == attributeLocalNames.length) {
+                final int newCapacity = attributeCount * 2;
+                attributeNamespaces = Arrays.copyOf(attributeNamespaces, newCapacity);
+                attributeLocalNames = Arrays.copyOf(attributeLocalNames, newCapacity);
+                attributePrefixes = Arrays.copyOf(attributePrefixes, newCapacity);
+                attributeValues = Arrays.copyOf(attributeValues, newCapacity);
+            }
+
+            attributeNamespaces[attributeCount] = dedup(emptyToNull(namespace));
+            attributeLocalNames[attributeCount] = dedup(localName);
+            attributePrefixes[attributeCount] = dedup(emptyToNull(prefix));
+            attributeValues[attributeCount] = value.length() > MAX_DEDUP_LENGTH ? value : dedup(value);
+            attributeCount++;
+        }
+
+        /**
+         * Sort the current element's attributes by their qualified name. This is the order in which DOM presents
+         * attributes, hence it is the order in which statements defined by attributes have been emitted.
+         */
+        void sortAttributes() {
+            final int start = attributeOffsets[size - 1];
+            final int count = attributeCount - start;
+            if (count < 2) {
+                return;
+            }
+
+            final Integer[] order = new Integer[count];
+            for (int i = 0; i < count; ++i) {
+                order[i] = start + i;
+            }
+            Arrays.sort(order, Comparator.comparing(this::attributeQName));
+
+            final String[] sortedNamespaces = new String[count];
+            final String[] sortedLocalNames = new String[count];
+            final String[] sortedPrefixes = new String[count];
+            final String[] sortedValues = new String[count];
+            for (int i = 0; i < count; ++i) {
+                final int from = order[i];
+                sortedNamespaces[i] = attributeNamespaces[from];
+                sortedLocalNames[i] = attributeLocalNames[from];
+                sortedPrefixes[i] = attributePrefixes[from];
+                sortedValues[i] = attributeValues[from];
+            }
+            System.arraycopy(sortedNamespaces, 0, attributeNamespaces, start, count);
+            System.arraycopy(sortedLocalNames, 0, attributeLocalNames, start, count);
+            System.arraycopy(sortedPrefixes, 0, attributePrefixes, start, count);
+            System.arraycopy(sortedValues, 0, attributeValues, start, count);
+        }
+
+        void text(final char[] chars, final int start, final int length) {
+            text.append(chars, start, length);
+        }
+
+        void text(final String str) {
+            text.append(str);
+        }
+
+        void endElement() {
+            Preconditions.checkState(depth != 0, "No element is open");
+            final int index = open[--depth];
+            if (size == index + 1) {
+                final String str = text.toString();
+                texts[index] = str.length() > MAX_DEDUP_LENGTH ? str : dedup(str);
+            }
+            text.setLength(0);
+            ends[index] = size;
+        }
+
+        YinStatementIR build() {
+            Preconditions.checkState(depth == 0, "%s elements have not been ended", depth);
+            return new YinStatementIR(this);
+        }
+
+        private String attributeQName(final int attribute) {
+            final String prefix = attributePrefixes[attribute];
+            return prefix == null ? attributeLocalNames[attribute] : prefix + ':' + attributeLocalNames[attribute];
+        }
+
+        private String dedup(final String str) {
+            if (str == null) {
+                return null;
+            }
+            final String existing = strings.putIfAbsent(str, str);
+            return existing != null ? existing : str;
+        }
+
+        private static String emptyToNull(final String str) {
+            return str == null || str.isEmpty() ? null : str;
+        }
+    }
+}
@@ -7,22 +7,24 @@
  */
 package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
 
-import static org.opendaylight.yangtools.yang.parser.rfc6020.repo.StatementSourceReferenceHandler.extractRef;
-
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import javax.annotation.Nonnull;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerException;
 import org.opendaylight.yangtools.concepts.Identifiable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.model.api.meta.StatementDefinition;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YinDomSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.api.YinTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.api.YinXmlSchemaSource;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase;
 import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
@@ -33,15 +35,11 @@ import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Attr;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 /**
  * A {@link StatementStreamSource} based on a {@link YinXmlSchemaSource}. Internal implementation works on top
- * of {@link YinDomSchemaSource} and its DOM document.
+ * of a compact representation of the document's elements, which is either streamed directly from
+ * a {@link YinTextSchemaSource}, or converted from a {@link YinDomSchemaSource} and its DOM document.
  *
  * @author Robert Varga
  */
@@ -56,11 +54,11 @@ public final class YinStatementStreamSource implements Identifiable<SourceIdenti
             }
     });
     private final SourceIdentifier identifier;
-    private final Node root;
+    private final YinStatementIR elements;
 
-    private YinStatementStreamSource(final SourceIdentifier identifier, final Node root) {
+    private YinStatementStreamSource(final SourceIdentifier identifier, final YinStatementIR elements) {
         this.identifier = Preconditions.checkNotNull(identifier);
-        this.root = Preconditions.checkNotNull(root);
+        this.elements = Preconditions.checkNotNull(elements);
     }
 
     public static StatementStreamSource create(final YinXmlSchemaSource source) throws TransformerException {
@@ -68,7 +66,25 @@ public final class YinStatementStreamSource implements Identifiable<SourceIdenti
     }
 
     public static StatementStreamSource create(final YinDomSchemaSource source) {
-        return new YinStatementStreamSource(source.getIdentifier(), source.getSource().getNode());
+        return new YinStatementStreamSource(source.getIdentifier(),
+            YinStatementIR.create(source.getSource().getNode()));
+    }
+
+    /**
+     * Create a source by streaming the text of a YIN document, without instantiating its DOM representation.
+     *
+     * @param source YIN text source
+     * @return A StatementStreamSource
+     * @throws IOException if the source cannot be read
+     * @throws XMLStreamException if the source is not a well-formed XML document
+     */
+    public static StatementStreamSource create(final YinTextSchemaSource source) throws IOException,
+            XMLStreamException {
+        final YinStatementIR elements;
+        try (final InputStream stream = source.openStream()) {
+            elements = YinStatementIR.create(stream);
+        }
+        return new YinStatementStreamSource(source.getIdentifier(), elements);
     }
 
     @Override
@@ -76,54 +92,61 @@ public final class YinStatementStreamSource implements Identifiable<SourceIdenti
         return identifier;
     }
 
-    private static StatementDefinition getValidDefinition(final Node node, final StatementWriter writer,
-            final QNameToStatementDefinition stmtDef, final StatementSourceReference ref) {
-        final URI uri = URI_CACHE.getUnchecked(node.getNamespaceURI());
-        final StatementDefinition def = stmtDef.getByNamespaceAndLocalName(uri, node.getLocalName());
+    private static StatementDefinition getValidDefinition(final String namespace, final String localName,
+            final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final StatementSourceReference ref) {
+        final URI uri = URI_CACHE.getUnchecked(namespace);
+        final StatementDefinition def = stmtDef.getByNamespaceAndLocalName(uri, localName);
 
         if (def == null) {
             SourceException.throwIf(writer.getPhase().equals(ModelProcessingPhase.FULL_DECLARATION), ref,
-                "%s is not a YIN statement or use of extension.", node.getLocalName());
+                "%s is not a YIN statement or use of extension.", localName);
         }
         return def;
     }
 
-    private static void processAttribute(final int childId, final Attr attr, final StatementWriter writer,
+    private void processAttribute(final int childId, final int attr, final StatementWriter writer,
             final QNameToStatementDefinition stmtDef, final StatementSourceReference ref) {
-        final StatementDefinition def = getValidDefinition(attr, writer, stmtDef, ref);
+        final StatementDefinition def = getValidDefinition(elements.attributeNamespace(attr),
+            elements.attributeLocalName(attr), writer, stmtDef, ref);
         if (def == null) {
             return;
         }
 
-        final String value = attr.getValue();
+        final String value = elements.attributeValue(attr);
         writer.startStatement(childId, def.getStatementName(), value.isEmpty() ? null : value, ref);
         writer.endStatement(ref);
     }
 
-    private static String getArgValue(final Element element, final QName argName, final boolean yinElement) {
+    private String getArgValue(final int element, final QName argName, final boolean yinElement) {
         if (yinElement) {
-            final NodeList children = element.getElementsByTagNameNS(argName.getNamespace().toString(),
-                argName.getLocalName());
-            if (children.getLength() == 0) {
-                return null;
+            // First matching descendant, in document order
+            final String namespace = argName.getNamespace().toString();
+            final String localName = argName.getLocalName();
+            for (int i = element + 1, end = elements.end(element); i < end; ++i) {
+                if (localName.equals(elements.localName(i)) && namespace.equals(elements.namespace(i))) {
+                    return elements.textContent(i);
+                }
             }
-            return children.item(0).getTextContent();
-        }
-
-        final Attr attr = element.getAttributeNode(argName.getLocalName());
-        if (attr == null) {
             return null;
         }
 
-        return attr.getValue();
+        // Attribute is looked up by its qualified name
+        for (int i = elements.attributeStart(element), end = elements.attributeEnd(element); i < end; ++i) {
+            if (elements.attributePrefix(i) == null && argName.getLocalName().equals(elements.attributeLocalName(i))) {
+                return elements.attributeValue(i);
+            }
+        }
+        return null;
     }
 
-    private static void processElement(final int childId, final Element element, final StatementWriter writer,
+    private void processElement(final int childId, final int element, final StatementWriter writer,
             final QNameToStatementDefinition stmtDef) {
-        final StatementSourceReference ref = extractRef(element);
-        final StatementDefinition def = getValidDefinition(element, writer, stmtDef, ref);
+        final StatementSourceReference ref = elements.reference(element);
+        final StatementDefinition def = getValidDefinition(elements.namespace(element), elements.localName(element),
+            writer, stmtDef, ref);
         if (def == null) {
-            LOG.debug("Skipping element {}", element);
+            LOG.debug("Skipping element {}", elements.localName(element));
             return;
         }
 
@@ -150,43 +173,30 @@ public final class YinStatementStreamSource implements Identifiable<SourceIdenti
         int childCounter = 0;
 
         // First process any statements defined as attributes. We need to skip argument, if present
-        final NamedNodeMap attributes = element.getAttributes();
-        if (attributes != null) {
-            for (int i = 0, len = attributes.getLength(); i < len; ++i) {
-                final Attr attr = (Attr) attributes.item(i);
-                if (allAttrs || !isArgument(argName, attr)) {
-                    processAttribute(childCounter++, attr, writer, stmtDef, ref);
-                }
+        for (int i = elements.attributeStart(element), end = elements.attributeEnd(element); i < end; ++i) {
+            if (allAttrs || !isArgument(argName, elements.attributeLocalName(i), elements.attributePrefix(i))) {
+                processAttribute(childCounter++, i, writer, stmtDef, ref);
             }
         }
 
         // Now process child elements, if present
-        final NodeList children = element.getChildNodes();
-        for (int i = 0, len = children.getLength(); i < len; ++i) {
-            final Node child = children.item(i);
-            if (child.getNodeType() == Node.ELEMENT_NODE) {
-                if (allElements || !isArgument(argName, child)) {
-                    processElement(childCounter++, (Element) child, writer, stmtDef);
-                }
+        for (int i = element + 1, end = elements.end(element); i < end; i = elements.end(i)) {
+            if (allElements || !isArgument(argName, elements.localName(i), elements.prefix(i))) {
+                processElement(childCounter++, i, writer, stmtDef);
             }
         }
 
         writer.endStatement(ref);
     }
 
-    private static boolean isArgument(final QName argName, final Node node) {
-        return argName != null && argName.getLocalName().equals(node.getLocalName()) && node.getPrefix() == null;
+    private static boolean isArgument(final QName argName, final String localName, final String prefix) {
+        return argName != null && argName.getLocalName().equals(localName) && prefix == null;
     }
 
     private void walkTree(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
-        final NodeList children = root.getChildNodes();
-
         int childCounter = 0;
-        for (int i = 0, len = children.getLength(); i < len; ++i) {
-            final Node child = children.item(i);
-            if (child.getNodeType() == Node.ELEMENT_NODE) {
-                processElement(childCounter++, (Element) child, writer, stmtDef);
-            }
+        for (int i = 0, size = elements.size(); i < size; i = elements.end(i)) {
+            processElement(childCounter++, i, writer, stmtDef);
         }
     }
 
@@ -13,7 +13,6 @@ import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Table;
 import com.google.common.collect.TreeBasedTable;
 import java.util.ArrayList;
@@ -22,6 +21,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -78,6 +78,10 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
     private final Set<SourceSpecificContext> sources = new HashSet<>();
     private Set<SourceSpecificContext> libSources = new HashSet<>();
 
+    // Work list of sources which may be able to progress in the current phase and the sources eligible for it
+    private final Set<SourceSpecificContext> readySources = new LinkedHashSet<>();
+    private Set<SourceSpecificContext> progressingSources = ImmutableSet.of();
+
     private ModelProcessingPhase currentPhase = ModelProcessingPhase.INIT;
     private ModelProcessingPhase finishedPhase = ModelProcessingPhase.INIT;
 
@@ -295,7 +299,7 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         }
     }
 
-    private SomeModifiersUnresolvedException addSourceExceptions(final List<SourceSpecificContext> sourcesToProgress) {
+    private SomeModifiersUnresolvedException addSourceExceptions(final Collection<SourceSpecificContext> sourcesToProgress) {
         boolean addedCause = false;
         SomeModifiersUnresolvedException buildFailure = null;
         for (final SourceSpecificContext failedSource : sourcesToProgress) {
@@ -342,9 +346,22 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         return buildFailure;
     }
 
+    /**
+     * Note that a source may be able to make progress in the current phase. This is invoked whenever an inference
+     * action prerequisite is satisfied or an action has mutated a statement, so that
+     * {@link #completePhaseActions()} only revisits sources which may actually progress.
+     *
+     * @param source Source which may be able to progress
+     */
+    void markReady(final SourceSpecificContext source) {
+        if (progressingSources.contains(source)) {
+            readySources.add(source);
+        }
+    }
+
     private void completePhaseActions() throws ReactorException {
         Preconditions.checkState(currentPhase != null);
-        final List<SourceSpecificContext> sourcesToProgress = Lists.newArrayList(sources);
+        final Set<SourceSpecificContext> sourcesToProgress = new LinkedHashSet<>(sources);
         if (!libSources.isEmpty()) {
             Preconditions.checkState(currentPhase == ModelProcessingPhase.SOURCE_PRE_LINKAGE,
                     "Yang library sources should be empty after ModelProcessingPhase.SOURCE_PRE_LINKAGE, "
@@ -352,33 +369,21 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
             sourcesToProgress.addAll(libSources);
         }
 
-        boolean progressing = true;
-        while (progressing) {
-            // We reset progressing to false.
-            progressing = false;
-            final Iterator<SourceSpecificContext> currentSource = sourcesToProgress.iterator();
-            while (currentSource.hasNext()) {
-                final SourceSpecificContext nextSourceCtx = currentSource.next();
-                try {
-                    final PhaseCompletionProgress sourceProgress = nextSourceCtx.tryToCompletePhase(currentPhase);
-                    switch (sourceProgress) {
-                        case FINISHED:
-                            currentSource.remove();
-                            // Fallback to progress, since we were able to make
-                            // progress in computation
-                        case PROGRESS:
-                            progressing = true;
-                            break;
-                        case NO_PROGRESS:
-                            // Noop
-                            break;
-                        default:
-                            throw new IllegalStateException("Unsupported phase progress " + sourceProgress);
-                    }
-                } catch (final RuntimeException ex) {
-                    throw propagateException(nextSourceCtx, ex);
-                }
+        progressingSources = sourcesToProgress;
+        try {
+            /*
+             * Each round starts with all unfinished sources and then processes only the sources which have been
+             * marked ready. Not every listener notifies us, hence once the work list drains we sweep all unfinished
+             * sources again and stop only when a complete round has made no progress at all.
+             */
+            boolean progressing = true;
+            while (progressing) {
+                readySources.addAll(sourcesToProgress);
+                progressing = processReadySources(sourcesToProgress);
             }
+        } finally {
+            progressingSources = ImmutableSet.of();
+            readySources.clear();
         }
 
         if (!libSources.isEmpty()) {
@@ -400,6 +405,40 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         }
     }
 
+    private boolean processReadySources(final Set<SourceSpecificContext> sourcesToProgress)
+            throws SomeModifiersUnresolvedException {
+        boolean progressing = false;
+        while (!readySources.isEmpty()) {
+            final Iterator<SourceSpecificContext> it = readySources.iterator();
+            final SourceSpecificContext nextSourceCtx = it.next();
+            it.remove();
+
+            try {
+                final PhaseCompletionProgress sourceProgress = nextSourceCtx.tryToCompletePhase(currentPhase);
+                switch (sourceProgress) {
+                    case FINISHED:
+                        sourcesToProgress.remove(nextSourceCtx);
+                        readySources.remove(nextSourceCtx);
+                        progressing = true;
+                        break;
+                    case PROGRESS:
+                        // The source may be able to progress further
+                        readySources.add(nextSourceCtx);
+                        progressing = true;
+                        break;
+                    case NO_PROGRESS:
+                        // Noop, we will get marked ready again once something changes
+                        break;
+                    default:
+                        throw new IllegalStateException("Unsupported phase progress " + sourceProgress);
+                }
+            } catch (final RuntimeException ex) {
+                throw propagateException(nextSourceCtx, ex);
+            }
+        }
+        return progressing;
+    }
+
     private Set<SourceSpecificContext> getRequiredSourcesFromLib() {
         Preconditions.checkState(currentPhase == ModelProcessingPhase.SOURCE_PRE_LINKAGE,
                 "Required library sources can be collected only in ModelProcessingPhase.SOURCE_PRE_LINKAGE phase,"
@@ -40,12 +40,14 @@ class ModifierImpl implements ModelActionBuilder {
     private final Set<AbstractPrerequisite<?>> unsatisfied = new HashSet<>(1);
     private final Set<AbstractPrerequisite<?>> mutations = new HashSet<>(1);
     private final ModelProcessingPhase phase;
+    private final SourceSpecificContext source;
 
     private InferenceAction action;
     private boolean actionApplied = false;
 
-    ModifierImpl(final ModelProcessingPhase phase) {
+    ModifierImpl(final ModelProcessingPhase phase, final SourceSpecificContext source) {
         this.phase = Preconditions.checkNotNull(phase);
+        this.source = Preconditions.checkNotNull(source);
     }
 
     private <D> AbstractPrerequisite<D> addReq(final AbstractPrerequisite<D> prereq) {
@@ -99,6 +101,13 @@ class ModifierImpl implements ModelActionBuilder {
         Preconditions.checkState(!actionApplied);
         action.apply();
         actionApplied = true;
+
+        // Contexts we have mutated may now be able to complete their phase, make sure their sources get a look
+        for (final AbstractPrerequisite<?> mutation : mutations) {
+            if (mutation.isDone() && mutation.value instanceof StatementContextBase) {
+                ((StatementContextBase<?, ?, ?>) mutation.value).getRoot().getSourceContext().markReady();
+            }
+        }
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -271,6 +280,7 @@ class ModifierImpl implements ModelActionBuilder {
         final boolean resolvePrereq(final T value) {
             this.value = value;
             this.done = true;
+            source.markReady();
             return isApplied();
         }
 
@@ -7,7 +7,7 @@
  */
 package org.opendaylight.yangtools.yang.parser.stmt.reactor;
 
-import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,8 +24,17 @@ import org.opendaylight.yangtools.yang.parser.spi.meta.StatementNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.StmtContext;
 
 abstract class NamespaceStorageSupport implements NamespaceStorageNode {
-
-    private Map<Class<?>, Map<?,?>> namespaces = ImmutableMap.of();
+    private static final Object[] EMPTY_NAMESPACES = new Object[0];
+    private static final int MAX_INLINE_NAMESPACES = 8;
+
+    /*
+     * Local namespaces, stored as alternating namespace type and namespace map slots. Most statements have at most a
+     * few local namespaces, hence a linear scan is faster and a lot more compact than a HashMap. The array is sized
+     * exactly and replaced when a namespace is added. Global and source contexts hold many more namespaces, hence once
+     * there are more than MAX_INLINE_NAMESPACES, they are moved to a HashMap.
+     */
+    private Object[] namespaces = EMPTY_NAMESPACES;
+    private Map<Class<?>, Map<?, ?>> namespaceMap;
 
     @Override
     public abstract NamespaceStorageNode getParentNamespaceStorage();
@@ -57,7 +66,7 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
     @SuppressWarnings("unchecked")
     public final <K, V, N extends IdentifierNamespace<K, V>> Map<K, V> getAllFromCurrentStmtCtxNamespace(
             final Class<N> type) {
-        return (Map<K, V>) namespaces.get(type);
+        return (Map<K, V>) localNamespace(type);
     }
 
     public final <K,V, KT extends K, VT extends V,N extends IdentifierNamespace<K, V>> void addToNs(final Class<N> type,
@@ -74,7 +83,7 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
     @SuppressWarnings("unchecked")
     @Override
     public <K, V, N extends IdentifierNamespace<K, V>> V getFromLocalStorage(final Class<N> type, final K key) {
-        final Map<K, V> localNamespace = (Map<K,V>) namespaces.get(type);
+        final Map<K, V> localNamespace = (Map<K,V>) localNamespace(type);
 
         V potential = null;
         if (localNamespace != null) {
@@ -118,7 +127,7 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
     @Override
     public <K, V, N extends IdentifierNamespace<K, V>> Map<K, V> getAllFromLocalStorage(final Class<N> type) {
         @SuppressWarnings("unchecked")
-        final Map<K, V> localNamespace = (Map<K, V>) namespaces.get(type);
+        final Map<K, V> localNamespace = (Map<K, V>) localNamespace(type);
         return localNamespace;
     }
 
@@ -126,18 +135,49 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
     public <K, V, N extends IdentifierNamespace<K, V>> void addToLocalStorage(final Class<N> type, final K key,
             final V value) {
         @SuppressWarnings("unchecked")
-        Map<K, V> localNamespace = (Map<K,V>) namespaces.get(type);
+        Map<K, V> localNamespace = (Map<K,V>) localNamespace(type);
         if (localNamespace == null) {
             checkLocalNamespaceAllowed(type);
             localNamespace = new HashMap<>(1);
-
-            if (namespaces.isEmpty()) {
-                namespaces = new HashMap<>(1);
-            }
-            namespaces.put(type, localNamespace);
+            addLocalNamespace(type, localNamespace);
         }
         localNamespace.put(key,value);
         onNamespaceElementAdded(type,key,value);
     }
 
+    private Map<?, ?> localNamespace(final Class<?> type) {
+        if (namespaceMap != null) {
+            return namespaceMap.get(type);
+        }
+
+        final Object[] local = namespaces;
+        for (int i = 0; i < local.length; i += 2) {
+            if (local[i] == type) {
+                return (Map<?, ?>) local[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private void addLocalNamespace(final Class<?> type, final Map<?, ?> localNamespace) {
+        if (namespaceMap != null) {
+            namespaceMap.put(type, localNamespace);
+            return;
+        }
+
+        final int length = namespaces.length;
+        if (length == MAX_INLINE_NAMESPACES * 2) {
+            namespaceMap = new HashMap<>();
+            for (int i = 0; i < length; i += 2) {
+                namespaceMap.put((Class<?>) namespaces[i], (Map<?, ?>) namespaces[i + 1]);
+            }
+            namespaceMap.put(type, localNamespace);
+            namespaces = EMPTY_NAMESPACES;
+            return;
+        }
+
+        namespaces = Arrays.copyOf(namespaces, length + 2);
+        namespaces[length] = type;
+        namespaces[length + 1] = localNamespace;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.reactor;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase;
+
+/**
+ * Utility methods for maintaining items attached to {@link ModelProcessingPhase}s, such as phase listeners, in a flat
+ * array of alternating phase and item slots. Statement contexts typically have at most a few such items, hence this
+ * layout is much more compact than a multimap. Arrays are never modified once published, so that items may be added
+ * while a phase is being processed.
+ */
+final class PhaseItems {
+    static final Object[] EMPTY = new Object[0];
+
+    private PhaseItems() {
+        throw new UnsupportedOperationException();
+    }
+
+    static Object[] add(final Object[] items, final ModelProcessingPhase phase, final Object item) {
+        final Object[] ret = Arrays.copyOf(items, items.length + 2);
+        ret[items.length] = phase;
+        ret[items.length + 1] = item;
+        return ret;
+    }
+
+    /**
+     * Remove items attached to a phase which match a predicate. If the predicate adds items, they are not reflected in
+     * the returned array, use {@link #merge(Object[], Object[], Object[])} to retain them.
+     *
+     * @param items Current items
+     * @param phase Phase to process
+     * @param predicate Predicate selecting items to remove
+     * @return Remaining items, which is the same array if no items have been removed
+     */
+    static <T> Object[] removeIf(final Object[] items, final ModelProcessingPhase phase,
+            final Predicate<? super T> predicate) {
+        Object[] ret = null;
+        int retSize = 0;
+        for (int i = 0; i < items.length; i += 2) {
+            if (items[i] == phase) {
+                @SuppressWarnings("unchecked")
+                final T item = (T) items[i + 1];
+                if (predicate.test(item)) {
+                    if (ret == null) {
+                        ret = Arrays.copyOf(items, items.length);
+                        retSize = i;
+                    }
+                    continue;
+                }
+            }
+            if (ret != null) {
+                ret[retSize++] = items[i];
+                ret[retSize++] = items[i + 1];
+            }
+        }
+
+        if (ret == null) {
+            return items;
+        }
+        return retSize == 0 ? EMPTY : Arrays.copyOf(ret, retSize);
+    }
+
+    /**
+     * Combine the result of {@link #removeIf(Object[], ModelProcessingPhase, Predicate)} with items which have been
+     * added while it was running.
+     *
+     * @param remaining Items remaining after removal
+     * @param before Items before removal
+     * @param after Items after removal, including any added items
+     * @return Combined items
+     */
+    static Object[] merge(final Object[] remaining, final Object[] before, final Object[] after) {
+        if (after == before) {
+            return remaining;
+        }
+
+        final int added = after.length - before.length;
+        if (remaining.length == 0) {
+            return Arrays.copyOfRange(after, before.length, after.length);
+        }
+        final Object[] ret = Arrays.copyOf(remaining, remaining.length + added);
+        System.arraycopy(after, before.length, ret, remaining.length, added);
+        return ret;
+    }
+
+    static boolean contains(final Object[] items, final ModelProcessingPhase phase) {
+        for (int i = 0; i < items.length; i += 2) {
+            if (items[i] == phase) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
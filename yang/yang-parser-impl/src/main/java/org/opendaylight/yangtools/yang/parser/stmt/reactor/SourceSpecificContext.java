@@ -337,8 +337,16 @@ public class SourceSpecificContext implements NamespaceStorageNode, NamespaceBeh
         return hasProgressed;
     }
 
+    /**
+     * Notify the global context that this source may be able to progress, because one of its prerequisites has been
+     * satisfied or one of its statements has been mutated.
+     */
+    void markReady() {
+        currentContext.markReady(this);
+    }
+
     ModelActionBuilder newInferenceAction(final ModelProcessingPhase phase) {
-        final ModifierImpl action = new ModifierImpl(phase);
+        final ModifierImpl action = new ModifierImpl(phase, this);
         modifiers.put(phase, action);
         return action;
     }
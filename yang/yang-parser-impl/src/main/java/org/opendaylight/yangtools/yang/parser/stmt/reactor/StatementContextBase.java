@@ -13,13 +13,9 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.EventListener;
 import java.util.Iterator;
 import javax.annotation.Nonnull;
@@ -75,8 +71,9 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
     private final StatementSourceReference statementDeclSource;
     private final String rawArgument;
 
-    private Multimap<ModelProcessingPhase, OnPhaseFinished> phaseListeners = ImmutableMultimap.of();
-    private Multimap<ModelProcessingPhase, ContextMutation> phaseMutation = ImmutableMultimap.of();
+    // Alternating phase and item slots, see PhaseItems
+    private Object[] phaseListeners = PhaseItems.EMPTY;
+    private Object[] phaseMutation = PhaseItems.EMPTY;
     private Collection<StatementContextBase<?, ?, ?>> effective = ImmutableList.of();
     private Collection<StatementContextBase<?, ?, ?>> effectOfStatement = ImmutableList.of();
     private StatementMap substatements = StatementMap.empty();
@@ -414,26 +411,8 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
      */
     boolean tryToCompletePhase(final ModelProcessingPhase phase) {
 
-        boolean finished = true;
-        final Collection<ContextMutation> openMutations = phaseMutation.get(phase);
-        if (!openMutations.isEmpty()) {
-            final Iterator<ContextMutation> it = openMutations.iterator();
-            while (it.hasNext()) {
-                final ContextMutation current = it.next();
-                if (current.isFinished()) {
-                    it.remove();
-                } else {
-                    finished = false;
-                }
-            }
-
-            if (openMutations.isEmpty()) {
-                phaseMutation.removeAll(phase);
-                if (phaseMutation.isEmpty()) {
-                    phaseMutation = ImmutableMultimap.of();
-                }
-            }
-        }
+        phaseMutation = PhaseItems.<ContextMutation>removeIf(phaseMutation, phase, ContextMutation::isFinished);
+        boolean finished = !PhaseItems.contains(phaseMutation, phase);
 
         for (final StatementContextBase<?, ?, ?> child : substatements.values()) {
             finished &= child.tryToCompletePhase(phase);
@@ -460,24 +439,12 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
     private void onPhaseCompleted(final ModelProcessingPhase phase) {
         completedPhase = phase;
 
-        final Collection<OnPhaseFinished> listeners = phaseListeners.get(phase);
-        if (listeners.isEmpty()) {
-            return;
-        }
-
-        final Iterator<OnPhaseFinished> listener = listeners.iterator();
-        while (listener.hasNext()) {
-            final OnPhaseFinished next = listener.next();
-            if (next.phaseFinished(this, phase)) {
-                listener.remove();
-            }
-        }
-
-        if (listeners.isEmpty()) {
-            phaseListeners.removeAll(phase);
-            if (phaseListeners.isEmpty()) {
-                phaseListeners = ImmutableMultimap.of();
-            }
+        final Object[] listeners = phaseListeners;
+        if (PhaseItems.contains(listeners, phase)) {
+            // Listeners may register further listeners, which we need to retain
+            final Object[] remaining = PhaseItems.<OnPhaseFinished>removeIf(listeners, phase,
+                listener -> listener.phaseFinished(this, phase));
+            phaseListeners = PhaseItems.merge(remaining, listeners, phaseListeners);
         }
     }
 
@@ -550,10 +517,6 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
         return getRoot().getSourceContext().newInferenceAction(phase);
     }
 
-    private static <T> Multimap<ModelProcessingPhase, T> newMultimap() {
-        return Multimaps.newListMultimap(new EnumMap<>(ModelProcessingPhase.class), () -> new ArrayList<>(1));
-    }
-
     /**
      * adds {@link OnPhaseFinished} listener for a {@link ModelProcessingPhase} end
      *
@@ -574,11 +537,7 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
             }
             finishedPhase = finishedPhase.getPreviousPhase();
         }
-        if (phaseListeners.isEmpty()) {
-            phaseListeners = newMultimap();
-        }
-
-        phaseListeners.put(phase, listener);
+        phaseListeners = PhaseItems.add(phaseListeners, phase, listener);
     }
 
     /**
@@ -597,10 +556,7 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
             finishedPhase = finishedPhase.getPreviousPhase();
         }
 
-        if (phaseMutation.isEmpty()) {
-            phaseMutation = newMultimap();
-        }
-        phaseMutation.put(phase, mutation);
+        phaseMutation = PhaseItems.add(phaseMutation, phase, mutation);
     }
 
     /**
@@ -454,32 +454,55 @@ public final class Utils {
             strings = Collections.singletonList(context.IDENTIFIER());
         }
         for (final TerminalNode stringNode : strings) {
-            final String str = stringNode.getText();
-            final char firstChar = str.charAt(0);
-            final char lastChar = str.charAt(str.length() - 1);
-            if (firstChar == '"' && lastChar == '"') {
-                final String innerStr = str.substring(1, str.length() - 1);
-                /*
-                 * Unescape escaped double quotes, tabs, new line and backslash
-                 * in the inner string and trim the result.
-                 */
-                checkDoubleQuotedString(innerStr, yangVersion, ref);
-                sb.append(innerStr.replace("\\\"", "\"").replace("\\\\", "\\").replace("\\n", "\n")
-                        .replace("\\t", "\t"));
-            } else if (firstChar == '\'' && lastChar == '\'') {
-                /*
-                 * According to RFC6020 a single quote character cannot occur in
-                 * a single-quoted string, even when preceded by a backslash.
-                 */
-                sb.append(str.substring(1, str.length() - 1));
-            } else {
-                checkUnquotedString(str, yangVersion, ref);
-                sb.append(str);
-            }
+            appendArgumentToken(sb, stringNode.getText(), yangVersion, ref);
         }
         return sb.toString();
     }
 
+    /**
+     * Assemble a statement argument from its raw tokens, as captured from the source text. This is equivalent to
+     * {@link #stringFromStringContext(YangStatementParser.ArgumentContext, YangVersion, StatementSourceReference)},
+     * but does not require a parse tree.
+     *
+     * @param tokens Argument tokens, i.e. quoted or unquoted strings which are concatenated with '+'
+     * @param yangVersion YANG version of the source
+     * @param ref Statement source reference
+     * @return Argument string
+     */
+    public static String stringFromArgumentTokens(final String[] tokens, final YangVersion yangVersion,
+            final StatementSourceReference ref) {
+        final StringBuilder sb = new StringBuilder();
+        for (final String token : tokens) {
+            appendArgumentToken(sb, token, yangVersion, ref);
+        }
+        return sb.toString();
+    }
+
+    private static void appendArgumentToken(final StringBuilder sb, final String str, final YangVersion yangVersion,
+            final StatementSourceReference ref) {
+        final char firstChar = str.charAt(0);
+        final char lastChar = str.charAt(str.length() - 1);
+        if (firstChar == '"' && lastChar == '"') {
+            final String innerStr = str.substring(1, str.length() - 1);
+            /*
+             * Unescape escaped double quotes, tabs, new line and backslash
+             * in the inner string and trim the result.
+             */
+            checkDoubleQuotedString(innerStr, yangVersion, ref);
+            sb.append(innerStr.replace("\\\"", "\"").replace("\\\\", "\\").replace("\\n", "\n")
+                    .replace("\\t", "\t"));
+        } else if (firstChar == '\'' && lastChar == '\'') {
+            /*
+             * According to RFC6020 a single quote character cannot occur in
+             * a single-quoted string, even when preceded by a backslash.
+             */
+            sb.append(str.substring(1, str.length() - 1));
+        } else {
+            checkUnquotedString(str, yangVersion, ref);
+            sb.append(str);
+        }
+    }
+
     private static void checkUnquotedString(final String str, final YangVersion yangVersion,
             final StatementSourceReference ref) {
         if (yangVersion == YangVersion.VERSION_1_1) {
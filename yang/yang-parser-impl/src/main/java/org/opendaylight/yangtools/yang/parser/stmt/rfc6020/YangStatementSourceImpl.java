@@ -9,22 +9,24 @@
 package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
 
 import com.google.common.base.Throwables;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
 import org.opendaylight.yangtools.yang.common.YangVersion;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementIR;
 import org.opendaylight.yangtools.yang.parser.impl.YangStatementParserListenerImpl;
 import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
 import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
-import org.opendaylight.yangtools.yang.parser.util.NamedFileInputStream;
 import org.opendaylight.yangtools.yang.parser.util.NamedInputStream;
 
 /**
@@ -36,14 +38,21 @@ import org.opendaylight.yangtools.yang.parser.util.NamedInputStream;
 @Deprecated
 public final class YangStatementSourceImpl implements StatementStreamSource {
     private final YangStatementParserListenerImpl yangStatementModelParser;
-    private final StatementContext statementContext;
+    private final YangStatementIR statements;
     private final String sourceName;
 
+    // Text of the source, used to re-parse it on demand, or the parse tree supplied by the user if there is no text.
+    // The parse tree of the text is only needed for the deprecated getYangAST(), hence we do not keep it around.
+    private final ByteSource text;
+    private final StatementContext statementContext;
+
     public YangStatementSourceImpl(final String fileName, final boolean isAbsolute) {
         try {
-            final NamedFileInputStream is = loadFile(fileName, isAbsolute);
-            sourceName = is.toString();
-            statementContext = YangStatementStreamSource.parseYangSource(is);
+            final File file = loadFile(fileName, isAbsolute);
+            sourceName = fileName;
+            text = Files.asByteSource(file);
+            statementContext = null;
+            statements = YangStatementStreamSource.parseStatements(text, sourceName);
             yangStatementModelParser = new YangStatementParserListenerImpl(sourceName);
         } catch (IOException | URISyntaxException | YangSyntaxErrorException e) {
             throw Throwables.propagate(e);
@@ -53,7 +62,9 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
     public YangStatementSourceImpl(final InputStream inputStream) {
         try {
             sourceName = inputStream instanceof NamedInputStream ? inputStream.toString() : null;
-            statementContext = YangStatementStreamSource.parseYangSource(inputStream);
+            text = ByteSource.wrap(ByteStreams.toByteArray(inputStream));
+            statementContext = null;
+            statements = YangStatementStreamSource.parseStatements(text, sourceName);
             yangStatementModelParser = new YangStatementParserListenerImpl(sourceName);
         } catch (IOException | YangSyntaxErrorException e) {
             throw Throwables.propagate(e);
@@ -61,15 +72,17 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
     }
 
     public YangStatementSourceImpl(final SourceIdentifier identifier, final StatementContext statementContext) {
-        this.statementContext = statementContext;
+        this.statements = YangStatementIR.create(statementContext);
         this.sourceName = identifier.getName();
+        this.text = null;
+        this.statementContext = statementContext;
         yangStatementModelParser = new YangStatementParserListenerImpl(sourceName);
     }
 
     @Override
     public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
         yangStatementModelParser.setAttributes(writer, stmtDef);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, statementContext);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -82,7 +95,7 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
     public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
             final PrefixToModule preLinkagePrefixes, final YangVersion yangVersion) {
         yangStatementModelParser.setAttributes(writer, stmtDef, preLinkagePrefixes, yangVersion);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, statementContext);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -95,7 +108,7 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
     public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
             final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes, final YangVersion yangVersion) {
         yangStatementModelParser.setAttributes(writer, stmtDef, prefixes, yangVersion);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, statementContext);
+        yangStatementModelParser.walk(statements);
     }
 
     @Override
@@ -108,18 +121,32 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
     public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
             final PrefixToModule prefixes, final YangVersion yangVersion) {
         yangStatementModelParser.setAttributes(writer, stmtDef, prefixes, yangVersion);
-        ParseTreeWalker.DEFAULT.walk(yangStatementModelParser, statementContext);
+        yangStatementModelParser.walk(statements);
     }
 
-    private NamedFileInputStream loadFile(final String fileName, final boolean isAbsolute)
-            throws URISyntaxException, IOException {
+    private File loadFile(final String fileName, final boolean isAbsolute) throws URISyntaxException {
         //TODO: we need absolute path first!
-        return isAbsolute ? new NamedFileInputStream(new File(fileName), fileName)
-                : new NamedFileInputStream(new File(getClass().getResource(fileName).toURI()), fileName);
+        return isAbsolute ? new File(fileName) : new File(getClass().getResource(fileName).toURI());
     }
 
+    /**
+     * Return the ANTLR parse tree of this source. The parse tree is not retained, hence this method parses the
+     * source again, unless the parse tree has been supplied to the constructor.
+     *
+     * @return ANTLR parse tree
+     * @throws IllegalStateException if the source cannot be read or parsed
+     * @deprecated Provided for migration purposes only. Do not use.
+     */
+    @Deprecated
     public StatementContext getYangAST() {
-        return statementContext;
+        if (statementContext != null) {
+            return statementContext;
+        }
+        try (final InputStream stream = text.openStream()) {
+            return YangStatementStreamSource.parseYangSource(stream);
+        } catch (IOException | YangSyntaxErrorException e) {
+            throw new IllegalStateException("Failed to re-parse source " + sourceName, e);
+        }
     }
 
     @Override
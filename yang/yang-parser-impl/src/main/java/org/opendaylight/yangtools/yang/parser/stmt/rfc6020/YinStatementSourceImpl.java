@@ -16,10 +16,8 @@ import com.google.common.io.Files;
 import java.io.File;
 import java.io.InputStream;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
-import org.opendaylight.yangtools.yang.model.repo.api.YinDomSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.api.YinTextSchemaSource;
 import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YinStatementStreamSource;
-import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YinTextToDomTransformer;
 import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
 import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
 import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
@@ -35,8 +33,12 @@ import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
 public final class YinStatementSourceImpl extends ForwardingObject implements StatementStreamSource {
     private final StatementStreamSource delegate;
 
-    private YinStatementSourceImpl(final YinDomSchemaSource source) {
-        this.delegate = YinStatementStreamSource.create(source);
+    private YinStatementSourceImpl(final YinTextSchemaSource source) {
+        try {
+            this.delegate = YinStatementStreamSource.create(source);
+        } catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
     }
 
     @Override
@@ -48,19 +50,17 @@ public final class YinStatementSourceImpl extends ForwardingObject implements St
         this(newStreamSource(inputStream));
     }
 
-    private static YinDomSchemaSource newStreamSource(final InputStream inputStream) {
+    private static YinTextSchemaSource newStreamSource(final InputStream inputStream) {
         final SourceIdentifier id = YinTextSchemaSource.identifierFromFilename(inputStream.toString());
 
         try {
-            final YinTextSchemaSource text = YinTextSchemaSource.delegateForByteSource(id,
-                ByteSource.wrap(ByteStreams.toByteArray(inputStream)));
-            return YinTextToDomTransformer.TRANSFORMATION.apply(text).get();
+            return YinTextSchemaSource.delegateForByteSource(id, ByteSource.wrap(ByteStreams.toByteArray(inputStream)));
         } catch (Exception e) {
             throw Throwables.propagate(e);
         }
     }
 
-    private static YinDomSchemaSource newStreamSource(final String fileName, final boolean isAbsolute) {
+    private static YinTextSchemaSource newStreamSource(final String fileName, final boolean isAbsolute) {
         try {
             final File file;
             if (isAbsolute) {
@@ -69,10 +69,8 @@ public final class YinStatementSourceImpl extends ForwardingObject implements St
                 file = new File(YinStatementSourceImpl.class.getResource(fileName).toURI());
             }
 
-            final YinTextSchemaSource text = YinTextSchemaSource.delegateForByteSource(
+            return YinTextSchemaSource.delegateForByteSource(
                 YinTextSchemaSource.identifierFromFilename(file.getName()), Files.asByteSource(file));
-
-            return YinTextToDomTransformer.TRANSFORMATION.apply(text).get();
         } catch (Exception e) {
             throw Throwables.propagate(e);
         }
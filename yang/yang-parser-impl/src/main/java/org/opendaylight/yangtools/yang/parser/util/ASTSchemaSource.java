@@ -12,16 +12,22 @@ import static org.opendaylight.yangtools.yang.model.api.Module.DEFAULT_SEMANTIC_
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SemVerSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementIR;
 import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
 
 /**
  * Abstract Syntax Tree representation of a schema source. This representation
@@ -32,6 +38,10 @@ import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
  * has been successfully parsed, so we know it is syntactically correct. It also
  * passes basic semantic validation and we were able to extract dependency
  * information.
+ *
+ * <p>
+ * Instances created from YANG text retain only the compact {@link YangStatementIR} and the text, as the parse tree
+ * is several times larger than the text. The parse tree is recreated on demand by {@link #getAST()}.
  */
 @Beta
 public final class ASTSchemaSource implements SchemaSourceRepresentation {
@@ -49,15 +59,21 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
 
     private final YangModelDependencyInfo depInfo;
     private final SemVerSourceIdentifier semVerId;
+    private final YangStatementIR statements;
+    // Exactly one of these is non-null: the tree supplied by the user, or the text we parsed
     private final ParserRuleContext tree;
+    private final YangTextSchemaSource text;
     private final SourceIdentifier id;
     private final String symbolicName;
 
     private ASTSchemaSource(@Nonnull final SourceIdentifier id, @Nonnull final SemVerSourceIdentifier semVerId,
-            @Nonnull final ParserRuleContext tree, @Nonnull final YangModelDependencyInfo depInfo,
+            @Nonnull final YangStatementIR statements, @Nullable final ParserRuleContext tree,
+            @Nullable final YangTextSchemaSource text, @Nonnull final YangModelDependencyInfo depInfo,
             @Nullable final String symbolicName) {
         this.depInfo = Preconditions.checkNotNull(depInfo);
-        this.tree = Preconditions.checkNotNull(tree);
+        this.statements = Preconditions.checkNotNull(statements);
+        this.tree = tree;
+        this.text = text;
         this.id = Preconditions.checkNotNull(id);
         this.semVerId = Preconditions.checkNotNull(semVerId);
         this.symbolicName = symbolicName;
@@ -77,7 +93,27 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
         final YangModelDependencyInfo depInfo = YangModelDependencyInfo.fromAST(name, tree);
         final SourceIdentifier id = getSourceId(depInfo);
         final SemVerSourceIdentifier semVerId = getSemVerSourceId(depInfo);
-        return new ASTSchemaSource(id, semVerId, tree, depInfo, null);
+        return new ASTSchemaSource(id, semVerId, YangStatementIR.create((StatementContext) tree), tree, null, depInfo,
+            null);
+    }
+
+    /**
+     * Create a new instance of AST representation for YANG text, performing minimal semantic analysis to acquire
+     * dependency information. The parse tree is not retained.
+     *
+     * @param text YANG text source
+     * @return A new representation instance.
+     * @throws IOException if the text cannot be read
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static ASTSchemaSource create(@Nonnull final YangTextSchemaSource text) throws IOException,
+            YangSyntaxErrorException {
+        final SourceIdentifier identifier = text.getIdentifier();
+        final YangStatementIR statements = YangStatementStreamSource.create(text).getStatements();
+        final YangModelDependencyInfo depInfo = YangModelDependencyInfo.forStatements(statements,
+            identifier.getName());
+        return new ASTSchemaSource(getSourceId(depInfo), getSemVerSourceId(identifier, depInfo), statements, null,
+            text, depInfo, text.getSymbolicName().orElse(null));
     }
 
     private static SourceIdentifier getSourceId(final YangModelDependencyInfo depInfo) {
@@ -156,16 +192,14 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
             @Nullable final String symbolicName, @Nonnull final ParserRuleContext tree)
                     throws YangSyntaxErrorException {
         final YangModelDependencyInfo depInfo = YangModelDependencyInfo.fromAST(identifier.getName(), tree);
-        final SourceIdentifier id = getSourceId(depInfo);
-
-        final SemVerSourceIdentifier semVerId;
-        if (identifier instanceof SemVerSourceIdentifier && !depInfo.getSemanticVersion().isPresent()) {
-            semVerId = (SemVerSourceIdentifier) identifier;
-        } else {
-            semVerId = getSemVerSourceId(depInfo);
-        }
+        return new ASTSchemaSource(getSourceId(depInfo), getSemVerSourceId(identifier, depInfo),
+            YangStatementIR.create((StatementContext) tree), tree, null, depInfo, symbolicName);
+    }
 
-        return new ASTSchemaSource(id, semVerId, tree, depInfo, symbolicName);
+    private static SemVerSourceIdentifier getSemVerSourceId(final SourceIdentifier identifier,
+            final YangModelDependencyInfo depInfo) {
+        return identifier instanceof SemVerSourceIdentifier && !depInfo.getSemanticVersion().isPresent()
+                ? (SemVerSourceIdentifier) identifier : getSemVerSourceId(depInfo);
     }
 
 
@@ -190,12 +224,30 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
     }
 
     /**
-     * Return the underlying abstract syntax tree.
+     * Return the underlying abstract syntax tree. If this instance has been created from YANG text, the tree is not
+     * retained and this method parses the text again.
      *
      * @return Underlying AST.
+     * @throws IllegalStateException if the parse tree needs to be recreated and the text cannot be read or parsed
      */
     @Nonnull public ParserRuleContext getAST() {
-        return tree;
+        if (tree != null) {
+            return tree;
+        }
+        try (final InputStream stream = text.openStream()) {
+            return YangStatementStreamSource.parseYangSource(stream);
+        } catch (IOException | YangSyntaxErrorException e) {
+            throw new IllegalStateException("Failed to re-parse source " + text, e);
+        }
+    }
+
+    /**
+     * Return the statements of this source.
+     *
+     * @return Parsed statements.
+     */
+    @Nonnull public YangStatementIR getStatements() {
+        return statements;
     }
 
     /**
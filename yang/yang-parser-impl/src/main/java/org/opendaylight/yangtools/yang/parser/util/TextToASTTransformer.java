@@ -12,16 +12,13 @@ import com.google.common.annotations.Beta;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import java.io.IOException;
-import java.util.Optional;
 import javax.annotation.Nonnull;
-import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 import org.opendaylight.yangtools.yang.model.repo.util.SchemaSourceTransformer;
-import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,18 +37,11 @@ public final class TextToASTTransformer extends SchemaSourceTransformer<YangText
         @Override
         public CheckedFuture<ASTSchemaSource, SchemaSourceException> apply(@Nonnull final YangTextSchemaSource input)
                 throws IOException, YangSyntaxErrorException {
-            final YangStatementStreamSource src = YangStatementStreamSource.create(input);
-
-            final ParserRuleContext ctx = src.getYangAST();
+            final ASTSchemaSource result = ASTSchemaSource.create(input);
             LOG.debug("Model {} parsed successfully", input);
 
             //:TODO missing validation (YangModelBasicValidationListener should be re-implemented to new parser)
 
-            final Optional<String> opt = input.getSymbolicName();
-            final ASTSchemaSource result = opt.isPresent()
-                    ? ASTSchemaSource.create(opt.get(), input.getIdentifier(), ctx)
-                            : ASTSchemaSource.create(input.getIdentifier(), ctx);
-
             return Futures.immediateCheckedFuture(result);
         }
     }
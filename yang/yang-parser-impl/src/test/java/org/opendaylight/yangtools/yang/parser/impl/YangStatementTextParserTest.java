@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+
+public class YangStatementTextParserTest {
+
+    @Test
+    public void testStatementStructure() throws YangSyntaxErrorException {
+        final YangStatementIR ir = parse("module foo {\n"
+                + "    namespace foo;\n"
+                + "    container bar {\n"
+                + "        presence;\n"
+                + "    }\n"
+                + "    leaf baz { type string; }\n"
+                + "}\n");
+
+        assertEquals(6, ir.size());
+        assertStatement(ir, 0, "module", 1, 0, 6, "foo");
+        assertStatement(ir, 1, "namespace", 2, 4, 2, "foo");
+        assertStatement(ir, 2, "container", 3, 4, 4, "bar");
+        assertStatement(ir, 3, "presence", 4, 8, 4);
+        assertStatement(ir, 4, "leaf", 6, 4, 6, "baz");
+        assertStatement(ir, 5, "type", 6, 15, 6, "string");
+
+        // Keywords and identifiers are interned
+        assertSame(ir.argument(0)[0], ir.argument(1)[0]);
+    }
+
+    @Test
+    public void testRootPositionIncludesSeparators() throws YangSyntaxErrorException {
+        final YangStatementIR ir = parse("\n\n  module foo;");
+        assertEquals(1, ir.line(0));
+        assertEquals(0, ir.column(0));
+    }
+
+    @Test
+    public void testQuotedAndConcatenatedStrings() throws YangSyntaxErrorException {
+        final YangStatementIR ir = parse("module foo {\n"
+                + "    description \"a \\\"quoted\\\" string\";\n"
+                + "    reference 'single' + \"double\"\n"
+                + "        + un*quoted;\n"
+                + "    pattern '[a-z]+';\n"
+                + "}");
+
+        assertEquals(4, ir.size());
+        assertArrayEquals(new String[] { "\"a \\\"quoted\\\" string\"" }, ir.argument(1));
+        assertArrayEquals(new String[] { "'single'", "\"double\"", "un*quoted" }, ir.argument(2));
+        assertArrayEquals(new String[] { "'[a-z]+'" }, ir.argument(3));
+    }
+
+    @Test
+    public void testSingleQuotedBackslashes() throws YangSyntaxErrorException {
+        final YangStatementIR ir = parse("module foo {\n"
+                + "    pattern '[a-z\\\\]';\n"
+                + "    description 'C:\\';\n"
+                + "    reference 'a\\' + \"b\";\n"
+                + "}");
+
+        assertEquals(4, ir.size());
+        assertArrayEquals(new String[] { "'[a-z\\\\]'" }, ir.argument(1));
+        assertArrayEquals(new String[] { "'C:\\'" }, ir.argument(2));
+        assertArrayEquals(new String[] { "'a\\'", "\"b\"" }, ir.argument(3));
+    }
+
+    @Test
+    public void testComments() throws YangSyntaxErrorException {
+        final YangStatementIR ir = parse("// leading comment\n"
+                + "module foo { /* block\n"
+                + " comment */ prefix f; // trailing\n"
+                + "    contact \"http://example.com\";\n"
+                + "}");
+
+        assertEquals(3, ir.size());
+        assertStatement(ir, 1, "prefix", 3, 12, 2, "f");
+        assertArrayEquals(new String[] { "\"http://example.com\"" }, ir.argument(2));
+    }
+
+    @Test
+    public void testSyntaxErrors() {
+        assertSyntaxError("module foo {\n    leaf bar;\n", 3, 0);
+        assertSyntaxError("module foo {\n    leaf bar\n}", 3, 0);
+        assertSyntaxError("module foo {\n    \"leaf\" bar;\n}", 2, 4);
+        assertSyntaxError("module foo {\n    leaf bar { type \"string; }\n}", 2, 20);
+        // Identifiers cannot be concatenated
+        assertSyntaxError("module foo {\n    reference 'a' + b;\n}", 2, 20);
+    }
+
+    @Test
+    public void testDirectBuffer() throws YangSyntaxErrorException {
+        final String text = "module foo { prefix f; }";
+        final CharBuffer buffer = ByteBuffer.allocateDirect(text.length() * 2).asCharBuffer();
+        buffer.put(text).flip();
+
+        final YangStatementIR ir = YangStatementTextParser.parse(buffer, "foo");
+        assertEquals(2, ir.size());
+        assertStatement(ir, 1, "prefix", 1, 13, 2, "f");
+    }
+
+    @Test
+    public void testHeaderOnly() throws YangSyntaxErrorException {
+        final YangStatementIR ir = YangStatementTextParser.parseHeader(CharBuffer.wrap(("module foo {\n"
+                + "    prefix f;\n"
+                + "    container baz {\n"
+                + "        leaf qux { type string; }\n"
+                + "    }\n"
+                + "    import bar { prefix b; }\n"
+                + "    oc:version 1.0.0;\n"
+                + "    leaf-list xyzzy { type int8; }\n"
+                + "    revision 2016-01-01;\n"
+                + "}\n").toCharArray()), "foo");
+
+        assertEquals(6, ir.size());
+        assertStatement(ir, 0, "module", 1, 0, 6, "foo");
+        assertStatement(ir, 1, "prefix", 2, 4, 2, "f");
+        assertStatement(ir, 2, "import", 6, 4, 4, "bar");
+        assertStatement(ir, 3, "prefix", 6, 17, 4, "b");
+        assertStatement(ir, 4, "oc:version", 7, 4, 5, "1.0.0");
+        assertStatement(ir, 5, "revision", 9, 4, 6, "2016-01-01");
+
+        // Skipped statements are still checked for syntax
+        try {
+            YangStatementTextParser.parseHeader(CharBuffer.wrap("module foo {\n    leaf bar { type \"string; }\n}"),
+                "foo");
+            fail("Expected syntax error");
+        } catch (YangSyntaxErrorException e) {
+            assertEquals("foo", e.getModule());
+            assertEquals(2, e.getLine());
+        }
+    }
+
+    private static YangStatementIR parse(final String text) throws YangSyntaxErrorException {
+        return YangStatementTextParser.parse(CharBuffer.wrap(text.toCharArray()), "test");
+    }
+
+    private static void assertStatement(final YangStatementIR ir, final int index, final String keyword,
+            final int line, final int column, final int end, final String... argument) {
+        assertEquals(keyword, ir.keyword(index));
+        assertEquals(line, ir.line(index));
+        assertEquals(column, ir.column(index));
+        assertEquals(end, ir.end(index));
+        if (argument.length == 0) {
+            assertNull(ir.argument(index));
+        } else {
+            assertArrayEquals(argument, ir.argument(index));
+        }
+    }
+
+    private static void assertSyntaxError(final String text, final int line, final int column) {
+        try {
+            parse(text);
+            fail("Expected syntax error in " + text);
+        } catch (YangSyntaxErrorException e) {
+            assertEquals("foo", e.getModule());
+            assertEquals(line, e.getLine());
+            assertEquals(column, e.getCharPositionInLine());
+        }
+    }
+}
@@ -13,8 +13,16 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteSource;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import org.junit.Test;
+import org.opendaylight.yangtools.concepts.SemVer;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 
 public class YangModelDependencyInfoTest {
 
@@ -70,4 +78,38 @@ public class YangModelDependencyInfoTest {
 
         assertNotEquals("hashcode", 31, info.hashCode());
     }
+
+    @Test
+    public void testHeaderScan() throws Exception {
+        // Linkage and extension statements are picked up even when they follow body statements
+        final String text = "submodule foo {\n"
+                + "    belongs-to bar { prefix b; }\n"
+                + "    container foo { leaf bar { type string; } }\n"
+                + "    import baz { prefix z; revision-date 2015-01-01; sv:semantic-version 1.2.3; }\n"
+                + "    revision 2016-01-01;\n"
+                + "    revision 2016-02-01;\n"
+                + "    include qux;\n"
+                + "    revision 2015-12-01;\n"
+                + "}\n";
+
+        final YangModelDependencyInfo info = YangModelDependencyInfo.forYangText(
+            YangTextSchemaSource.delegateForByteSource("foo.yang",
+                ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(info instanceof YangModelDependencyInfo.SubmoduleDependencyInfo);
+        assertEquals("foo", info.getName());
+        assertEquals("2016-02-01", info.getFormattedRevision());
+        assertEquals("bar", ((YangModelDependencyInfo.SubmoduleDependencyInfo) info).getParentModule());
+
+        final ImmutableSet<ModuleImport> deps = info.getDependencies();
+        assertEquals(2, deps.size());
+        for (ModuleImport dep : deps) {
+            if ("baz".equals(dep.getModuleName())) {
+                assertEquals(QName.parseRevision("2015-01-01"), dep.getRevision());
+                assertEquals(SemVer.create(1, 2, 3), dep.getSemanticVersion());
+            } else {
+                assertEquals("qux", dep.getModuleName());
+                assertNull(dep.getRevision());
+            }
+        }
+    }
 }
@@ -7,16 +7,32 @@
  */
 package org.opendaylight.yangtools.yang.parser.repo;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
@@ -62,6 +78,111 @@ public class SharedSchemaContextFactoryTest {
         assertNotNull(schemaContext.checkedGet());
     }
 
+    @Test
+    public void testCreateSchemaContextWithSourceExecutor() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final SharedSchemaRepository parallelRepository = new SharedSchemaRepository("parallel", executor, 2);
+            final TextToASTTransformer transformer = TextToASTTransformer.create(parallelRepository,
+                parallelRepository);
+            parallelRepository.registerSchemaSourceListener(transformer);
+
+            final YangTextSchemaSource source1 = YangTextSchemaSource.forResource(
+                "/ietf/ietf-inet-types@2010-09-24.yang");
+            final YangTextSchemaSource source2 = YangTextSchemaSource.forResource(
+                "/ietf/iana-timezones@2012-07-09.yang");
+            parallelRepository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(source1),
+                PotentialSchemaSource.create(s1, YangTextSchemaSource.class, 1));
+            parallelRepository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(source2),
+                PotentialSchemaSource.create(s2, YangTextSchemaSource.class, 1));
+
+            final SharedSchemaContextFactory sharedSchemaContextFactory =
+                    new SharedSchemaContextFactory(parallelRepository, filter);
+            final SchemaContext schemaContext = sharedSchemaContextFactory.createSchemaContext(
+                Arrays.asList(s1, s2, s1)).checkedGet();
+            assertNotNull(schemaContext);
+            assertEquals(2, schemaContext.getModules().size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCreateSchemaContextWithDirectSourceExecutor() throws Exception {
+        final SharedSchemaRepository directRepository = new SharedSchemaRepository("direct",
+            MoreExecutors.directExecutor(), 1);
+        final SharedSchemaContextFactory sharedSchemaContextFactory =
+                new SharedSchemaContextFactory(directRepository, filter);
+
+        // Sources which fail immediately are requested without growing the stack
+        final List<SourceIdentifier> missing = new ArrayList<>();
+        for (int i = 0; i < 100000; ++i) {
+            missing.add(RevisionSourceIdentifier.create("missing" + i));
+        }
+        try {
+            sharedSchemaContextFactory.createSchemaContext(missing).checkedGet();
+            fail("Schema context should not have been created");
+        } catch (SchemaResolutionException e) {
+            assertTrue(Iterables.any(Throwables.getCausalChain(e), MissingSchemaSourceException.class::isInstance));
+        }
+    }
+
+    @Test
+    public void testCreateSchemaContextWithRejectingSourceExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        final SharedSchemaRepository parallelRepository = new SharedSchemaRepository("rejecting", executor, 2);
+        final SharedSchemaContextFactory sharedSchemaContextFactory =
+                new SharedSchemaContextFactory(parallelRepository, filter);
+        try {
+            sharedSchemaContextFactory.createSchemaContext(Arrays.asList(s1, s2)).checkedGet();
+            fail("Schema context should not have been created");
+        } catch (SchemaResolutionException e) {
+            assertTrue(Iterables.any(Throwables.getCausalChain(e), RejectedExecutionException.class::isInstance));
+        }
+    }
+
+    @Test
+    public void testCreateSchemaContextsSharingModules() throws Exception {
+        final SharedSchemaContextFactory sharedSchemaContextFactory = new SharedSchemaContextFactory(repository, filter);
+        final SchemaContext first = sharedSchemaContextFactory.createSchemaContext(Arrays.asList(s1, s2))
+                .checkedGet();
+        final SchemaContext second = sharedSchemaContextFactory.createSchemaContext(Collections.singleton(s1))
+                .checkedGet();
+        assertNotSame(first, second);
+        assertEquals(1, second.getModules().size());
+
+        // ietf-inet-types does not depend on iana-timezones, hence both contexts share the same module
+        assertSame(first.findModuleByName("ietf-inet-types", null),
+            second.findModuleByName("ietf-inet-types", null));
+    }
+
+    @Test
+    public void testCreateSchemaContextsDerivingIdentities() throws Exception {
+        final YangTextSchemaSource base = YangTextSchemaSource.forResource("/shared-identities/identity-base.yang");
+        final YangTextSchemaSource derived = YangTextSchemaSource.forResource(
+            "/shared-identities/identity-derived.yang");
+        repository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(base),
+            PotentialSchemaSource.create(base.getIdentifier(), YangTextSchemaSource.class, 1));
+        repository.registerSchemaSource(sourceIdentifier -> Futures.immediateCheckedFuture(derived),
+            PotentialSchemaSource.create(derived.getIdentifier(), YangTextSchemaSource.class, 1));
+
+        final SharedSchemaContextFactory sharedSchemaContextFactory = new SharedSchemaContextFactory(repository, filter);
+        final SchemaContext first = sharedSchemaContextFactory.createSchemaContext(
+            Collections.singleton(base.getIdentifier())).checkedGet();
+        final SchemaContext second = sharedSchemaContextFactory.createSchemaContext(
+            Arrays.asList(base.getIdentifier(), derived.getIdentifier())).checkedGet();
+
+        // The second context derives an identity from identity-base, hence it cannot share the module
+        final Module firstBase = first.findModuleByName("identity-base", null);
+        final Module secondBase = second.findModuleByName("identity-base", null);
+        assertNotSame(firstBase, secondBase);
+        assertEquals(0, Iterables.getOnlyElement(firstBase.getIdentities()).getDerivedIdentities().size());
+        assertEquals("derived-identity", Iterables.getOnlyElement(Iterables.getOnlyElement(
+            secondBase.getIdentities()).getDerivedIdentities()).getQName().getLocalName());
+    }
+
     @Test
     public void testSourceRegisteredWithDifferentSI() throws Exception {
         final YangTextSchemaSource source1 = YangTextSchemaSource.forResource("/ietf/ietf-inet-types@2010-09-24.yang");
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc6020.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.io.Files;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.xml.UntrustedXML;
+import org.w3c.dom.Document;
+
+public class YinStatementIRTest {
+
+    @Test
+    public void testStreamedMatchesDom() throws Exception {
+        final File dir = new File(getClass().getResource("/semantic-statement-parser/yin/modules").toURI());
+        final File[] files = dir.listFiles((d, name) -> name.endsWith(".yin"));
+        assertTrue(files.length > 0);
+
+        for (File file : files) {
+            // Same as YinTextToDomTransformer
+            final Document doc = UntrustedXML.newDocumentBuilder().newDocument();
+            try (InputStream stream = Files.asByteSource(file).openStream()) {
+                UntrustedXML.newSAXParser().parse(stream, new StatementSourceReferenceHandler(doc, null));
+            }
+            final YinStatementIR fromDom = YinStatementIR.create(doc);
+
+            final YinStatementIR streamed;
+            try (InputStream stream = Files.asByteSource(file).openStream()) {
+                streamed = YinStatementIR.create(stream);
+            }
+
+            assertSameElements(file.getName(), fromDom, streamed);
+        }
+    }
+
+    @Test
+    public void testStructure() throws Exception {
+        final YinStatementIR ir = create("<module xmlns=\"urn:ietf:params:xml:ns:yang:yin:1\" name=\"foo\">\n"
+                + "  <!-- comment -->\n"
+                + "  <description>\n"
+                + "    <text>Some <![CDATA[<text>]]> &amp; more</text>\n"
+                + "  </description>\n"
+                + "  <leaf name=\"bar\" z=\"1\" a=\"2\"/>\n"
+                + "</module>");
+
+        assertEquals(4, ir.size());
+        assertEquals("module", ir.localName(0));
+        assertEquals("urn:ietf:params:xml:ns:yang:yin:1", ir.namespace(0));
+        assertNull(ir.prefix(0));
+        assertEquals(4, ir.end(0));
+        assertEquals(1, ir.attributeEnd(0) - ir.attributeStart(0));
+        assertEquals("foo", ir.attributeValue(ir.attributeStart(0)));
+
+        assertEquals("description", ir.localName(1));
+        assertEquals(3, ir.end(1));
+        assertEquals("Some <text> & more", ir.textContent(1));
+        assertEquals("Some <text> & more", ir.textContent(2));
+
+        // Attributes are ordered by name
+        assertEquals("leaf", ir.localName(3));
+        final int attrs = ir.attributeStart(3);
+        assertEquals(3, ir.attributeEnd(3) - attrs);
+        assertEquals("a", ir.attributeLocalName(attrs));
+        assertEquals("bar", ir.attributeValue(attrs + 1));
+        assertEquals("z", ir.attributeLocalName(attrs + 2));
+
+        assertTrue(ir.reference(3).toString().startsWith("null:6:"));
+    }
+
+    private static YinStatementIR create(final String text) throws Exception {
+        try (InputStream stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))) {
+            return YinStatementIR.create(stream);
+        }
+    }
+
+    private static void assertSameElements(final String name, final YinStatementIR expected,
+            final YinStatementIR actual) {
+        assertEquals(name, expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(name, expected.namespace(i), actual.namespace(i));
+            assertEquals(name, expected.localName(i), actual.localName(i));
+            assertEquals(name, expected.prefix(i), actual.prefix(i));
+            assertEquals(name, expected.end(i), actual.end(i));
+            assertEquals(name, expected.textContent(i), actual.textContent(i));
+            assertEquals(name, expected.reference(i).toString(), actual.reference(i).toString());
+
+            assertEquals(name, expected.attributeStart(i), actual.attributeStart(i));
+            assertEquals(name, expected.attributeEnd(i), actual.attributeEnd(i));
+        }
+        for (int i = 0; i < expected.attributeEnd(expected.size() - 1); ++i) {
+            assertEquals(name, expected.attributeNamespace(i), actual.attributeNamespace(i));
+            assertEquals(name, expected.attributeLocalName(i), actual.attributeLocalName(i));
+            assertEquals(name, expected.attributePrefix(i), actual.attributePrefix(i));
+            assertEquals(name, expected.attributeValue(i), actual.attributeValue(i));
+        }
+    }
+}
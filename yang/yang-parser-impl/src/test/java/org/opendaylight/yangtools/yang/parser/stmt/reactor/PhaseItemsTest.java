@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.reactor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase.EFFECTIVE_MODEL;
+import static org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase.FULL_DECLARATION;
+
+import org.junit.Test;
+
+public class PhaseItemsTest {
+
+    @Test
+    public void testAddAndRemove() {
+        Object[] items = PhaseItems.add(PhaseItems.EMPTY, FULL_DECLARATION, "a");
+        items = PhaseItems.add(items, EFFECTIVE_MODEL, "b");
+        items = PhaseItems.add(items, FULL_DECLARATION, "c");
+        assertTrue(PhaseItems.contains(items, FULL_DECLARATION));
+
+        // Nothing matches, the same array is returned
+        assertSame(items, PhaseItems.<String>removeIf(items, FULL_DECLARATION, "b"::equals));
+
+        final Object[] remaining = PhaseItems.<String>removeIf(items, FULL_DECLARATION, "a"::equals);
+        assertArrayEquals(new Object[] { EFFECTIVE_MODEL, "b", FULL_DECLARATION, "c" }, remaining);
+
+        final Object[] none = PhaseItems.<String>removeIf(remaining, FULL_DECLARATION, item -> true);
+        assertArrayEquals(new Object[] { EFFECTIVE_MODEL, "b" }, none);
+        assertFalse(PhaseItems.contains(none, FULL_DECLARATION));
+
+        assertSame(PhaseItems.EMPTY, PhaseItems.<String>removeIf(none, EFFECTIVE_MODEL, item -> true));
+    }
+
+    @Test
+    public void testMergeAdded() {
+        final Object[] before = PhaseItems.add(PhaseItems.EMPTY, FULL_DECLARATION, "a");
+        final Object[] after = PhaseItems.add(before, EFFECTIVE_MODEL, "b");
+
+        assertArrayEquals(new Object[] { EFFECTIVE_MODEL, "b" }, PhaseItems.merge(PhaseItems.EMPTY, before, after));
+        final Object[] kept = PhaseItems.merge(before, before, after);
+        assertArrayEquals(new Object[] { FULL_DECLARATION, "a", EFFECTIVE_MODEL, "b" }, kept);
+        assertSame(before, PhaseItems.merge(before, after, after));
+    }
+}